@@ -0,0 +1,7 @@
+-- Index de la pagination par curseur des journaux de connexion et de l'historique des sessions.
+-- audit_log est déjà servi par idx_audit_created_at (InnoDB y ajoute la clé primaire).
+-- À exécuter explicitement : ni Hibernate ni Flyway ne modifient le schéma du serveur.
+
+CREATE INDEX idx_connexion_created_at ON connexion_log (created_at);
+
+CREATE INDEX idx_session_login_time ON session_history (login_time);
@@ -0,0 +1,15 @@
+-- Comptes de rendez-vous pré-agrégés par jour, étude, état et tranche horaire,
+-- servant les tendances et séries temporelles (RdvRollupServiceImpl).
+-- À exécuter explicitement : ni Hibernate ni Flyway ne modifient le schéma du serveur.
+-- La table est remplie au premier passage du rattrapage (environ une minute après
+-- le démarrage) puis reconstruite chaque nuit.
+
+CREATE TABLE rdv_rollup (
+    JOUR DATE NOT NULL,
+    ID_ETUDE INT NOT NULL,
+    ETAT VARCHAR(255) NOT NULL,
+    TRANCHE_HEURE VARCHAR(2) NOT NULL,
+    NOMBRE INT NOT NULL,
+    PRIMARY KEY (JOUR, ID_ETUDE, ETAT, TRANCHE_HEURE),
+    KEY idx_rdv_rollup_etude_jour (ID_ETUDE, JOUR)
+) ENGINE=InnoDB;
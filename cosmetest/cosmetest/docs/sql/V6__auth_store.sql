@@ -0,0 +1,23 @@
+-- Révocations de jetons et sessions actives partagées entre plusieurs instances
+-- (auth.store=jdbc : JdbcTokenRevocationStore, JdbcActiveSessionStore).
+-- À exécuter explicitement avant de passer AUTH_STORE=jdbc : ni Hibernate ni
+-- Flyway ne modifient le schéma du serveur. Inutile avec auth.store=local.
+-- Les jetons ne sont pas stockés : CLE est l'empreinte SHA-256 en Base64 URL.
+-- Les lignes de jetons expirés sont supprimées par la purge périodique.
+
+CREATE TABLE token_revoque (
+    CLE CHAR(43) NOT NULL,
+    EXPIRATION DATETIME(3) NOT NULL,
+    REVOQUE_LE DATETIME(3) NOT NULL,
+    PRIMARY KEY (CLE),
+    KEY idx_token_revoque_revoque_le (REVOQUE_LE),
+    KEY idx_token_revoque_expiration (EXPIRATION)
+) ENGINE=InnoDB;
+
+CREATE TABLE session_active (
+    LOGIN VARCHAR(255) NOT NULL,
+    CONNEXION DATETIME(3) NOT NULL,
+    DERNIERE_ACTION DATETIME(3) NOT NULL,
+    PRIMARY KEY (LOGIN),
+    KEY idx_session_active_derniere_action (DERNIERE_ACTION)
+) ENGINE=InnoDB;
@@ -0,0 +1,6 @@
+-- Action EXPORT de l'audit (exports en flux, /api/v1/exports).
+-- Une colonne créée par Hibernate à partir de l'énumération est de type ENUM et refuserait
+-- la nouvelle valeur ; sans effet si elle est déjà en VARCHAR.
+-- À exécuter explicitement : ni Hibernate ni Flyway ne modifient le schéma du serveur.
+
+ALTER TABLE audit_log MODIFY action VARCHAR(255) NOT NULL;
@@ -0,0 +1,6 @@
+-- Heure de déconnexion des sessions actives partagées (auth.store=jdbc, JdbcActiveSessionStore).
+-- Une session fermée garde sa ligne jusqu'à la purge des sessions expirées : une activité
+-- antérieure, encore en attente d'écriture sur une autre instance, ne la recrée plus.
+-- À exécuter explicitement après V6 : ni Hibernate ni Flyway ne modifient le schéma du serveur.
+
+ALTER TABLE session_active ADD COLUMN FERMETURE DATETIME(3) NULL;
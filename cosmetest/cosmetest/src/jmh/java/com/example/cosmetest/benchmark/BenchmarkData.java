@@ -0,0 +1,123 @@
+package com.example.cosmetest.benchmark;
+
+import com.example.cosmetest.business.dto.CalendrierDTO;
+import com.example.cosmetest.domain.model.Volontaire;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Jeux de données des benchmarks. La graine est fixe : deux exécutions
+ * mesurent exactement les mêmes lignes, ce qui rend les résultats comparables.
+ * Les valeurs reprennent les variantes réellement présentes en base (casse,
+ * accents, anciens codes) pour exercer les chemins de normalisation.
+ */
+public final class BenchmarkData {
+
+    public static final long GRAINE = 42L;
+
+    /** « Aujourd'hui » des jeux de données datés, fixe pour la même raison que la graine. */
+    public static final LocalDate AUJOURDHUI = LocalDate.of(2026, 7, 15);
+
+    private static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia"};
+    private static final String[] PRENOMS = {"Camille", "Léa", "Manon", "Chloé", "Inès", "Jade", "Louise",
+            "Lucas", "Hugo", "Gabriel", "Émilie", "Sophie", "Nathalie", "Isabelle", "Hélène"};
+    private static final String[] VILLES = {"Lyon", "Villeurbanne", "Vénissieux", "Bron", "Caluire-et-Cuire",
+            "Saint-Priest", "Écully", "Oullins"};
+    static final String[] SEXES = {"F", "Femme", "FEMININ", "féminin", "M", "Homme", "masculin", "", null};
+    static final String[] PHOTOTYPES = {"I", "II", "III", "IV", "V", "VI", "2", "Phototype 3", "iv", null};
+    static final String[] TYPES_PEAU = {"Normale", "SECHE", "sèche", "Grasse", "Mixte", "mixte à tendance grasse",
+            "Sensible", null};
+    private static final String[] ETATS_RDV = {"CONFIRME", "EN_ATTENTE", "ANNULE", "COMPLETE", "PLANIFIE", null};
+
+    private BenchmarkData() {
+    }
+
+    public static Random random() {
+        return new Random(GRAINE);
+    }
+
+    public static List<Volontaire> volontaires(int nombre) {
+        Random random = random();
+        List<Volontaire> volontaires = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            Volontaire v = new Volontaire();
+            v.setIdVol(i + 1);
+            v.setNomVol(choisir(random, NOMS));
+            v.setPrenomVol(choisir(random, PRENOMS));
+            v.setEmailVol("volontaire" + i + "@exemple.fr");
+            v.setTelPortableVol(String.format("06%08d", random.nextInt(100_000_000)));
+            v.setSexe(choisir(random, SEXES));
+            v.setPhototype(choisir(random, PHOTOTYPES));
+            v.setTypePeauVisage(choisir(random, TYPES_PEAU));
+            v.setEthnie(random.nextBoolean() ? "CAUCASIEN" : "AFRICAIN");
+            v.setVilleVol(choisir(random, VILLES));
+            v.setArchive(random.nextInt(10) == 0);
+            v.setDateNaissance(Date.valueOf(LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000))));
+            v.setDateI(Date.valueOf(LocalDate.of(2015, 1, 1).plusDays(random.nextInt(3_500))));
+            volontaires.add(v);
+        }
+        return volontaires;
+    }
+
+    /**
+     * Rendez-vous de calendrier répartis sur {@code jours} jours autour
+     * de {@link #AUJOURDHUI}, sur {@code etudes} études, entre 8h et 18h.
+     */
+    public static List<CalendrierDTO.RendezVousEnrichiDTO> rdvsCalendrier(int nombre, int jours, int etudes) {
+        Random random = random();
+        LocalDate debut = AUJOURDHUI.minusDays(jours / 2);
+        List<CalendrierDTO.RendezVousEnrichiDTO> rdvs = new ArrayList<>(nombre);
+        for (int i = 0; i < nombre; i++) {
+            CalendrierDTO.RendezVousEnrichiDTO rdv = new CalendrierDTO.RendezVousEnrichiDTO();
+            rdv.setIdEtude(1 + random.nextInt(etudes));
+            LocalDate date = random.nextInt(50) == 0 ? null : debut.plusDays(random.nextInt(jours));
+            rdv.setDate(date);
+            rdv.setHeure(random.nextInt(40) == 0 ? null
+                    : String.format("%02d:%02d", 8 + random.nextInt(10), 15 * random.nextInt(4)));
+            rdv.setEtat(choisir(random, ETATS_RDV));
+            rdvs.add(rdv);
+        }
+        return rdvs;
+    }
+
+    public static List<CalendrierDTO.EtudeCalendrierDTO> etudesCalendrier(int nombre) {
+        List<CalendrierDTO.EtudeCalendrierDTO> etudes = new ArrayList<>(nombre);
+        for (int i = 1; i <= nombre; i++) {
+            CalendrierDTO.EtudeCalendrierDTO etude = new CalendrierDTO.EtudeCalendrierDTO();
+            etude.setId(i);
+            etude.setRef(String.format("ETU-%04d", i));
+            etudes.add(etude);
+        }
+        return etudes;
+    }
+
+    public static String[] echantillon(String[] valeurs, int taille) {
+        Random random = random();
+        String[] echantillon = new String[taille];
+        for (int i = 0; i < taille; i++) {
+            echantillon[i] = choisir(random, valeurs);
+        }
+        return echantillon;
+    }
+
+    public static String[] sexes(int taille) {
+        return echantillon(SEXES, taille);
+    }
+
+    public static String[] phototypes(int taille) {
+        return echantillon(PHOTOTYPES, taille);
+    }
+
+    public static String[] typesPeau(int taille) {
+        return echantillon(TYPES_PEAU, taille);
+    }
+
+    private static String choisir(Random random, String[] valeurs) {
+        return valeurs[random.nextInt(valeurs.length)];
+    }
+}
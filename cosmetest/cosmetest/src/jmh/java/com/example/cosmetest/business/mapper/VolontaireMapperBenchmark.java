@@ -0,0 +1,49 @@
+package com.example.cosmetest.business.mapper;
+
+import com.example.cosmetest.benchmark.BenchmarkData;
+import com.example.cosmetest.business.dto.VolontaireDTO;
+import com.example.cosmetest.domain.model.Volontaire;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion entité → DTO des listes de volontaires (pages de liste et export).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VolontaireMapperBenchmark {
+
+    @Param({"50", "1000"})
+    int taille;
+
+    private final VolontaireMapper mapper = new VolontaireMapper();
+    private List<Volontaire> volontaires;
+
+    @Setup
+    public void preparer() {
+        volontaires = BenchmarkData.volontaires(taille);
+    }
+
+    @Benchmark
+    public List<VolontaireDTO> toDTOList() {
+        return mapper.toDTOList(volontaires);
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (Volontaire volontaire : volontaires) {
+            blackhole.consume(mapper.toDTO(volontaire));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.cosmetest.business.mapper;
+
+import com.example.cosmetest.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Normalisation des valeurs saisies (sexe, phototype, type de peau), appelée
+ * pour chaque volontaire lu ou filtré. Mesurée par lot de 1 000 valeurs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VolontaireNormalizerBenchmark {
+
+    private static final int TAILLE = 1_000;
+
+    private String[] sexes;
+    private String[] phototypes;
+    private String[] typesPeau;
+
+    @Setup
+    public void preparer() {
+        sexes = BenchmarkData.sexes(TAILLE);
+        phototypes = BenchmarkData.phototypes(TAILLE);
+        typesPeau = BenchmarkData.typesPeau(TAILLE);
+    }
+
+    @Benchmark
+    public void normalizeSexe(Blackhole blackhole) {
+        for (String valeur : sexes) {
+            blackhole.consume(VolontaireNormalizer.normalizeSexe(valeur));
+        }
+    }
+
+    @Benchmark
+    public void normalizePhototype(Blackhole blackhole) {
+        for (String valeur : phototypes) {
+            blackhole.consume(VolontaireNormalizer.normalizePhototype(valeur));
+        }
+    }
+
+    @Benchmark
+    public void normalizeTypePeauVisage(Blackhole blackhole) {
+        for (String valeur : typesPeau) {
+            blackhole.consume(VolontaireNormalizer.normalizeTypePeauVisage(valeur));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.benchmark.BenchmarkData;
+import com.example.cosmetest.business.dto.CalendrierDTO;
+import com.example.cosmetest.business.service.OccupationCreneaux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrégations du calendrier faites en mémoire après le chargement : statistiques,
+ * regroupement par statut temporel et recherche de créneaux libres.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CalendrierAggregationBenchmark {
+
+    /** Un mois et un trimestre de rendez-vous. */
+    @Param({"500", "5000"})
+    int nombreRdv;
+
+    private List<CalendrierDTO.RendezVousEnrichiDTO> rdvs;
+    private List<CalendrierDTO.EtudeCalendrierDTO> etudes;
+    private OccupationCreneaux occupation;
+    private LocalDate jour;
+
+    @Setup
+    public void preparer() {
+        int jours = nombreRdv < 1_000 ? 31 : 92;
+        rdvs = BenchmarkData.rdvsCalendrier(nombreRdv, jours, 40);
+        etudes = BenchmarkData.etudesCalendrier(40);
+        for (CalendrierDTO.RendezVousEnrichiDTO rdv : rdvs) {
+            rdv.setStatutTemporel(CalendrierServiceImpl.calculerStatutTemporel(
+                    rdv.getDate() != null ? Date.valueOf(rdv.getDate()) : null, BenchmarkData.AUJOURDHUI));
+        }
+
+        LocalDate debut = BenchmarkData.AUJOURDHUI;
+        occupation = new OccupationCreneaux(debut, debut.plusDays(jours), LocalTime.of(8, 0), LocalTime.of(18, 0), 15, 4);
+        Random random = BenchmarkData.random();
+        for (int i = 0; i < nombreRdv; i++) {
+            occupation.occuper(debut.plusDays(random.nextInt(jours)),
+                    LocalTime.of(8 + random.nextInt(9), 15 * random.nextInt(4)), 15 * (1 + random.nextInt(4)));
+        }
+        jour = debut.plusDays(jours / 2);
+    }
+
+    @Benchmark
+    public CalendrierDTO.StatistiquesCalendrierDTO calculerStatistiques() {
+        return CalendrierServiceImpl.calculerStatistiques(rdvs, etudes);
+    }
+
+    @Benchmark
+    public Map<String, List<CalendrierDTO.RendezVousEnrichiDTO>> organiserParStatutTemporel() {
+        return CalendrierServiceImpl.organiserRdvsParStatutTemporel(rdvs);
+    }
+
+    @Benchmark
+    public List<LocalTime> creneauxLibresDuJour() {
+        return occupation.creneauxLibres(jour, 60);
+    }
+
+    @Benchmark
+    public List<OccupationCreneaux.Creneau> premiersCreneauxLibres() {
+        return occupation.premiersCreneauxLibres(20, 90);
+    }
+}
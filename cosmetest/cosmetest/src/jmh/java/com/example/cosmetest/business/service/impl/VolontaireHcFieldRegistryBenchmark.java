@@ -0,0 +1,67 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.benchmark.BenchmarkData;
+import com.example.cosmetest.domain.model.VolontaireHc;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture dynamique des habitudes cosmétiques par nom de champ, utilisée par
+ * la recherche par produit sur 500 volontaires.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VolontaireHcFieldRegistryBenchmark {
+
+    private static final int TAILLE = 500;
+
+    private List<VolontaireHc> habitudes;
+    private String[] produits;
+
+    @Setup
+    public void preparer() {
+        Random random = BenchmarkData.random();
+        produits = VolontaireHcFieldRegistry.names().toArray(String[]::new);
+        habitudes = new ArrayList<>(TAILLE);
+        for (int i = 0; i < TAILLE; i++) {
+            VolontaireHc hc = new VolontaireHc(i + 1);
+            for (String produit : produits) {
+                VolontaireHcFieldRegistry.require(produit).set(hc, random.nextInt(3) == 0 ? "oui" : "non");
+            }
+            habitudes.add(hc);
+        }
+    }
+
+    @Benchmark
+    public int filtrerParProduit() {
+        VolontaireHcFieldRegistry.FieldAccess acces = VolontaireHcFieldRegistry.require("cremeDepilatoire");
+        int trouves = 0;
+        for (VolontaireHc hc : habitudes) {
+            if ("oui".equals(acces.get(hc))) {
+                trouves++;
+            }
+        }
+        return trouves;
+    }
+
+    @Benchmark
+    public void lireTousLesChamps(Blackhole blackhole) {
+        for (VolontaireHc hc : habitudes) {
+            for (String produit : produits) {
+                blackhole.consume(VolontaireHcFieldRegistry.require(produit).get(hc));
+            }
+        }
+    }
+}
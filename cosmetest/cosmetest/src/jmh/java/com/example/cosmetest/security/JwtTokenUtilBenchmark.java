@@ -0,0 +1,41 @@
+package com.example.cosmetest.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature et vérification des jetons, faites à chaque requête authentifiée.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenUtilBenchmark {
+
+    private static final String SECRET = "cle-de-benchmark-uniquement-longue-de-plus-de-256-bits-0123456789";
+
+    private JwtTokenUtil jwtTokenUtil;
+    private String token;
+
+    @Setup
+    public void preparer() {
+        jwtTokenUtil = new JwtTokenUtil(SECRET, 3_600L);
+        token = jwtTokenUtil.generateToken("technicien.labo", "2");
+    }
+
+    @Benchmark
+    public ParsedJwt parse() {
+        return jwtTokenUtil.parse(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtTokenUtil.generateToken("technicien.labo", "2");
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.cosmetest.utils;
+
+import com.example.cosmetest.benchmark.BenchmarkData;
+import com.example.cosmetest.business.dto.VolontaireDTO;
+import com.example.cosmetest.business.mapper.VolontaireMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion par réflexion d'un DTO en map pour le front, sur une page de 100.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReflectionUtilsBenchmark {
+
+    private List<VolontaireDTO> volontaires;
+
+    @Setup
+    public void preparer() {
+        volontaires = new VolontaireMapper().toDTOList(BenchmarkData.volontaires(100));
+    }
+
+    @Benchmark
+    public void convertDtoToFrontendMap(Blackhole blackhole) {
+        for (VolontaireDTO volontaire : volontaires) {
+            blackhole.consume(ReflectionUtils.convertDtoToFrontendMap(volontaire));
+        }
+    }
+}
@@ -2,12 +2,14 @@ package com.example.cosmetest;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @EnableJpaRepositories(basePackages = "com.example.cosmetest.data.repository")
 @EnableScheduling
+@EnableCaching
 @SpringBootApplication
 public class CosmetestApplication {
     public static void main(String[] args) {
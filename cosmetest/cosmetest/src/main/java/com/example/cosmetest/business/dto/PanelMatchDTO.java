@@ -0,0 +1,97 @@
+package com.example.cosmetest.business.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Volontaire éligible pour un panel, avec le détail de la correspondance
+ * critère par critère.
+ *
+ * Chaque critère renseigné du panel vaut 1 (respecté), 0 (non respecté) ou
+ * 0,5 (information absente de la fiche du volontaire). Le score global est la
+ * moyenne de ces valeurs.
+ */
+public class PanelMatchDTO {
+
+    private Integer idVol;
+    private String nomVol;
+    private String prenomVol;
+    private String sexe;
+    private double score;
+    private int criteresRespectes;
+    private int criteresNonRespectes;
+    private int criteresInconnus;
+    private Map<String, Double> scoresParCritere = new LinkedHashMap<>();
+
+    public Integer getIdVol() {
+        return idVol;
+    }
+
+    public void setIdVol(Integer idVol) {
+        this.idVol = idVol;
+    }
+
+    public String getNomVol() {
+        return nomVol;
+    }
+
+    public void setNomVol(String nomVol) {
+        this.nomVol = nomVol;
+    }
+
+    public String getPrenomVol() {
+        return prenomVol;
+    }
+
+    public void setPrenomVol(String prenomVol) {
+        this.prenomVol = prenomVol;
+    }
+
+    public String getSexe() {
+        return sexe;
+    }
+
+    public void setSexe(String sexe) {
+        this.sexe = sexe;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public int getCriteresRespectes() {
+        return criteresRespectes;
+    }
+
+    public void setCriteresRespectes(int criteresRespectes) {
+        this.criteresRespectes = criteresRespectes;
+    }
+
+    public int getCriteresNonRespectes() {
+        return criteresNonRespectes;
+    }
+
+    public void setCriteresNonRespectes(int criteresNonRespectes) {
+        this.criteresNonRespectes = criteresNonRespectes;
+    }
+
+    public int getCriteresInconnus() {
+        return criteresInconnus;
+    }
+
+    public void setCriteresInconnus(int criteresInconnus) {
+        this.criteresInconnus = criteresInconnus;
+    }
+
+    public Map<String, Double> getScoresParCritere() {
+        return scoresParCritere;
+    }
+
+    public void setScoresParCritere(Map<String, Double> scoresParCritere) {
+        this.scoresParCritere = scoresParCritere;
+    }
+}
@@ -70,5 +70,15 @@ public class PaymentBatchResultDTO {
     public void setErrors(List<String> errors) {
         this.errors = errors;
     }
-}
 
+    /** Résumé consolidé, utilisé tel quel dans le journal d'audit. */
+    @Override
+    public String toString() {
+        return "etude=" + idEtude
+                + ", traites=" + processedCount
+                + ", payes=" + updatedCount
+                + ", dejaPayes=" + alreadyPaidCount
+                + ", annulesIgnores=" + skippedAnnules
+                + ", erreurs=" + errorCount;
+    }
+}
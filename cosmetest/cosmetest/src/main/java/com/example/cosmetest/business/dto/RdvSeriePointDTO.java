@@ -0,0 +1,14 @@
+package com.example.cosmetest.business.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Point d'une série temporelle de rendez-vous.
+ *
+ * @param periode libellé de la période : {@code 2026-03-02}, {@code 2026-W10} ou {@code 2026-03}
+ * @param debut   premier jour de la période
+ * @param groupe  valeur du regroupement (état, étude, tranche horaire), null sans regroupement
+ * @param nombre  nombre de rendez-vous
+ */
+public record RdvSeriePointDTO(String periode, LocalDate debut, String groupe, long nombre) {
+}
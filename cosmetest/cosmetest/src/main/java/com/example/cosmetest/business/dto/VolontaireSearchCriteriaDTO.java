@@ -0,0 +1,19 @@
+package com.example.cosmetest.business.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Critères de la recherche multicritère de volontaires ; un critère null ou
+ * vide est ignoré. Les archivés ne sont inclus que sur demande.
+ */
+public record VolontaireSearchCriteriaDTO(
+        String sexe,
+        Integer ageMin,
+        Integer ageMax,
+        String ethnie,
+        String phototype,
+        String typePeau,
+        LocalDate dateInscriptionDebut,
+        LocalDate dateInscriptionFin,
+        boolean includeArchived) {
+}
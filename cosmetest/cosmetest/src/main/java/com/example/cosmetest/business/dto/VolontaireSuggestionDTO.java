@@ -0,0 +1,10 @@
+package com.example.cosmetest.business.dto;
+
+/** Résultat de l'autocomplétion volontaire, servi directement depuis l'index de recherche. */
+public record VolontaireSuggestionDTO(
+        Integer id,
+        String nom,
+        String prenom,
+        String email,
+        boolean archive) {
+}
@@ -0,0 +1,8 @@
+package com.example.cosmetest.business.event;
+
+/**
+ * Publié après chaque écriture d'étude (création, modification, archivage,
+ * statut de paiement).
+ */
+public record EtudeChangedEvent(Integer idEtude) {
+}
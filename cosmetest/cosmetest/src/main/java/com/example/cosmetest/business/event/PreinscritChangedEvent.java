@@ -0,0 +1,8 @@
+package com.example.cosmetest.business.event;
+
+/**
+ * Publié après chaque écriture de préinscription (création, modification,
+ * suppression).
+ */
+public record PreinscritChangedEvent(Integer idPreinscrit) {
+}
@@ -0,0 +1,42 @@
+package com.example.cosmetest.business.event;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publié après chaque écriture de rendez-vous (création, modification,
+ * annulation, suppression).
+ *
+ * Les jours concernés permettent aux abonnés de ne recalculer que ce qui a
+ * bougé. Un ensemble vide signifie que les jours ne sont pas connus : les
+ * abonnés doivent alors tout invalider.
+ */
+public record RdvChangedEvent(Integer idEtude, Set<LocalDate> dates) {
+
+    public RdvChangedEvent {
+        dates = dates == null ? Set.of() : Set.copyOf(dates);
+    }
+
+    public static RdvChangedEvent forDates(Integer idEtude, Collection<java.sql.Date> dates) {
+        return new RdvChangedEvent(idEtude, dates.stream()
+                .filter(Objects::nonNull)
+                .map(java.sql.Date::toLocalDate)
+                .collect(Collectors.toSet()));
+    }
+
+    public static RdvChangedEvent forDates(Integer idEtude, java.sql.Date... dates) {
+        return forDates(idEtude, Arrays.asList(dates));
+    }
+
+    public static RdvChangedEvent unknownDates(Integer idEtude) {
+        return new RdvChangedEvent(idEtude, Set.of());
+    }
+
+    public boolean datesConnues() {
+        return !dates.isEmpty();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.cosmetest.business.event;
+
+/**
+ * Publié après chaque écriture d'un volontaire ou de ses habitudes
+ * cosmétiques (création, modification, archivage, suppression).
+ *
+ * Un identifiant null signifie que les volontaires concernés ne sont pas
+ * connus : les abonnés doivent alors tout recharger.
+ */
+public record VolontaireChangedEvent(Integer idVol) {
+
+    public static VolontaireChangedEvent of(Integer idVol) {
+        return new VolontaireChangedEvent(idVol);
+    }
+
+    public static VolontaireChangedEvent unknown() {
+        return new VolontaireChangedEvent(null);
+    }
+
+    public boolean volontaireConnu() {
+        return idVol != null;
+    }
+}
@@ -5,7 +5,10 @@ import com.example.cosmetest.business.dto.VolontaireDetailDTO;
 import com.example.cosmetest.domain.model.Volontaire;
 import org.springframework.stereotype.Component;
 
+import jakarta.persistence.Tuple;
+
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -536,6 +539,53 @@ public class VolontaireMapper {
         return volontaire;
     }
 
+    /**
+     * Convertit une ligne projetée par la recherche par critères en VolontaireDTO
+     * (mêmes champs et mêmes normalisations que {@link #toDTO(Volontaire)})
+     *
+     * @param row tuple dont les alias sont ceux de VolontaireSearchRepository.SUMMARY_COLUMNS
+     * @return le DTO correspondant
+     */
+    public VolontaireDTO toSummaryDTO(Tuple row) {
+        if (row == null) {
+            return null;
+        }
+
+        VolontaireDTO dto = new VolontaireDTO();
+        dto.setIdVol(row.get("idVol", Integer.class));
+        dto.setTitreVol(row.get("titreVol", String.class));
+        dto.setNomVol(row.get("nomVol", String.class));
+        dto.setPrenomVol(row.get("prenomVol", String.class));
+        dto.setAdresseVol(row.get("adresseVol", String.class));
+        dto.setCpVol(row.get("cpVol", String.class));
+        dto.setVilleVol(row.get("villeVol", String.class));
+        dto.setTelDomicileVol(row.get("telDomicileVol", String.class));
+        dto.setTelPortableVol(row.get("telPortableVol", String.class));
+        dto.setEmailVol(row.get("emailVol", String.class));
+        dto.setSexe(VolontaireNormalizer.normalizeSexe(row.get("sexe", String.class)));
+        dto.setDateNaissance(toLocalDate(row.get("dateNaissance", Date.class)));
+        dto.setArchive(row.get("archive", Boolean.class));
+        dto.setStandby(row.get("standby", Boolean.class));
+        dto.setDateFinStandby(row.get("dateFinStandby", String.class));
+        dto.setCommentairesVol(row.get("commentairesVol", String.class));
+        dto.setEthnie(row.get("ethnie", String.class));
+        dto.setSousEthnie(row.get("sousEthnie", String.class));
+        dto.setPhototype(VolontaireNormalizer.normalizePhototype(row.get("phototype", String.class)));
+        dto.setTypePeauVisage(VolontaireNormalizer.normalizeTypePeauVisage(row.get("typePeauVisage", String.class)));
+        dto.setPoids(row.get("poids", Integer.class));
+        dto.setTaille(row.get("taille", Integer.class));
+        dto.setDateI(toLocalDate(row.get("dateI", Date.class)));
+        dto.setDateModif(toLocalDate(row.get("dateModif", Date.class)));
+        dto.setSanteCompatible(row.get("santeCompatible", String.class));
+        dto.setObservations(row.get("observations", String.class));
+
+        return dto;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+
     /**
      * Convertit une liste d'entités Volontaire en liste de VolontaireDTO
      *
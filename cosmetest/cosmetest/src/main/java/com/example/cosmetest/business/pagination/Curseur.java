@@ -0,0 +1,48 @@
+package com.example.cosmetest.business.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste triée par {@code (date, id)} décroissants : la
+ * page suivante commence strictement après cette clé. Le couple est unique,
+ * donc aucune ligne n'est sautée ni répétée quand des lignes sont ajoutées
+ * entre deux pages.
+ *
+ * Transmis au client sous forme de jeton opaque ({@link #jeton()}).
+ */
+public record Curseur(LocalDateTime cle, long id) {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATEUR = '|';
+
+    public Curseur {
+        if (cle == null) {
+            throw new IllegalArgumentException("La clé du curseur est obligatoire");
+        }
+    }
+
+    public String jeton() {
+        String brut = VERSION + SEPARATEUR + cle + SEPARATEUR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le jeton n'a pas été produit par {@link #jeton()}
+     */
+    public static Curseur depuis(String jeton) {
+        try {
+            String brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+            String[] parties = brut.split("\\" + SEPARATEUR, -1);
+            if (parties.length != 3 || !VERSION.equals(parties[0])) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            return new Curseur(LocalDateTime.parse(parties[1]), Long.parseLong(parties[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // NumberFormatException est une IllegalArgumentException
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+}
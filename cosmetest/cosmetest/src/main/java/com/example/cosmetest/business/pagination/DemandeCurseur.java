@@ -0,0 +1,37 @@
+package com.example.cosmetest.business.pagination;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Demande d'une page par curseur.
+ *
+ * @param apres  dernière ligne de la page précédente ; {@code null} pour la première page
+ * @param taille nombre de lignes par page
+ * @param total  calculer un total approximatif (voir {@link PageCurseur})
+ */
+public record DemandeCurseur(Curseur apres, int taille, boolean total) {
+
+    public DemandeCurseur {
+        if (taille <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être strictement positive");
+        }
+    }
+
+    public LocalDateTime apresCle() {
+        return apres != null ? apres.cle() : null;
+    }
+
+    public Long apresId() {
+        return apres != null ? apres.id() : null;
+    }
+
+    /**
+     * Une ligne de plus que la page : sa présence indique qu'il existe une page suivante.
+     */
+    public Pageable limite() {
+        return PageRequest.of(0, taille + 1);
+    }
+}
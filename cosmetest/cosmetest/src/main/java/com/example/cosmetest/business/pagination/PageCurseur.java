@@ -0,0 +1,43 @@
+package com.example.cosmetest.business.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Page obtenue par curseur, sans {@code COUNT(*)}.
+ *
+ * Le total, facultatif, est approximatif : la base compte les lignes
+ * correspondant aux filtres dans une sous-requête limitée à
+ * {@link #PLAFOND_TOTAL} + 1 ({@code SELECT COUNT(*) FROM (… LIMIT n)}), sans
+ * rien renvoyer d'autre qu'un nombre. Au-delà, {@code totalPlafonne} est vrai et le total vaut le plafond
+ * (« plus de 10 000 »).
+ *
+ * @param suivant curseur de la page suivante ; {@code null} sur la dernière page
+ */
+public record PageCurseur<T>(List<T> contenu, Curseur suivant, Long totalApproximatif, boolean totalPlafonne) {
+
+    public static final int PLAFOND_TOTAL = 10_000;
+
+    /**
+     * @param lignes lignes lues avec {@link DemandeCurseur#limite()}
+     * @param cle    clé {@code (date, id)} d'une ligne
+     * @param compte nombre de lignes correspondant aux filtres, compté jusqu'au
+     *               plafond reçu ; appelé seulement si la demande veut un total
+     */
+    public static <T> PageCurseur<T> de(List<T> lignes, DemandeCurseur demande, Function<T, Curseur> cle,
+                                        IntToLongFunction compte) {
+        boolean suite = lignes.size() > demande.taille();
+        List<T> contenu = suite ? List.copyOf(lignes.subList(0, demande.taille())) : List.copyOf(lignes);
+        Curseur suivant = suite ? cle.apply(contenu.get(contenu.size() - 1)) : null;
+
+        Long total = null;
+        boolean plafonne = false;
+        if (demande.total()) {
+            long lignesComptees = compte.applyAsLong(PLAFOND_TOTAL + 1);
+            plafonne = lignesComptees > PLAFOND_TOTAL;
+            total = Math.min(lignesComptees, PLAFOND_TOTAL);
+        }
+        return new PageCurseur<>(contenu, suivant, total, plafonne);
+    }
+}
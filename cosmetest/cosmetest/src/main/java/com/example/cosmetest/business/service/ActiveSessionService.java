@@ -11,10 +11,10 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * Tracks users currently active (in-memory, reset on restart).
+ * Tracks users currently active, in the {@link ActiveSessionStore} selected by {@code auth.store}
+ * (node memory, reset on restart, or a table shared by all instances).
  * A session is considered "active" if the user made a request within the last ACTIVE_TTL_SECONDS.
  * loginTime = time of explicit login (or first seen heartbeat if session survived a restart).
  * lastActivity = time of last authenticated request.
@@ -27,96 +27,71 @@ public class ActiveSessionService {
     /** A session inactive for more than this is considered expired and hidden */
     private static final long ACTIVE_TTL_SECONDS = 10 * 60; // 10 minutes
 
-    private static class SessionInfo {
-        final Instant loginTime;
-        volatile Instant lastUserAction; // real user actions only — used for idle display and eviction
-
-        SessionInfo(Instant loginTime) {
-            this.loginTime = loginTime;
-            this.lastUserAction = loginTime;
-        }
-    }
-
-    private final ConcurrentHashMap<String, SessionInfo> sessions = new ConcurrentHashMap<>();
     private final SessionHistoryRepository sessionHistoryRepository;
+    private final ActiveSessionStore store;
 
-    public ActiveSessionService(SessionHistoryRepository sessionHistoryRepository) {
+    public ActiveSessionService(SessionHistoryRepository sessionHistoryRepository, ActiveSessionStore store) {
         this.sessionHistoryRepository = sessionHistoryRepository;
+        this.store = store;
     }
 
     /** Called on explicit login — resets loginTime */
     public void register(String login) {
-        sessions.put(login, new SessionInfo(Instant.now()));
+        store.ouvrir(login, Instant.now());
     }
 
     /** Called on real user requests — updates lastUserAction */
     public void heartbeat(String login) {
-        sessions.compute(login, (k, existing) -> {
-            if (existing == null) return new SessionInfo(Instant.now());
-            existing.lastUserAction = Instant.now();
-            return existing;
-        });
+        store.activite(login, Instant.now(), true);
     }
 
-    /** Called on background/monitoring requests — session stays alive in memory but idle is not reset */
+    /** Called on background/monitoring requests — session stays alive but idle is not reset */
     public void backgroundHeartbeat(String login) {
-        sessions.computeIfAbsent(login, k -> new SessionInfo(Instant.now()));
+        store.activite(login, Instant.now(), false);
     }
 
     /** Called on logout — persists the session history record */
     public void unregister(String login) {
-        SessionInfo info = sessions.remove(login);
-        if (info != null) {
-            try {
-                sessionHistoryRepository.save(
-                    new SessionHistory(login, info.loginTime, Instant.now(), "LOGOUT")
-                );
-            } catch (Exception ex) {
-                logger.error("Échec de persistance du logout: {}", ex.getMessage());
-            }
-        }
+        store.fermer(login).ifPresent(session -> persist(session, "LOGOUT"));
     }
 
     /** Runs every minute — persists and removes sessions inactive for more than ACTIVE_TTL_SECONDS */
     @Scheduled(fixedDelay = 60_000)
     public void evictTimedOutSessions() {
-        Instant cutoff = Instant.now().minusSeconds(ACTIVE_TTL_SECONDS);
-        sessions.forEach((login, info) -> {
-            if (info.lastUserAction.isBefore(cutoff)) {
-                if (sessions.remove(login, info)) { // atomic: only removes if value still matches
-                    try {
-                        sessionHistoryRepository.save(
-                            new SessionHistory(login, info.loginTime, Instant.now(), "TIMEOUT")
-                        );
-                    } catch (Exception ex) {
-                        logger.error("Échec de persistance du timeout: {}", ex.getMessage());
-                    }
-                }
-            }
-        });
+        // The store removes each session once, even with several instances running this job
+        store.expirer(Instant.now().minusSeconds(ACTIVE_TTL_SECONDS))
+                .forEach(session -> persist(session, "TIMEOUT"));
     }
 
     /** Returns sessions active within the last ACTIVE_TTL_SECONDS, sorted by loginTime */
     public List<Map<String, Object>> getActiveSessions() {
-        Instant cutoff = Instant.now().minusSeconds(ACTIVE_TTL_SECONDS);
+        Instant now = Instant.now();
         List<Map<String, Object>> result = new ArrayList<>();
-        sessions.forEach((login, info) -> {
-            if (info.lastUserAction.isBefore(cutoff)) return; // skip expired (scheduler will evict)
-            long durationSeconds = Instant.now().getEpochSecond() - info.loginTime.getEpochSecond();
-            long idleSeconds = Instant.now().getEpochSecond() - info.lastUserAction.getEpochSecond();
+        // Stale sessions are skipped, not evicted: eviction is left to the scheduler
+        for (ActiveSessionStore.Session session : store.actives(now.minusSeconds(ACTIVE_TTL_SECONDS))) {
+            long durationSeconds = now.getEpochSecond() - session.loginTime().getEpochSecond();
+            long idleSeconds = now.getEpochSecond() - session.lastUserAction().getEpochSecond();
             result.add(Map.of(
-                "login", login,
-                "connectedSince", info.loginTime.toString(),
-                "durationSeconds", durationSeconds,
-                "idleSeconds", idleSeconds
+                "login", session.login(),
+                "connectedSince", session.loginTime().toString(),
+                "durationSeconds", Math.max(0, durationSeconds),
+                "idleSeconds", Math.max(0, idleSeconds)
             ));
-        });
-        result.sort((a, b) -> ((String) a.get("connectedSince")).compareTo((String) b.get("connectedSince")));
+        }
         return result;
     }
 
     public int countActive() {
-        Instant cutoff = Instant.now().minusSeconds(ACTIVE_TTL_SECONDS);
-        return (int) sessions.values().stream().filter(s -> !s.lastUserAction.isBefore(cutoff)).count();
+        return store.actives(Instant.now().minusSeconds(ACTIVE_TTL_SECONDS)).size();
+    }
+
+    private void persist(ActiveSessionStore.Session session, String reason) {
+        try {
+            sessionHistoryRepository.save(
+                new SessionHistory(session.login(), session.loginTime(), Instant.now(), reason)
+            );
+        } catch (Exception ex) {
+            logger.error("Échec de persistance de la session ({}): {}", reason, ex.getMessage());
+        }
     }
 }
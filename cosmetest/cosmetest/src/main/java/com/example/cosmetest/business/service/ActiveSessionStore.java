@@ -0,0 +1,39 @@
+package com.example.cosmetest.business.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Sessions actives tenues par {@link ActiveSessionService}, une par login.
+ *
+ * Implémentation choisie par {@code auth.store} : {@code local} (mémoire du
+ * nœud) ou {@code jdbc} (table partagée, la liste couvre alors toutes les
+ * instances). Retrait et expiration sont atomiques entre les nœuds : une
+ * session fermée n'est rendue qu'à un seul appelant, qui en écrit l'historique.
+ */
+public interface ActiveSessionStore {
+
+    record Session(String login, Instant loginTime, Instant lastUserAction) {
+    }
+
+    /** Connexion explicite : la session repart de {@code maintenant}. */
+    void ouvrir(String login, Instant maintenant);
+
+    /**
+     * Requête authentifiée ; crée la session si elle n'existe pas.
+     *
+     * @param actionUtilisateur false pour une requête de fond, qui ne remet pas
+     *                          à zéro l'inactivité d'une session existante
+     */
+    void activite(String login, Instant maintenant, boolean actionUtilisateur);
+
+    /** Retire la session ; vide si elle n'existait pas ou a déjà été retirée. */
+    Optional<Session> fermer(String login);
+
+    /** Retire et rend les sessions sans action utilisateur depuis {@code limite}. */
+    List<Session> expirer(Instant limite);
+
+    /** Sessions avec une action utilisateur depuis {@code limite}, triées par connexion. */
+    List<Session> actives(Instant limite);
+}
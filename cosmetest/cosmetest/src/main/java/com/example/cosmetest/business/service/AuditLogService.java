@@ -1,17 +1,26 @@
 package com.example.cosmetest.business.service;
 
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.domain.model.AuditLog;
 import org.springframework.data.domain.Page;
 
 import java.time.LocalDateTime;
 
 public interface AuditLogService {
+    /** Journalise en différé : l'entrée est écrite par lot, après la réponse. */
     void log(String utilisateur, AuditLog.Action action, String entite, String entiteId, String details, String ip);
+    /** Journalise dans la transaction de l'appelant : l'entrée est validée ou annulée avec elle. */
+    void logTransactional(String utilisateur, AuditLog.Action action, String entite, String entiteId,
+                          String details, String ip);
     Page<AuditLog> findAll(int page, int size);
     Page<AuditLog> findByEntite(String entite, int page, int size);
     Page<AuditLog> findByUtilisateur(String utilisateur, int page, int size);
     Page<AuditLog> findByDateRange(LocalDateTime debut, LocalDateTime fin, int page, int size);
     Page<AuditLog> search(String entite, String utilisateur, AuditLog.Action action,
                           LocalDateTime debut, LocalDateTime fin, int page, int size);
+    /** Même recherche, paginée par curseur {@code (createdAt, id)} et sans {@code COUNT(*)}. */
+    PageCurseur<AuditLog> searchCurseur(String entite, String utilisateur, AuditLog.Action action,
+                                        LocalDateTime debut, LocalDateTime fin, DemandeCurseur demande);
     int purgeOlderThan(LocalDateTime before);
 }
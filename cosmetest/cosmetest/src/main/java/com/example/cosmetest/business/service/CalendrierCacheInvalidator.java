@@ -0,0 +1,143 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.dto.CalendrierDTO;
+import com.example.cosmetest.business.event.EtudeChangedEvent;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.config.CacheConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Invalide les entrées du cache calendrier touchées par une écriture.
+ *
+ * Les clés des caches calendrier commencent par la période couverte
+ * ("debut_fin_..." ou le lundi de la semaine). Seules les entrées dont la
+ * période contient un jour modifié sont retirées ; une modification d'étude
+ * ou une écriture dont les jours sont inconnus vide les caches calendrier.
+ * Une modification de volontaire retire les entrées où figure l'un de ses RDV.
+ * L'invalidation a lieu après le commit pour ne jamais recharger un état
+ * qui serait ensuite annulé.
+ */
+@Service
+public class CalendrierCacheInvalidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalendrierCacheInvalidator.class);
+
+    private static final List<String> CACHES_PERIODE = List.of(
+            CacheConfig.CALENDRIER_PERIODE, CacheConfig.CALENDRIER_CACHE);
+
+    private final CacheManager cacheManager;
+
+    public CalendrierCacheInvalidator(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRdvChanged(RdvChangedEvent event) {
+        if (!event.datesConnues()) {
+            invaliderTout();
+            return;
+        }
+        int retirees = 0;
+        for (String cacheName : CACHES_PERIODE) {
+            retirees += invaliderPeriodes(cacheName, event.dates(), false);
+        }
+        retirees += invaliderPeriodes(CacheConfig.CALENDRIER_SEMAINE, event.dates(), true);
+        logger.debug("Cache calendrier: {} entrée(s) invalidée(s) pour les jours {}", retirees, event.dates());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEtudeChanged(EtudeChangedEvent event) {
+        // Les informations d'étude sont recopiées dans chaque RDV enrichi,
+        // quelle que soit sa date : toute période peut être concernée.
+        invaliderTout();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVolontaireChanged(VolontaireChangedEvent event) {
+        // Nom, prénom et date de naissance sont recopiés dans les RDV enrichis
+        if (!event.volontaireConnu()) {
+            invaliderTout();
+            return;
+        }
+        int retirees = 0;
+        for (String cacheName : List.of(CacheConfig.CALENDRIER_PERIODE,
+                CacheConfig.CALENDRIER_SEMAINE, CacheConfig.CALENDRIER_CACHE)) {
+            retirees += invaliderVolontaire(cacheName, event.idVol());
+        }
+        logger.debug("Cache calendrier: {} entrée(s) invalidée(s) pour le volontaire {}", retirees, event.idVol());
+    }
+
+    public void invaliderTout() {
+        for (String cacheName : List.of(CacheConfig.CALENDRIER_PERIODE,
+                CacheConfig.CALENDRIER_SEMAINE, CacheConfig.CALENDRIER_CACHE)) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        logger.debug("Cache calendrier entièrement invalidé");
+    }
+
+    private int invaliderPeriodes(String cacheName, Set<LocalDate> dates, boolean cleSemaine) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return 0;
+        }
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            cache.clear();
+            return 0;
+        }
+        Map<?, ?> entries = nativeCache.asMap();
+        int before = entries.size();
+        entries.keySet().removeIf(key -> periodeTouchee(key, dates, cleSemaine));
+        return before - entries.size();
+    }
+
+    private int invaliderVolontaire(String cacheName, Integer idVol) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return 0;
+        }
+        if (!(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache)) {
+            cache.clear();
+            return 0;
+        }
+        Map<?, ?> entries = nativeCache.asMap();
+        int before = entries.size();
+        entries.values().removeIf(valeur -> volontairePresent(valeur, idVol));
+        return before - entries.size();
+    }
+
+    static boolean volontairePresent(Object valeur, Integer idVol) {
+        if (!(valeur instanceof CalendrierDTO calendrier)) {
+            // Valeur inattendue : même prudence que pour les clés
+            return true;
+        }
+        return calendrier.getRdvs() != null && calendrier.getRdvs().stream()
+                .anyMatch(rdv -> idVol.equals(rdv.getIdVolontaire()));
+    }
+
+    static boolean periodeTouchee(Object key, Set<LocalDate> dates, boolean cleSemaine) {
+        try {
+            String[] parts = String.valueOf(key).split("_");
+            LocalDate debut = LocalDate.parse(parts[0]);
+            LocalDate fin = cleSemaine ? debut.plusDays(6) : LocalDate.parse(parts[1]);
+            return dates.stream().anyMatch(date -> !date.isBefore(debut) && !date.isAfter(fin));
+        } catch (DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            // Clé inattendue : on préfère retirer l'entrée plutôt que servir une donnée périmée.
+            return true;
+        }
+    }
+}
@@ -86,6 +86,35 @@ public interface CalendrierService {
     Map<String, Object> getCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
             String heureDebut, String heureFin);
 
+    /**
+     * Trouve les heures de début possibles d'une visite dans une période donnée
+     *
+     * @param dateDebut    Date de début de la recherche
+     * @param dateFin      Date de fin de la recherche
+     * @param heureDebut   Heure d'ouverture (format "HH:mm")
+     * @param heureFin     Heure de fermeture (format "HH:mm")
+     * @param dureeMinutes Durée de la visite (une tranche de planning si null)
+     * @param capacite     Nombre de visites simultanées (capacité configurée si null)
+     * @return Map contenant les créneaux libres organisés par date
+     */
+    Map<String, Object> getCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
+            String heureDebut, String heureFin, Integer dureeMinutes, Integer capacite);
+
+    /**
+     * Trouve les premiers créneaux où une visite peut être planifiée
+     *
+     * @param dateDebut    Date de début de la recherche
+     * @param dateFin      Date de fin de la recherche
+     * @param heureDebut   Heure d'ouverture (format "HH:mm")
+     * @param heureFin     Heure de fermeture (format "HH:mm")
+     * @param dureeMinutes Durée de la visite
+     * @param nombre       Nombre maximal de créneaux retournés
+     * @param capacite     Nombre de visites simultanées (capacité configurée si null)
+     * @return Map contenant la liste chronologique des créneaux
+     */
+    Map<String, Object> getPremiersCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
+            String heureDebut, String heureFin, int dureeMinutes, int nombre, Integer capacite);
+
     /**
      * Pré-charge en cache les données fréquemment utilisées
      * pour améliorer les performances
@@ -1,5 +1,7 @@
 package com.example.cosmetest.business.service;
 
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.domain.model.ConnexionLog;
 import org.springframework.data.domain.Page;
 
@@ -7,5 +9,7 @@ public interface ConnexionLogService {
     void log(String login, boolean success, String ip);
     Page<ConnexionLog> findAll(int page, int size);
     Page<ConnexionLog> findByDateRange(java.time.LocalDateTime debut, java.time.LocalDateTime fin, int page, int size);
+    /** Pagination par curseur {@code (createdAt, id)}, sans {@code COUNT(*)} ; chaque borne de date est facultative. */
+    PageCurseur<ConnexionLog> findCurseur(java.time.LocalDateTime debut, java.time.LocalDateTime fin, DemandeCurseur demande);
     int purgeOlderThan(java.time.LocalDateTime cutoff);
 }
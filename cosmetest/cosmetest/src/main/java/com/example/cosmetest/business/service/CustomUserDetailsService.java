@@ -1,7 +1,10 @@
 package com.example.cosmetest.business.service;
 
+import com.example.cosmetest.config.CacheConfig;
 import com.example.cosmetest.domain.model.Identifiant;
 import com.example.cosmetest.data.repository.IdentifiantRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -39,8 +42,20 @@ public class CustomUserDetailsService implements UserDetailsService, UserDetails
         );
     }
 
+    /**
+     * Principal d'un utilisateur déjà authentifié par JWT : identité et rôle,
+     * sans le hash du mot de passe. Mis en cache brièvement pour éviter une
+     * requête en base à chaque appel authentifié.
+     */
+    @Cacheable(value = CacheConfig.PRINCIPAUX_AUTHENTIFIES, key = "#username")
+    public UserDetails loadAuthenticatedUser(String username) throws UsernameNotFoundException {
+        UserDetails userDetails = loadUserByUsername(username);
+        return new User(userDetails.getUsername(), "", userDetails.getAuthorities());
+    }
+
     @Override
     @Transactional
+    @CacheEvict(value = CacheConfig.PRINCIPAUX_AUTHENTIFIES, key = "#user.username")
     public UserDetails updatePassword(UserDetails user, String newPassword) {
         Identifiant identifiant = identifiantRepository.findByIdentifiant(user.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + user.getUsername()));
@@ -0,0 +1,90 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.data.repository.RdvRepository;
+import com.example.cosmetest.domain.model.Rdv;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Construit l'occupation des cabines d'une période en une seule lecture des RDV.
+ *
+ * Chaque RDV occupe sa durée réelle ({@code Rdv.duree}) ou, à défaut,
+ * {@code planning.creneaux.duree-defaut} minutes ; les RDV annulés ne
+ * bloquent aucune cabine.
+ */
+@Service
+public class DisponibiliteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DisponibiliteService.class);
+    private static final long PERIODE_MAX_JOURS = 366;
+
+    private final RdvRepository rdvRepository;
+    private final int granularite;
+    private final int capacite;
+    private final int dureeDefaut;
+
+    public DisponibiliteService(
+            RdvRepository rdvRepository,
+            @Value("${planning.creneaux.granularite:30}") int granularite,
+            @Value("${planning.creneaux.capacite:1}") int capacite,
+            @Value("${planning.creneaux.duree-defaut:60}") int dureeDefaut) {
+        if (granularite <= 0 || capacite <= 0 || dureeDefaut <= 0) {
+            throw new IllegalArgumentException("La configuration des créneaux doit être strictement positive");
+        }
+        this.rdvRepository = rdvRepository;
+        this.granularite = granularite;
+        this.capacite = capacite;
+        this.dureeDefaut = dureeDefaut;
+    }
+
+    /**
+     * @param capacite nombre de visites simultanées possibles ; la capacité
+     *                 configurée si null
+     */
+    public OccupationCreneaux occupation(LocalDate dateDebut, LocalDate dateFin,
+                                         String heureDebut, String heureFin, Integer capacite) {
+        if (ChronoUnit.DAYS.between(dateDebut, dateFin) >= PERIODE_MAX_JOURS) {
+            throw new IllegalArgumentException("La période de recherche ne peut pas dépasser " + PERIODE_MAX_JOURS + " jours");
+        }
+        OccupationCreneaux occupation = new OccupationCreneaux(dateDebut, dateFin,
+                heure(heureDebut), heure(heureFin), granularite, capacite != null ? capacite : this.capacite);
+
+        for (Rdv rdv : rdvRepository.findByDateBetweenOrderByDateAscHeureAsc(
+                Date.valueOf(dateDebut), Date.valueOf(dateFin))) {
+            if (rdv.getDate() == null || rdv.getHeure() == null || "ANNULE".equalsIgnoreCase(rdv.getEtat())) {
+                continue;
+            }
+            try {
+                int duree = rdv.getDuree() != null && rdv.getDuree() > 0 ? rdv.getDuree() : dureeDefaut;
+                occupation.occuper(rdv.getDate().toLocalDate(), heure(rdv.getHeure()), duree);
+            } catch (IllegalArgumentException e) {
+                logger.debug("RDV {} ignoré pour les créneaux libres: heure '{}' illisible", rdv.getId(), rdv.getHeure());
+            }
+        }
+        return occupation;
+    }
+
+    public int getGranularite() {
+        return granularite;
+    }
+
+    /**
+     * Lit une heure "HH:mm" (ou "HHhmm", présent dans les anciennes saisies).
+     */
+    static LocalTime heure(String valeur) {
+        try {
+            String[] parties = valeur.trim().toLowerCase().split("[:h]");
+            int minutes = parties.length > 1 && !parties[1].isEmpty() ? Integer.parseInt(parties[1]) : 0;
+            return LocalTime.of(Integer.parseInt(parties[0]), minutes);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Heure invalide: " + valeur);
+        }
+    }
+}
@@ -26,7 +26,7 @@ public class EtudeVolontaireCommandService {
         String details = "etude=" + created.getIdEtude()
                 + ", groupe=" + created.getIdGroupe()
                 + ", volontaire=" + created.getIdVolontaire();
-        auditLogService.log(utilisateur, AuditLog.Action.ASSIGN, "ETUDE_VOLONTAIRE",
+        auditLogService.logTransactional(utilisateur, AuditLog.Action.ASSIGN, "ETUDE_VOLONTAIRE",
                 entiteId, details, adresseIp);
         return created;
     }
@@ -4,9 +4,11 @@ import com.example.cosmetest.business.dto.EtudeVolontaireDTO;
 import com.example.cosmetest.domain.model.EtudeVolontaireId;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public interface EtudeVolontaireService {
     List<EtudeVolontaireDTO> getAllEtudeVolontaires();
@@ -21,9 +23,12 @@ public interface EtudeVolontaireService {
     List<EtudeVolontaireDTO> getEtudeVolontairesByStatut(String statut);
     List<EtudeVolontaireDTO> getEtudeVolontairesByPaye(int paye);
     EtudeVolontaireDTO saveEtudeVolontaire(EtudeVolontaireDTO dto);
+    // Contrôles de saveEtudeVolontaire pour une nouvelle association, sans écriture (insertions par lots).
+    void validateNewAssociation(EtudeVolontaireDTO dto);
     void deleteEtudeVolontaire(Long id);
     void deleteEtudeVolontaire(EtudeVolontaireId legacyId);
     boolean existsByEtudeAndVolontaire(int idEtude, int idVolontaire);
+    Set<Integer> findAssociatedVolunteerIds(int idEtude, Collection<Integer> idVolontaires);
     Long countVolontairesByEtude(int idEtude);
     Map<Integer, Long> countActiveDistinctVolunteersByStudyIds(List<Integer> idEtudes);
     Long countEtudesByVolontaire(int idVolontaire);
@@ -0,0 +1,118 @@
+package com.example.cosmetest.business.service;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports en flux des grandes tables (volontaires, rendez-vous, paiements,
+ * annulations), pour les consommateurs qui lisaient jusqu'ici les listes
+ * complètes non paginées.
+ *
+ * Les lignes sont lues par un curseur en avant seulement et écrites une à une
+ * dans la réponse : la mémoire utilisée ne dépend pas de la taille de la table.
+ */
+public interface ExportService {
+
+    enum Jeu {
+        VOLONTAIRES("volontaires"),
+        RDVS("rdvs"),
+        PAIEMENTS("paiements"),
+        ANNULATIONS("annulations");
+
+        private final String nom;
+
+        Jeu(String nom) {
+            this.nom = nom;
+        }
+
+        public String nom() {
+            return nom;
+        }
+
+        public static Jeu depuis(String nom) {
+            for (Jeu jeu : values()) {
+                if (jeu.nom.equalsIgnoreCase(nom)) {
+                    return jeu;
+                }
+            }
+            throw new IllegalArgumentException("Export inconnu: " + nom);
+        }
+    }
+
+    enum Format {
+        NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")),
+        CSV("csv", MediaType.parseMediaType("text/csv;charset=UTF-8"));
+
+        private final String extension;
+        private final MediaType contentType;
+
+        Format(String extension, MediaType contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public MediaType contentType() {
+            return contentType;
+        }
+
+        public static Format depuis(String nom) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(nom)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Format d'export inconnu: " + nom);
+        }
+    }
+
+    /**
+     * Colonnes exportables du jeu, dans l'ordre par défaut.
+     */
+    List<String> colonnesDisponibles(Jeu jeu);
+
+    /**
+     * Filtres acceptés par le jeu.
+     */
+    List<String> filtresDisponibles(Jeu jeu);
+
+    /**
+     * Valide colonnes et filtres et prépare l'export, sans rien lire en base.
+     * L'export réserve une des places d'export simultané, rendue à la fin de
+     * {@link Export#ecrire} ou par {@link Export#close()}.
+     *
+     * @param colonnes colonnes à exporter ; vide pour toutes
+     * @param filtres  valeurs de filtre par nom, combinées en ET
+     * @throws IllegalArgumentException si une colonne, un filtre ou une valeur est invalide
+     * @throws IllegalStateException    si toutes les places d'export sont prises
+     */
+    Export preparer(Jeu jeu, Format format, List<String> colonnes, Map<String, String> filtres);
+
+    interface Export extends AutoCloseable {
+
+        String nomFichier();
+
+        MediaType contentType();
+
+        /**
+         * Lit les lignes et les écrit au fur et à mesure dans {@code sortie},
+         * sans la fermer.
+         *
+         * @return nombre de lignes écrites
+         */
+        long ecrire(OutputStream sortie) throws IOException;
+
+        /**
+         * Rend la place d'un export jamais écrit ; sans effet sinon.
+         */
+        @Override
+        void close();
+    }
+}
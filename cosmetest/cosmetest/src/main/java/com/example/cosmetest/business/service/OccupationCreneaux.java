@@ -0,0 +1,172 @@
+package com.example.cosmetest.business.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Occupation des cabines sur une période, par tranches de {@code granularite}
+ * minutes entre l'heure d'ouverture et l'heure de fermeture.
+ *
+ * Chaque tranche compte les RDV qui la recouvrent ; dès que ce nombre atteint
+ * la capacité (nombre de cabines ou de techniciens), le bit de la tranche est
+ * positionné dans un bitmap unique couvrant tous les jours. Une visite de
+ * {@code n} tranches est possible à partir d'une tranche si aucun bit n'est
+ * positionné sur les {@code n} tranches suivantes du même jour.
+ */
+public final class OccupationCreneaux {
+
+    private final LocalDate premierJour;
+    private final int jours;
+    private final int ouverture;
+    private final int granularite;
+    private final int tranchesParJour;
+    private final int capacite;
+
+    private final short[] occupation;
+    private final BitSet completes;
+
+    public OccupationCreneaux(LocalDate debut, LocalDate fin, LocalTime ouverture, LocalTime fermeture,
+                              int granularite, int capacite) {
+        if (fin.isBefore(debut)) {
+            throw new IllegalArgumentException("La date de fin doit être postérieure à la date de début");
+        }
+        if (!fermeture.isAfter(ouverture)) {
+            throw new IllegalArgumentException("L'heure de fin doit être postérieure à l'heure de début");
+        }
+        if (granularite <= 0 || capacite <= 0 || capacite > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("La granularité et la capacité des créneaux doivent être strictement positives");
+        }
+        this.premierJour = debut;
+        this.jours = Math.toIntExact(ChronoUnit.DAYS.between(debut, fin) + 1);
+        this.ouverture = minutes(ouverture);
+        this.granularite = granularite;
+        this.tranchesParJour = (minutes(fermeture) - this.ouverture) / granularite;
+        this.capacite = capacite;
+        this.occupation = new short[jours * tranchesParJour];
+        this.completes = new BitSet(occupation.length);
+    }
+
+    /**
+     * Ajoute un RDV ; la partie hors période ou hors horaires est ignorée.
+     */
+    public void occuper(LocalDate date, LocalTime debut, int dureeMinutes) {
+        int jour = jour(date);
+        if (jour < 0 || dureeMinutes <= 0) {
+            return;
+        }
+        int relatif = minutes(debut) - ouverture;
+        int premiere = Math.max(0, Math.floorDiv(relatif, granularite));
+        int derniere = Math.min(tranchesParJour, Math.floorDiv(relatif + dureeMinutes + granularite - 1, granularite));
+        int base = jour * tranchesParJour;
+        for (int tranche = premiere; tranche < derniere; tranche++) {
+            // Le compteur s'arrête à la capacité : seul le passage à « complet » compte
+            if (occupation[base + tranche] < capacite && ++occupation[base + tranche] == capacite) {
+                completes.set(base + tranche);
+            }
+        }
+    }
+
+    /**
+     * @return true si une visite de {@code dureeMinutes} peut commencer à
+     *         {@code debut} (aligné sur la granularité) sans dépasser la capacité
+     */
+    public boolean estLibre(LocalDate date, LocalTime debut, int dureeMinutes) {
+        int jour = jour(date);
+        int relatif = minutes(debut) - ouverture;
+        if (jour < 0 || relatif < 0 || relatif % granularite != 0) {
+            return false;
+        }
+        int tranche = relatif / granularite;
+        int longueur = tranches(dureeMinutes);
+        if (tranche + longueur > tranchesParJour) {
+            return false;
+        }
+        int debutBitmap = jour * tranchesParJour + tranche;
+        int occupee = completes.nextSetBit(debutBitmap);
+        return occupee < 0 || occupee >= debutBitmap + longueur;
+    }
+
+    /**
+     * Heures de début possibles d'une visite de {@code dureeMinutes} sur une journée.
+     */
+    public List<LocalTime> creneauxLibres(LocalDate date, int dureeMinutes) {
+        List<LocalTime> creneaux = new ArrayList<>();
+        int jour = jour(date);
+        if (jour >= 0) {
+            parcourir(jour, tranches(dureeMinutes), Integer.MAX_VALUE,
+                    tranche -> creneaux.add(heure(tranche)));
+        }
+        return creneaux;
+    }
+
+    /**
+     * Les {@code nombre} premiers créneaux où une visite de {@code dureeMinutes}
+     * est possible, jour après jour sur toute la période.
+     */
+    public List<Creneau> premiersCreneauxLibres(int nombre, int dureeMinutes) {
+        List<Creneau> creneaux = new ArrayList<>();
+        int longueur = tranches(dureeMinutes);
+        for (int jour = 0; jour < jours && creneaux.size() < nombre; jour++) {
+            LocalDate date = premierJour.plusDays(jour);
+            parcourir(jour, longueur, nombre - creneaux.size(), tranche -> creneaux.add(
+                    new Creneau(date, heure(tranche), heure(tranche).plusMinutes(dureeMinutes))));
+        }
+        return creneaux;
+    }
+
+    public int granularite() {
+        return granularite;
+    }
+
+    public int capacite() {
+        return capacite;
+    }
+
+    /**
+     * Parcourt les débuts possibles d'une journée en sautant directement après
+     * chaque tranche complète rencontrée.
+     */
+    private void parcourir(int jour, int longueur, int maximum, IntConsumer action) {
+        int base = jour * tranchesParJour;
+        int trouves = 0;
+        int tranche = 0;
+        while (tranche + longueur <= tranchesParJour && trouves < maximum) {
+            int occupee = completes.nextSetBit(base + tranche);
+            if (occupee >= 0 && occupee < base + tranche + longueur) {
+                tranche = occupee - base + 1;
+                continue;
+            }
+            action.accept(tranche);
+            trouves++;
+            tranche++;
+        }
+    }
+
+    private int tranches(int dureeMinutes) {
+        if (dureeMinutes <= 0) {
+            throw new IllegalArgumentException("La durée de visite doit être strictement positive");
+        }
+        return (dureeMinutes + granularite - 1) / granularite;
+    }
+
+    private int jour(LocalDate date) {
+        long jour = ChronoUnit.DAYS.between(premierJour, date);
+        return jour >= 0 && jour < jours ? (int) jour : -1;
+    }
+
+    private LocalTime heure(int tranche) {
+        return LocalTime.MIDNIGHT.plusMinutes(ouverture + (long) tranche * granularite);
+    }
+
+    private static int minutes(LocalTime heure) {
+        return heure.getHour() * 60 + heure.getMinute();
+    }
+
+    public record Creneau(LocalDate date, LocalTime debut, LocalTime fin) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.dto.PanelMatchDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Recherche des volontaires correspondant aux critères d'un panel
+ */
+public interface PanelMatchingService {
+
+    /**
+     * Classe les volontaires éligibles pour un panel
+     *
+     * @param idPanel         l'identifiant du panel
+     * @param habitudes       habitudes cosmétiques exigées (produit vers valeurs
+     *                        acceptées séparées par des virgules), peut être null
+     * @param includeArchived inclure les volontaires archivés
+     * @param tolerance       nombre de critères non respectés toléré
+     * @param pageable        configuration de pagination
+     * @return la page de volontaires classés par score décroissant, vide si le panel n'existe pas
+     * @throws IllegalArgumentException si une habitude n'est pas reconnue
+     */
+    Optional<Page<PanelMatchDTO>> matchVolontaires(Integer idPanel, Map<String, String> habitudes,
+                                                   boolean includeArchived, int tolerance, Pageable pageable);
+}
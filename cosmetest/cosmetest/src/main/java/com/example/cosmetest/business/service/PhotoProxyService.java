@@ -1,42 +1,110 @@
 package com.example.cosmetest.business.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriUtils;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
 
+/**
+ * Accès au serveur photo ({@code photo.server.url}).
+ *
+ * Les appels passent par un client HTTP unique dont les connexions sont
+ * réutilisées (keep-alive). Le nombre d'appels simultanés en attente des
+ * en-têtes est borné ({@code photo.bulkhead.*}) ; la lecture du corps, au rythme
+ * du client, n'occupe plus de place. Un disjoncteur refuse immédiatement les appels
+ * quand le serveur ne répond plus ({@code photo.circuit.*}). Latences, issues,
+ * refus, appels en cours et état du pool sont publiés sous {@code photo.upstream.*}.
+ */
 @Service
 public class PhotoProxyService {
 
+    /** Une seule plage d'octets : "bytes=0-1023", "bytes=1024-" ou "bytes=-500". */
+    private static final Pattern SINGLE_BYTE_RANGE = Pattern.compile("bytes=(\\d{1,18}-\\d{0,18}|-\\d{1,18})");
+    private static final int STREAM_BUFFER_SIZE = 8192;
+
     private final URI baseUri;
     private final boolean checkEnabled;
-    private final int connectionTimeoutMillis;
-    private final int readTimeoutMillis;
     private final long maxResponseBytes;
+    private final OkHttpClient client;
+    private final Semaphore bulkhead;
+    private final int maxConcurrentCalls;
+    private final Duration bulkheadMaxWait;
+    private final PhotoServerCircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+
+    public PhotoProxyService(String baseUrl, boolean checkEnabled, int connectionTimeoutMillis,
+                             int readTimeoutMillis, long maxResponseBytes) {
+        this(baseUrl, checkEnabled, connectionTimeoutMillis, readTimeoutMillis, maxResponseBytes,
+                16, Duration.ofSeconds(1), 10, Duration.ofMinutes(5), 5, Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+    }
 
+    @Autowired
     public PhotoProxyService(
             @Value("${photo.server.url}") String baseUrl,
             @Value("${photo.check.enabled:true}") boolean checkEnabled,
             @Value("${photo.connection.timeout:5000}") int connectionTimeoutMillis,
             @Value("${photo.read.timeout:5000}") int readTimeoutMillis,
-            @Value("${photo.max-response-size:10485760}") long maxResponseBytes) {
+            @Value("${photo.max-response-size:10485760}") long maxResponseBytes,
+            @Value("${photo.bulkhead.max-concurrent:16}") int maxConcurrentCalls,
+            @Value("${photo.bulkhead.max-wait:PT1S}") Duration bulkheadMaxWait,
+            @Value("${photo.pool.max-idle:10}") int maxIdleConnections,
+            @Value("${photo.pool.keep-alive:PT5M}") Duration keepAlive,
+            @Value("${photo.circuit.failure-threshold:5}") int failureThreshold,
+            @Value("${photo.circuit.open-duration:PT30S}") Duration openDuration,
+            MeterRegistry meterRegistry) {
         this.baseUri = validateBaseUri(baseUrl);
         this.checkEnabled = checkEnabled;
-        if (connectionTimeoutMillis <= 0 || readTimeoutMillis <= 0 || maxResponseBytes <= 0) {
+        if (connectionTimeoutMillis <= 0 || readTimeoutMillis <= 0 || maxResponseBytes <= 0
+                || maxConcurrentCalls <= 0 || maxIdleConnections <= 0) {
             throw new IllegalArgumentException("La configuration du proxy photo doit être strictement positive");
         }
-        this.connectionTimeoutMillis = connectionTimeoutMillis;
-        this.readTimeoutMillis = readTimeoutMillis;
         this.maxResponseBytes = maxResponseBytes;
+        this.client = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS))
+                .connectTimeout(connectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .followRedirects(false)
+                .followSslRedirects(false)
+                .retryOnConnectionFailure(false)
+                .build();
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.bulkheadMaxWait = bulkheadMaxWait;
+        this.circuitBreaker = new PhotoServerCircuitBreaker(failureThreshold, openDuration, Clock.systemUTC());
+        this.meterRegistry = meterRegistry;
+        registerGauges();
     }
 
     public boolean exists(String fileName) {
@@ -44,10 +112,8 @@ public class PhotoProxyService {
             validateFileName(fileName);
             return true;
         }
-        HttpURLConnection connection = null;
-        try {
-            connection = open(fileName, "HEAD");
-            int status = connection.getResponseCode();
+        try (Upstream upstream = call(fileName, "HEAD", null)) {
+            int status = upstream.status();
             if (status == HttpURLConnection.HTTP_OK) {
                 return true;
             }
@@ -55,62 +121,232 @@ public class PhotoProxyService {
                 return false;
             }
             throw new PhotoUpstreamException("Le serveur photo a répondu avec le statut " + status);
-        } catch (SocketTimeoutException e) {
-            throw new PhotoTimeoutException("Délai d'attente dépassé pour le serveur photo", e);
-        } catch (IOException e) {
-            throw new PhotoUpstreamException("Serveur photo inaccessible", e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
+        }
+    }
+
+    /**
+     * Version de la photo sur le serveur photo, sans la télécharger : son ETag,
+     * ou à défaut sa date de modification et sa taille.
+     *
+     * @return vide si le serveur n'annonce aucun validateur, ou si la
+     *         vérification est désactivée ({@code photo.check.enabled})
+     */
+    public Optional<String> version(String fileName) {
+        if (!checkEnabled) {
+            validateFileName(fileName);
+            return Optional.empty();
+        }
+        try (Upstream upstream = call(fileName, "HEAD", null)) {
+            int status = upstream.status();
+            if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new PhotoNotFoundException("Photo introuvable");
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                throw new PhotoUpstreamException("Le serveur photo a répondu avec le statut " + status);
             }
+            String etag = upstream.header("ETag");
+            if (etag != null && !etag.isBlank()) {
+                return Optional.of(etag.trim());
+            }
+            String lastModified = upstream.header("Last-Modified");
+            if (lastModified == null || lastModified.isBlank()) {
+                return Optional.empty();
+            }
+            return Optional.of(lastModified.trim() + "|" + upstream.header("Content-Length"));
         }
     }
 
     public PhotoPayload fetch(String fileName) {
-        HttpURLConnection connection = null;
-        try {
-            connection = open(fileName, "GET");
-            int status = connection.getResponseCode();
+        try (Upstream upstream = call(fileName, "GET", null)) {
+            int status = upstream.status();
             if (status == HttpURLConnection.HTTP_NOT_FOUND) {
                 throw new PhotoNotFoundException("Photo introuvable");
             }
             if (status < 200 || status >= 300) {
                 throw new PhotoUpstreamException("Le serveur photo a répondu avec le statut " + status);
             }
-            long declaredLength = connection.getContentLengthLong();
-            if (declaredLength > maxResponseBytes) {
+            ResponseBody body = upstream.body();
+            if (body.contentLength() > maxResponseBytes) {
                 throw new PhotoTooLargeException("La photo dépasse la taille maximale autorisée");
             }
             byte[] bytes;
-            try (InputStream input = connection.getInputStream()) {
+            try (InputStream input = body.byteStream()) {
                 bytes = readLimited(input);
+            } catch (SocketTimeoutException e) {
+                circuitBreaker.onFailure(upstream.ticket());
+                throw new PhotoTimeoutException("Délai d'attente dépassé pour le serveur photo", e);
+            } catch (IOException e) {
+                circuitBreaker.onFailure(upstream.ticket());
+                throw new PhotoUpstreamException("Serveur photo inaccessible", e);
+            }
+            return new PhotoPayload(bytes, safeContentType(upstream.header("Content-Type")));
+        }
+    }
+
+    /**
+     * Ouvre la photo en flux, sans la charger en mémoire.
+     *
+     * La plage d'octets demandée par le client est transmise au serveur photo
+     * si elle est simple (une seule plage) ; sinon la photo entière est renvoyée.
+     * L'appelant doit fermer le flux, qui rend la connexion amont au pool.
+     *
+     * @param range en-tête Range du client, ou null
+     */
+    public PhotoStream openStream(String fileName, String range) {
+        String forwardedRange = range != null && SINGLE_BYTE_RANGE.matcher(range.trim()).matches()
+                ? range.trim() : null;
+        Upstream upstream = call(fileName, "GET", forwardedRange);
+        try {
+            int status = upstream.status();
+            if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                throw new PhotoNotFoundException("Photo introuvable");
+            }
+            if (status == 416) {
+                throw new PhotoRangeNotSatisfiableException(upstream.header("Content-Range"));
             }
-            return new PhotoPayload(bytes, safeContentType(connection.getContentType()));
-        } catch (PhotoProxyException e) {
+            if (status != HttpURLConnection.HTTP_OK && status != HttpURLConnection.HTTP_PARTIAL) {
+                throw new PhotoUpstreamException("Le serveur photo a répondu avec le statut " + status);
+            }
+            ResponseBody body = upstream.body();
+            long declaredLength = body.contentLength();
+            if (declaredLength > maxResponseBytes) {
+                throw new PhotoTooLargeException("La photo dépasse la taille maximale autorisée");
+            }
+            return new PhotoStream(status, safeContentType(upstream.header("Content-Type")), declaredLength,
+                    status == HttpURLConnection.HTTP_PARTIAL ? upstream.header("Content-Range") : null,
+                    body.byteStream(), maxResponseBytes, upstream::close);
+        } catch (RuntimeException e) {
+            upstream.close();
             throw e;
+        }
+    }
+
+    public String publicUrl(String fileName) {
+        return resolve(fileName).toASCIIString();
+    }
+
+    /** État du disjoncteur, pour la supervision. */
+    public PhotoServerCircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    /**
+     * Envoie la requête et renvoie la réponse dont les en-têtes sont reçus.
+     * La place réservée dans la limite d'appels est rendue dès ce moment, quelle
+     * que soit l'issue.
+     */
+    private Upstream call(String fileName, String method, String range) {
+        URI uri = resolve(fileName);
+        acquireBulkhead();
+        try {
+            long ticket = circuitBreaker.tryAcquire();
+            if (ticket == PhotoServerCircuitBreaker.REFUSED) {
+                rejected("circuit_open");
+                throw new PhotoServerUnavailableException("Serveur photo indisponible (disjoncteur ouvert)");
+            }
+            return send(uri, method, range, ticket);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    /**
+     * Appel autorisé par le disjoncteur : son issue lui est toujours rapportée,
+     * faute de quoi un appel d'essai le laisserait semi-ouvert.
+     */
+    private Upstream send(URI uri, String method, String range, long ticket) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = client.newCall(request(uri, method, range)).execute();
         } catch (SocketTimeoutException e) {
+            failed(method, "timeout", start, ticket);
             throw new PhotoTimeoutException("Délai d'attente dépassé pour le serveur photo", e);
         } catch (IOException e) {
+            failed(method, "io_error", start, ticket);
             throw new PhotoUpstreamException("Serveur photo inaccessible", e);
-        } finally {
-            if (connection != null) {
-                connection.disconnect();
-            }
+        } catch (RuntimeException | Error e) {
+            failed(method, "error", start, ticket);
+            throw e;
         }
+
+        int status = response.code();
+        if (status >= 500) {
+            circuitBreaker.onFailure(ticket);
+        } else {
+            circuitBreaker.onSuccess(ticket);
+        }
+        record(method, status / 100 + "xx", start);
+        return new Upstream(response, ticket);
     }
 
-    public String publicUrl(String fileName) {
-        return resolve(fileName).toASCIIString();
+    private static Request request(URI uri, String method, String range) {
+        Request.Builder request = new Request.Builder()
+                .url(HttpUrl.get(uri.toASCIIString()))
+                .method(method, null)
+                // Pas de gzip transparent : Content-Length et plages d'octets restent ceux du fichier
+                .header("Accept-Encoding", "identity");
+        if (range != null) {
+            request.header("Range", range);
+        }
+        return request.build();
     }
 
-    private HttpURLConnection open(String fileName, String method) throws IOException {
-        HttpURLConnection connection = (HttpURLConnection) resolve(fileName).toURL().openConnection();
-        connection.setRequestMethod(method);
-        connection.setConnectTimeout(connectionTimeoutMillis);
-        connection.setReadTimeout(readTimeoutMillis);
-        connection.setInstanceFollowRedirects(false);
-        connection.setUseCaches(false);
-        return connection;
+    private void acquireBulkhead() {
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(bulkheadMaxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected("bulkhead_full");
+            throw new PhotoServerUnavailableException("Serveur photo saturé : trop d'appels simultanés");
+        }
+    }
+
+    private void failed(String method, String outcome, long start, long ticket) {
+        circuitBreaker.onFailure(ticket);
+        record(method, outcome, start);
+    }
+
+    private void record(String method, String outcome, long start) {
+        Timer.builder("photo.upstream.requests")
+                .description("Appels au serveur photo (jusqu'à réception des en-têtes)")
+                .tag("method", method)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void rejected(String reason) {
+        Counter.builder("photo.upstream.rejected")
+                .description("Appels au serveur photo refusés sans être émis")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private void registerGauges() {
+        Gauge.builder("photo.upstream.in_flight", bulkhead, b -> maxConcurrentCalls - b.availablePermits())
+                .description("Appels au serveur photo en attente des en-têtes")
+                .register(meterRegistry);
+        Gauge.builder("photo.upstream.pool.connections", client.connectionPool(), ConnectionPool::connectionCount)
+                .description("Connexions ouvertes vers le serveur photo")
+                .register(meterRegistry);
+        Gauge.builder("photo.upstream.pool.idle", client.connectionPool(), ConnectionPool::idleConnectionCount)
+                .description("Connexions inactives réutilisables vers le serveur photo")
+                .register(meterRegistry);
+        Gauge.builder("photo.upstream.circuit.state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("État du disjoncteur (0 fermé, 1 ouvert, 2 semi-ouvert)")
+                .register(meterRegistry);
     }
 
     private URI resolve(String fileName) {
@@ -194,6 +430,94 @@ public class PhotoProxyService {
 
     public record PhotoPayload(byte[] bytes, MediaType contentType) { }
 
+    /** Réponse amont ouverte ; la fermer rend la connexion au pool. */
+    private static final class Upstream implements AutoCloseable {
+        private final Response response;
+        /** Ticket du disjoncteur, pour rapporter un échec pendant la lecture du corps. */
+        private final long ticket;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Upstream(Response response, long ticket) {
+            this.response = response;
+            this.ticket = ticket;
+        }
+
+        long ticket() { return ticket; }
+        int status() { return response.code(); }
+        String header(String name) { return response.header(name); }
+        ResponseBody body() { return response.body(); }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                response.close();
+            }
+        }
+    }
+
+    /**
+     * Réponse amont ouverte, copiée vers le client par blocs de taille fixe.
+     * La limite de taille reste appliquée pendant la copie, pour les réponses
+     * sans Content-Length.
+     */
+    public static final class PhotoStream implements Closeable {
+        private final int status;
+        private final MediaType contentType;
+        private final long contentLength;
+        private final String contentRange;
+        private final InputStream body;
+        private final long maxBytes;
+        private final Runnable release;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        public PhotoStream(int status, MediaType contentType, long contentLength, String contentRange,
+                           InputStream body, long maxBytes, Runnable release) {
+            this.status = status;
+            this.contentType = contentType;
+            this.contentLength = contentLength;
+            this.contentRange = contentRange;
+            this.body = body;
+            this.maxBytes = maxBytes;
+            this.release = release;
+        }
+
+        public int status() { return status; }
+        public MediaType contentType() { return contentType; }
+        /** Taille annoncée par le serveur photo, ou -1 si inconnue. */
+        public long contentLength() { return contentLength; }
+        /** En-tête Content-Range d'une réponse partielle (206), sinon null. */
+        public String contentRange() { return contentRange; }
+        public boolean partial() { return status == HttpURLConnection.HTTP_PARTIAL; }
+
+        public long transferTo(OutputStream output) throws IOException {
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new PhotoTooLargeException("La photo dépasse la taille maximale autorisée");
+                }
+                output.write(buffer, 0, read);
+            }
+            output.flush();
+            return total;
+        }
+
+        /** Sans effet après le premier appel : l'envoi et sa fin de requête peuvent tous deux fermer. */
+        @Override
+        public void close() throws IOException {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                body.close();
+            } finally {
+                release.run();
+            }
+        }
+    }
+
     public static class PhotoProxyException extends RuntimeException {
         public PhotoProxyException(String message) { super(message); }
         public PhotoProxyException(String message, Throwable cause) { super(message, cause); }
@@ -211,6 +535,22 @@ public class PhotoProxyService {
         public PhotoTimeoutException(String message, Throwable cause) { super(message, cause); }
     }
 
+    public static final class PhotoRangeNotSatisfiableException extends PhotoProxyException {
+        private final String contentRange;
+
+        public PhotoRangeNotSatisfiableException(String contentRange) {
+            super("Plage d'octets non satisfaisable");
+            this.contentRange = contentRange;
+        }
+
+        /** Content-Range renvoyé par le serveur photo (taille totale du fichier), ou null. */
+        public String getContentRange() { return contentRange; }
+    }
+
+    public static final class PhotoServerUnavailableException extends PhotoProxyException {
+        public PhotoServerUnavailableException(String message) { super(message); }
+    }
+
     public static final class PhotoTooLargeException extends PhotoProxyException {
         public PhotoTooLargeException(String message) { super(message); }
     }
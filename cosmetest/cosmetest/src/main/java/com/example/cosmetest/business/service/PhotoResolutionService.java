@@ -0,0 +1,264 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Résolution des fichiers photo existants sur le serveur photo.
+ *
+ * Les variantes candidates sont testées par lots de
+ * {@code photo.resolution.parallelism}, dans l'ordre de priorité : les
+ * variantes d'un lot partent en parallèle (threads virtuels), et le lot suivant
+ * n'est lancé que si aucune variante du lot n'existe. La première variante
+ * présente dans l'ordre de priorité est retenue. Toutes résolutions
+ * confondues, au plus {@code photo.resolution.parallelism} requêtes HEAD sont
+ * en cours, servies dans leur ordre d'arrivée : le reste de la limite d'appels
+ * du serveur photo ({@code photo.bulkhead.max-concurrent}) reste disponible
+ * pour les images. Une variante qui attend sa place plus que le délai de
+ * lecture du serveur photo ({@code photo.read.timeout}) échoue.
+ * Le résultat, positif ou négatif, est mémorisé par clé (volontaire, type de
+ * photo) : un volontaire sans photo ne coûte donc plus une rafale de HEAD à
+ * chaque affichage. Les absences expirent plus vite que les présences, une
+ * photo pouvant être déposée sur le serveur à tout moment. Les clés commencent
+ * par "idVol:" : les résolutions d'un volontaire sont oubliées une fois sa
+ * modification validée.
+ */
+@Service
+public class PhotoResolutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoResolutionService.class);
+
+    private final PhotoProxyService photoProxyService;
+    private final int parallelism;
+    private final Semaphore probePermits;
+    private final Duration permitWait;
+    /** Incrémenté à chaque invalidation : une résolution commencée avant n'est pas mémorisée. */
+    private final AtomicLong generation = new AtomicLong();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Cache<String, Resolution> resolutions;
+
+    public PhotoResolutionService(
+            PhotoProxyService photoProxyService,
+            @Value("${photo.resolution.parallelism:4}") int parallelism,
+            @Value("${photo.read.timeout:5000}") int permitWaitMillis,
+            @Value("${photo.resolution.found-ttl:PT30M}") Duration foundTtl,
+            @Value("${photo.resolution.missing-ttl:PT2M}") Duration missingTtl,
+            @Value("${photo.resolution.max-entries:10000}") long maxEntries) {
+        if (parallelism <= 0 || permitWaitMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("La configuration de résolution photo doit être strictement positive");
+        }
+        this.photoProxyService = photoProxyService;
+        this.parallelism = parallelism;
+        // Équitable : les HEAD partent dans l'ordre où les lots les demandent
+        this.probePermits = new Semaphore(parallelism, true);
+        this.permitWait = Duration.ofMillis(permitWaitMillis);
+        this.resolutions = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, Resolution>() {
+                    @Override
+                    public long expireAfterCreate(String key, Resolution value, long currentTime) {
+                        return (value.found() ? foundTtl : missingTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Resolution value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Resolution value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Retourne la première variante existante, dans l'ordre de la liste.
+     *
+     * @param key        clé de mémorisation, par exemple "idVol:face"
+     * @param candidates variantes de nom de fichier, par priorité décroissante
+     * @return le nom du fichier trouvé, ou vide si aucune variante n'existe
+     * @throws PhotoProxyService.PhotoProxyException si le serveur photo n'a pas
+     *         permis de conclure (le résultat n'est alors pas mémorisé)
+     */
+    public Optional<String> resolveFirst(String key, List<String> candidates) {
+        Resolution resolution = resolutions.getIfPresent(key);
+        if (resolution == null) {
+            long started = generation.get();
+            resolution = probeFirst(candidates);
+            remember(key, resolution, started);
+        }
+        return Optional.ofNullable(resolution.fileName());
+    }
+
+    /**
+     * Résout plusieurs clés en un seul lot : toutes les clés absentes de la
+     * mémoire sont testées simultanément.
+     *
+     * @param candidatesByKey variantes par clé ; l'ordre des clés est conservé
+     * @return le fichier trouvé pour chaque clé (vide si absent)
+     */
+    public Map<String, Optional<String>> resolveAll(Map<String, List<String>> candidatesByKey) {
+        long started = generation.get();
+        Map<String, Resolution> known = new HashMap<>();
+        Map<String, Future<Resolution>> pending = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : candidatesByKey.entrySet()) {
+            Resolution cached = resolutions.getIfPresent(entry.getKey());
+            if (cached != null) {
+                known.put(entry.getKey(), cached);
+            } else {
+                List<String> candidates = entry.getValue();
+                pending.put(entry.getKey(), executor.submit(() -> probeFirst(candidates)));
+            }
+        }
+
+        Map<String, Optional<String>> result = new LinkedHashMap<>();
+        for (String key : candidatesByKey.keySet()) {
+            Resolution resolution = known.get(key);
+            if (resolution == null) {
+                resolution = await(pending.get(key));
+                remember(key, resolution, started);
+            }
+            result.put(key, Optional.ofNullable(resolution.fileName()));
+        }
+        return result;
+    }
+
+    /**
+     * Oublie les résolutions mémorisées dont la clé commence par le préfixe
+     * donné (par exemple "idVol:" après un changement de nom ou de date de
+     * naissance).
+     */
+    public void invalidate(String keyPrefix) {
+        generation.incrementAndGet();
+        resolutions.asMap().keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVolontaireChanged(VolontaireChangedEvent event) {
+        if (event.volontaireConnu()) {
+            invalidate(event.idVol() + ":");
+        } else {
+            generation.incrementAndGet();
+            resolutions.invalidateAll();
+        }
+    }
+
+    private void remember(String key, Resolution resolution, long started) {
+        // Une invalidation survenue pendant les HEAD peut concerner des noms déjà périmés
+        if (generation.get() == started) {
+            resolutions.put(key, resolution);
+        }
+    }
+
+    private Resolution probeFirst(List<String> candidates) {
+        RuntimeException failure = null;
+        for (int from = 0; from < candidates.size(); from += parallelism) {
+            List<String> batch = candidates.subList(from, Math.min(from + parallelism, candidates.size()));
+            List<Future<Boolean>> probes = new ArrayList<>(batch.size());
+            for (String candidate : batch) {
+                probes.add(executor.submit(() -> probe(candidate)));
+            }
+            try {
+                for (int i = 0; i < probes.size(); i++) {
+                    try {
+                        if (probes.get(i).get()) {
+                            logger.debug("Photo trouvée: '{}' (variante {}/{})",
+                                    batch.get(i), from + i + 1, candidates.size());
+                            return Resolution.found(batch.get(i));
+                        }
+                    } catch (ExecutionException e) {
+                        // Une variante prioritaire en échec n'empêche pas de retenir une variante suivante
+                        if (failure == null) {
+                            failure = unwrap(e);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PhotoProxyService.PhotoUpstreamException("Recherche de photo interrompue", e);
+            } finally {
+                probes.forEach(probe -> probe.cancel(true));
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+        logger.debug("Aucune photo trouvée après {} variantes", candidates.size());
+        return Resolution.MISSING;
+    }
+
+    private boolean probe(String candidate) throws InterruptedException {
+        if (!probePermits.tryAcquire(permitWait.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new PhotoProxyService.PhotoServerUnavailableException(
+                    "Serveur photo saturé : trop de recherches de photo simultanées");
+        }
+        try {
+            return photoProxyService.exists(candidate);
+        } finally {
+            probePermits.release();
+        }
+    }
+
+    private static Resolution await(Future<Resolution> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PhotoProxyService.PhotoUpstreamException("Recherche de photo interrompue", e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new PhotoProxyService.PhotoUpstreamException("Serveur photo inaccessible", e.getCause());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record Resolution(String fileName) {
+        static final Resolution MISSING = new Resolution(null);
+
+        static Resolution found(String fileName) {
+            return new Resolution(fileName);
+        }
+
+        boolean found() {
+            return fileName != null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.cosmetest.business.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Disjoncteur du serveur photo.
+ *
+ * Après {@code failureThreshold} échecs consécutifs (serveur injoignable,
+ * délai dépassé, erreur 5xx), les appels sont refusés immédiatement pendant
+ * {@code openDuration}. Passé ce délai, un seul appel d'essai est autorisé :
+ * s'il réussit le disjoncteur se referme, sinon il se rouvre.
+ *
+ * Chaque appel autorisé reçoit un ticket, la génération de l'état courant,
+ * qu'il rend avec son issue. Une issue n'est prise en compte que si l'état n'a
+ * pas changé depuis l'autorisation : un appel lent parti avant l'ouverture ne
+ * peut ni refermer le disjoncteur ni trancher l'essai d'un autre appel, et un
+ * échec tardif ne prolonge pas l'ouverture.
+ */
+public final class PhotoServerCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Ticket rendu par {@link #tryAcquire()} quand l'appel est refusé. */
+    public static final long REFUSED = -1;
+
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Clock clock;
+
+    private State state = State.CLOSED;
+    /** Incrémentée à chaque changement d'état. */
+    private long generation;
+    private int consecutiveFailures;
+    private Instant openedAt;
+
+    public PhotoServerCircuitBreaker(int failureThreshold, Duration openDuration, Clock clock) {
+        if (failureThreshold <= 0 || openDuration.isNegative() || openDuration.isZero()) {
+            throw new IllegalArgumentException("La configuration du disjoncteur photo doit être strictement positive");
+        }
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.clock = clock;
+    }
+
+    /**
+     * @return le ticket de l'appel, à rendre à {@link #onSuccess(long)} ou
+     *         {@link #onFailure(long)}, ou {@link #REFUSED} si l'appel ne
+     *         doit pas partir vers le serveur photo
+     */
+    public synchronized long tryAcquire() {
+        if (state == State.CLOSED) {
+            return generation;
+        }
+        if (state == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+            // Un seul appel d'essai ; les autres restent refusés jusqu'à son résultat
+            transition(State.HALF_OPEN);
+            return generation;
+        }
+        return REFUSED;
+    }
+
+    public synchronized void onSuccess(long ticket) {
+        if (ticket != generation || state == State.OPEN) {
+            return;
+        }
+        consecutiveFailures = 0;
+        if (state == State.HALF_OPEN) {
+            transition(State.CLOSED);
+        }
+    }
+
+    public synchronized void onFailure(long ticket) {
+        if (ticket != generation || state == State.OPEN) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            transition(State.OPEN);
+            openedAt = clock.instant();
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    private void transition(State next) {
+        state = next;
+        generation++;
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.cosmetest.business.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Miniatures des photos volontaires, générées côté serveur et conservées sur disque.
+ *
+ * L'original est décodé (avec sous-échantillonnage à la lecture pour limiter la
+ * mémoire), réduit à la taille configurée la plus proche, puis réencodé en JPEG.
+ * Chaque miniature est rangée sous l'empreinte SHA-256 de (fichier, version de
+ * l'original, taille). La version est le validateur annoncé par le serveur photo
+ * (ETag, ou Last-Modified et taille) ; à défaut, l'empreinte du contenu de
+ * l'original. Un original remplacé, même de taille identique, produit donc une
+ * nouvelle miniature. Le répertoire est borné en octets et les miniatures les
+ * moins récemment servies, dont celles des versions remplacées, sont supprimées
+ * en premier.
+ */
+@Service
+public class PhotoThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PhotoThumbnailService.class);
+    private static final String EXTENSION = ".jpg";
+
+    private final Path directory;
+    private final List<Integer> sizes;
+    private final float quality;
+    private final long maxBytes;
+
+    /** Taille des miniatures présentes, dans l'ordre des accès (LRU). */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    public PhotoThumbnailService(
+            @Value("${photo.thumbnail.dir:${java.io.tmpdir}/cosmetest-thumbnails}") String directory,
+            @Value("${photo.thumbnail.sizes:160,320}") List<Integer> sizes,
+            @Value("${photo.thumbnail.quality:0.8}") float quality,
+            @Value("${photo.thumbnail.max-cache-size:268435456}") long maxBytes) {
+        if (sizes.isEmpty() || sizes.stream().anyMatch(size -> size <= 0)
+                || quality <= 0 || quality > 1 || maxBytes <= 0) {
+            throw new IllegalArgumentException("La configuration des miniatures photo est invalide");
+        }
+        this.directory = Path.of(directory);
+        this.sizes = sizes.stream().sorted().toList();
+        this.quality = quality;
+        this.maxBytes = maxBytes;
+        loadIndex();
+    }
+
+    /**
+     * Ramène une taille demandée à la taille configurée la plus proche
+     * (la plus grande par défaut).
+     */
+    public int resolveSize(Integer requested) {
+        if (requested == null) {
+            return sizes.get(sizes.size() - 1);
+        }
+        return sizes.stream()
+                .filter(size -> size >= requested)
+                .findFirst()
+                .orElse(sizes.get(sizes.size() - 1));
+    }
+
+    /**
+     * Miniature déjà présente sur disque pour cette version de l'original,
+     * sans le télécharger.
+     *
+     * @param version validateur de l'original annoncé par le serveur photo
+     */
+    public Optional<Thumbnail> findCached(String fileName, String version, int size) {
+        return read(key(fileName, version, size));
+    }
+
+    private Optional<Thumbnail> read(String key) {
+        Path path = directory.resolve(key + EXTENSION);
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            byte[] bytes = Files.readAllBytes(path);
+            touch(key, bytes.length);
+            return Optional.of(new Thumbnail(bytes, etag(key, modified), modified.toInstant()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Lecture de miniature impossible ({}): {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Génère la miniature d'une photo téléchargée et la conserve sur disque.
+     *
+     * @param version validateur de l'original, ou null si le serveur photo n'en
+     *                annonce pas : la miniature est alors rangée sous l'empreinte
+     *                du contenu, et réutilisée si elle existe déjà
+     * @return vide si l'original n'est pas une image décodable (PDF, format
+     *         inconnu) : l'appelant sert alors l'original
+     */
+    public Optional<Thumbnail> render(String fileName, String version, int size,
+                                      PhotoProxyService.PhotoPayload original) {
+        String key = key(fileName, version != null ? version : "sha256:" + hex(sha256(original.bytes())), size);
+        if (version == null) {
+            Optional<Thumbnail> cached = read(key);
+            if (cached.isPresent()) {
+                return cached;
+            }
+        }
+        byte[] bytes;
+        try {
+            BufferedImage image = decode(original.bytes(), size);
+            if (image == null) {
+                return Optional.empty();
+            }
+            bytes = encode(scale(image, size));
+        } catch (IOException e) {
+            logger.warn("Miniature impossible à générer pour {}: {}", fileName, e.getMessage());
+            return Optional.empty();
+        }
+
+        FileTime now = FileTime.fromMillis(System.currentTimeMillis());
+        try {
+            store(key, bytes, now);
+        } catch (IOException e) {
+            // La miniature reste servie, seule la mise en cache disque échoue
+            logger.warn("Écriture de miniature impossible pour {}: {}", fileName, e.getMessage());
+        }
+        return Optional.of(new Thumbnail(bytes, etag(key, now), now.toInstant()));
+    }
+
+    private BufferedImage decode(byte[] bytes, int size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int longestSide = Math.max(reader.getWidth(0), reader.getHeight(0));
+                // Sous-échantillonnage à la lecture : on ne décode jamais plus de 2x la taille cible
+                int step = Math.max(1, longestSide / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int size) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) size / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage target = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            // Fond blanc : le JPEG n'a pas de transparence (PNG détourés)
+            graphics.drawImage(source, 0, 0, targetWidth, targetHeight, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+
+    private void store(String key, byte[] bytes, FileTime modified) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.write(temp, bytes);
+            // Même date que l'ETag renvoyé : les revalidations suivantes coïncident
+            Files.setLastModifiedTime(temp, modified);
+            Files.move(temp, directory.resolve(key + EXTENSION),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        touch(key, bytes.length);
+        evictIfNeeded();
+    }
+
+    private synchronized void touch(String key, long size) {
+        Long previous = index.put(key, size);
+        totalBytes += size - (previous == null ? 0 : previous);
+    }
+
+    private void evictIfNeeded() {
+        while (true) {
+            String eldest;
+            synchronized (this) {
+                if (totalBytes <= maxBytes || index.isEmpty()) {
+                    return;
+                }
+                Map.Entry<String, Long> entry = index.entrySet().iterator().next();
+                eldest = entry.getKey();
+                totalBytes -= entry.getValue();
+                index.remove(eldest);
+            }
+            try {
+                Files.deleteIfExists(directory.resolve(eldest + EXTENSION));
+            } catch (IOException e) {
+                logger.warn("Suppression de miniature impossible ({}): {}", eldest, e.getMessage());
+            }
+        }
+    }
+
+    private void loadIndex() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // Les plus anciennes d'abord : elles seront les premières évincées
+            files.filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                    .forEach(path -> {
+                        String name = path.getFileName().toString();
+                        try {
+                            touch(name.substring(0, name.length() - EXTENSION.length()), Files.size(path));
+                        } catch (IOException e) {
+                            logger.debug("Miniature ignorée à l'indexation: {}", path);
+                        }
+                    });
+        } catch (IOException e) {
+            logger.warn("Indexation du cache de miniatures impossible ({}): {}", directory, e.getMessage());
+        }
+        evictIfNeeded();
+        logger.info("Cache de miniatures: {} fichier(s), {} octets", index.size(), totalBytes);
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String key(String fileName, String version, int size) {
+        byte[] hash = sha256((fileName + "|" + version + "|" + size).getBytes(StandardCharsets.UTF_8));
+        return hex(Arrays.copyOf(hash, 16));
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    private static String etag(String key, FileTime modified) {
+        return "\"" + key + "-" + Long.toHexString(modified.toMillis()) + "\"";
+    }
+
+    public record Thumbnail(byte[] bytes, String etag, Instant lastModified) {
+        public MediaType contentType() {
+            return MediaType.IMAGE_JPEG;
+        }
+    }
+}
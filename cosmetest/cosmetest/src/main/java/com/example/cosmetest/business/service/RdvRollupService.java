@@ -0,0 +1,85 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.dto.RdvSeriePointDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comptes de rendez-vous pré-agrégés par jour, étude, état et tranche horaire
+ * (table {@code rdv_rollup}), pour les tendances et séries temporelles sans
+ * relire l'historique de la table {@code rdv}.
+ *
+ * Les jours touchés par une écriture de rendez-vous sont recalculés après
+ * chaque écriture ; une reconstruction complète rattrape chaque nuit les
+ * écritures faites hors des services.
+ */
+public interface RdvRollupService {
+
+    /** État enregistré pour un rendez-vous annulé. */
+    String ANNULE = "ANNULE";
+
+    enum Pas {
+        JOUR("jour"),
+        SEMAINE("semaine"),
+        MOIS("mois");
+
+        private final String nom;
+
+        Pas(String nom) {
+            this.nom = nom;
+        }
+
+        public static Pas depuis(String nom) {
+            for (Pas pas : values()) {
+                if (pas.nom.equalsIgnoreCase(nom)) {
+                    return pas;
+                }
+            }
+            throw new IllegalArgumentException("Pas de série inconnu: " + nom);
+        }
+    }
+
+    enum Groupe {
+        AUCUN("aucun"),
+        ETAT("etat"),
+        ETUDE("etude"),
+        HEURE("heure");
+
+        private final String nom;
+
+        Groupe(String nom) {
+            this.nom = nom;
+        }
+
+        public static Groupe depuis(String nom) {
+            for (Groupe groupe : values()) {
+                if (groupe.nom.equalsIgnoreCase(nom)) {
+                    return groupe;
+                }
+            }
+            throw new IllegalArgumentException("Regroupement de série inconnu: " + nom);
+        }
+    }
+
+    /**
+     * Série des rendez-vous entre deux dates incluses, lue dans la table
+     * pré-agrégée. Les périodes sans rendez-vous sont absentes.
+     *
+     * @param idEtude        limite à une étude ; null pour toutes
+     * @param etats          états retenus (casse ignorée) ; vide pour tous
+     * @param inclureAnnules compter aussi les rendez-vous annulés
+     * @return points triés par période puis par groupe
+     * @throws IllegalArgumentException si la période est inversée
+     */
+    List<RdvSeriePointDTO> serie(LocalDate du, LocalDate au, Pas pas, Groupe groupe,
+                                 Integer idEtude, Set<String> etats, boolean inclureAnnules);
+
+    /**
+     * Recalcule toute la table pré-agrégée depuis {@code rdv}.
+     *
+     * @return nombre de lignes agrégées écrites
+     */
+    int reconstruire();
+}
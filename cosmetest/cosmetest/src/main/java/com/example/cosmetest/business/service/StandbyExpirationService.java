@@ -1,9 +1,11 @@
 package com.example.cosmetest.business.service;
 
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
 import com.example.cosmetest.data.repository.VolontaireRepository;
 import com.example.cosmetest.domain.model.Volontaire;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,9 +24,12 @@ public class StandbyExpirationService {
     private static final Logger logger = LoggerFactory.getLogger(StandbyExpirationService.class);
 
     private final VolontaireRepository volontaireRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public StandbyExpirationService(VolontaireRepository volontaireRepository) {
+    public StandbyExpirationService(VolontaireRepository volontaireRepository,
+                                    ApplicationEventPublisher eventPublisher) {
         this.volontaireRepository = volontaireRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Scheduled(cron = "0 0 2 * * *")
@@ -45,6 +50,7 @@ public class StandbyExpirationService {
             v.setStandby(false);
             v.setDateFinStandby(null);
             volontaireRepository.save(v);
+            eventPublisher.publishEvent(VolontaireChangedEvent.of(v.getIdVol()));
             logger.info("Stand-by retiré pour le volontaire {} {} (ID: {})",
                     v.getNomVol(), v.getPrenomVol(), v.getIdVol());
         }
@@ -0,0 +1,41 @@
+package com.example.cosmetest.business.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Jetons JWT révoqués (déconnexion) jusqu'à leur expiration naturelle : passé
+ * {@code exp}, le jeton est refusé de toute façon et l'entrée disparaît.
+ *
+ * Implémentation choisie par {@code auth.store} : {@code local} (mémoire du
+ * nœud) ou {@code jdbc} (table partagée entre les instances). Les jetons ne
+ * sont jamais conservés en clair, seulement leur empreinte {@link #cle}.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Révoque un jeton jusqu'à son expiration ; sans effet si elle est passée.
+     */
+    void revoquer(String jeton, Instant expiration);
+
+    /**
+     * Appelé à chaque requête authentifiée : ne doit pas interroger la base
+     * dans le cas courant d'un jeton non révoqué.
+     */
+    boolean estRevoque(String jeton);
+
+    /**
+     * Empreinte SHA-256 du jeton, en Base64 URL sans remplissage (43 caractères).
+     */
+    static String cle(String jeton) {
+        try {
+            byte[] empreinte = MessageDigest.getInstance("SHA-256").digest(jeton.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(empreinte);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -117,6 +117,14 @@ public interface VolontaireHcService {
      */
     Map<String, Long> getLieuxAchatPreferences();
 
+    /**
+     * Obtient la répartition des valeurs de tous les produits en une seule lecture
+     *
+     * @return pour chaque produit, le nombre de volontaires par valeur (valeurs
+     *         connues, "non spécifié" et "autre")
+     */
+    Map<String, Map<String, Long>> getDistributionsProduits();
+
     /**
      * Recherche les volontaires qui utilisent une combinaison de produits
      *
@@ -3,6 +3,8 @@ package com.example.cosmetest.business.service;
 import com.example.cosmetest.business.dto.VolontaireDTO;
 import com.example.cosmetest.business.dto.VolontaireDetailDTO;
 import com.example.cosmetest.business.dto.VolontaireNotificationDTO;
+import com.example.cosmetest.business.dto.VolontaireSearchCriteriaDTO;
+import com.example.cosmetest.business.dto.VolontaireSuggestionDTO;
 import com.example.cosmetest.domain.model.Volontaire;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,6 +12,7 @@ import org.springframework.data.domain.Pageable;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Optional;
 
 /**
@@ -66,8 +69,8 @@ public interface VolontaireService {
 
     /**
      * Recherche de volontaires par mot-clé avec pagination
-     * Cette méthode utilise l'index fulltext pour rechercher dans:
-     * nom, prénom, téléphones et email
+     * Cette méthode utilise l'index de recherche en mémoire pour rechercher dans:
+     * identifiant, nom, prénom, téléphones et email, du plus pertinent au moins pertinent
      *
      * @param keyword mot-clé de recherche
      * @param pageable configuration de pagination
@@ -75,6 +78,17 @@ public interface VolontaireService {
      */
     Page<VolontaireDTO> searchVolontaires(String keyword, Pageable pageable);
 
+    /**
+     * Autocomplétion : meilleures correspondances servies par l'index de
+     * recherche, sans lecture de la table volontaire
+     *
+     * @param saisie texte saisi
+     * @param includeArchived inclure les volontaires archivés
+     * @param limite nombre maximal de suggestions
+     * @return les suggestions classées par pertinence
+     */
+    List<VolontaireSuggestionDTO> suggestVolontaires(String saisie, boolean includeArchived, int limite);
+
     /**
      * Recherche de volontaires par critères variés
      *
@@ -89,6 +103,16 @@ public interface VolontaireService {
     List<VolontaireDTO> searchVolontairesByCriteria(String sexe, Integer ageMin, Integer ageMax,
                                                     String ethnie, String phototype, String typePeau);
 
+    /**
+     * Recherche paginée de volontaires par une combinaison libre de critères,
+     * évaluée en SQL et limitée aux colonnes de VolontaireDTO
+     *
+     * @param criteria les critères à combiner
+     * @param pageable configuration de pagination et de tri (propriétés de VolontaireDTO)
+     * @return page de volontaires correspondant aux critères
+     */
+    Page<VolontaireDTO> searchVolontairesByCriteria(VolontaireSearchCriteriaDTO criteria, Pageable pageable);
+
     /**
      * Crée un nouveau volontaire (version simplifiée)
      *
@@ -258,6 +282,18 @@ public interface VolontaireService {
      */
     Map<String, Object> getVolontairesStatistics();
 
+    /**
+     * Croise les statistiques démographiques des volontaires (sexe, ethnie,
+     * phototype, typePeau, trancheAge, statut), ex. phototype x tranche d'âge
+     * x sexe sur les seuls actifs.
+     *
+     * @param dimensions dimensions du regroupement ; vide pour le seul total
+     * @param filtres    valeurs acceptées par dimension, combinées en ET
+     * @return total filtré et une ligne par combinaison avec son nombre de volontaires
+     * @throws IllegalArgumentException si une dimension est inconnue
+     */
+    Map<String, Object> croiserStatistiques(List<String> dimensions, Map<String, Set<String>> filtres);
+
 
     int countActiveVolontaires();
 
@@ -0,0 +1,248 @@
+package com.example.cosmetest.business.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * File d'écriture différée : les entrées sont mises en file par le thread
+ * appelant et écrites par lots par un thread dédié, dès que
+ * {@code tailleLot} entrées sont prêtes ou que la plus ancienne attend depuis
+ * {@code intervalle}.
+ *
+ * La file est bornée. Quand elle est pleine, l'appelant attend au plus
+ * {@code attenteMax} qu'une place se libère, puis écrit lui-même son entrée :
+ * rien n'est perdu, la lenteur de la base se reporte sur les requêtes au lieu
+ * de la mémoire. {@link #close()} écrit tout ce qui reste en file.
+ *
+ * Métriques (étiquette {@code file}) : {@code write_behind.queue.depth},
+ * {@code write_behind.batch.size}, {@code write_behind.flush} (durée
+ * d'écriture d'un lot), {@code write_behind.delay} (attente de la plus
+ * ancienne entrée d'un lot), {@code write_behind.backpressure} et
+ * {@code write_behind.failed}.
+ */
+public final class WriteBehindBuffer<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindBuffer.class);
+    /** Le thread d'écriture vérifie au moins à ce rythme si un arrêt est demandé. */
+    private static final long PAS_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long ARRET_MAX_MILLIS = 10_000;
+
+    private final String nom;
+    private final int tailleLot;
+    private final long intervalleNanos;
+    private final long attenteMaxNanos;
+    private final Consumer<List<T>> ecriture;
+    private final BlockingQueue<Entree<T>> file;
+    private final Thread thread;
+    private volatile boolean actif = true;
+
+    private final DistributionSummary tailleLots;
+    private final Timer dureeEcriture;
+    private final Timer delai;
+    private final Counter attentes;
+    private final Counter ecrituresDirectes;
+    private final Counter echecs;
+
+    /**
+     * @param ecriture écrit un lot d'entrées ; une exception fait réessayer
+     *                 les entrées du lot une par une
+     */
+    public WriteBehindBuffer(String nom, int capacite, int tailleLot, Duration intervalle, Duration attenteMax,
+                             Consumer<List<T>> ecriture, MeterRegistry meterRegistry) {
+        if (capacite <= 0 || tailleLot <= 0 || intervalle.isNegative() || intervalle.isZero()
+                || attenteMax.isNegative()) {
+            throw new IllegalArgumentException("La configuration de l'écriture différée doit être strictement positive");
+        }
+        this.nom = nom;
+        this.tailleLot = tailleLot;
+        this.intervalleNanos = intervalle.toNanos();
+        this.attenteMaxNanos = attenteMax.toNanos();
+        this.ecriture = ecriture;
+        this.file = new ArrayBlockingQueue<>(capacite);
+
+        Gauge.builder("write_behind.queue.depth", file, BlockingQueue::size)
+                .description("Entrées en attente d'écriture")
+                .tag("file", nom)
+                .register(meterRegistry);
+        this.tailleLots = DistributionSummary.builder("write_behind.batch.size")
+                .description("Entrées écrites par lot")
+                .tag("file", nom)
+                .register(meterRegistry);
+        this.dureeEcriture = Timer.builder("write_behind.flush")
+                .description("Durée d'écriture d'un lot")
+                .tag("file", nom)
+                .register(meterRegistry);
+        this.delai = Timer.builder("write_behind.delay")
+                .description("Attente de la plus ancienne entrée d'un lot avant son écriture")
+                .tag("file", nom)
+                .register(meterRegistry);
+        this.attentes = Counter.builder("write_behind.backpressure")
+                .description("Ajouts ayant trouvé la file pleine")
+                .tag("file", nom).tag("outcome", "waited")
+                .register(meterRegistry);
+        this.ecrituresDirectes = Counter.builder("write_behind.backpressure")
+                .description("Ajouts ayant trouvé la file pleine")
+                .tag("file", nom).tag("outcome", "direct")
+                .register(meterRegistry);
+        this.echecs = Counter.builder("write_behind.failed")
+                .description("Entrées perdues après échec de l'écriture")
+                .tag("file", nom)
+                .register(meterRegistry);
+
+        this.thread = new Thread(this::boucler, "write-behind-" + nom);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Met l'entrée en file ; si la file reste pleine au-delà de
+     * {@code attenteMax}, l'écrit directement dans le thread appelant.
+     */
+    public void ajouter(T valeur) {
+        Entree<T> entree = new Entree<>(valeur, System.nanoTime());
+        if (actif && file.offer(entree)) {
+            rattraperArret();
+            return;
+        }
+        if (actif) {
+            attentes.increment();
+            try {
+                if (file.offer(entree, attenteMaxNanos, TimeUnit.NANOSECONDS)) {
+                    rattraperArret();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        ecrituresDirectes.increment();
+        ecrire(List.of(entree));
+    }
+
+    /**
+     * Écrit immédiatement, dans le thread appelant, tout ce qui est en file.
+     */
+    public void vider() {
+        List<Entree<T>> lot = new ArrayList<>(tailleLot);
+        while (file.drainTo(lot, tailleLot) > 0) {
+            ecrire(lot);
+            lot.clear();
+        }
+    }
+
+    public int enAttente() {
+        return file.size();
+    }
+
+    /**
+     * Arrête le thread d'écriture puis écrit les entrées restantes. Les ajouts
+     * ultérieurs sont écrits directement.
+     */
+    @Override
+    public void close() {
+        actif = false;
+        try {
+            thread.join(ARRET_MAX_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        vider();
+        logger.info("Écriture différée '{}' arrêtée", nom);
+    }
+
+    /**
+     * Une entrée mise en file pendant l'arrêt ne doit pas y rester.
+     */
+    private void rattraperArret() {
+        if (!actif) {
+            vider();
+        }
+    }
+
+    private void boucler() {
+        List<Entree<T>> lot = new ArrayList<>(tailleLot);
+        while (actif) {
+            try {
+                Entree<T> premiere = file.poll(PAS_NANOS, TimeUnit.NANOSECONDS);
+                if (premiere == null) {
+                    continue;
+                }
+                lot.add(premiere);
+                // Complète le lot jusqu'à sa taille ou jusqu'à l'échéance de la plus ancienne entrée
+                long echeance = premiere.depuis() + intervalleNanos;
+                while (lot.size() < tailleLot) {
+                    if (file.drainTo(lot, tailleLot - lot.size()) > 0) {
+                        continue;
+                    }
+                    long reste = echeance - System.nanoTime();
+                    if (reste <= 0 || !actif) {
+                        break;
+                    }
+                    Entree<T> suivante = file.poll(Math.min(reste, PAS_NANOS), TimeUnit.NANOSECONDS);
+                    if (suivante != null) {
+                        lot.add(suivante);
+                    }
+                }
+                ecrire(lot);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                ecrire(lot);
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Écriture différée '{}': erreur inattendue", nom, e);
+            } finally {
+                lot.clear();
+            }
+        }
+    }
+
+    private void ecrire(List<Entree<T>> lot) {
+        if (lot.isEmpty()) {
+            return;
+        }
+        delai.record(System.nanoTime() - lot.get(0).depuis(), TimeUnit.NANOSECONDS);
+        List<T> valeurs = new ArrayList<>(lot.size());
+        for (Entree<T> entree : lot) {
+            valeurs.add(entree.valeur());
+        }
+        long debut = System.nanoTime();
+        try {
+            ecriture.accept(valeurs);
+            tailleLots.record(valeurs.size());
+        } catch (RuntimeException e) {
+            logger.warn("Écriture différée '{}': lot de {} entrée(s) refusé, nouvel essai entrée par entrée: {}",
+                    nom, valeurs.size(), e.getMessage());
+            ecrireUneParUne(valeurs);
+        } finally {
+            dureeEcriture.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void ecrireUneParUne(List<T> valeurs) {
+        for (T valeur : valeurs) {
+            try {
+                ecriture.accept(List.of(valeur));
+                tailleLots.record(1);
+            } catch (RuntimeException e) {
+                echecs.increment();
+                logger.error("Écriture différée '{}': entrée perdue ({})", nom, valeur, e);
+            }
+        }
+    }
+
+    private record Entree<T>(T valeur, long depuis) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.AnnulationDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
 import com.example.cosmetest.business.mapper.AnnulationMapper;
 import com.example.cosmetest.business.service.AnnulationService;
 import com.example.cosmetest.data.repository.AnnulationRepository;
@@ -12,6 +13,7 @@ import com.example.cosmetest.domain.model.Rdv;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -37,6 +39,7 @@ public class AnnulationServiceImpl implements AnnulationService {
     private final AnnulationMapper annulationMapper;
     private final RdvRepository rdvRepository;
     private final RdvIdAllocator rdvIdAllocator;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Format de date attendu (à adapter selon votre format)
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
@@ -45,11 +48,13 @@ public class AnnulationServiceImpl implements AnnulationService {
             AnnulationRepository annulationRepository, 
             AnnulationMapper annulationMapper,
             RdvRepository rdvRepository,
-            RdvIdAllocator rdvIdAllocator) {
+            RdvIdAllocator rdvIdAllocator,
+            ApplicationEventPublisher eventPublisher) {
         this.annulationRepository = annulationRepository;
         this.annulationMapper = annulationMapper;
         this.rdvRepository = rdvRepository;
         this.rdvIdAllocator = rdvIdAllocator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -150,6 +155,8 @@ public class AnnulationServiceImpl implements AnnulationService {
         }
         if (!rdvsToReplace.isEmpty()) {
             rdvRepository.deleteAll(rdvsToReplace);
+            eventPublisher.publishEvent(RdvChangedEvent.forDates(annulationDTO.getIdEtude(),
+                    rdvsToReplace.stream().map(Rdv::getDate).collect(Collectors.toList())));
         }
 
         logger.info("Rebatch annulation terminé: étude={}, volontaire={}, anciensRDV={}, nouveauxCréneaux={}",
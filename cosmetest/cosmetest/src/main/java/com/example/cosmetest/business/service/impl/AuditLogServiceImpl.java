@@ -1,29 +1,108 @@
 package com.example.cosmetest.business.service.impl;
 
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.business.service.AuditLogService;
+import com.example.cosmetest.business.service.WriteBehindBuffer;
 import com.example.cosmetest.data.repository.AuditLogRepository;
 import com.example.cosmetest.domain.model.AuditLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
 
+/**
+ * Le journal d'audit est écrit en différé, par lots JDBC
+ * ({@link WriteBehindBuffer}) : une action métier ne paie plus l'INSERT et
+ * le commit de sa ligne d'audit. {@link #logTransactional} reste disponible
+ * quand la ligne doit être validée ou annulée avec l'écriture métier.
+ */
 @Service
 public class AuditLogServiceImpl implements AuditLogService {
 
+    private static final String INSERT = "INSERT INTO audit_log "
+            + "(utilisateur, action, entite, entite_id, details, ip, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
     private final AuditLogRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final WriteBehindBuffer<AuditLog> buffer;
 
-    public AuditLogServiceImpl(AuditLogRepository repository) {
+    public AuditLogServiceImpl(
+            AuditLogRepository repository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${audit.write-behind.capacity:10000}") int capacity,
+            @Value("${audit.write-behind.batch-size:100}") int batchSize,
+            @Value("${audit.write-behind.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${audit.write-behind.max-wait:PT0.5S}") Duration maxWait) {
         this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.buffer = new WriteBehindBuffer<>("audit_log", capacity, batchSize, flushInterval, maxWait,
+                this::insert, meterRegistry);
     }
 
     @Override
     public void log(String utilisateur, AuditLog.Action action, String entite, String entiteId, String details, String ip) {
+        buffer.ajouter(new AuditLog(utilisateur, action, entite, entiteId, details, ip));
+    }
+
+    @Override
+    @Transactional
+    public void logTransactional(String utilisateur, AuditLog.Action action, String entite, String entiteId,
+                                 String details, String ip) {
         repository.save(new AuditLog(utilisateur, action, entite, entiteId, details, ip));
     }
 
+    @PreDestroy
+    void shutdown() {
+        buffer.close();
+    }
+
+    private void insert(List<AuditLog> logs) {
+        // Même conversion des dates que Hibernate (hibernate.jdbc.time_zone=UTC)
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        BatchPreparedStatementSetter lignes = new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                AuditLog log = logs.get(i);
+                ps.setString(1, log.getUtilisateur());
+                ps.setString(2, log.getAction().name());
+                ps.setString(3, log.getEntite());
+                ps.setString(4, log.getEntiteId());
+                ps.setString(5, log.getDetails());
+                ps.setString(6, log.getIp());
+                ps.setTimestamp(7, Timestamp.valueOf(log.getCreatedAt()), utc);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        };
+        // Un seul commit par lot ; avec rewriteBatchedStatements=true, un seul INSERT multi-lignes
+        transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, lignes));
+    }
+
     @Override
     public Page<AuditLog> findAll(int page, int size) {
         return repository.findAllByOrderByCreatedAtDesc(PageRequest.of(page, size));
@@ -50,6 +129,16 @@ public class AuditLogServiceImpl implements AuditLogService {
         return repository.search(entite, utilisateur, action, debut, fin, PageRequest.of(page, size));
     }
 
+    @Override
+    public PageCurseur<AuditLog> searchCurseur(String entite, String utilisateur, AuditLog.Action action,
+                                               LocalDateTime debut, LocalDateTime fin, DemandeCurseur demande) {
+        List<AuditLog> lignes = repository.searchApres(entite, utilisateur, action, debut, fin,
+                demande.apresCle(), demande.apresId(), demande.limite());
+        return PageCurseur.de(lignes, demande, log -> new Curseur(log.getCreatedAt(), log.getId()),
+                plafond -> repository.countJusqua(entite, utilisateur, action != null ? action.name() : null,
+                        debut, fin, plafond));
+    }
+
     @Override
     @Transactional
     public int purgeOlderThan(LocalDateTime before) {
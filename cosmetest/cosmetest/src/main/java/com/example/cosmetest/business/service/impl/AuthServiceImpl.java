@@ -1,6 +1,7 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.service.AuthService;
+import com.example.cosmetest.business.service.TokenRevocationStore;
 import com.example.cosmetest.data.repository.IdentifiantRepository;
 import com.example.cosmetest.domain.model.Identifiant;
 import com.example.cosmetest.security.JwtTokenUtil;
@@ -8,22 +9,21 @@ import org.springframework.security.core.AuthenticationException;
 
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.HashSet;
-
-import java.util.Set;
+import java.util.Date;
 
 @Service
 public class AuthServiceImpl implements AuthService {
 
     private final IdentifiantRepository identifiantRepository;
     private final JwtTokenUtil jwtTokenUtil;
-    private final Set<String> blacklistedTokens = Collections.synchronizedSet(new HashSet<>());
+    private final TokenRevocationStore tokenRevocationStore;
 
     public AuthServiceImpl(IdentifiantRepository identifiantRepository,
-            JwtTokenUtil jwtTokenUtil) {
+            JwtTokenUtil jwtTokenUtil,
+            TokenRevocationStore tokenRevocationStore) {
         this.identifiantRepository = identifiantRepository;
         this.jwtTokenUtil = jwtTokenUtil;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     @Override
@@ -73,7 +73,7 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public boolean validateToken(String token) {
-        if (blacklistedTokens.contains(token)) {
+        if (token == null || tokenRevocationStore.estRevoque(token)) {
             return false;
         }
         try {
@@ -97,6 +97,19 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void invalidateToken(String token) {
-        blacklistedTokens.add(token);
+        if (token == null) {
+            return;
+        }
+        Date expiration;
+        try {
+            expiration = jwtTokenUtil.extractExpiration(token);
+        } catch (Exception e) {
+            // Jeton illisible ou déjà expiré : il est refusé de toute façon
+            return;
+        }
+        if (expiration != null) {
+            // Révoqué jusqu'à son expiration, après quoi l'entrée disparaît
+            tokenRevocationStore.revoquer(token, expiration.toInstant());
+        }
     }
 }
@@ -2,9 +2,13 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.*;
 import com.example.cosmetest.business.service.CalendrierService;
+import com.example.cosmetest.business.service.DisponibiliteService;
+import com.example.cosmetest.business.service.OccupationCreneaux;
+import com.example.cosmetest.business.service.RdvRollupService;
 import com.example.cosmetest.business.service.RdvService;
 import com.example.cosmetest.business.service.EtudeService;
 import com.example.cosmetest.business.service.VolontaireService;
+import com.example.cosmetest.config.CacheConfig;
 import com.example.cosmetest.data.repository.RdvRepository;
 import com.example.cosmetest.data.repository.EtudeRepository;
 import com.example.cosmetest.data.repository.VolontaireRepository;
@@ -12,13 +16,15 @@ import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.Etude;
 import com.example.cosmetest.domain.model.Volontaire;
 
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,10 +32,12 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.IsoFields;
 import java.time.temporal.TemporalAdjusters;
 import java.time.DayOfWeek;
 import java.sql.Date;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -42,11 +50,17 @@ import java.util.stream.Collectors;
 public class CalendrierServiceImpl implements CalendrierService {
 
     private static final Logger logger = LoggerFactory.getLogger(CalendrierServiceImpl.class);
+    private static final DateTimeFormatter FORMAT_HEURE = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String[] JOURS_SEMAINE = { "Lundi", "Mardi", "Mercredi", "Jeudi", "Vendredi", "Samedi", "Dimanche" };
 
     private final RdvRepository rdvRepository;
     private final EtudeRepository etudeRepository;
     private final VolontaireRepository volontaireRepository;
     private final EtudeService etudeService;
+    private final DisponibiliteService disponibiliteService;
+    private final LecturesParalleles lecturesParalleles;
+    private final RdvRollupService rdvRollupService;
+    private final CacheManager cacheManager;
 
     public CalendrierServiceImpl(
             RdvRepository rdvRepository,
@@ -54,17 +68,29 @@ public class CalendrierServiceImpl implements CalendrierService {
             VolontaireRepository volontaireRepository,
             RdvService rdvService,
             EtudeService etudeService,
-            VolontaireService volontaireService) {
+            VolontaireService volontaireService,
+            DisponibiliteService disponibiliteService,
+            LecturesParalleles lecturesParalleles,
+            RdvRollupService rdvRollupService,
+            CacheManager cacheManager) {
         this.rdvRepository = rdvRepository;
         this.etudeRepository = etudeRepository;
         this.volontaireRepository = volontaireRepository;
         this.etudeService = etudeService;
+        this.disponibiliteService = disponibiliteService;
+        this.lecturesParalleles = lecturesParalleles;
+        this.rdvRollupService = rdvRollupService;
+        this.cacheManager = cacheManager;
     }
 
     @Override
-    @Cacheable(value = "calendrierPeriode", key = "#dateDebut.toString() + '_' + #dateFin.toString() + '_' + #inclureEtudesSansRdv")
     public CalendrierDTO getDonneesCalendrierOptimisees(LocalDate dateDebut, LocalDate dateFin,
             boolean inclureEtudesSansRdv) {
+        return depuisCache(CacheConfig.CALENDRIER_PERIODE, dateDebut + "_" + dateFin + "_" + inclureEtudesSansRdv,
+                () -> genererCalendrier(dateDebut, dateFin, inclureEtudesSansRdv));
+    }
+
+    private CalendrierDTO genererCalendrier(LocalDate dateDebut, LocalDate dateFin, boolean inclureEtudesSansRdv) {
         long startTime = System.currentTimeMillis();
 
         logger.debug("Récupération optimisée des données calendrier du {} au {}", dateDebut, dateFin);
@@ -111,7 +137,8 @@ public class CalendrierServiceImpl implements CalendrierService {
 
         logger.debug("Récupération des données pour la semaine du {} au {}", debutSemaine, finSemaine);
 
-        return getDonneesCalendrierOptimisees(debutSemaine, finSemaine, true);
+        return depuisCache(CacheConfig.CALENDRIER_SEMAINE, debutSemaine.toString(),
+                () -> genererCalendrier(debutSemaine, finSemaine, true));
     }
 
     @Override
@@ -172,32 +199,15 @@ public class CalendrierServiceImpl implements CalendrierService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> getStatistiquesPeriode(LocalDate dateDebut, LocalDate dateFin) {
         logger.debug("Calcul des statistiques pour la période {} - {}", dateDebut, dateFin);
 
-        try {
-            // Statistiques RDV
-            int totalRdv = rdvRepository.countByDateBetween(Date.valueOf(dateDebut), Date.valueOf(dateFin));
-            Map<String, Integer> repartitionEtats = rdvRepository.countRdvByEtatBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin));
-
-            // Statistiques études
-            int totalEtudes = etudeRepository.countEtudesActivesEntreDates(dateDebut, dateFin);
+        try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
+            Map<String, LecturesParalleles.Branche<?>> branches = lancerStatistiques(lot, dateDebut, dateFin);
+            lot.attendre();
 
-            // Répartition par jour de la semaine
-            Map<String, Integer> repartitionJours = rdvRepository.countRdvByDayOfWeekBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin));
-
-            // Répartition par tranche horaire
-            Map<String, Integer> repartitionHeures = rdvRepository.countRdvByHourBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin));
-
-            Map<String, Object> statistiques = new HashMap<>();
-            statistiques.put("totalRdv", totalRdv);
-            statistiques.put("repartitionEtats", repartitionEtats);
-            statistiques.put("totalEtudes", totalEtudes);
-            statistiques.put("repartitionJours", repartitionJours);
-            statistiques.put("repartitionHeures", repartitionHeures);
+            Map<String, Object> statistiques = resultats(branches);
             statistiques.put("periode", Map.of("debut", dateDebut, "fin", dateFin));
 
             return statistiques;
@@ -211,27 +221,40 @@ public class CalendrierServiceImpl implements CalendrierService {
     @Override
     public Map<String, Object> getCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
             String heureDebut, String heureFin) {
+        return getCreneauxLibres(dateDebut, dateFin, heureDebut, heureFin, null, null);
+    }
+
+    @Override
+    public Map<String, Object> getCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
+            String heureDebut, String heureFin, Integer dureeMinutes, Integer capacite) {
         logger.debug("Recherche de créneaux libres du {} au {} entre {} et {}",
                 dateDebut, dateFin, heureDebut, heureFin);
 
         try {
-            // Récupérer tous les RDV de la période
-            List<Rdv> rdvsExistants = rdvRepository.findByDateBetweenOrderByDateAscHeureAsc(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin));
-
-            // Générer tous les créneaux possibles
-            Map<LocalDate, List<String>> creneauxLibres = genererCreneauxLibres(
-                    dateDebut, dateFin, heureDebut, heureFin, rdvsExistants);
+            OccupationCreneaux occupation = disponibiliteService.occupation(
+                    dateDebut, dateFin, heureDebut, heureFin, capacite);
+            int duree = dureeMinutes != null ? dureeMinutes : occupation.granularite();
+
+            Map<LocalDate, List<String>> creneauxLibres = new TreeMap<>();
+            for (LocalDate jour = dateDebut; !jour.isAfter(dateFin); jour = jour.plusDays(1)) {
+                creneauxLibres.put(jour, occupation.creneauxLibres(jour, duree).stream()
+                        .map(heure -> heure.format(FORMAT_HEURE))
+                        .collect(Collectors.toList()));
+            }
 
             Map<String, Object> resultat = new HashMap<>();
             resultat.put("creneaux", creneauxLibres);
             resultat.put("periode", Map.of("debut", dateDebut, "fin", dateFin));
             resultat.put("horaires", Map.of("debut", heureDebut, "fin", heureFin));
+            resultat.put("dureeMinutes", duree);
+            resultat.put("capacite", occupation.capacite());
             resultat.put("totalCreneaux", creneauxLibres.values().stream()
                     .mapToInt(List::size).sum());
 
             return resultat;
 
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Erreur lors de la recherche de créneaux libres", e);
             throw new RuntimeException("Erreur lors de la recherche de créneaux libres", e);
@@ -239,7 +262,38 @@ public class CalendrierServiceImpl implements CalendrierService {
     }
 
     @Override
-    @CacheEvict(value = { "calendrierPeriode", "calendrierSemaine" }, allEntries = true)
+    public Map<String, Object> getPremiersCreneauxLibres(LocalDate dateDebut, LocalDate dateFin,
+            String heureDebut, String heureFin, int dureeMinutes, int nombre, Integer capacite) {
+        if (nombre <= 0) {
+            throw new IllegalArgumentException("Le nombre de créneaux doit être un nombre positif");
+        }
+        OccupationCreneaux occupation = disponibiliteService.occupation(
+                dateDebut, dateFin, heureDebut, heureFin, capacite);
+
+        List<Map<String, Object>> creneaux = occupation.premiersCreneauxLibres(nombre, dureeMinutes).stream()
+                .map(creneau -> Map.<String, Object>of(
+                        "date", creneau.date(),
+                        "heureDebut", creneau.debut().format(FORMAT_HEURE),
+                        "heureFin", creneau.fin().format(FORMAT_HEURE)))
+                .collect(Collectors.toList());
+
+        Map<String, Object> resultat = new HashMap<>();
+        resultat.put("creneaux", creneaux);
+        resultat.put("periode", Map.of("debut", dateDebut, "fin", dateFin));
+        resultat.put("horaires", Map.of("debut", heureDebut, "fin", heureFin));
+        resultat.put("dureeMinutes", dureeMinutes);
+        resultat.put("capacite", occupation.capacite());
+        resultat.put("totalCreneaux", creneaux.size());
+        return resultat;
+    }
+
+    /**
+     * Les caches sont vidés avant l'appel, puis remplis par {@link #depuisCache}
+     * qui ne dépend pas du proxy : les appels internes ci-dessous les alimentent.
+     */
+    @Override
+    @CacheEvict(value = { "calendrierPeriode", "calendrierSemaine", "calendrierCache" }, allEntries = true,
+            beforeInvocation = true)
     public void prechargerDonneesFrequentesOptimisees() {
         logger.debug("Pré-chargement des données fréquentes du calendrier");
 
@@ -259,22 +313,56 @@ public class CalendrierServiceImpl implements CalendrierService {
     }
 
     @Override
-    @CacheEvict(value = { "calendrierPeriode", "calendrierSemaine" }, allEntries = true)
+    @CacheEvict(value = { "calendrierPeriode", "calendrierSemaine", "calendrierCache" }, allEntries = true)
     public void invaliderCacheCalendrier() {
         logger.debug("Invalidation du cache calendrier");
     }
 
     @Override
-    @Cacheable(value = "calendrierCache", key = "#dateDebut.toString() + '_' + #dateFin.toString() + '_' + #forceRefresh")
     public CalendrierDTO getDonneesAvecCache(LocalDate dateDebut, LocalDate dateFin, boolean forceRefresh) {
-        CalendrierDTO donnees = getDonneesCalendrierOptimisees(dateDebut, dateFin, true);
+        String cle = dateDebut + "_" + dateFin;
+        if (!forceRefresh) {
+            return depuisCache(CacheConfig.CALENDRIER_CACHE, cle, () -> genererCalendrier(dateDebut, dateFin, true));
+        }
+        CalendrierDTO donnees = genererCalendrier(dateDebut, dateFin, true);
+        mettreEnCache(cacheManager.getCache(CacheConfig.CALENDRIER_CACHE), cle, donnees);
+        return donnees;
+    }
 
-        // Marquer comme données en cache
-        if (donnees.getMetaDonnees() != null) {
-            donnees.getMetaDonnees().setDonneesCache(!forceRefresh);
+    /**
+     * Sert une entrée des caches calendrier ou la génère. Le cache reçoit une
+     * copie marquée {@code donneesCache} : les appels suivants le signalent,
+     * celui qui vient de générer les données non. Les clés gardent le format
+     * attendu par {@link com.example.cosmetest.business.service.CalendrierCacheInvalidator}.
+     */
+    private CalendrierDTO depuisCache(String cacheName, String cle, Supplier<CalendrierDTO> generation) {
+        Cache cache = cacheManager.getCache(cacheName);
+        CalendrierDTO enCache = cache != null ? cache.get(cle, CalendrierDTO.class) : null;
+        if (enCache != null) {
+            return enCache;
         }
+        CalendrierDTO calendrier = generation.get();
+        mettreEnCache(cache, cle, calendrier);
+        return calendrier;
+    }
 
-        return donnees;
+    private static void mettreEnCache(Cache cache, String cle, CalendrierDTO calendrier) {
+        if (cache == null) {
+            return;
+        }
+        CalendrierDTO copie = new CalendrierDTO(calendrier.getDateDebut(), calendrier.getDateFin());
+        copie.setRdvs(calendrier.getRdvs());
+        copie.setEtudes(calendrier.getEtudes());
+        copie.setStatistiques(calendrier.getStatistiques());
+        CalendrierDTO.MetaDonneesCalendrierDTO meta = new CalendrierDTO.MetaDonneesCalendrierDTO();
+        if (calendrier.getMetaDonnees() != null) {
+            meta.setHorodatageGeneration(calendrier.getMetaDonnees().getHorodatageGeneration());
+            meta.setDureeGenerationMs(calendrier.getMetaDonnees().getDureeGenerationMs());
+            meta.setVersionCache(calendrier.getMetaDonnees().getVersionCache());
+        }
+        meta.setDonneesCache(true);
+        copie.setMetaDonnees(meta);
+        cache.put(cle, copie);
     }
 
     @Override
@@ -372,29 +460,27 @@ public class CalendrierServiceImpl implements CalendrierService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Map<String, Object> genererRapportUtilisation(LocalDate dateDebut, LocalDate dateFin) {
         logger.debug("Génération du rapport d'utilisation du {} au {}", dateDebut, dateFin);
 
-        try {
-            Map<String, Object> rapport = new HashMap<>();
-
+        try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
             // Données de base
-            Map<String, Object> statistiques = getStatistiquesPeriode(dateDebut, dateFin);
-            rapport.putAll(statistiques);
+            Map<String, LecturesParalleles.Branche<?>> branches = lancerStatistiques(lot, dateDebut, dateFin);
 
             // Taux d'utilisation par jour
-            Map<LocalDate, Double> tauxUtilisationJour = calculerTauxUtilisationParJour(dateDebut, dateFin);
-            rapport.put("tauxUtilisationParJour", tauxUtilisationJour);
+            branches.put("tauxUtilisationParJour", lot.lancer(() -> calculerTauxUtilisationParJour(dateDebut, dateFin)));
 
             // Études les plus actives
-            List<Map<String, Object>> etudesActives = rdvRepository.findMostActiveStudiesBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin), 10);
-            rapport.put("etudesLesPlusActives", etudesActives);
+            branches.put("etudesLesPlusActives", lot.lancer(() -> rdvRepository.findMostActiveStudiesBetweenDates(
+                    Date.valueOf(dateDebut), Date.valueOf(dateFin), 10)));
 
             // Volontaires les plus actifs
-            List<Map<String, Object>> volontairesActifs = rdvRepository.findMostActiveVolunteersBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin), 10);
-            rapport.put("volontairesLesPlusActifs", volontairesActifs);
+            branches.put("volontairesLesPlusActifs", lot.lancer(() -> rdvRepository.findMostActiveVolunteersBetweenDates(
+                    Date.valueOf(dateDebut), Date.valueOf(dateFin), 10)));
+
+            lot.attendre();
+            Map<String, Object> rapport = resultats(branches);
 
             // Métadonnées du rapport
             rapport.put("dateGeneration", LocalDateTime.now());
@@ -416,20 +502,33 @@ public class CalendrierServiceImpl implements CalendrierService {
             LocalDate dateDebut = LocalDate.now().minusWeeks(nombreSemaines);
             LocalDate dateFin = LocalDate.now();
 
-            Map<String, Object> tendances = new HashMap<>();
+            // Une seule lecture de la table pré-agrégée, par semaine et par état
+            List<RdvSeriePointDTO> points = rdvRollupService.serie(dateDebut, dateFin,
+                    RdvRollupService.Pas.SEMAINE, RdvRollupService.Groupe.ETAT, null, Set.of(), true);
 
-            // Évolution du nombre de RDV par semaine
-            List<Map<String, Object>> evolutionRdv = rdvRepository.countRdvByWeekBetweenDates(
-                    Date.valueOf(dateDebut), Date.valueOf(dateFin));
-            tendances.put("evolutionRdvParSemaine", evolutionRdv);
-
-            // Évolution des états de RDV
+            Map<LocalDate, Integer> totauxSemaine = new TreeMap<>();
             Map<String, List<Map<String, Object>>> evolutionEtats = new HashMap<>();
             for (String etat : Arrays.asList("CONFIRME", "EN_ATTENTE", "ANNULE", "COMPLETE")) {
-                List<Map<String, Object>> evolutionEtat = rdvRepository.countRdvByWeekAndEtatBetweenDates(
-                        Date.valueOf(dateDebut), Date.valueOf(dateFin), etat);
-                evolutionEtats.put(etat, evolutionEtat);
+                evolutionEtats.put(etat, new ArrayList<>());
+            }
+            for (RdvSeriePointDTO point : points) {
+                if (!RdvRollupService.ANNULE.equals(point.groupe())) {
+                    totauxSemaine.merge(point.debut(), (int) point.nombre(), Integer::sum);
+                }
+                List<Map<String, Object>> evolutionEtat = evolutionEtats.get(point.groupe());
+                if (evolutionEtat != null) {
+                    Map<String, Object> semaine = semaine(point.debut(), (int) point.nombre());
+                    semaine.put("etat", point.groupe());
+                    evolutionEtat.add(semaine);
+                }
             }
+
+            // Évolution du nombre de RDV par semaine
+            List<Map<String, Object>> evolutionRdv = new ArrayList<>();
+            totauxSemaine.forEach((debut, count) -> evolutionRdv.add(semaine(debut, count)));
+
+            Map<String, Object> tendances = new HashMap<>();
+            tendances.put("evolutionRdvParSemaine", evolutionRdv);
             tendances.put("evolutionEtats", evolutionEtats);
 
             // Prédictions simples basées sur les tendances
@@ -658,7 +757,7 @@ public class CalendrierServiceImpl implements CalendrierService {
         return String.format("%s ... %s (%d jours)", premiere, derniere, dates.size());
     }
 
-    private CalendrierDTO.StatistiquesCalendrierDTO calculerStatistiques(
+    static CalendrierDTO.StatistiquesCalendrierDTO calculerStatistiques(
             List<CalendrierDTO.RendezVousEnrichiDTO> rdvs,
             List<CalendrierDTO.EtudeCalendrierDTO> etudes) {
 
@@ -769,12 +868,15 @@ public class CalendrierServiceImpl implements CalendrierService {
         return etudeMin;
     }
 
-    private String calculerStatutTemporel(Date dateRdv) {
+    static String calculerStatutTemporel(Date dateRdv) {
+        return calculerStatutTemporel(dateRdv, LocalDate.now());
+    }
+
+    static String calculerStatutTemporel(Date dateRdv, LocalDate aujourdhui) {
         if (dateRdv == null) {
             return "unknown";
         }
 
-        LocalDate aujourdhui = LocalDate.now(); // Fixed character
         LocalDate dateRdvLocal = dateRdv.toLocalDate();
 
         if (dateRdvLocal.equals(aujourdhui)) {
@@ -786,7 +888,7 @@ public class CalendrierServiceImpl implements CalendrierService {
         }
     }
 
-    private Map<String, List<CalendrierDTO.RendezVousEnrichiDTO>> organiserRdvsParStatutTemporel(
+    static Map<String, List<CalendrierDTO.RendezVousEnrichiDTO>> organiserRdvsParStatutTemporel(
             List<CalendrierDTO.RendezVousEnrichiDTO> rdvs) {
 
         return rdvs.stream()
@@ -842,83 +944,72 @@ public class CalendrierServiceImpl implements CalendrierService {
         return rdvEnrichi;
     }
 
-    private Map<LocalDate, List<String>> genererCreneauxLibres(
-            LocalDate dateDebut, LocalDate dateFin,
-            String heureDebut, String heureFin,
-            List<Rdv> rdvsExistants) {
-
-        Map<LocalDate, List<String>> creneauxLibres = new HashMap<>();
-
-        // Générer tous les créneaux de 30 minutes entre heureDebut et heureFin
-        List<String> creneauxPossibles = genererCreneaux(heureDebut, heureFin, 30);
-
-        // Pour chaque jour de la période
-        LocalDate dateCourante = dateDebut;
-        while (!dateCourante.isAfter(dateFin)) {
-            List<String> creneauxLibresJour = new ArrayList<>(creneauxPossibles);
-
-            // Retirer les créneaux occupés
-            Date dateCouranteSQL = Date.valueOf(dateCourante);
-            rdvsExistants.stream()
-                    .filter(rdv -> rdv.getDate().equals(dateCouranteSQL))
-                    .forEach(rdv -> {
-                        String heureRdv = rdv.getHeure();
-                        if (heureRdv != null) {
-                            // Retirer le créneau et celui d'après (durée estimée 1h)
-                            creneauxLibresJour.remove(heureRdv);
-                            String heureApres = calculerHeureApres(heureRdv, 30);
-                            creneauxLibresJour.remove(heureApres);
-                        }
-                    });
+    /**
+     * Lance les cinq requêtes d'agrégat des statistiques de période ; les
+     * résultats sont indexés par leur clé dans la réponse.
+     */
+    private Map<String, LecturesParalleles.Branche<?>> lancerStatistiques(LecturesParalleles.Lot lot,
+                                                                          LocalDate dateDebut, LocalDate dateFin) {
+        Date debut = Date.valueOf(dateDebut);
+        Date fin = Date.valueOf(dateFin);
+        Map<String, LecturesParalleles.Branche<?>> branches = new LinkedHashMap<>();
+
+        // Statistiques RDV
+        branches.put("totalRdv", lot.lancer(() -> rdvRepository.countByDateBetween(debut, fin)));
+        branches.put("repartitionEtats", lot.lancer(() -> rdvRepository.countRdvByEtatBetweenDates(debut, fin)));
+
+        // Statistiques études
+        branches.put("totalEtudes", lot.lancer(() -> etudeRepository.countEtudesActivesEntreDates(dateDebut, dateFin)));
+
+        // Répartitions par jour de la semaine et par tranche horaire, lues dans la table pré-agrégée
+        branches.put("repartitionJours", lot.lancer(() -> repartitionJours(rdvRollupService.serie(dateDebut, dateFin,
+                RdvRollupService.Pas.JOUR, RdvRollupService.Groupe.AUCUN, null, Set.of(), false))));
+        branches.put("repartitionHeures", lot.lancer(() -> repartitionHeures(rdvRollupService.serie(dateDebut, dateFin,
+                RdvRollupService.Pas.JOUR, RdvRollupService.Groupe.HEURE, null, Set.of(), false))));
+
+        return branches;
+    }
 
-            creneauxLibres.put(dateCourante, creneauxLibresJour);
-            dateCourante = dateCourante.plusDays(1);
+    /**
+     * Nombre de RDV par jour de la semaine, sous son nom français (« Lundi »...).
+     */
+    private static Map<String, Integer> repartitionJours(List<RdvSeriePointDTO> points) {
+        Map<String, Integer> repartition = new HashMap<>();
+        for (RdvSeriePointDTO point : points) {
+            String jour = JOURS_SEMAINE[point.debut().getDayOfWeek().getValue() - 1];
+            repartition.merge(jour, (int) point.nombre(), Integer::sum);
         }
-
-        return creneauxLibres;
+        return repartition;
     }
 
-    private List<String> genererCreneaux(String heureDebut, String heureFin, int intervalleMinutes) {
-        List<String> creneaux = new ArrayList<>();
-
-        try {
-            int heureDebutInt = Integer.parseInt(heureDebut.split(":")[0]);
-            int minuteDebutInt = Integer.parseInt(heureDebut.split(":")[1]);
-            int heureFinInt = Integer.parseInt(heureFin.split(":")[0]);
-            int minuteFinInt = Integer.parseInt(heureFin.split(":")[1]);
-
-            int minutesDebut = heureDebutInt * 60 + minuteDebutInt;
-            int minutesFin = heureFinInt * 60 + minuteFinInt;
-
-            for (int minutes = minutesDebut; minutes < minutesFin; minutes += intervalleMinutes) {
-                int heure = minutes / 60;
-                int minute = minutes % 60;
-                creneaux.add(String.format("%02d:%02d", heure, minute));
+    /**
+     * Nombre de RDV par tranche horaire (« 09h »...) ; les RDV sans heure sont ignorés.
+     */
+    private static Map<String, Integer> repartitionHeures(List<RdvSeriePointDTO> points) {
+        Map<String, Integer> repartition = new HashMap<>();
+        for (RdvSeriePointDTO point : points) {
+            if (point.groupe() != null && !point.groupe().isEmpty()) {
+                repartition.merge(point.groupe() + "h", (int) point.nombre(), Integer::sum);
             }
-
-        } catch (Exception e) {
-            logger.warn("Erreur lors de la génération des créneaux", e);
         }
-
-        return creneaux;
+        return repartition;
     }
 
-    private String calculerHeureApres(String heure, int minutesAjouter) {
-        try {
-            String[] parts = heure.split(":");
-            int heureInt = Integer.parseInt(parts[0]);
-            int minuteInt = Integer.parseInt(parts[1]);
-
-            int totalMinutes = heureInt * 60 + minuteInt + minutesAjouter;
-            int nouvelleHeure = (totalMinutes / 60) % 24;
-            int nouvelleMinute = totalMinutes % 60;
-
-            return String.format("%02d:%02d", nouvelleHeure, nouvelleMinute);
+    private static Map<String, Object> resultats(Map<String, LecturesParalleles.Branche<?>> branches) {
+        Map<String, Object> resultats = new HashMap<>();
+        branches.forEach((cle, branche) -> resultats.put(cle, branche.get()));
+        return resultats;
+    }
 
-        } catch (Exception e) {
-            logger.warn("Erreur lors du calcul de l'heure après", e);
-            return heure;
-        }
+    /**
+     * Point hebdomadaire des tendances : année et numéro de semaine ISO.
+     */
+    private static Map<String, Object> semaine(LocalDate lundi, int count) {
+        Map<String, Object> semaine = new HashMap<>();
+        semaine.put("annee", lundi.get(IsoFields.WEEK_BASED_YEAR));
+        semaine.put("semaine", lundi.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+        semaine.put("count", count);
+        return semaine;
     }
 
     private Map<LocalDate, Double> calculerTauxUtilisationParJour(LocalDate dateDebut, LocalDate dateFin) {
@@ -927,9 +1018,13 @@ public class CalendrierServiceImpl implements CalendrierService {
         // Supposons 8 créneaux par jour (8h-12h, 14h-18h)
         int creneauxMaxParJour = 8;
 
+        // Une seule requête groupée par jour ; les jours sans RDV valent 0
+        Map<LocalDate, Integer> rdvsParJour = rdvRepository.countRdvByDateBetweenDates(
+                Date.valueOf(dateDebut), Date.valueOf(dateFin));
+
         LocalDate dateCourante = dateDebut;
         while (!dateCourante.isAfter(dateFin)) {
-            int rdvsJour = rdvRepository.countByDate(Date.valueOf(dateCourante));
+            int rdvsJour = rdvsParJour.getOrDefault(dateCourante, 0);
             double tauxUtilisation = (double) rdvsJour / creneauxMaxParJour * 100;
             taux.put(dateCourante, Math.min(tauxUtilisation, 100.0));
 
@@ -1,25 +1,92 @@
 package com.example.cosmetest.business.service.impl;
 
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.business.service.ConnexionLogService;
+import com.example.cosmetest.business.service.WriteBehindBuffer;
 import com.example.cosmetest.data.repository.ConnexionLogRepository;
 import com.example.cosmetest.domain.model.ConnexionLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Les connexions sont journalisées en différé, par lots JDBC
+ * ({@link WriteBehindBuffer}), hors du temps de réponse du login.
+ */
 @Service
 public class ConnexionLogServiceImpl implements ConnexionLogService {
 
+    private static final String INSERT = "INSERT INTO connexion_log (login, success, ip, created_at) VALUES (?, ?, ?, ?)";
+
     private final ConnexionLogRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final WriteBehindBuffer<ConnexionLog> buffer;
 
-    public ConnexionLogServiceImpl(ConnexionLogRepository repository) {
+    public ConnexionLogServiceImpl(
+            ConnexionLogRepository repository,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${audit.write-behind.capacity:10000}") int capacity,
+            @Value("${audit.write-behind.batch-size:100}") int batchSize,
+            @Value("${audit.write-behind.flush-interval:PT1S}") Duration flushInterval,
+            @Value("${audit.write-behind.max-wait:PT0.5S}") Duration maxWait) {
         this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.buffer = new WriteBehindBuffer<>("connexion_log", capacity, batchSize, flushInterval, maxWait,
+                this::insert, meterRegistry);
     }
 
     @Override
     public void log(String login, boolean success, String ip) {
-        repository.save(new ConnexionLog(login, success, ip));
+        buffer.ajouter(new ConnexionLog(login, success, ip));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        buffer.close();
+    }
+
+    private void insert(List<ConnexionLog> logs) {
+        // Même conversion des dates que Hibernate (hibernate.jdbc.time_zone=UTC)
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        BatchPreparedStatementSetter lignes = new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ConnexionLog log = logs.get(i);
+                ps.setString(1, log.getLogin());
+                ps.setBoolean(2, log.isSuccess());
+                ps.setString(3, log.getIp());
+                ps.setTimestamp(4, Timestamp.valueOf(log.getCreatedAt()), utc);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        };
+        // Un seul commit par lot ; avec rewriteBatchedStatements=true, un seul INSERT multi-lignes
+        transaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, lignes));
     }
 
     @Override
@@ -32,6 +99,15 @@ public class ConnexionLogServiceImpl implements ConnexionLogService {
         return repository.findByCreatedAtBetweenOrderByCreatedAtDesc(debut, fin, PageRequest.of(page, size));
     }
 
+    @Override
+    public PageCurseur<ConnexionLog> findCurseur(java.time.LocalDateTime debut, java.time.LocalDateTime fin,
+                                                 DemandeCurseur demande) {
+        List<ConnexionLog> lignes = repository.findApres(debut, fin, demande.apresCle(), demande.apresId(),
+                demande.limite());
+        return PageCurseur.de(lignes, demande, log -> new Curseur(log.getCreatedAt(), log.getId()),
+                plafond -> repository.countJusqua(debut, fin, plafond));
+    }
+
     @Override
     @Transactional
     public int purgeOlderThan(java.time.LocalDateTime cutoff) {
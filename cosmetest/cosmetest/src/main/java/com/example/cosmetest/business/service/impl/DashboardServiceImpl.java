@@ -14,7 +14,6 @@ import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -23,59 +22,36 @@ public class DashboardServiceImpl implements DashboardService {
 
     private static final Logger logger = LoggerFactory.getLogger(DashboardServiceImpl.class);
 
-    private final VolontaireService volontaireService;
     private final EtudeService etudeService;
     private final RdvService rdvService;
-    private final PreinscritService preinscritService;
     private final RdvRepository rdvRepository;
     private final EtudeVolontaireService etudeVolontaireService;
+    private final DashboardSnapshot dashboardSnapshot;
 
     public DashboardServiceImpl(
-            VolontaireService volontaireService,
             EtudeService etudeService,
             RdvService rdvService,
-            PreinscritService preinscritService,
             RdvRepository rdvRepository,
-            EtudeVolontaireService etudeVolontaireService) {
-        this.volontaireService = volontaireService;
+            EtudeVolontaireService etudeVolontaireService,
+            DashboardSnapshot dashboardSnapshot) {
         this.etudeService = etudeService;
         this.rdvService = rdvService;
-        this.preinscritService = preinscritService;
         this.rdvRepository = rdvRepository;
         this.etudeVolontaireService = etudeVolontaireService;
+        this.dashboardSnapshot = dashboardSnapshot;
     }
 
+    /**
+     * Servi par l'instantané du tableau de bord, sans requête tant que rien n'a changé.
+     */
     @Override
     public DashboardStatsDTO getDashboardStats() {
-        DashboardStatsDTO stats = new DashboardStatsDTO();
-
-        stats.setVolontairesActifs(volontaireService.countActiveVolontaires());
-
-        // Utiliser getCurrentEtudes() pour avoir le même comptage que la liste affichée
-        int etudesEnCours = etudeService.getCurrentEtudes().size();
-        stats.setEtudesEnCours(etudesEnCours);
-
-        stats.setRdvToday(rdvService.countRdvForToday());
-        stats.setPreinscrits(preinscritService.countPreinscrits());
-
-        return stats;
+        return dashboardSnapshot.stats();
     }
 
-
     @Override
     public DailyStatsDTO getDailyStats() {
-        DailyStatsDTO dailyStats = new DailyStatsDTO();
-
-        // Récupération du nombre de volontaires ajoutés aujourd'hui
-        dailyStats.setVolontairesAjoutes(volontaireService.countVolontairesAddedToday());
-
-        // Récupération du nombre de rdv effectués aujourd'hui
-        dailyStats.setRdvEffectues(rdvService.countCompletedRdvToday());
-
-        // Récupération du nombre de nouvelles préinscriptions aujourd'hui
-        dailyStats.setNouvellesPreinscriptions(preinscritService.countNewPreinscritsToday());
-
-        return dailyStats;
+        return dashboardSnapshot.dailyStats();
     }
 
     @Override
@@ -88,81 +64,14 @@ public class DashboardServiceImpl implements DashboardService {
         return enrichVolunteerCounts(etudeService.getRecentEtudes(limit));
     }
 
-    /**
-     * Add this method to your getRecentActivities method in DashboardServiceImpl
-     * to handle null dates in activities
-     */
     @Override
     public List<ActiviteRecenteDTO> getRecentActivities(int limit) {
-        List<ActiviteRecenteDTO> activities = new ArrayList<>();
-
         try {
-            // Récupérer les volontaires récents
-            List<VolontaireDTO> recentVolontaires = volontaireService.getRecentVolontaires(limit);
-
-            // Transformer les volontaires en activités
-            for (VolontaireDTO v : recentVolontaires) {
-                if (v != null) {
-                    ActiviteRecenteDTO activity = new ActiviteRecenteDTO();
-                    activity.setId(v.getIdVol() != null ? v.getIdVol().longValue() : null);
-                    activity.setType("volontaire_ajout");
-                    activity.setDate(v.getDateI());  // Use current date if null
-                    activity.setUser("Admin");
-                    activity.setDescription("a ajouté le volontaire " +
-                            (v.getPrenomVol() != null ? v.getPrenomVol() : "") + " " +
-                            (v.getNomVol() != null ? v.getNomVol() : ""));
-                    activities.add(activity);
-                }
-            }
-
-            // Récupérer les RDV récents
-            List<RdvDTO> recentRdvs = rdvService.getRecentRdvs(limit);
-
-            // Transformer les RDV en activités
-            for (RdvDTO r : recentRdvs) {
-                if (r != null) {
-                    ActiviteRecenteDTO activity = new ActiviteRecenteDTO();
-                    activity.setId(r.getRdvPk());
-                    activity.setType("rdv_planification");
-
-                    // Handle null date by providing a default (today)
-                    LocalDate activityDate = (r.getDate() != null) ?
-                            r.getDate() : LocalDate.now();
-                    activity.setDate(activityDate);
-
-                    // Comme getCreatedBy n'existe pas, utilisez une valeur par défaut
-                    activity.setUser("Système");
-
-                    String etudeRef = etudeService.getEtudeById(r.getIdEtude())
-                            .map(EtudeDTO::getRef)
-                            .orElse("#" + r.getIdEtude());
-                    activity.setDescription("a planifié un RDV pour l'étude " + etudeRef);
-
-                    activities.add(activity);
-                }
-            }
-
-            // Trier par date, handling null dates gracefully
-            activities.sort((a, b) -> {
-                // If both dates are null, consider them equal
-                if (a.getDate() == null && b.getDate() == null) return 0;
-                // Null dates should come last in sorting
-                if (a.getDate() == null) return 1;
-                if (b.getDate() == null) return -1;
-                // Normal comparison if both dates are non-null
-                return b.getDate().compareTo(a.getDate());
-            });
-
-            // Limiter le nombre de résultats
-            if (activities.size() > limit) {
-                activities = activities.subList(0, limit);
-            }
+            return dashboardSnapshot.activites(limit);
         } catch (Exception e) {
-            // Log the exception
             logger.error("Error in getRecentActivities", e);
+            return new ArrayList<>();
         }
-
-        return activities;
     }
 
     @Override
@@ -0,0 +1,286 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.ActiviteRecenteDTO;
+import com.example.cosmetest.business.dto.DailyStatsDTO;
+import com.example.cosmetest.business.dto.DashboardStatsDTO;
+import com.example.cosmetest.business.dto.RdvDTO;
+import com.example.cosmetest.business.dto.VolontaireDTO;
+import com.example.cosmetest.business.event.EtudeChangedEvent;
+import com.example.cosmetest.business.event.PreinscritChangedEvent;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.business.service.EtudeService;
+import com.example.cosmetest.business.service.PreinscritService;
+import com.example.cosmetest.business.service.RdvService;
+import com.example.cosmetest.business.service.VolontaireService;
+import com.example.cosmetest.data.repository.EtudeRepository;
+import com.example.cosmetest.domain.model.Etude;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Instantané des compteurs et du fil d'activité de la page d'accueil.
+ *
+ * L'instantané est découpé en parties (volontaires, rendez-vous, études,
+ * préinscriptions). Une écriture ne rend périmée que sa partie, recalculée
+ * à la lecture suivante ; tant que rien n'a bougé, une lecture ne touche pas
+ * la base. Le changement de jour et la réconciliation périodique recalculent
+ * tout, ce qui rattrape les écritures faites hors des services.
+ */
+@Component
+public class DashboardSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardSnapshot.class);
+
+    /** Profondeur du fil d'activité conservé ; l'accueil en affiche une dizaine. */
+    static final int ACTIVITES_MAX = 50;
+
+    enum Partie { VOLONTAIRES, RDV, ETUDES, PREINSCRITS }
+
+    private final VolontaireService volontaireService;
+    private final EtudeService etudeService;
+    private final RdvService rdvService;
+    private final PreinscritService preinscritService;
+    private final EtudeRepository etudeRepository;
+
+    private final Set<Partie> perimees = ConcurrentHashMap.newKeySet();
+    // ReentrantLock plutôt que synchronized : le recalcul interroge la base, et un
+    // thread virtuel bloqué dans un moniteur resterait épinglé à son porteur
+    private final ReentrantLock verrou = new ReentrantLock();
+    private volatile Etat etat;
+
+    public DashboardSnapshot(VolontaireService volontaireService,
+                             EtudeService etudeService,
+                             RdvService rdvService,
+                             PreinscritService preinscritService,
+                             EtudeRepository etudeRepository) {
+        this.volontaireService = volontaireService;
+        this.etudeService = etudeService;
+        this.rdvService = rdvService;
+        this.preinscritService = preinscritService;
+        this.etudeRepository = etudeRepository;
+    }
+
+    public DashboardStatsDTO stats() {
+        Etat e = courant();
+        return new DashboardStatsDTO(e.volontairesActifs(), e.etudesEnCours(), e.rdvToday(), e.preinscrits());
+    }
+
+    public DailyStatsDTO dailyStats() {
+        Etat e = courant();
+        return new DailyStatsDTO(e.volontairesAjoutes(), e.rdvEffectues(), e.nouvellesPreinscriptions());
+    }
+
+    /**
+     * Les {@code limit} activités les plus récentes, au plus {@link #ACTIVITES_MAX}.
+     */
+    public List<ActiviteRecenteDTO> activites(int limit) {
+        List<Activite> activites = courant().activites();
+        return activites.subList(0, Math.max(0, Math.min(limit, activites.size()))).stream()
+                .map(Activite::toDto)
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVolontaireChanged(VolontaireChangedEvent event) {
+        perimees.add(Partie.VOLONTAIRES);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRdvChanged(RdvChangedEvent event) {
+        perimees.add(Partie.RDV);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEtudeChanged(EtudeChangedEvent event) {
+        // La référence d'étude apparaît aussi dans le fil des rendez-vous
+        perimees.add(Partie.ETUDES);
+        perimees.add(Partie.RDV);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPreinscritChanged(PreinscritChangedEvent event) {
+        perimees.add(Partie.PREINSCRITS);
+    }
+
+    @Scheduled(fixedDelayString = "${dashboard.snapshot.reconcile-interval:PT5M}",
+            initialDelayString = "${dashboard.snapshot.reconcile-interval:PT5M}")
+    public void reconcilier() {
+        if (etat == null) {
+            return;
+        }
+        perimees.addAll(EnumSet.allOf(Partie.class));
+        try {
+            courant();
+        } catch (RuntimeException e) {
+            logger.warn("Réconciliation du tableau de bord impossible: {}", e.getMessage());
+        }
+    }
+
+    private Etat courant() {
+        LocalDate jour = LocalDate.now();
+        Etat e = etat;
+        if (e != null && perimees.isEmpty() && e.jour().equals(jour)) {
+            return e;
+        }
+        verrou.lock();
+        try {
+            e = etat;
+            if (e == null || !e.jour().equals(jour)) {
+                perimees.addAll(EnumSet.allOf(Partie.class));
+            }
+            // Retirées avant le calcul : une écriture pendant celui-ci repérime sa partie
+            EnumSet<Partie> parties = EnumSet.noneOf(Partie.class);
+            for (Partie partie : Partie.values()) {
+                if (perimees.remove(partie)) {
+                    parties.add(partie);
+                }
+            }
+            if (parties.isEmpty()) {
+                return e;
+            }
+            try {
+                etat = recalculer(e, jour, parties);
+            } catch (RuntimeException ex) {
+                perimees.addAll(parties);
+                throw ex;
+            }
+            logger.debug("Tableau de bord recalculé: {}", parties);
+            return etat;
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    private Etat recalculer(Etat precedent, LocalDate jour, Set<Partie> parties) {
+        Etat e = precedent != null ? precedent : Etat.VIDE;
+
+        int volontairesActifs = e.volontairesActifs();
+        int volontairesAjoutes = e.volontairesAjoutes();
+        List<Activite> activitesVolontaires = e.activitesVolontaires();
+        if (parties.contains(Partie.VOLONTAIRES)) {
+            volontairesActifs = volontaireService.countActiveVolontaires();
+            volontairesAjoutes = volontaireService.countVolontairesAddedToday();
+            activitesVolontaires = activitesVolontaires(volontaireService.getRecentVolontaires(ACTIVITES_MAX));
+        }
+
+        int etudesEnCours = e.etudesEnCours();
+        if (parties.contains(Partie.ETUDES)) {
+            // Même comptage que la liste des études en cours affichée
+            etudesEnCours = etudeService.getCurrentEtudes().size();
+        }
+
+        int rdvToday = e.rdvToday();
+        int rdvEffectues = e.rdvEffectues();
+        List<Activite> activitesRdv = e.activitesRdv();
+        if (parties.contains(Partie.RDV)) {
+            rdvToday = rdvService.countRdvForToday();
+            rdvEffectues = rdvService.countCompletedRdvToday();
+            activitesRdv = activitesRdv(rdvService.getRecentRdvs(ACTIVITES_MAX), jour);
+        }
+
+        int preinscrits = e.preinscrits();
+        int nouvellesPreinscriptions = e.nouvellesPreinscriptions();
+        if (parties.contains(Partie.PREINSCRITS)) {
+            preinscrits = preinscritService.countPreinscrits();
+            nouvellesPreinscriptions = preinscritService.countNewPreinscritsToday();
+        }
+
+        return new Etat(jour, volontairesActifs, volontairesAjoutes, etudesEnCours, rdvToday, rdvEffectues,
+                preinscrits, nouvellesPreinscriptions, activitesVolontaires, activitesRdv,
+                fusionner(activitesVolontaires, activitesRdv));
+    }
+
+    private static List<Activite> activitesVolontaires(List<VolontaireDTO> volontaires) {
+        List<Activite> activites = new ArrayList<>(volontaires.size());
+        for (VolontaireDTO v : volontaires) {
+            if (v != null) {
+                activites.add(new Activite(
+                        v.getIdVol() != null ? v.getIdVol().longValue() : null,
+                        "volontaire_ajout",
+                        v.getDateI(),
+                        "Admin",
+                        "a ajouté le volontaire "
+                                + (v.getPrenomVol() != null ? v.getPrenomVol() : "") + " "
+                                + (v.getNomVol() != null ? v.getNomVol() : "")));
+            }
+        }
+        return List.copyOf(activites);
+    }
+
+    private List<Activite> activitesRdv(List<RdvDTO> rdvs, LocalDate jour) {
+        // Références des études chargées en une requête pour tout le fil
+        List<Integer> idEtudes = rdvs.stream()
+                .filter(Objects::nonNull)
+                .map(RdvDTO::getIdEtude)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Integer, String> refs = new HashMap<>();
+        if (!idEtudes.isEmpty()) {
+            for (Etude etude : etudeRepository.findAllById(idEtudes)) {
+                refs.put(etude.getIdEtude(), etude.getRef());
+            }
+        }
+
+        List<Activite> activites = new ArrayList<>(rdvs.size());
+        for (RdvDTO r : rdvs) {
+            if (r != null) {
+                String ref = refs.get(r.getIdEtude());
+                activites.add(new Activite(
+                        r.getRdvPk(),
+                        "rdv_planification",
+                        r.getDate() != null ? r.getDate() : jour,
+                        "Système",
+                        "a planifié un RDV pour l'étude " + (ref != null ? ref : "#" + r.getIdEtude())));
+            }
+        }
+        return List.copyOf(activites);
+    }
+
+    private static List<Activite> fusionner(List<Activite> volontaires, List<Activite> rdvs) {
+        List<Activite> activites = new ArrayList<>(volontaires.size() + rdvs.size());
+        activites.addAll(volontaires);
+        activites.addAll(rdvs);
+        // Plus récentes d'abord, dates inconnues en dernier
+        activites.sort(Comparator.comparing(Activite::date, Comparator.nullsLast(Comparator.reverseOrder())));
+        return List.copyOf(activites.subList(0, Math.min(ACTIVITES_MAX, activites.size())));
+    }
+
+    private record Etat(LocalDate jour,
+                        int volontairesActifs,
+                        int volontairesAjoutes,
+                        int etudesEnCours,
+                        int rdvToday,
+                        int rdvEffectues,
+                        int preinscrits,
+                        int nouvellesPreinscriptions,
+                        List<Activite> activitesVolontaires,
+                        List<Activite> activitesRdv,
+                        List<Activite> activites) {
+
+        static final Etat VIDE = new Etat(LocalDate.MIN, 0, 0, 0, 0, 0, 0, 0, List.of(), List.of(), List.of());
+    }
+
+    private record Activite(Long id, String type, LocalDate date, String user, String description) {
+
+        ActiviteRecenteDTO toDto() {
+            return new ActiviteRecenteDTO(id, type, date, user, description);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.EtudeDTO;
+import com.example.cosmetest.business.event.EtudeChangedEvent;
 import com.example.cosmetest.business.mapper.EtudeMapper;
 import com.example.cosmetest.business.service.EtudeService;
 import com.example.cosmetest.data.repository.EtudeRepository;
@@ -9,6 +10,7 @@ import com.example.cosmetest.domain.model.Etude;
 
 import jakarta.persistence.EntityNotFoundException;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -35,14 +37,17 @@ public class EtudeServiceImpl implements EtudeService {
     private final EtudeMapper etudeMapper;
     private final EtudeRepository etudeRepository;
     private final EtudeVolontaireRepository etudeVolontaireRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public EtudeServiceImpl(
             EtudeRepository etudeRepository,
             EtudeMapper etudeMapper,
-            EtudeVolontaireRepository etudeVolontaireRepository) {
+            EtudeVolontaireRepository etudeVolontaireRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.etudeRepository = etudeRepository;
         this.etudeMapper = etudeMapper;
         this.etudeVolontaireRepository = etudeVolontaireRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -156,6 +161,7 @@ public class EtudeServiceImpl implements EtudeService {
 
         // Sauvegarde
         Etude savedEtude = etudeRepository.save(etude);
+        eventPublisher.publishEvent(new EtudeChangedEvent(etude.getIdEtude()));
 
         // Conversion en DTO pour retour
         return etudeMapper.toDto(savedEtude);
@@ -170,6 +176,7 @@ public class EtudeServiceImpl implements EtudeService {
         // Soft-delete : archiver au lieu de supprimer définitivement
         etude.setArchive(true);
         etudeRepository.save(etude);
+        eventPublisher.publishEvent(new EtudeChangedEvent(id));
     }
 
     @Override
@@ -412,6 +419,7 @@ public class EtudeServiceImpl implements EtudeService {
 
         // Sauvegarde
         Etude savedEtude = etudeRepository.save(etude);
+        eventPublisher.publishEvent(new EtudeChangedEvent(etude.getIdEtude()));
 
         // Si un IV est défini, mettre à jour l'IV pour tous les volontaires
         if (etudeDTO.getIv() != null) {
@@ -509,6 +517,7 @@ public class EtudeServiceImpl implements EtudeService {
                 .map(etude -> {
                     etude.setArchive(archive);
                     Etude saved = etudeRepository.save(etude);
+                    eventPublisher.publishEvent(new EtudeChangedEvent(id));
                     return etudeMapper.toDto(saved);
                 });
     }
@@ -12,10 +12,13 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @Transactional(readOnly = true)
@@ -55,10 +58,16 @@ public class EtudeVolontaireServiceImpl implements EtudeVolontaireService {
         }
         return mapper.toDto(repository.save(entity));
     }
+    public void validateNewAssociation(EtudeVolontaireDTO dto){validate(dto);}
     @Transactional public void deleteEtudeVolontaire(Long id){repository.delete(required(id));}
     @Transactional public void deleteEtudeVolontaire(EtudeVolontaireId id){deleteEtudeVolontaire(requireSingle(legacyMatches(id),id).getId());}
 
     public boolean existsByEtudeAndVolontaire(int e,int v){positive(e,"idEtude");positive(v,"idVolontaire");return repository.existsByIdEtudeAndIdVolontaire(e,v);}
+    public Set<Integer> findAssociatedVolunteerIds(int e,Collection<Integer> v){
+        positive(e,"idEtude");
+        if(v==null||v.isEmpty()) return Set.of();
+        return new HashSet<>(repository.findAssociatedVolunteerIds(e,v));
+    }
     public Long countVolontairesByEtude(int e){positive(e,"idEtude");return repository.countVolontairesByEtude(e);}
     public Map<Integer, Long> countActiveDistinctVolunteersByStudyIds(List<Integer> ids){
         if(ids==null||ids.isEmpty()) return Map.of();
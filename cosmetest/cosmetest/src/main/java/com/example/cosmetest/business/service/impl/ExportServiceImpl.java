@@ -0,0 +1,507 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.mapper.VolontaireNormalizer;
+import com.example.cosmetest.business.service.ExportService;
+import com.example.cosmetest.config.ExportConfig;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Exports en flux lus directement en JDBC : aucune entité n'est chargée, donc
+ * rien ne s'accumule dans un contexte de persistance. Chaque ligne du curseur
+ * est écrite dans la sortie puis oubliée.
+ *
+ * Les colonnes et filtres sont des listes blanches : seuls leurs noms viennent
+ * de la requête, le SQL est construit à partir des définitions ci-dessous et
+ * les valeurs de filtre sont liées en paramètres.
+ *
+ * Les lectures passent par le pool réservé aux exports
+ * ({@link ExportConfig#exportDataSource}) ; au plus {@code export.max-concurrent}
+ * exports sont préparés ou en cours à la fois.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportServiceImpl.class);
+
+    private static final Map<Jeu, Definition> DEFINITIONS = new EnumMap<>(Jeu.class);
+
+    static {
+        DEFINITIONS.put(Jeu.VOLONTAIRES, new Definition("volontaire", "ID_VOL",
+                List.of(
+                        new Colonne("idVol", "ID_VOL", Type.ENTIER),
+                        new Colonne("titreVol", "TITRE_VOL", Type.TEXTE),
+                        new Colonne("nomVol", "NOM_VOL", Type.TEXTE),
+                        new Colonne("prenomVol", "PRENOM_VOL", Type.TEXTE),
+                        new Colonne("adresseVol", "ADRESSE_VOL", Type.TEXTE),
+                        new Colonne("cpVol", "CP_VOL", Type.TEXTE),
+                        new Colonne("villeVol", "VILLE_VOL", Type.TEXTE),
+                        new Colonne("telDomicileVol", "TEL_DOMICILE_VOL", Type.TEXTE),
+                        new Colonne("telPortableVol", "TEL_PORTABLE_VOL", Type.TEXTE),
+                        new Colonne("emailVol", "EMAIL_VOL", Type.TEXTE),
+                        new Colonne("sexe", "SEXE", Type.TEXTE, VolontaireNormalizer::normalizeSexe),
+                        new Colonne("dateNaissance", "DATE_NAISSANCE", Type.DATE),
+                        new Colonne("archive", "ARCHIVE", Type.BOOLEEN),
+                        new Colonne("standby", "STANDBY", Type.BOOLEEN),
+                        new Colonne("dateFinStandby", "DATE_FIN_STANDBY", Type.TEXTE),
+                        new Colonne("commentairesVol", "commentaires_vol", Type.TEXTE),
+                        new Colonne("ethnie", "ethnie", Type.TEXTE),
+                        new Colonne("sousEthnie", "sous_ethnie", Type.TEXTE),
+                        new Colonne("phototype", "phototype", Type.TEXTE, VolontaireNormalizer::normalizePhototype),
+                        new Colonne("typePeauVisage", "type_peau_visage", Type.TEXTE,
+                                VolontaireNormalizer::normalizeTypePeauVisage),
+                        new Colonne("poids", "poids", Type.ENTIER),
+                        new Colonne("taille", "taille", Type.ENTIER),
+                        new Colonne("dateI", "DATE_I", Type.DATE),
+                        new Colonne("dateModif", "DATE_MODIF", Type.DATE),
+                        new Colonne("santeCompatible", "sante_compatible", Type.TEXTE),
+                        new Colonne("observations", "OBSERVATIONS", Type.TEXTE)),
+                List.of(
+                        new Filtre("archive", "ARCHIVE = ?", Type.BOOLEEN),
+                        new Filtre("standby", "STANDBY = ?", Type.BOOLEEN),
+                        new Filtre("inscritDepuis", "DATE_I >= ?", Type.DATE),
+                        new Filtre("inscritAvant", "DATE_I < ?", Type.DATE),
+                        new Filtre("cp", "CP_VOL LIKE ?", Type.PREFIXE))));
+
+        DEFINITIONS.put(Jeu.RDVS, new Definition("rdv", "RDV_PK",
+                List.of(
+                        new Colonne("rdvPk", "RDV_PK", Type.ENTIER),
+                        new Colonne("idEtude", "ID_ETUDE", Type.ENTIER),
+                        new Colonne("idRdv", "ID_RDV", Type.ENTIER),
+                        new Colonne("idVolontaire", "ID_VOLONTAIRE", Type.ENTIER),
+                        new Colonne("idGroupe", "ID_GROUPE", Type.ENTIER),
+                        new Colonne("date", "DATE", Type.DATE),
+                        new Colonne("heure", "HEURE", Type.TEXTE),
+                        new Colonne("etat", "ETAT", Type.TEXTE),
+                        new Colonne("commentaires", "COMMENTAIRES", Type.TEXTE),
+                        new Colonne("duree", "DUREE", Type.ENTIER)),
+                List.of(
+                        new Filtre("idEtude", "ID_ETUDE = ?", Type.ENTIER),
+                        new Filtre("idVolontaire", "ID_VOLONTAIRE = ?", Type.ENTIER),
+                        new Filtre("etat", "ETAT = ?", Type.TEXTE),
+                        new Filtre("du", "DATE >= ?", Type.DATE),
+                        new Filtre("au", "DATE <= ?", Type.DATE))));
+
+        DEFINITIONS.put(Jeu.PAIEMENTS, new Definition("etude_volontaire", "ID_ETUDE_VOLONTAIRE",
+                List.of(
+                        new Colonne("id", "ID_ETUDE_VOLONTAIRE", Type.ENTIER),
+                        new Colonne("idEtude", "ID_ETUDE", Type.ENTIER),
+                        new Colonne("idGroupe", "ID_GROUPE", Type.ENTIER),
+                        new Colonne("idVolontaire", "ID_VOLONTAIRE", Type.ENTIER),
+                        new Colonne("iv", "IV", Type.ENTIER),
+                        new Colonne("numsujet", "NUMSUJET", Type.ENTIER),
+                        new Colonne("paye", "PAYE", Type.ENTIER),
+                        new Colonne("statut", "STATUT", Type.TEXTE)),
+                List.of(
+                        new Filtre("idEtude", "ID_ETUDE = ?", Type.ENTIER),
+                        new Filtre("idVolontaire", "ID_VOLONTAIRE = ?", Type.ENTIER),
+                        new Filtre("paye", "PAYE = ?", Type.ENTIER),
+                        new Filtre("statut", "STATUT = ?", Type.TEXTE))));
+
+        DEFINITIONS.put(Jeu.ANNULATIONS, new Definition("annulation", "ID_annuler",
+                List.of(
+                        new Colonne("idAnnuler", "ID_annuler", Type.ENTIER),
+                        new Colonne("idVol", "id_vol", Type.ENTIER),
+                        new Colonne("idEtude", "id_etude", Type.ENTIER),
+                        new Colonne("idRdv", "id_rdv", Type.ENTIER),
+                        new Colonne("dateAnnulation", "date_annulation", Type.TEXTE),
+                        new Colonne("commentaire", "commentaire", Type.TEXTE),
+                        new Colonne("annulePar", "annule_par", Type.TEXTE)),
+                List.of(
+                        new Filtre("idEtude", "id_etude = ?", Type.ENTIER),
+                        new Filtre("idVol", "id_vol = ?", Type.ENTIER),
+                        new Filtre("annulePar", "annule_par = ?", Type.TEXTE))));
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+    private final Semaphore places;
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .build();
+
+    public ExportServiceImpl(@Qualifier(ExportConfig.EXPORT) DataSource dataSource,
+                             @Value("${export.fetch-size:1000}") int fetchSize,
+                             @Value("${export.max-concurrent:2}") int maxSimultanes) {
+        if (fetchSize <= 0 || maxSimultanes <= 0) {
+            throw new IllegalArgumentException(
+                    "export.fetch-size et export.max-concurrent doivent être strictement positifs");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.fetchSize = fetchSize;
+        this.places = new Semaphore(maxSimultanes);
+    }
+
+    @Override
+    public List<String> colonnesDisponibles(Jeu jeu) {
+        return DEFINITIONS.get(jeu).colonnes().keySet().stream().toList();
+    }
+
+    @Override
+    public List<String> filtresDisponibles(Jeu jeu) {
+        return DEFINITIONS.get(jeu).filtres().keySet().stream().toList();
+    }
+
+    @Override
+    public Export preparer(Jeu jeu, Format format, List<String> colonnes, Map<String, String> filtres) {
+        Definition definition = DEFINITIONS.get(jeu);
+
+        List<Colonne> selection = new ArrayList<>();
+        if (colonnes == null || colonnes.isEmpty()) {
+            selection.addAll(definition.colonnes().values());
+        } else {
+            for (String nom : new LinkedHashSet<>(colonnes)) {
+                Colonne colonne = definition.colonnes().get(nom);
+                if (colonne == null) {
+                    throw new IllegalArgumentException("Colonne inconnue pour l'export " + jeu.nom() + ": " + nom
+                            + " (disponibles: " + String.join(", ", definition.colonnes().keySet()) + ")");
+                }
+                selection.add(colonne);
+            }
+        }
+
+        List<String> clauses = new ArrayList<>();
+        List<Object> parametres = new ArrayList<>();
+        if (filtres != null) {
+            for (Map.Entry<String, String> entree : filtres.entrySet()) {
+                Filtre filtre = definition.filtres().get(entree.getKey());
+                if (filtre == null) {
+                    throw new IllegalArgumentException("Filtre inconnu pour l'export " + jeu.nom() + ": "
+                            + entree.getKey() + " (disponibles: "
+                            + String.join(", ", definition.filtres().keySet()) + ")");
+                }
+                clauses.add(filtre.clause());
+                parametres.add(filtre.type().lire(filtre.nom(), entree.getValue()));
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < selection.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(selection.get(i).sql());
+        }
+        sql.append(" FROM ").append(definition.table());
+        if (!clauses.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", clauses));
+        }
+        // Ordre stable : deux exports successifs sans écriture sont identiques
+        sql.append(" ORDER BY ").append(definition.cle());
+
+        if (!places.tryAcquire()) {
+            throw new IllegalStateException("Trop d'exports en cours, réessayez plus tard");
+        }
+        String nomFichier = jeu.nom() + "-" + LocalDate.now() + "." + format.extension();
+        return new ExportJdbc(jeu, format, nomFichier, sql.toString(), List.copyOf(selection),
+                parametres.toArray());
+    }
+
+    private final class ExportJdbc implements Export {
+
+        private static final int RESERVE = 0;
+        private static final int EN_COURS = 1;
+        private static final int LIBERE = 2;
+
+        private final Jeu jeu;
+        private final Format format;
+        private final String nomFichier;
+        private final String sql;
+        private final List<Colonne> colonnes;
+        private final Object[] parametres;
+        private final AtomicInteger etat = new AtomicInteger(RESERVE);
+
+        ExportJdbc(Jeu jeu, Format format, String nomFichier, String sql, List<Colonne> colonnes,
+                   Object[] parametres) {
+            this.jeu = jeu;
+            this.format = format;
+            this.nomFichier = nomFichier;
+            this.sql = sql;
+            this.colonnes = colonnes;
+            this.parametres = parametres;
+        }
+
+        @Override
+        public String nomFichier() {
+            return nomFichier;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return format.contentType();
+        }
+
+        @Override
+        public long ecrire(OutputStream sortie) throws IOException {
+            if (!etat.compareAndSet(RESERVE, EN_COURS)) {
+                throw new IllegalStateException("Export déjà écrit ou abandonné");
+            }
+            try {
+                return lire(sortie);
+            } finally {
+                etat.set(LIBERE);
+                places.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            // Une écriture en cours rend sa place elle-même, à la fin de sa lecture
+            if (etat.compareAndSet(RESERVE, LIBERE)) {
+                places.release();
+            }
+        }
+
+        private long lire(OutputStream sortie) throws IOException {
+            long debut = System.nanoTime();
+            long[] lignes = {0};
+            Object[] valeurs = new Object[colonnes.size()];
+            try (Ecrivain ecrivain = format == Format.CSV ? new EcrivainCsv(sortie, colonnes)
+                    : new EcrivainNdjson(jsonFactory.createGenerator(sortie), colonnes)) {
+                jdbcTemplate.query(connexion -> curseur(connexion, sql, parametres), rs -> {
+                    for (int i = 0; i < valeurs.length; i++) {
+                        valeurs[i] = colonnes.get(i).lire(rs, i + 1);
+                    }
+                    try {
+                        ecrivain.ligne(valeurs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    lignes[0]++;
+                });
+            } catch (UncheckedIOException e) {
+                // Le plus souvent, le client a interrompu le téléchargement
+                logger.info("Export {} interrompu après {} ligne(s): {}", jeu.nom(), lignes[0],
+                        e.getCause().getMessage());
+                throw e.getCause();
+            }
+            logger.info("Export {} ({}): {} ligne(s) en {} ms", jeu.nom(), format.extension(), lignes[0],
+                    (System.nanoTime() - debut) / 1_000_000);
+            return lignes[0];
+        }
+    }
+
+    /**
+     * Requête en avant seulement et en lecture seule, lue par paquets de
+     * {@code fetchSize} lignes (curseur serveur, activé sur le pool des
+     * exports pour MySQL).
+     */
+    private PreparedStatement curseur(Connection connexion, String sql, Object[] parametres) throws SQLException {
+        PreparedStatement ps = connexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(fetchSize);
+        for (int i = 0; i < parametres.length; i++) {
+            ps.setObject(i + 1, parametres[i]);
+        }
+        return ps;
+    }
+
+    private interface Ecrivain extends AutoCloseable {
+
+        void ligne(Object[] valeurs) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Un objet JSON par ligne, séparés par des retours à la ligne.
+     */
+    private static final class EcrivainNdjson implements Ecrivain {
+
+        private final JsonGenerator generateur;
+        private final List<Colonne> colonnes;
+
+        EcrivainNdjson(JsonGenerator generateur, List<Colonne> colonnes) {
+            this.generateur = generateur;
+            this.colonnes = colonnes;
+            // Le séparateur par défaut entre valeurs racines est une espace
+            generateur.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void ligne(Object[] valeurs) throws IOException {
+            generateur.writeStartObject();
+            for (int i = 0; i < valeurs.length; i++) {
+                generateur.writeFieldName(colonnes.get(i).nom());
+                Object valeur = valeurs[i];
+                if (valeur == null) {
+                    generateur.writeNull();
+                } else if (valeur instanceof Long nombre) {
+                    generateur.writeNumber(nombre);
+                } else if (valeur instanceof Boolean booleen) {
+                    generateur.writeBoolean(booleen);
+                } else {
+                    generateur.writeString(valeur.toString());
+                }
+            }
+            generateur.writeEndObject();
+            generateur.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generateur.close();
+        }
+    }
+
+    /**
+     * CSV selon la RFC 4180 : ligne d'en-tête, séparateur virgule, fins de
+     * ligne CRLF, champs entre guillemets lorsqu'ils en ont besoin.
+     */
+    private static final class EcrivainCsv implements Ecrivain {
+
+        private final Writer writer;
+
+        EcrivainCsv(OutputStream sortie, List<Colonne> colonnes) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8), 8192);
+            for (int i = 0; i < colonnes.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                champ(colonnes.get(i).nom());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void ligne(Object[] valeurs) throws IOException {
+            for (int i = 0; i < valeurs.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valeurs[i] != null) {
+                    champ(valeurs[i].toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void champ(String valeur) throws IOException {
+            boolean guillemets = false;
+            for (int i = 0; i < valeur.length() && !guillemets; i++) {
+                char c = valeur.charAt(i);
+                guillemets = c == ',' || c == '"' || c == '\r' || c == '\n';
+            }
+            if (!guillemets) {
+                writer.write(valeur);
+                return;
+            }
+            writer.write('"');
+            writer.write(valeur.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Vide le tampon sans fermer la réponse
+            writer.flush();
+        }
+    }
+
+    private enum Type {
+        TEXTE, ENTIER, BOOLEEN, DATE,
+        /** Filtre « commence par », sur une colonne texte. */
+        PREFIXE;
+
+        Object lire(ResultSet rs, int index) throws SQLException {
+            return switch (this) {
+                case ENTIER -> {
+                    long valeur = rs.getLong(index);
+                    yield rs.wasNull() ? null : valeur;
+                }
+                case BOOLEEN -> {
+                    boolean valeur = rs.getBoolean(index);
+                    yield rs.wasNull() ? null : valeur;
+                }
+                case DATE -> {
+                    Date valeur = rs.getDate(index);
+                    yield valeur != null ? valeur.toLocalDate().toString() : null;
+                }
+                case TEXTE, PREFIXE -> rs.getString(index);
+            };
+        }
+
+        Object lire(String filtre, String valeur) {
+            if (valeur == null || valeur.isBlank()) {
+                throw new IllegalArgumentException("Valeur manquante pour le filtre " + filtre);
+            }
+            String v = valeur.trim();
+            try {
+                return switch (this) {
+                    case ENTIER -> Long.parseLong(v);
+                    case BOOLEEN -> {
+                        if (!v.equalsIgnoreCase("true") && !v.equalsIgnoreCase("false")) {
+                            throw new IllegalArgumentException("Booléen attendu pour le filtre " + filtre + ": " + v);
+                        }
+                        yield Boolean.parseBoolean(v);
+                    }
+                    case DATE -> Date.valueOf(LocalDate.parse(v));
+                    case TEXTE -> v;
+                    case PREFIXE -> v.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                };
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Valeur invalide pour le filtre " + filtre + ": " + v);
+            }
+        }
+    }
+
+    private record Colonne(String nom, String sql, Type type, UnaryOperator<String> normalisation) {
+
+        Colonne(String nom, String sql, Type type) {
+            this(nom, sql, type, null);
+        }
+
+        Object lire(ResultSet rs, int index) throws SQLException {
+            Object valeur = type.lire(rs, index);
+            return normalisation != null && valeur != null ? normalisation.apply((String) valeur) : valeur;
+        }
+    }
+
+    private record Filtre(String nom, String clause, Type type) {
+    }
+
+    private record Definition(String table, String cle, Map<String, Colonne> colonnes, Map<String, Filtre> filtres) {
+
+        Definition(String table, String cle, List<Colonne> colonnes, List<Filtre> filtres) {
+            this(table, cle, parNom(colonnes, Colonne::nom), parNom(filtres, Filtre::nom));
+        }
+
+        private static <T> Map<String, T> parNom(List<T> elements, Function<T, String> nom) {
+            Map<String, T> parNom = new LinkedHashMap<>();
+            for (T element : elements) {
+                parNom.put(nom.apply(element), element);
+            }
+            return parNom;
+        }
+    }
+}
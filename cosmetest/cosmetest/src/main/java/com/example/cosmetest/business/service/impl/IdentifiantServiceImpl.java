@@ -3,8 +3,10 @@ package com.example.cosmetest.business.service.impl;
 import com.example.cosmetest.business.dto.IdentifiantDTO;
 import com.example.cosmetest.business.mapper.IdentifiantMapper;
 import com.example.cosmetest.business.service.IdentifiantService;
+import com.example.cosmetest.config.CacheConfig;
 import com.example.cosmetest.domain.model.Identifiant;
 import com.example.cosmetest.data.repository.IdentifiantRepository;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -97,6 +99,8 @@ public class IdentifiantServiceImpl implements IdentifiantService {
     }
 
     @Override
+    // Rôle ou login modifiés : les principaux JWT en cache ne sont plus fiables
+    @CacheEvict(value = CacheConfig.PRINCIPAUX_AUTHENTIFIES, allEntries = true)
     public Optional<IdentifiantDTO> updateIdentifiant(Integer id, IdentifiantDTO identifiantDTO) {
         if (id == null || !identifiantRepository.existsById(id)) {
             return Optional.empty();
@@ -113,6 +117,7 @@ public class IdentifiantServiceImpl implements IdentifiantService {
     }
 
     @Override
+    @CacheEvict(value = CacheConfig.PRINCIPAUX_AUTHENTIFIES, allEntries = true)
     public boolean deleteIdentifiant(Integer id) {
         if (id == null || !identifiantRepository.existsById(id)) {
             return false;
@@ -123,6 +128,8 @@ public class IdentifiantServiceImpl implements IdentifiantService {
     }
 
     @Override
+    // Le principal en cache porte l'ancien mot de passe
+    @CacheEvict(value = CacheConfig.PRINCIPAUX_AUTHENTIFIES, allEntries = true)
     public boolean changerMotDePasse(Integer id, String ancienMdp, String nouveauMdp) {
         if (id == null || ancienMdp == null || nouveauMdp == null) {
             return false;
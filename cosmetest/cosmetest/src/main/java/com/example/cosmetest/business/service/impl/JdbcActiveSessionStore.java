@@ -0,0 +1,176 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.ActiveSessionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions actives partagées entre les instances dans la table
+ * {@code session_active} : la liste et l'expiration couvrent tous les nœuds.
+ *
+ * Une connexion est écrite immédiatement. L'activité, reçue à chaque requête,
+ * est regroupée par login sur le nœud puis écrite par lots toutes les
+ * {@code auth.sessions.sync-interval}, et avant toute lecture ou retrait fait
+ * par ce nœud. L'expiration passe par un {@code DELETE} conditionnel : un
+ * seul nœud obtient la session et en écrit l'historique.
+ *
+ * Une déconnexion ne supprime pas la ligne : dans une transaction qui la
+ * verrouille, elle relit la session puis y note l'heure de fermeture. Une
+ * activité encore en attente sur un autre nœud, antérieure à la fermeture,
+ * est alors ignorée au lieu de recréer la session ; une activité postérieure
+ * (autre appareil du même login) la rouvre. Les fermetures sont purgées avec
+ * les sessions expirées.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.store", havingValue = "jdbc")
+public class JdbcActiveSessionStore implements ActiveSessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcActiveSessionStore.class);
+
+    private static final String COLONNES = "SELECT LOGIN, CONNEXION, DERNIERE_ACTION FROM session_active";
+    private static final String OUVERTES = " AND FERMETURE IS NULL";
+    private static final String INSERTION = "INSERT INTO session_active (LOGIN, CONNEXION, DERNIERE_ACTION) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE ";
+    /**
+     * Activité sur une ligne existante : une session fermée n'est rouverte que
+     * par une activité postérieure à sa fermeture. FERMETURE est affectée en
+     * dernier, les deux premières colonnes lisent donc sa valeur d'origine.
+     */
+    private static final String ACTIVITE = INSERTION
+            + "CONNEXION = CASE WHEN FERMETURE < ? THEN ? ELSE CONNEXION END, "
+            + "DERNIERE_ACTION = CASE WHEN FERMETURE < ? THEN ? WHEN FERMETURE IS NULL THEN %s "
+            + "ELSE DERNIERE_ACTION END, "
+            + "FERMETURE = CASE WHEN FERMETURE < ? THEN NULL ELSE FERMETURE END";
+    private static final RowMapper<Session> SESSION = (rs, ligne) -> new Session(rs.getString(1),
+            rs.getTimestamp(2).toInstant(), rs.getTimestamp(3).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    /** Dernière action utilisateur non écrite, par login. */
+    private final Map<String, Instant> actionsEnAttente = new ConcurrentHashMap<>();
+    /** Requêtes de fond non écrites : créent la session si elle n'existe pas. */
+    private final Map<String, Instant> presencesEnAttente = new ConcurrentHashMap<>();
+
+    public JdbcActiveSessionStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void ouvrir(String login, Instant maintenant) {
+        Timestamp instant = Timestamp.from(maintenant);
+        jdbcTemplate.update(INSERTION + "CONNEXION = ?, DERNIERE_ACTION = ?, FERMETURE = NULL",
+                login, instant, instant, instant, instant);
+    }
+
+    @Override
+    public void activite(String login, Instant maintenant, boolean actionUtilisateur) {
+        if (actionUtilisateur) {
+            actionsEnAttente.merge(login, maintenant, (a, b) -> a.isAfter(b) ? a : b);
+        } else {
+            presencesEnAttente.putIfAbsent(login, maintenant);
+        }
+    }
+
+    @Override
+    public Optional<Session> fermer(String login) {
+        ecrire();
+        Timestamp fermeture = Timestamp.from(Instant.now());
+        // Ligne verrouillée jusqu'à la fin : la session rendue est exactement celle qui est fermée
+        return transaction.execute(status -> {
+            List<Session> sessions = jdbcTemplate.query(COLONNES + " WHERE LOGIN = ?" + OUVERTES + " FOR UPDATE",
+                    SESSION, login);
+            if (sessions.isEmpty()) {
+                return Optional.empty();
+            }
+            jdbcTemplate.update("UPDATE session_active SET FERMETURE = ? WHERE LOGIN = ?", fermeture, login);
+            return Optional.of(sessions.get(0));
+        });
+    }
+
+    @Override
+    public List<Session> expirer(Instant limite) {
+        ecrire();
+        Timestamp seuil = Timestamp.from(limite);
+        List<Session> expirees = new ArrayList<>();
+        for (Session session : jdbcTemplate.query(COLONNES + " WHERE DERNIERE_ACTION < ?" + OUVERTES, SESSION, seuil)) {
+            // Conditionnel : ni une activité récente ni un autre nœud ne se voient retirer la session
+            if (jdbcTemplate.update("DELETE FROM session_active WHERE LOGIN = ? AND DERNIERE_ACTION < ?" + OUVERTES,
+                    session.login(), seuil) == 1) {
+                expirees.add(session);
+            }
+        }
+        // Plus aucune activité en attente ne peut dater d'avant ces fermetures
+        jdbcTemplate.update("DELETE FROM session_active WHERE FERMETURE < ?", seuil);
+        return expirees;
+    }
+
+    @Override
+    public List<Session> actives(Instant limite) {
+        ecrire();
+        return jdbcTemplate.query(COLONNES + " WHERE DERNIERE_ACTION >= ?" + OUVERTES + " ORDER BY CONNEXION", SESSION,
+                Timestamp.from(limite));
+    }
+
+    /**
+     * Écrit l'activité regroupée depuis le dernier passage ; en cas d'échec,
+     * elle est remise en attente pour le passage suivant.
+     */
+    @Scheduled(fixedDelayString = "${auth.sessions.sync-interval:PT15S}")
+    public void ecrire() {
+        Map<String, Instant> actions = extraire(actionsEnAttente);
+        Map<String, Instant> presences = extraire(presencesEnAttente);
+        presences.keySet().removeAll(actions.keySet());
+        if (actions.isEmpty() && presences.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(String.format(ACTIVITE, "GREATEST(DERNIERE_ACTION, ?)"), lignes(actions, true));
+            jdbcTemplate.batchUpdate(String.format(ACTIVITE, "DERNIERE_ACTION"), lignes(presences, false));
+        } catch (RuntimeException e) {
+            logger.warn("Écriture de l'activité des sessions impossible: {}", e.getMessage());
+            actions.forEach((login, instant) -> activite(login, instant, true));
+            presences.forEach((login, instant) -> activite(login, instant, false));
+        }
+    }
+
+    private static Map<String, Instant> extraire(Map<String, Instant> enAttente) {
+        Map<String, Instant> extraits = new HashMap<>();
+        for (String login : Set.copyOf(enAttente.keySet())) {
+            Instant instant = enAttente.remove(login);
+            if (instant != null) {
+                extraits.put(login, instant);
+            }
+        }
+        return extraits;
+    }
+
+    private static List<Object[]> lignes(Map<String, Instant> activites, boolean miseAJour) {
+        List<Object[]> lignes = new ArrayList<>(activites.size());
+        activites.forEach((login, instant) -> {
+            Timestamp ts = Timestamp.from(instant);
+            lignes.add(miseAJour
+                    ? new Object[] {login, ts, ts, ts, ts, ts, ts, ts, ts}
+                    : new Object[] {login, ts, ts, ts, ts, ts, ts, ts});
+        });
+        return lignes;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.TokenRevocationStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Révocations partagées entre les instances dans la table {@code token_revoque}.
+ *
+ * Chaque nœud tient un filtre de Bloom des empreintes révoquées : un jeton
+ * absent du filtre (le cas de presque toutes les requêtes) est accepté sans
+ * lire la base ; un jeton présent est confirmé par une lecture sur la clé
+ * primaire. Le filtre reçoit aussitôt les révocations du nœud et celles des
+ * autres nœuds à chaque synchronisation ({@code auth.revocation.sync-interval}),
+ * qui borne donc le délai de propagation d'une déconnexion. Il est reconstruit
+ * après la purge des jetons expirés.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.store", havingValue = "jdbc")
+public class JdbcTokenRevocationStore implements TokenRevocationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcTokenRevocationStore.class);
+
+    /** Relecture commune à deux synchronisations, pour l'écart d'horloge entre les nœuds. */
+    private static final Duration RECOUVREMENT = Duration.ofMinutes(1);
+    private static final int CAPACITE_MIN = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    /** Null tant qu'il n'a pas été chargé : chaque vérification lit alors la base. */
+    private volatile RevocationBloomFilter filtre;
+    private volatile Instant synchroniseDepuis;
+
+    public JdbcTokenRevocationStore(JdbcTemplate jdbcTemplate) {
+        this(jdbcTemplate, Clock.systemUTC());
+    }
+
+    JdbcTokenRevocationStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public void revoquer(String jeton, Instant expiration) {
+        Instant maintenant = clock.instant();
+        if (!expiration.isAfter(maintenant)) {
+            return;
+        }
+        String cle = TokenRevocationStore.cle(jeton);
+        jdbcTemplate.update("INSERT INTO token_revoque (CLE, EXPIRATION, REVOQUE_LE) VALUES (?, ?, ?) "
+                        + "ON DUPLICATE KEY UPDATE EXPIRATION = EXPIRATION",
+                cle, Timestamp.from(expiration), Timestamp.from(maintenant));
+        // Après l'insertion : un filtre remplacé entre-temps la relit au rattrapage
+        RevocationBloomFilter f = filtre;
+        if (f != null) {
+            f.ajouter(cle);
+        }
+    }
+
+    @Override
+    public boolean estRevoque(String jeton) {
+        String cle = TokenRevocationStore.cle(jeton);
+        RevocationBloomFilter f = filtre;
+        if (f != null && !f.peutContenir(cle)) {
+            return false;
+        }
+        Integer revocations = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM token_revoque WHERE CLE = ? AND EXPIRATION > ?",
+                Integer.class, cle, Timestamp.from(clock.instant()));
+        return revocations != null && revocations > 0;
+    }
+
+    /**
+     * Ajoute au filtre les révocations faites depuis la dernière synchronisation,
+     * sur ce nœud ou un autre. Charge le filtre au premier passage.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.sync-interval:PT5S}")
+    public void synchroniser() {
+        try {
+            if (filtre == null) {
+                reconstruire();
+            } else {
+                rattraper(filtre);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Synchronisation des jetons révoqués impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Supprime les révocations de jetons expirés, puis reconstruit le filtre :
+     * un filtre de Bloom ne sait pas retirer une entrée.
+     */
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:PT1H}",
+            initialDelayString = "${auth.revocation.rebuild-interval:PT1H}")
+    public void purger() {
+        try {
+            int supprimees = jdbcTemplate.update("DELETE FROM token_revoque WHERE EXPIRATION <= ?",
+                    Timestamp.from(clock.instant()));
+            reconstruire();
+            logger.debug("Révocations expirées supprimées: {}", supprimees);
+        } catch (RuntimeException e) {
+            logger.warn("Purge des jetons révoqués impossible: {}", e.getMessage());
+        }
+    }
+
+    void reconstruire() {
+        Instant debut = clock.instant();
+        List<String> cles = jdbcTemplate.queryForList("SELECT CLE FROM token_revoque WHERE EXPIRATION > ?",
+                String.class, Timestamp.from(debut));
+        RevocationBloomFilter nouveau = new RevocationBloomFilter(Math.max(CAPACITE_MIN, 2 * cles.size()));
+        cles.forEach(nouveau::ajouter);
+        synchroniseDepuis = debut;
+        filtre = nouveau;
+        // Révocations du nœud ajoutées à l'ancien filtre pendant la lecture
+        rattraper(nouveau);
+    }
+
+    private void rattraper(RevocationBloomFilter cible) {
+        Instant debut = clock.instant();
+        jdbcTemplate.queryForList("SELECT CLE FROM token_revoque WHERE REVOQUE_LE >= ?",
+                        String.class, Timestamp.from(synchroniseDepuis.minus(RECOUVREMENT)))
+                .forEach(cible::ajouter);
+        synchroniseDepuis = debut;
+    }
+}
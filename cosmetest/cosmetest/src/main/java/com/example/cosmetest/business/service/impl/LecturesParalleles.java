@@ -0,0 +1,170 @@
+package com.example.cosmetest.business.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Exécution simultanée de lectures indépendantes (requêtes d'agrégat d'un
+ * rapport, par exemple) : la durée d'un rapport devient celle de sa plus
+ * longue requête au lieu de leur somme.
+ *
+ * Chaque lecture tourne sur un thread virtuel, hors de la transaction de
+ * l'appelant, et prend donc sa propre connexion du pool. Un lot ne lance
+ * jamais plus de {@code lecture.parallele.max-par-requete} lectures à la
+ * fois, et tous les lots ensemble jamais plus de
+ * {@code lecture.parallele.max-total}, pour que des rapports simultanés ne
+ * vident pas le pool Hikari. Au premier échec,
+ * les lectures en attente ne partent pas et celles en cours sont interrompues.
+ *
+ * <pre>
+ * try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
+ *     Branche&lt;Integer&gt; total = lot.lancer(() -&gt; repository.count());
+ *     Branche&lt;Map&lt;String, Integer&gt;&gt; etats = lot.lancer(() -&gt; repository.countParEtat());
+ *     lot.attendre();
+ *     return new Stats(total.get(), etats.get());
+ * }
+ * </pre>
+ */
+@Component
+public class LecturesParalleles {
+
+    private static final Logger logger = LoggerFactory.getLogger(LecturesParalleles.class);
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int parallelisme;
+    /** Places partagées par tous les lots du processus. */
+    private final Semaphore permisGlobaux;
+
+    public LecturesParalleles(@Value("${lecture.parallele.max-par-requete:4}") int parallelisme,
+                              @Value("${lecture.parallele.max-total:8}") int parallelismeTotal) {
+        if (parallelisme <= 0 || parallelismeTotal <= 0) {
+            throw new IllegalArgumentException(
+                    "lecture.parallele.max-par-requete et max-total doivent être strictement positifs");
+        }
+        this.parallelisme = parallelisme;
+        this.permisGlobaux = new Semaphore(parallelismeTotal);
+    }
+
+    /**
+     * Nouveau lot de lectures, à fermer après usage (try-with-resources).
+     */
+    public Lot lot() {
+        return new Lot();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Résultat d'une lecture, disponible après {@link Lot#attendre()}.
+     */
+    @FunctionalInterface
+    public interface Branche<T> {
+        T get();
+    }
+
+    public final class Lot implements AutoCloseable {
+
+        private final Semaphore permis = new Semaphore(parallelisme);
+        private final List<Future<?>> branches = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> echec = new AtomicReference<>();
+        private final long debut = System.currentTimeMillis();
+
+        private Lot() {
+        }
+
+        /**
+         * Lance une lecture dès qu'une place se libère dans le lot, puis dans
+         * le processus.
+         */
+        public <T> Branche<T> lancer(Callable<T> lecture) {
+            Future<T> future = executor.submit(() -> {
+                // Place du lot d'abord : une branche en attente d'un lot saturé ne bloque pas les autres lots
+                permis.acquire();
+                try {
+                    permisGlobaux.acquire();
+                    try {
+                        return lecture.call();
+                    } finally {
+                        permisGlobaux.release();
+                    }
+                } catch (Throwable t) {
+                    if (echec.compareAndSet(null, t)) {
+                        annuler();
+                    }
+                    throw t;
+                } finally {
+                    permis.release();
+                }
+            });
+            branches.add(future);
+            if (echec.get() != null) {
+                future.cancel(true);
+            }
+            return future::resultNow;
+        }
+
+        /**
+         * Attend la fin de toutes les lectures du lot.
+         *
+         * @throws RuntimeException la première erreur levée par une lecture,
+         *         les autres lectures étant alors annulées
+         */
+        public void attendre() {
+            try {
+                for (Future<?> branche : branches) {
+                    try {
+                        branche.get();
+                    } catch (ExecutionException | CancellationException e) {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                annuler();
+                throw new IllegalStateException("Lectures parallèles interrompues", e);
+            }
+
+            Throwable cause = echec.get();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            if (cause != null) {
+                throw new IllegalStateException("Lecture parallèle en échec", cause);
+            }
+            logger.debug("{} lectures parallèles terminées en {} ms", branches.size(),
+                    System.currentTimeMillis() - debut);
+        }
+
+        /**
+         * Annule les lectures encore en attente ou en cours.
+         */
+        @Override
+        public void close() {
+            annuler();
+        }
+
+        private void annuler() {
+            branches.forEach(branche -> branche.cancel(true));
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.ActiveSessionStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions actives en mémoire du nœud, perdues au redémarrage.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.store", havingValue = "local", matchIfMissing = true)
+public class LocalActiveSessionStore implements ActiveSessionStore {
+
+    private static class SessionInfo {
+        final Instant loginTime;
+        volatile Instant lastUserAction;
+
+        SessionInfo(Instant loginTime) {
+            this.loginTime = loginTime;
+            this.lastUserAction = loginTime;
+        }
+
+        Session session(String login) {
+            return new Session(login, loginTime, lastUserAction);
+        }
+    }
+
+    private final ConcurrentHashMap<String, SessionInfo> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void ouvrir(String login, Instant maintenant) {
+        sessions.put(login, new SessionInfo(maintenant));
+    }
+
+    @Override
+    public void activite(String login, Instant maintenant, boolean actionUtilisateur) {
+        if (!actionUtilisateur) {
+            sessions.computeIfAbsent(login, k -> new SessionInfo(maintenant));
+            return;
+        }
+        sessions.compute(login, (k, existante) -> {
+            if (existante == null) {
+                return new SessionInfo(maintenant);
+            }
+            existante.lastUserAction = maintenant;
+            return existante;
+        });
+    }
+
+    @Override
+    public Optional<Session> fermer(String login) {
+        return Optional.ofNullable(sessions.remove(login)).map(info -> info.session(login));
+    }
+
+    @Override
+    public List<Session> expirer(Instant limite) {
+        List<Session> expirees = new ArrayList<>();
+        sessions.forEach((login, info) -> {
+            // Retrait conditionnel : une session réouverte entre-temps est conservée
+            if (info.lastUserAction.isBefore(limite) && sessions.remove(login, info)) {
+                expirees.add(info.session(login));
+            }
+        });
+        return expirees;
+    }
+
+    @Override
+    public List<Session> actives(Instant limite) {
+        List<Session> actives = new ArrayList<>();
+        sessions.forEach((login, info) -> {
+            if (!info.lastUserAction.isBefore(limite)) {
+                actives.add(info.session(login));
+            }
+        });
+        actives.sort(Comparator.comparing(Session::loginTime));
+        return actives;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.TokenRevocationStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Révocations en mémoire du nœud ; chaque entrée expire avec son jeton.
+ * Suffit pour une instance unique.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.store", havingValue = "local", matchIfMissing = true)
+public class LocalTokenRevocationStore implements TokenRevocationStore {
+
+    private final Clock clock;
+    private final Cache<String, Instant> revocations;
+
+    public LocalTokenRevocationStore() {
+        this(Clock.systemUTC());
+    }
+
+    LocalTokenRevocationStore(Clock clock) {
+        this.clock = clock;
+        this.revocations = Caffeine.newBuilder()
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .expireAfter(new Expiry<String, Instant>() {
+                    @Override
+                    public long expireAfterCreate(String key, Instant expiration, long currentTime) {
+                        return Math.max(0, Duration.between(clock.instant(), expiration).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Instant expiration, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, expiration, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Instant expiration, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void revoquer(String jeton, Instant expiration) {
+        if (expiration.isAfter(clock.instant())) {
+            revocations.put(TokenRevocationStore.cle(jeton), expiration);
+        }
+    }
+
+    @Override
+    public boolean estRevoque(String jeton) {
+        Instant expiration = revocations.getIfPresent(TokenRevocationStore.cle(jeton));
+        return expiration != null && expiration.isAfter(clock.instant());
+    }
+
+    long taille() {
+        revocations.cleanUp();
+        return revocations.estimatedSize();
+    }
+}
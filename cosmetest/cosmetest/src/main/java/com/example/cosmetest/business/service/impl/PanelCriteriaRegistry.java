@@ -0,0 +1,138 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.domain.model.Panel;
+import com.example.cosmetest.domain.model.Volontaire;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/** Explicit allowlist of panel criteria and the volunteer attribute each one is compared with. */
+final class PanelCriteriaRegistry {
+    /** Critères à valeur : même nom d'attribut sur Panel et Volontaire. */
+    static final Map<String, Attribut> ATTRIBUTS;
+    /** Critères de score clinique : bornes min/max du panel, valeur mesurée du volontaire. */
+    static final Map<String, Score> SCORES;
+    static {
+        Map<String, Attribut> attributs = new LinkedHashMap<>();
+        attributs.put("acne", new Attribut(Panel::getAcne, Volontaire::getAcne));
+        attributs.put("angiome", new Attribut(Panel::getAngiome, Volontaire::getAngiome));
+        attributs.put("bouffeeChaleurMenaupose", new Attribut(Panel::getBouffeeChaleurMenaupose, Volontaire::getBouffeeChaleurMenaupose));
+        attributs.put("bronzage", new Attribut(Panel::getBronzage, Volontaire::getBronzage));
+        attributs.put("calvitie", new Attribut(Panel::getCalvitie, Volontaire::getCalvitie));
+        attributs.put("carnation", new Attribut(Panel::getCarnation, Volontaire::getCarnation));
+        attributs.put("celluliteBras", new Attribut(Panel::getCelluliteBras, Volontaire::getCelluliteBras));
+        attributs.put("celluliteFessesHanches", new Attribut(Panel::getCelluliteFessesHanches, Volontaire::getCelluliteFessesHanches));
+        attributs.put("celluliteJambes", new Attribut(Panel::getCelluliteJambes, Volontaire::getCelluliteJambes));
+        attributs.put("celluliteVentreTaille", new Attribut(Panel::getCelluliteVentreTaille, Volontaire::getCelluliteVentreTaille));
+        attributs.put("cernesPigmentaires", new Attribut(Panel::getCernesPigmentaires, Volontaire::getCernesPigmentaires));
+        attributs.put("cernesVasculaires", new Attribut(Panel::getCernesVasculaires, Volontaire::getCernesVasculaires));
+        attributs.put("cheveuxAbimes", new Attribut(Panel::getCheveuxAbimes, Volontaire::getCheveuxAbimes));
+        attributs.put("cheveuxCassants", new Attribut(Panel::getCheveuxCassants, Volontaire::getCheveuxCassants));
+        attributs.put("cheveuxPlats", new Attribut(Panel::getCheveuxPlats, Volontaire::getCheveuxPlats));
+        attributs.put("cheveuxTernes", new Attribut(Panel::getCheveuxTernes, Volontaire::getCheveuxTernes));
+        attributs.put("chuteDeCheveux", new Attribut(Panel::getChuteDeCheveux, Volontaire::getChuteDeCheveux));
+        attributs.put("chuteDeCils", new Attribut(Panel::getChuteDeCils, Volontaire::getChuteDeCils));
+        attributs.put("cicatrices", new Attribut(Panel::getCicatrices, Volontaire::getCicatrices));
+        attributs.put("cilsAbimes", new Attribut(Panel::getCilsAbimes, Volontaire::getCilsAbimes));
+        attributs.put("cilsBroussailleux", new Attribut(Panel::getCilsBroussailleux, Volontaire::getCilsBroussailleux));
+        attributs.put("contraception", new Attribut(Panel::getContraception, Volontaire::getContraception));
+        attributs.put("couleurCheveux", new Attribut(Panel::getCouleurCheveux, Volontaire::getCouleurCheveux));
+        attributs.put("couperoseRosacee", new Attribut(Panel::getCouperoseRosacee, Volontaire::getCouperoseRosacee));
+        attributs.put("coupsDeSoleil", new Attribut(Panel::getCoupsDeSoleil, Volontaire::getCoupsDeSoleil));
+        attributs.put("courbureCils", new Attribut(Panel::getCourbureCils, Volontaire::getCourbureCils));
+        attributs.put("cuirCheveluSensible", new Attribut(Panel::getCuirCheveluSensible, Volontaire::getCuirCheveluSensible));
+        attributs.put("demangeaisonsDuCuirChevelu", new Attribut(Panel::getDemangeaisonsDuCuirChevelu, Volontaire::getDemangeaisonsDuCuirChevelu));
+        attributs.put("dermiteSeborrheique", new Attribut(Panel::getDermiteSeborrheique, Volontaire::getDermiteSeborrheique));
+        attributs.put("desensibilisation", new Attribut(Panel::getDesensibilisation, Volontaire::getDesensibilisation));
+        attributs.put("eczema", new Attribut(Panel::getEczema, Volontaire::getEczema));
+        attributs.put("epaisseurCheveux", new Attribut(Panel::getEpaisseurCheveux, Volontaire::getEpaisseurCheveux));
+        attributs.put("epaisseurCils", new Attribut(Panel::getEpaisseurCils, Volontaire::getEpaisseurCils));
+        attributs.put("expositionSolaire", new Attribut(Panel::getExpositionSolaire, Volontaire::getExpositionSolaire));
+        attributs.put("herpes", new Attribut(Panel::getHerpes, Volontaire::getHerpes));
+        attributs.put("lesionsInflammatoires", new Attribut(Panel::getLesionsInflammatoires, Volontaire::getLesionsInflammatoires));
+        attributs.put("lesionsRetentionnelles", new Attribut(Panel::getLesionsRetentionnelles, Volontaire::getLesionsRetentionnelles));
+        attributs.put("levres", new Attribut(Panel::getLevres, Volontaire::getLevres));
+        attributs.put("longueurCheveux", new Attribut(Panel::getLongueurCheveux, Volontaire::getLongueurCheveux));
+        attributs.put("longueurCils", new Attribut(Panel::getLongueurCils, Volontaire::getLongueurCils));
+        attributs.put("maplevres", new Attribut(Panel::getMaplevres, Volontaire::getMaplevres));
+        attributs.put("mapsourcils", new Attribut(Panel::getMapsourcils, Volontaire::getMapsourcils));
+        attributs.put("mapyeux", new Attribut(Panel::getMapyeux, Volontaire::getMapyeux));
+        attributs.put("melanome", new Attribut(Panel::getMelanome, Volontaire::getMelanome));
+        attributs.put("menopause", new Attribut(Panel::getMenopause, Volontaire::getMenopause));
+        attributs.put("natureCheveux", new Attribut(Panel::getNatureCheveux, Volontaire::getNatureCheveux));
+        attributs.put("natureCuirChevelu", new Attribut(Panel::getNatureCuirChevelu, Volontaire::getNatureCuirChevelu));
+        attributs.put("onglesCassants", new Attribut(Panel::getOnglesCassants, Volontaire::getOnglesCassants));
+        attributs.put("onglesDedoubles", new Attribut(Panel::getOnglesDedoubles, Volontaire::getOnglesDedoubles));
+        attributs.put("onglesMous", new Attribut(Panel::getOnglesMous, Volontaire::getOnglesMous));
+        attributs.put("onglesStries", new Attribut(Panel::getOnglesStries, Volontaire::getOnglesStries));
+        attributs.put("origineMere", new Attribut(Panel::getOrigineMere, Volontaire::getOrigineMere));
+        attributs.put("originePere", new Attribut(Panel::getOriginePere, Volontaire::getOriginePere));
+        attributs.put("pelade", new Attribut(Panel::getPelade, Volontaire::getPelade));
+        attributs.put("pellicules", new Attribut(Panel::getPellicules, Volontaire::getPellicules));
+        attributs.put("perteDeFermeteAvantBras", new Attribut(Panel::getPerteDeFermeteAvantBras, Volontaire::getPerteDeFermeteAvantBras));
+        attributs.put("perteDeFermeteCou", new Attribut(Panel::getPerteDeFermeteCou, Volontaire::getPerteDeFermeteCou));
+        attributs.put("perteDeFermeteDecollete", new Attribut(Panel::getPerteDeFermeteDecollete, Volontaire::getPerteDeFermeteDecollete));
+        attributs.put("perteDeFermeteVisage", new Attribut(Panel::getPerteDeFermeteVisage, Volontaire::getPerteDeFermeteVisage));
+        attributs.put("phototype", new Attribut(Panel::getPhototype, Volontaire::getPhototype));
+        attributs.put("piercings", new Attribut(Panel::getPiercings, Volontaire::getPiercings));
+        attributs.put("pilosite", new Attribut(Panel::getPilosite, Volontaire::getPilosite));
+        attributs.put("pityriasis", new Attribut(Panel::getPityriasis, Volontaire::getPityriasis));
+        attributs.put("poches", new Attribut(Panel::getPoches, Volontaire::getPoches));
+        attributs.put("pointesFourchues", new Attribut(Panel::getPointesFourchues, Volontaire::getPointesFourchues));
+        attributs.put("poresVisibles", new Attribut(Panel::getPoresVisibles, Volontaire::getPoresVisibles));
+        attributs.put("psoriasis", new Attribut(Panel::getPsoriasis, Volontaire::getPsoriasis));
+        attributs.put("reactionAllergique", new Attribut(Panel::getReactionAllergique, Volontaire::getReactionAllergique));
+        attributs.put("secheresseBras", new Attribut(Panel::getSecheresseBras, Volontaire::getSecheresseBras));
+        attributs.put("secheresseCou", new Attribut(Panel::getSecheresseCou, Volontaire::getSecheresseCou));
+        attributs.put("secheresseFessesHanches", new Attribut(Panel::getSecheresseFessesHanches, Volontaire::getSecheresseFessesHanches));
+        attributs.put("secheresseJambes", new Attribut(Panel::getSecheresseJambes, Volontaire::getSecheresseJambes));
+        attributs.put("secheresseLevres", new Attribut(Panel::getSecheresseLevres, Volontaire::getSecheresseLevres));
+        attributs.put("secheresseMains", new Attribut(Panel::getSecheresseMains, Volontaire::getSecheresseMains));
+        attributs.put("secheressePieds", new Attribut(Panel::getSecheressePieds, Volontaire::getSecheressePieds));
+        attributs.put("secheressePoitrineDecollete", new Attribut(Panel::getSecheressePoitrineDecollete, Volontaire::getSecheressePoitrineDecollete));
+        attributs.put("secheresseVentreTaille", new Attribut(Panel::getSecheresseVentreTaille, Volontaire::getSecheresseVentreTaille));
+        attributs.put("sensibiliteCutanee", new Attribut(Panel::getSensibiliteCutanee, Volontaire::getSensibiliteCutanee));
+        attributs.put("sexe", new Attribut(Panel::getSexe, Volontaire::getSexe));
+        attributs.put("sousEthnie", new Attribut(Panel::getSousEthnie, Volontaire::getSousEthnie));
+        attributs.put("tachesPigmentairesCou", new Attribut(Panel::getTachesPigmentairesCou, Volontaire::getTachesPigmentairesCou));
+        attributs.put("tachesPigmentairesDecollete", new Attribut(Panel::getTachesPigmentairesDecollete, Volontaire::getTachesPigmentairesDecollete));
+        attributs.put("tachesPigmentairesMains", new Attribut(Panel::getTachesPigmentairesMains, Volontaire::getTachesPigmentairesMains));
+        attributs.put("tachesPigmentairesVisage", new Attribut(Panel::getTachesPigmentairesVisage, Volontaire::getTachesPigmentairesVisage));
+        attributs.put("tatouages", new Attribut(Panel::getTatouages, Volontaire::getTatouages));
+        attributs.put("teintInhomogene", new Attribut(Panel::getTeintInhomogene, Volontaire::getTeintInhomogene));
+        attributs.put("teintTerne", new Attribut(Panel::getTeintTerne, Volontaire::getTeintTerne));
+        attributs.put("terrainAtopique", new Attribut(Panel::getTerrainAtopique, Volontaire::getTerrainAtopique));
+        attributs.put("ths", new Attribut(Panel::getThs, Volontaire::getThs));
+        attributs.put("typePeauVisage", new Attribut(Panel::getTypePeauVisage, Volontaire::getTypePeauVisage));
+        attributs.put("vergeturesFessesHanches", new Attribut(Panel::getVergeturesFessesHanches, Volontaire::getVergeturesFessesHanches));
+        attributs.put("vergeturesJambes", new Attribut(Panel::getVergeturesJambes, Volontaire::getVergeturesJambes));
+        attributs.put("vergeturesPoitrineDecollete", new Attribut(Panel::getVergeturesPoitrineDecollete, Volontaire::getVergeturesPoitrineDecollete));
+        attributs.put("vergeturesVentreTaille", new Attribut(Panel::getVergeturesVentreTaille, Volontaire::getVergeturesVentreTaille));
+        attributs.put("vitiligo", new Attribut(Panel::getVitiligo, Volontaire::getVitiligo));
+        attributs.put("yeux", new Attribut(Panel::getYeux, Volontaire::getYeux));
+        attributs.put("zona", new Attribut(Panel::getZona, Volontaire::getZona));
+        ATTRIBUTS = Collections.unmodifiableMap(attributs);
+
+        Map<String, Score> scores = new LinkedHashMap<>();
+        scores.put("scorePod", new Score(Panel::getScorePodMin, Panel::getScorePodMax, Volontaire::getScorePod));
+        scores.put("scorePog", new Score(Panel::getScorePogMin, Panel::getScorePogMax, Volontaire::getScorePog));
+        scores.put("scoreFront", new Score(Panel::getScoreFrontMin, Panel::getScoreFrontMax, Volontaire::getScoreFront));
+        scores.put("scoreLion", new Score(Panel::getScoreLionMin, Panel::getScoreLionMax, Volontaire::getScoreLion));
+        scores.put("scorePpd", new Score(Panel::getScorePpdMin, Panel::getScorePpdMax, Volontaire::getScorePpd));
+        scores.put("scorePpg", new Score(Panel::getScorePpgMin, Panel::getScorePpgMax, Volontaire::getScorePpg));
+        scores.put("scoreDod", new Score(Panel::getScoreDodMin, Panel::getScoreDodMax, Volontaire::getScoreDod));
+        scores.put("scoreDog", new Score(Panel::getScoreDogMin, Panel::getScoreDogMax, Volontaire::getScoreDog));
+        scores.put("scoreSngd", new Score(Panel::getScoreSngdMin, Panel::getScoreSngdMax, Volontaire::getScoreSngd));
+        scores.put("scoreSngg", new Score(Panel::getScoreSnggMin, Panel::getScoreSnggMax, Volontaire::getScoreSngg));
+        scores.put("scoreLevsup", new Score(Panel::getScoreLevsupMin, Panel::getScoreLevsupMax, Volontaire::getScoreLevsup));
+        scores.put("scoreComlevd", new Score(Panel::getScoreComlevdMin, Panel::getScoreComlevdMax, Volontaire::getScoreComlevd));
+        scores.put("scoreComlevg", new Score(Panel::getScoreComlevgMin, Panel::getScoreComlevgMax, Volontaire::getScoreComlevg));
+        scores.put("scorePtose", new Score(Panel::getScorePtoseMin, Panel::getScorePtoseMax, Volontaire::getScorePtose));
+        SCORES = Collections.unmodifiableMap(scores);
+    }
+    private PanelCriteriaRegistry() {}
+    record Attribut(Function<Panel, String> critere, Function<Volontaire, String> valeur) {}
+    record Score(Function<Panel, String> min, Function<Panel, String> max, Function<Volontaire, Float> valeur) {}
+}
@@ -0,0 +1,43 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.PanelMatchDTO;
+import com.example.cosmetest.business.service.PanelMatchingService;
+import com.example.cosmetest.data.repository.PanelRepository;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Matching panel / volontaires évalué sur {@link VolontaireMatchingIndex}.
+ *
+ * Volontairement hors transaction : la construction de l'index lit les
+ * volontaires page par page, et une transaction englobante conserverait
+ * toutes les entités lues dans le contexte de persistance.
+ */
+@Service
+public class PanelMatchingServiceImpl implements PanelMatchingService {
+
+    private final PanelRepository panelRepository;
+    private final VolontaireMatchingIndex index;
+
+    public PanelMatchingServiceImpl(PanelRepository panelRepository, VolontaireMatchingIndex index) {
+        this.panelRepository = panelRepository;
+        this.index = index;
+    }
+
+    @Override
+    public Optional<Page<PanelMatchDTO>> matchVolontaires(Integer idPanel, Map<String, String> habitudes,
+                                                          boolean includeArchived, int tolerance, Pageable pageable) {
+        if (idPanel == null) {
+            return Optional.empty();
+        }
+        if (habitudes != null) {
+            habitudes.keySet().forEach(VolontaireHcFieldRegistry::require);
+        }
+        return panelRepository.findById(idPanel)
+                .map(panel -> index.match(panel, habitudes, includeArchived, tolerance, pageable));
+    }
+}
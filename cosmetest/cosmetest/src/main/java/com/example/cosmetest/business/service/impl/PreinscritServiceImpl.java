@@ -1,10 +1,12 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.PreinscritDTO;
+import com.example.cosmetest.business.event.PreinscritChangedEvent;
 import com.example.cosmetest.business.mapper.PreinscritMapper;
 import com.example.cosmetest.business.service.PreinscritService;
 import com.example.cosmetest.domain.model.Preinscrit;
 import com.example.cosmetest.data.repository.PreinscritRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class PreinscritServiceImpl implements PreinscritService {
 
     private final PreinscritRepository preinscritRepository;
     private final PreinscritMapper preinscritMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Liste des états valides
     private static final List<String> ETATS_VALIDES = Arrays.asList("En attente", "Validé", "Refusé", "Annulé");
@@ -36,9 +39,11 @@ public class PreinscritServiceImpl implements PreinscritService {
     // Regex pour la validation des numéros de téléphone
     private static final Pattern PHONE_PATTERN = Pattern.compile("^[0-9]{10}$");
 
-    public PreinscritServiceImpl(PreinscritRepository preinscritRepository, PreinscritMapper preinscritMapper) {
+    public PreinscritServiceImpl(PreinscritRepository preinscritRepository, PreinscritMapper preinscritMapper,
+            ApplicationEventPublisher eventPublisher) {
         this.preinscritRepository = preinscritRepository;
         this.preinscritMapper = preinscritMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -172,6 +177,7 @@ public class PreinscritServiceImpl implements PreinscritService {
         Preinscrit preinscrit = preinscritMapper.toEntity(preinscritDTO);
         preinscrit.setIdPreinscrit(null); // Assurer que l'ID est null pour la création
         Preinscrit savedPreinscrit = preinscritRepository.save(preinscrit);
+        eventPublisher.publishEvent(new PreinscritChangedEvent(savedPreinscrit.getIdPreinscrit()));
         return preinscritMapper.toDTO(savedPreinscrit);
     }
 
@@ -187,7 +193,9 @@ public class PreinscritServiceImpl implements PreinscritService {
                 .map(existingPreinscrit -> {
                     preinscritDTO.setIdPreinscrit(id); // Assurer l'ID correct
                     Preinscrit updatedPreinscrit = preinscritMapper.updateEntityFromDTO(existingPreinscrit, preinscritDTO);
-                    return preinscritMapper.toDTO(preinscritRepository.save(updatedPreinscrit));
+                    Preinscrit savedPreinscrit = preinscritRepository.save(updatedPreinscrit);
+                    eventPublisher.publishEvent(new PreinscritChangedEvent(id));
+                    return preinscritMapper.toDTO(savedPreinscrit);
                 });
     }
 
@@ -198,6 +206,7 @@ public class PreinscritServiceImpl implements PreinscritService {
         }
 
         preinscritRepository.deleteById(id);
+        eventPublisher.publishEvent(new PreinscritChangedEvent(id));
         return true;
     }
 
@@ -236,7 +245,9 @@ public class PreinscritServiceImpl implements PreinscritService {
         return preinscritRepository.findById(id)
                 .map(preinscrit -> {
                     preinscrit.setEtat(etat);
-                    return preinscritMapper.toDTO(preinscritRepository.save(preinscrit));
+                    Preinscrit savedPreinscrit = preinscritRepository.save(preinscrit);
+                    eventPublisher.publishEvent(new PreinscritChangedEvent(id));
+                    return preinscritMapper.toDTO(savedPreinscrit);
                 });
     }
 
@@ -271,7 +282,9 @@ public class PreinscritServiceImpl implements PreinscritService {
                 .map(preinscrit -> {
                     preinscrit.setRdvDate(rdvDate);
                     preinscrit.setRdvHeure(rdvHeure);
-                    return preinscritMapper.toDTO(preinscritRepository.save(preinscrit));
+                    Preinscrit savedPreinscrit = preinscritRepository.save(preinscrit);
+                    eventPublisher.publishEvent(new PreinscritChangedEvent(id));
+                    return preinscritMapper.toDTO(savedPreinscrit);
                 });
     }
 
@@ -427,21 +440,11 @@ public class PreinscritServiceImpl implements PreinscritService {
 
     @Override
     public int countNewPreinscritsToday() {
+        // La date de préinscription est du texte : dd/MM/yyyy quand elle est
+        // renseignée par createPreinscrit, le format ISO reste accepté.
         LocalDate today = LocalDate.now();
-        Date startOfDay = java.sql.Date.valueOf(today);
-        Date endOfDay = java.sql.Date.valueOf(today.plusDays(1));
-
-        // Utilisez l'attribut correct pour la date d'inscription
-        // Remplacez "dateInscription" par le nom réel de l'attribut dans votre entité
-        int count = 0;
-        for (Preinscrit p : preinscritRepository.findAll()) {
-            Date dateInscription = Date.valueOf(p.getDatePreInscription()); // Utilisez le bon nom
-            if (dateInscription != null &&
-                    dateInscription.compareTo(startOfDay) >= 0 &&
-                    dateInscription.compareTo(endOfDay) < 0) {
-                count++;
-            }
-        }
-        return count;
+        return preinscritRepository.countByDatePreInscriptionIn(List.of(
+                today.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                today.toString()));
     }
-}
\ No newline at end of file
+}
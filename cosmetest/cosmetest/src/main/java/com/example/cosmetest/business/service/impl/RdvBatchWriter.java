@@ -0,0 +1,90 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.domain.model.EtudeVolontaire;
+import com.example.cosmetest.domain.model.Rdv;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Insertions par lots JDBC des plannings créés en masse. Les clés IDENTITY
+ * empêchent Hibernate de regrouper les INSERT ; ici un lot entier part en un
+ * seul INSERT multi-lignes (rewriteBatchedStatements=true dans l'URL MySQL).
+ *
+ * Les lots rejoignent la transaction de l'appelant ; appelés hors
+ * transaction, ils ouvrent la leur plutôt que de valider chaque ligne en
+ * auto-commit.
+ */
+@Component
+@Transactional
+public class RdvBatchWriter {
+
+    private static final String INSERT_RDV = "INSERT INTO rdv "
+            + "(ID_ETUDE, ID_RDV, ID_VOLONTAIRE, ID_GROUPE, DATE, HEURE, ETAT, COMMENTAIRES, DUREE) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ASSOCIATION = "INSERT INTO etude_volontaire "
+            + "(ID_ETUDE, ID_GROUPE, ID_VOLONTAIRE, IV, NUMSUJET, PAYE, STATUT) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RdvBatchWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertRdvs(List<Rdv> rdvs) {
+        if (rdvs.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_RDV, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Rdv rdv = rdvs.get(i);
+                ps.setInt(1, rdv.getIdEtude());
+                ps.setInt(2, rdv.getIdRdv());
+                ps.setObject(3, rdv.getIdVolontaire(), Types.INTEGER);
+                ps.setObject(4, rdv.getIdGroupe(), Types.INTEGER);
+                // Comme Hibernate, une date SQL est liée sans conversion de fuseau
+                ps.setDate(5, rdv.getDate());
+                ps.setString(6, rdv.getHeure());
+                ps.setString(7, rdv.getEtat());
+                ps.setString(8, rdv.getCommentaires());
+                ps.setObject(9, rdv.getDuree(), Types.INTEGER);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rdvs.size();
+            }
+        });
+    }
+
+    public void insertAssociations(List<EtudeVolontaire> associations) {
+        if (associations.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_ASSOCIATION, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EtudeVolontaire association = associations.get(i);
+                ps.setInt(1, association.getIdEtude());
+                ps.setInt(2, association.getIdGroupe());
+                ps.setInt(3, association.getIdVolontaire());
+                ps.setObject(4, association.getIv(), Types.INTEGER);
+                ps.setObject(5, association.getNumSujet(), Types.INTEGER);
+                ps.setObject(6, association.getPaye(), Types.INTEGER);
+                ps.setString(7, association.getStatut());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return associations.size();
+            }
+        });
+    }
+}
@@ -27,4 +27,16 @@ public class RdvIdAllocator {
         }
         return nextId;
     }
+
+    /**
+     * Renvoie le premier identifiant d'un bloc consécutif libre, quelle que
+     * soit sa taille. Une seule lecture verrouillée suffit : la ligne lue porte
+     * le plus grand identifiant de l'étude, tout ce qui suit est donc libre
+     * jusqu'à la fin de la transaction.
+     */
+    public int nextBlockForStudy(int idEtude) {
+        return rdvRepository.findLastRdvForEtudeForUpdate(idEtude)
+                .map(rdv -> rdv.getIdRdv() + 1)
+                .orElse(1);
+    }
 }
@@ -0,0 +1,306 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.RdvSeriePointDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.service.RdvRollupService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Table {@code rdv_rollup} : une ligne par (jour, étude, état, tranche
+ * horaire) avec son nombre de rendez-vous. L'état est mis en majuscules et la
+ * tranche horaire reprend les deux premiers caractères de l'heure, comme la
+ * répartition horaire du calendrier.
+ *
+ * Une écriture de rendez-vous ({@link RdvChangedEvent}) recalcule, après
+ * validation, les seuls jours touchés de l'étude concernée : l'agrégat est
+ * supprimé puis réinséré depuis {@code rdv} en s'appuyant sur l'index de
+ * date. Les jours dont la mise à jour a échoué sont repris par
+ * {@link #rattraper()} ; la reconstruction nocturne remet toute la table
+ * d'aplomb. Avec plusieurs instances, ces deux tâches planifiées ne tournent
+ * que sur celle qui obtient le verrou MySQL {@value #VERROU} ; les autres
+ * passent leur tour.
+ */
+@Service
+public class RdvRollupServiceImpl implements RdvRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RdvRollupServiceImpl.class);
+
+    static final String VERROU = "cosmetest.rdv_rollup";
+
+    private static final String CLES = "DATE, ID_ETUDE, UPPER(COALESCE(ETAT, '')), COALESCE(SUBSTRING(HEURE, 1, 2), '')";
+    private static final String INSERT = "INSERT INTO rdv_rollup (JOUR, ID_ETUDE, ETAT, TRANCHE_HEURE, NOMBRE) "
+            + "SELECT " + CLES + ", COUNT(*) FROM rdv WHERE DATE IS NOT NULL%s GROUP BY " + CLES;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+
+    /** Jours à recalculer pour toutes les études après un échec. */
+    private final Set<LocalDate> joursEnAttente = ConcurrentHashMap.newKeySet();
+    private volatile boolean reconstructionDemandee;
+    private volatile boolean verifiee;
+
+    public RdvRollupServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // Appelé après la validation de l'écriture : la transaction de l'appelant est terminée
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public List<RdvSeriePointDTO> serie(LocalDate du, LocalDate au, Pas pas, Groupe groupe,
+                                        Integer idEtude, Set<String> etats, boolean inclureAnnules) {
+        if (du == null || au == null || au.isBefore(du)) {
+            throw new IllegalArgumentException("Période de série invalide: " + du + " - " + au);
+        }
+        String colonne = switch (groupe) {
+            case AUCUN -> null;
+            case ETAT -> "ETAT";
+            case ETUDE -> "ID_ETUDE";
+            case HEURE -> "TRANCHE_HEURE";
+        };
+
+        StringBuilder sql = new StringBuilder("SELECT JOUR, ")
+                .append(colonne == null ? "NULL" : colonne)
+                .append(", SUM(NOMBRE) FROM rdv_rollup WHERE JOUR BETWEEN ? AND ?");
+        List<Object> parametres = new ArrayList<>(List.of(Date.valueOf(du), Date.valueOf(au)));
+        if (idEtude != null) {
+            sql.append(" AND ID_ETUDE = ?");
+            parametres.add(idEtude);
+        }
+        if (etats != null && !etats.isEmpty()) {
+            sql.append(" AND ETAT IN (").append(marqueurs(etats.size())).append(')');
+            etats.forEach(etat -> parametres.add(etat.trim().toUpperCase(Locale.ROOT)));
+        }
+        if (!inclureAnnules) {
+            sql.append(" AND ETAT <> ?");
+            parametres.add(ANNULE);
+        }
+        sql.append(" GROUP BY JOUR").append(colonne == null ? "" : ", " + colonne);
+
+        // Les lignes journalières sont regroupées par période au fil de la lecture
+        Map<Cle, Long> points = new TreeMap<>(Comparator.comparing(Cle::debut)
+                .thenComparing(Cle::groupe, Comparator.nullsFirst(Comparator.naturalOrder())));
+        jdbcTemplate.query(sql.toString(), rs -> {
+            Cle cle = new Cle(debut(rs.getDate(1).toLocalDate(), pas), rs.getString(2));
+            points.merge(cle, rs.getLong(3), Long::sum);
+        }, parametres.toArray());
+
+        return points.entrySet().stream()
+                .map(e -> new RdvSeriePointDTO(libelle(e.getKey().debut(), pas), e.getKey().debut(),
+                        e.getKey().groupe(), e.getValue()))
+                .toList();
+    }
+
+    @Override
+    public int reconstruire() {
+        long debut = System.currentTimeMillis();
+        Integer lignes = transaction.execute(status -> {
+            jdbcTemplate.update("DELETE FROM rdv_rollup");
+            return jdbcTemplate.update(String.format(INSERT, ""));
+        });
+        logger.info("Agrégats de rendez-vous reconstruits: {} lignes en {} ms",
+                lignes, System.currentTimeMillis() - debut);
+        return lignes == null ? 0 : lignes;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRdvChanged(RdvChangedEvent event) {
+        try {
+            if (event.datesConnues()) {
+                recalculerJours(event.idEtude(), event.dates());
+            } else if (event.idEtude() != null) {
+                recalculerEtude(event.idEtude());
+            } else {
+                reconstructionDemandee = true;
+            }
+        } catch (RuntimeException e) {
+            // Repris par rattraper() plutôt que de laisser l'agrégat faux jusqu'à la nuit
+            logger.warn("Mise à jour des agrégats de rendez-vous impossible ({}): {}", event, e.getMessage());
+            if (event.datesConnues()) {
+                joursEnAttente.addAll(event.dates());
+            } else {
+                reconstructionDemandee = true;
+            }
+        }
+    }
+
+    /**
+     * Reprend les mises à jour en échec et les reconstructions demandées.
+     * Au premier passage, une table vide est construite.
+     */
+    @Scheduled(fixedDelayString = "${rdv.rollup.retry-interval:PT1M}",
+            initialDelayString = "${rdv.rollup.retry-interval:PT1M}")
+    public void rattraper() {
+        try {
+            sousVerrou(this::reprendre);
+        } catch (RuntimeException e) {
+            logger.warn("Rattrapage des agrégats de rendez-vous impossible: {}", e.getMessage());
+        }
+    }
+
+    private void reprendre() {
+        if (!verifiee) {
+            Integer lignes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM rdv_rollup", Integer.class);
+            reconstructionDemandee |= lignes == null || lignes == 0;
+            verifiee = true;
+        }
+        if (reconstructionDemandee) {
+            reconstructionDemandee = false;
+            joursEnAttente.clear();
+            reconstruireOuRedemander();
+            return;
+        }
+        if (!joursEnAttente.isEmpty()) {
+            Set<LocalDate> jours = new HashSet<>(joursEnAttente);
+            joursEnAttente.removeAll(jours);
+            try {
+                recalculerJours(null, jours);
+            } catch (RuntimeException e) {
+                joursEnAttente.addAll(jours);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Reconstruction complète, qui rattrape aussi les écritures faites hors des services.
+     */
+    @Scheduled(cron = "${rdv.rollup.rebuild-cron:0 30 3 * * *}")
+    public void reconstruireLaNuit() {
+        try {
+            sousVerrou(this::reconstruireOuRedemander);
+        } catch (RuntimeException e) {
+            logger.warn("Reconstruction nocturne des agrégats de rendez-vous impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Exécute la tâche si cette instance obtient, sans attendre, le verrou
+     * nommé MySQL ({@code GET_LOCK}) ; il est tenu par une connexion à part
+     * pendant toute la tâche. Hors MySQL (tests), la tâche s'exécute sans
+     * verrou.
+     *
+     * @return faux si une autre instance tient le verrou
+     */
+    boolean sousVerrou(Runnable tache) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connexion -> {
+            if (!"MySQL".equalsIgnoreCase(connexion.getMetaData().getDatabaseProductName())) {
+                tache.run();
+                return true;
+            }
+            if (!verrou(connexion, "SELECT GET_LOCK(?, 0)")) {
+                logger.debug("Agrégats de rendez-vous tenus par une autre instance, tour passé");
+                return false;
+            }
+            try {
+                tache.run();
+            } finally {
+                verrou(connexion, "SELECT RELEASE_LOCK(?)");
+            }
+            return true;
+        }));
+    }
+
+    private static boolean verrou(Connection connexion, String sql) throws SQLException {
+        try (PreparedStatement ps = connexion.prepareStatement(sql)) {
+            ps.setString(1, VERROU);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void reconstruireOuRedemander() {
+        try {
+            reconstruire();
+        } catch (RuntimeException e) {
+            reconstructionDemandee = true;
+            throw e;
+        }
+    }
+
+    /**
+     * Recalcule les jours donnés, pour une étude ou pour toutes (idEtude null).
+     */
+    void recalculerJours(Integer idEtude, Collection<LocalDate> jours) {
+        if (jours.isEmpty()) {
+            return;
+        }
+        List<Object> parametres = jours.stream().map(Date::valueOf).collect(Collectors.toCollection(ArrayList::new));
+        String filtreEtude = "";
+        if (idEtude != null) {
+            filtreEtude = " AND ID_ETUDE = ?";
+            parametres.add(idEtude);
+        }
+        String marqueurs = marqueurs(jours.size());
+        String suppression = "DELETE FROM rdv_rollup WHERE JOUR IN (" + marqueurs + ")" + filtreEtude;
+        String insertion = String.format(INSERT, " AND DATE IN (" + marqueurs + ")" + filtreEtude);
+        Object[] valeurs = parametres.toArray();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update(suppression, valeurs);
+            jdbcTemplate.update(insertion, valeurs);
+        });
+    }
+
+    private void recalculerEtude(Integer idEtude) {
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM rdv_rollup WHERE ID_ETUDE = ?", idEtude);
+            jdbcTemplate.update(String.format(INSERT, " AND ID_ETUDE = ?"), idEtude);
+        });
+    }
+
+    private static String marqueurs(int nombre) {
+        return String.join(", ", Collections.nCopies(nombre, "?"));
+    }
+
+    private static LocalDate debut(LocalDate jour, Pas pas) {
+        return switch (pas) {
+            case JOUR -> jour;
+            case SEMAINE -> jour.with(DayOfWeek.MONDAY);
+            case MOIS -> jour.withDayOfMonth(1);
+        };
+    }
+
+    private static String libelle(LocalDate debut, Pas pas) {
+        return switch (pas) {
+            case JOUR -> debut.toString();
+            case SEMAINE -> String.format("%d-W%02d", debut.get(IsoFields.WEEK_BASED_YEAR),
+                    debut.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+            case MOIS -> YearMonth.from(debut).toString();
+        };
+    }
+
+    private record Cle(LocalDate debut, String groupe) {
+    }
+}
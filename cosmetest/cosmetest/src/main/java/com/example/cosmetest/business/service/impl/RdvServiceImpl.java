@@ -2,6 +2,7 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.EtudeVolontaireDTO;
 import com.example.cosmetest.business.dto.RdvDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
 import com.example.cosmetest.business.mapper.RdvMapper;
 import com.example.cosmetest.business.service.EtudeVolontaireService;
 import com.example.cosmetest.business.service.RdvService;
@@ -9,14 +10,17 @@ import com.example.cosmetest.data.repository.AnnulationRepository;
 import com.example.cosmetest.data.repository.EtudeRepository;
 import com.example.cosmetest.data.repository.GroupeRepository;
 import com.example.cosmetest.data.repository.RdvRepository;
+import com.example.cosmetest.domain.model.EtudeVolontaire;
 import com.example.cosmetest.domain.model.Groupe;
 import com.example.cosmetest.domain.model.Rdv;
 
 
 import jakarta.persistence.EntityNotFoundException;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
@@ -27,9 +31,13 @@ import org.slf4j.LoggerFactory;
 
 import java.sql.Date;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -48,12 +56,16 @@ public class RdvServiceImpl implements RdvService {
     private final EtudeVolontaireService etudeVolontaireService;
     private final GroupeRepository groupeRepository;
     private final RdvIdAllocator rdvIdAllocator;
+    private final RdvBatchWriter rdvBatchWriter;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RdvServiceImpl(RdvRepository rdvRepository, RdvMapper rdvMapper, @Lazy EtudeRepository etudeRepository,
             AnnulationRepository annulationRepository,
             EtudeVolontaireService etudeVolontaireService,
             GroupeRepository groupeRepository,
-            RdvIdAllocator rdvIdAllocator) {
+            RdvIdAllocator rdvIdAllocator,
+            RdvBatchWriter rdvBatchWriter,
+            ApplicationEventPublisher eventPublisher) {
         this.rdvRepository = rdvRepository;
         this.rdvMapper = rdvMapper;
         this.etudeRepository = etudeRepository;
@@ -61,6 +73,8 @@ public class RdvServiceImpl implements RdvService {
         this.etudeVolontaireService = etudeVolontaireService;
         this.groupeRepository = groupeRepository;
         this.rdvIdAllocator = rdvIdAllocator;
+        this.rdvBatchWriter = rdvBatchWriter;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -153,7 +167,12 @@ public class RdvServiceImpl implements RdvService {
                 rdvDTO.getIdEtude(), rdvDTO.getIdGroupe(), rdvDTO.getIdVolontaire());
 
         // Sauvegarder l'entité
+        boolean update = rdvEntity.getRdvPk() != null;
         Rdv savedRdv = rdvRepository.save(rdvEntity);
+        // En mise à jour, l'ancienne date n'est pas connue ici.
+        eventPublisher.publishEvent(update
+                ? RdvChangedEvent.unknownDates(rdvEntity.getIdEtude())
+                : RdvChangedEvent.forDates(rdvEntity.getIdEtude(), rdvEntity.getDate()));
 
         // Convertir l'entité sauvegardée en DTO
         return rdvMapper.toDto(savedRdv);
@@ -162,12 +181,11 @@ public class RdvServiceImpl implements RdvService {
     @Override
     @Transactional
     public void deleteRdv(Long rdvPk) {
-        // Vérifier si le rendez-vous existe avant de le supprimer
-        if (rdvRepository.existsById(rdvPk)) {
-            rdvRepository.deleteById(rdvPk);
-        } else {
-            throw new IllegalArgumentException("Le rendez-vous avec l'ID technique " + rdvPk + " n'existe pas");
-        }
+        // Chargé avant la suppression : son étude et sa date bornent les recalculs des abonnés
+        Rdv rdv = rdvRepository.findById(rdvPk)
+                .orElseThrow(() -> new IllegalArgumentException("Le rendez-vous avec l'ID technique " + rdvPk + " n'existe pas"));
+        rdvRepository.delete(rdv);
+        eventPublisher.publishEvent(RdvChangedEvent.forDates(rdv.getIdEtude(), rdv.getDate()));
     }
 
     @Override
@@ -193,6 +211,7 @@ public class RdvServiceImpl implements RdvService {
 
         // Sauvegarder le rendez-vous
         rdvRepository.save(rdv);
+        eventPublisher.publishEvent(RdvChangedEvent.forDates(rdv.getIdEtude(), rdv.getDate()));
     }
 
     // Méthodes privées pour la logique métier interne
@@ -231,27 +250,8 @@ public class RdvServiceImpl implements RdvService {
 
     @Override
     public List<RdvDTO> getRecentRdvs(int limit) {
-        // Implémentation temporaire
-        List<Rdv> rdvs = rdvRepository.findAll().stream()
-                .filter(this::isOperationalRdv)
-                .collect(Collectors.toList());
-
-        // Trier par date (du plus récent au plus ancien)
-        rdvs.sort((r1, r2) -> {
-            if (r1.getDate() == null || r2.getDate() == null) {
-                return 0;
-            }
-            return r2.getDate().compareTo(r1.getDate());
-        });
-
-        // Limiter le nombre de résultats
-        if (rdvs.size() > limit) {
-            rdvs = rdvs.subList(0, limit);
-        }
-
-        // Convertir en DTO
-        return rdvs.stream()
-                .map(this::convertToDTO) // Use the existing method
+        return rdvRepository.findRecentOperationalRdvs(PageRequest.of(0, limit)).stream()
+                .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
@@ -406,7 +406,9 @@ public class RdvServiceImpl implements RdvService {
         ensureEtudeVolontaireAssociation(
                 rdvDTO.getIdEtude(), rdvDTO.getIdGroupe(), rdvDTO.getIdVolontaire());
 
-        return convertToDTO(rdvRepository.save(rdv));
+        Rdv savedRdv = rdvRepository.save(rdv);
+        eventPublisher.publishEvent(RdvChangedEvent.forDates(idEtude, rdv.getDate()));
+        return convertToDTO(savedRdv);
     }
 
     @Override
@@ -438,28 +440,45 @@ public class RdvServiceImpl implements RdvService {
         }
         Etude etude = etudeOpt.get();
 
-        // Créer tous les RDV dans la même transaction
+        // Valider chaque ligne sans rien écrire : groupes et associations
+        // existantes sont lus une fois pour tout le lot.
+        Map<Integer, Groupe> groupes = groupeRepository.findAllById(rdvDTOs.stream()
+                        .map(RdvDTO::getIdGroupe)
+                        .filter(id -> id != null && id > 0)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Groupe::getIdGroupe, groupe -> groupe));
+        Set<Integer> associes = idEtude > 0
+                ? etudeVolontaireService.findAssociatedVolunteerIds(idEtude, rdvDTOs.stream()
+                        .map(RdvDTO::getIdVolontaire)
+                        .filter(id -> id != null && id > 0)
+                        .collect(Collectors.toSet()))
+                : Set.of();
+
+        List<Rdv> rdvs = new ArrayList<>();
+        Map<Integer, EtudeVolontaire> nouvellesAssociations = new LinkedHashMap<>();
         for (int i = 0; i < rdvDTOs.size(); i++) {
             RdvDTO rdvDTO = rdvDTOs.get(i);
 
             try {
-                if (rdvDTO.getIdEtude() == null) {
-                    throw new IllegalArgumentException("L'ID de l'étude est obligatoire");
+                Integer idVolontaire = rdvDTO.getIdVolontaire();
+                EtudeVolontaire association = null;
+                if (idVolontaire != null) {
+                    if (idEtude <= 0 || idVolontaire <= 0) {
+                        throw new IllegalArgumentException("Etude et volontaire valides requis pour affecter un RDV");
+                    }
+                    if (!associes.contains(idVolontaire) && !nouvellesAssociations.containsKey(idVolontaire)) {
+                        association = newAssociation(idEtude, rdvDTO.getIdGroupe(), idVolontaire,
+                                id -> Optional.ofNullable(groupes.get(id)));
+                        // Mêmes contrôles que saveEtudeVolontaire sur le chemin unitaire
+                        etudeVolontaireService.validateNewAssociation(new EtudeVolontaireDTO(
+                                idEtude, association.getIdGroupe(), idVolontaire, association.getIv(), 0, 0, "INSCRIT"));
+                    }
+                }
+                rdvs.add(buildRdv(rdvDTO, etude, 0));
+                if (association != null) {
+                    nouvellesAssociations.put(idVolontaire, association);
                 }
-
-                int idRdv = rdvIdAllocator.nextForStudy(idEtude);
-                Rdv rdv = buildRdv(rdvDTO, etude, idRdv);
-
-                ensureEtudeVolontaireAssociation(
-                        rdvDTO.getIdEtude(), rdvDTO.getIdGroupe(), rdvDTO.getIdVolontaire());
-
-                // Sauvegarder
-                Rdv savedRdv = rdvRepository.save(rdv);
-                RdvDTO createdDTO = convertToDTO(savedRdv);
-                createdRdvs.add(createdDTO);
-
-                logger.debug("RDV {}/{} créé avec ID: {}", i + 1, rdvDTOs.size(), idRdv);
-
             } catch (RuntimeException e) {
                 String errorMsg = "Erreur création RDV " + (i + 1) + ": " + e.getMessage();
                 logger.error(errorMsg);
@@ -468,8 +487,36 @@ public class RdvServiceImpl implements RdvService {
             }
         }
 
+        // Un seul verrou sur le dernier RDV de l'étude pour tout le bloc, puis
+        // deux INSERT par lots au lieu d'un aller-retour par ligne.
+        if (!rdvs.isEmpty()) {
+            int premier = rdvIdAllocator.nextBlockForStudy(idEtude);
+            for (int i = 0; i < rdvs.size(); i++) {
+                rdvs.get(i).setIdRdv(premier + i);
+            }
+            rdvBatchWriter.insertAssociations(new ArrayList<>(nouvellesAssociations.values()));
+            rdvBatchWriter.insertRdvs(rdvs);
+            nouvellesAssociations.values().forEach(association -> logger.info(
+                    "Association etude-volontaire creee depuis le RDV: etude={}, groupe={}, volontaire={}, iv={}",
+                    idEtude, association.getIdGroupe(), association.getIdVolontaire(), association.getIv()));
+
+            // Relecture du bloc pour renvoyer les clés techniques générées
+            rdvRepository.findByIdEtudeAndIdRdvBetweenOrderByIdRdvAsc(idEtude, premier, premier + rdvs.size() - 1)
+                    .stream()
+                    .map(this::convertToDTO)
+                    .forEach(createdRdvs::add);
+        }
+
         logger.debug("Batch terminé : {} créés sur {} demandés", createdRdvs.size(), rdvDTOs.size());
 
+        if (!createdRdvs.isEmpty()) {
+            eventPublisher.publishEvent(RdvChangedEvent.forDates(idEtude, createdRdvs.stream()
+                    .map(RdvDTO::getDate)
+                    .filter(Objects::nonNull)
+                    .map(Date::valueOf)
+                    .collect(Collectors.toList())));
+        }
+
         if (!errors.isEmpty()) {
             logger.warn("Erreurs rencontrées dans le batch : {}", errors);
         }
@@ -503,6 +550,7 @@ public class RdvServiceImpl implements RdvService {
 
         if (rdvOpt.isPresent()) {
             Rdv rdv = rdvOpt.get();
+            Date previousDate = rdv.getDate();
             Integer previousVolontaireId = rdv.getIdVolontaire();
             Integer nextVolontaireId = rdvDTO.getIdVolontaire();
             boolean volontaireChanged = !Objects.equals(previousVolontaireId, nextVolontaireId);
@@ -533,6 +581,8 @@ public class RdvServiceImpl implements RdvService {
                         rdvDTO.getIdEtude(), previousVolontaireId, true);
                 logger.info("RDV {} on etude {} reused after cancellation: old RDV kept, new RDV id {} assigned to volunteer {}",
                         rdvDTO.getIdRdv(), rdvDTO.getIdEtude(), savedReplacement.getIdRdv(), nextVolontaireId);
+                eventPublisher.publishEvent(RdvChangedEvent.forDates(
+                        rdv.getIdEtude(), previousDate, replacement.getDate()));
                 return convertToDTO(savedReplacement);
             }
 
@@ -567,6 +617,7 @@ public class RdvServiceImpl implements RdvService {
                     rdvDTO.getIdEtude(), nextVolontaireId, volontaireChanged);
             removeStudyAssociationIfNoOperationalRdv(
                     rdvDTO.getIdEtude(), previousVolontaireId, volontaireChanged);
+            eventPublisher.publishEvent(RdvChangedEvent.forDates(rdv.getIdEtude(), previousDate, rdv.getDate()));
             return convertToDTO(savedRdv);
         } else {
             throw new IllegalArgumentException("Rdv introuvable: rdvPk=" + rdvDTO.getRdvPk()
@@ -604,10 +655,24 @@ public class RdvServiceImpl implements RdvService {
             return;
         }
 
+        EtudeVolontaire association = newAssociation(idEtude, idGroupe, idVolontaire, groupeRepository::findById);
+        etudeVolontaireService.saveEtudeVolontaire(new EtudeVolontaireDTO(
+                idEtude, association.getIdGroupe(), idVolontaire, association.getIv(), 0, 0, "INSCRIT"));
+        logger.info(
+                "Association etude-volontaire creee depuis le RDV: etude={}, groupe={}, volontaire={}, iv={}",
+                idEtude, association.getIdGroupe(), idVolontaire, association.getIv());
+    }
+
+    /**
+     * Prépare l'inscription d'un volontaire à l'étude pour le groupe du RDV,
+     * après avoir vérifié que ce groupe appartient bien à l'étude.
+     */
+    private EtudeVolontaire newAssociation(Integer idEtude, Integer idGroupe, Integer idVolontaire,
+            Function<Integer, Optional<Groupe>> groupes) {
         int groupeId = idGroupe != null && idGroupe > 0 ? idGroupe : 0;
         int iv = 0;
         if (groupeId > 0) {
-            Groupe groupe = groupeRepository.findById(groupeId)
+            Groupe groupe = groupes.apply(groupeId)
                     .orElseThrow(() -> new IllegalArgumentException("Groupe introuvable: " + groupeId));
             if (groupe.getIdEtude() != null && !Objects.equals(groupe.getIdEtude(), idEtude)) {
                 throw new IllegalArgumentException(
@@ -616,12 +681,15 @@ public class RdvServiceImpl implements RdvService {
             iv = groupe.getIv();
         }
 
-        EtudeVolontaireDTO association = new EtudeVolontaireDTO(
-                idEtude, groupeId, idVolontaire, iv, 0, 0, "INSCRIT");
-        etudeVolontaireService.saveEtudeVolontaire(association);
-        logger.info(
-                "Association etude-volontaire creee depuis le RDV: etude={}, groupe={}, volontaire={}, iv={}",
-                idEtude, groupeId, idVolontaire, iv);
+        EtudeVolontaire association = new EtudeVolontaire();
+        association.setIdEtude(idEtude);
+        association.setIdGroupe(groupeId);
+        association.setIdVolontaire(idVolontaire);
+        association.setIv(iv);
+        association.setNumSujet(0);
+        association.setPaye(0);
+        association.setStatut("INSCRIT");
+        return association;
     }
 
     private void removeStudyAssociationIfNoOperationalRdv(
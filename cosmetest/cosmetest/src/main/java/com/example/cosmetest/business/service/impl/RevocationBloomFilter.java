@@ -0,0 +1,72 @@
+package com.example.cosmetest.business.service.impl;
+
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre de Bloom des empreintes de jetons révoqués ({@code TokenRevocationStore.cle}).
+ * Une réponse négative est sûre ; une réponse positive doit être confirmée.
+ *
+ * Les empreintes sont déjà des SHA-256 : leurs 16 premiers octets fournissent
+ * directement les deux hachages combinés pour les {@code k} positions.
+ * Ajouts et lectures concurrents sans verrou.
+ */
+final class RevocationBloomFilter {
+
+    private static final double FAUX_POSITIFS = 0.01;
+
+    private final AtomicLongArray bits;
+    private final long taille;
+    private final int hachages;
+
+    /**
+     * Dimensionné pour {@code capacite} empreintes à 1 % de faux positifs.
+     */
+    RevocationBloomFilter(int capacite) {
+        int n = Math.max(1, capacite);
+        long m = (long) Math.ceil(-n * Math.log(FAUX_POSITIFS) / (Math.log(2) * Math.log(2)));
+        this.bits = new AtomicLongArray((int) ((m + 63) / 64));
+        this.taille = bits.length() * 64L;
+        this.hachages = Math.max(1, (int) Math.round((double) taille / n * Math.log(2)));
+    }
+
+    void ajouter(String cle) {
+        long[] h = hachages(cle);
+        for (int i = 0; i < hachages; i++) {
+            long position = position(h, i);
+            int mot = (int) (position >>> 6);
+            long masque = 1L << position;
+            long valeur;
+            do {
+                valeur = bits.get(mot);
+            } while ((valeur & masque) == 0 && !bits.compareAndSet(mot, valeur, valeur | masque));
+        }
+    }
+
+    boolean peutContenir(String cle) {
+        long[] h = hachages(cle);
+        for (int i = 0; i < hachages; i++) {
+            long position = position(h, i);
+            if ((bits.get((int) (position >>> 6)) & (1L << position)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long position(long[] h, int i) {
+        return Math.floorMod(h[0] + i * h[1], taille);
+    }
+
+    private static long[] hachages(String cle) {
+        byte[] empreinte = Base64.getUrlDecoder().decode(cle);
+        long h1 = 0;
+        long h2 = 0;
+        for (int i = 0; i < 8; i++) {
+            h1 = (h1 << 8) | (empreinte[i] & 0xFF);
+            h2 = (h2 << 8) | (empreinte[i + 8] & 0xFF);
+        }
+        // Second hachage jamais nul, sinon les k positions seraient confondues
+        return new long[] {h1, h2 | 1};
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.business.mapper.VolontaireNormalizer;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cube démographique des volontaires en mémoire : nombre de volontaires par
+ * combinaison de sexe, ethnie, phototype, type de peau, tranche d'âge et
+ * statut (actif ou archivé).
+ *
+ * Le cube est construit à la première lecture par une seule requête de
+ * projection, sans charger d'entités, puis mis à jour volontaire par
+ * volontaire après chaque écriture ({@link VolontaireChangedEvent}, voir
+ * {@link VolontaireIndexEnMemoire}) : la cellule de l'ancien profil est
+ * décrémentée, celle du nouveau incrémentée.
+ * Les tranches d'âge sont recalculées depuis les dates de naissance gardées
+ * en mémoire quand la date du jour change.
+ *
+ * Un croisement additionne les cellules qui passent les filtres, regroupées
+ * sur les dimensions demandées.
+ */
+@Component
+public class VolontaireDemographieCube extends VolontaireIndexEnMemoire {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolontaireDemographieCube.class);
+
+    public static final String NON_RENSEIGNE = "Non renseigné";
+    public static final String ACTIF = "actif";
+    public static final String ARCHIVE = "archive";
+
+    /** Dimensions du cube, dans l'ordre des cellules. */
+    public static final List<String> DIMENSIONS =
+            List.of("sexe", "ethnie", "phototype", "typePeau", "trancheAge", "statut");
+
+    private static final int SEXE = 0;
+    private static final int ETHNIE = 1;
+    private static final int PHOTOTYPE = 2;
+    private static final int TYPE_PEAU = 3;
+    private static final int TRANCHE_AGE = 4;
+
+    private final VolontaireRepository volontaireRepository;
+
+    private final Map<Integer, Profil> profils = new HashMap<>();
+    private final Map<List<String>, Long> cellules = new HashMap<>();
+
+    private LocalDate jour;
+
+    public VolontaireDemographieCube(VolontaireRepository volontaireRepository) {
+        super("cube démographique");
+        this.volontaireRepository = volontaireRepository;
+    }
+
+    /**
+     * Répartitions historiques de {@code getVolontairesStatistics} : total et
+     * répartition par sexe, ethnie, phototype, type de peau et tranche d'âge,
+     * archivés compris, sans les valeurs non renseignées.
+     */
+    public Map<String, Object> statistiques() {
+        verrouillerEnLecture();
+        try {
+            Map<String, Object> statistics = new HashMap<>();
+            statistics.put("totalVolontaires", profils.size());
+            statistics.put("sexeDistribution", repartition(SEXE));
+            statistics.put("ethnieDistribution", repartition(ETHNIE));
+            statistics.put("phototypeDistribution", repartition(PHOTOTYPE));
+            statistics.put("typePeauDistribution", repartition(TYPE_PEAU));
+            statistics.put("ageDistribution", repartition(TRANCHE_AGE));
+            return statistics;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Croise les dimensions demandées sur les volontaires qui passent les filtres.
+     *
+     * @param dimensions dimensions du regroupement, parmi {@link #DIMENSIONS} ;
+     *                   vide pour le seul total
+     * @param filtres    valeurs acceptées par dimension, combinées en ET ; une
+     *                   dimension accepte n'importe laquelle de ses valeurs
+     * @return total filtré et lignes {dimension: valeur, ..., nombre}, de la plus
+     *         nombreuse à la moins nombreuse
+     * @throws IllegalArgumentException si une dimension est inconnue
+     */
+    public Map<String, Object> croiser(List<String> dimensions, Map<String, Set<String>> filtres) {
+        int[] axes = dimensions.stream().mapToInt(VolontaireDemographieCube::axe).toArray();
+        Map<Integer, Set<String>> acceptees = new HashMap<>();
+        filtres.forEach((dimension, valeurs) -> acceptees.put(axe(dimension),
+                valeurs.stream().map(v -> v.toLowerCase(Locale.ROOT)).collect(Collectors.toSet())));
+
+        Map<List<String>, Long> groupes = new HashMap<>();
+        long total = 0;
+        verrouillerEnLecture();
+        try {
+            for (Map.Entry<List<String>, Long> cellule : cellules.entrySet()) {
+                List<String> valeurs = cellule.getKey();
+                if (!accepte(valeurs, acceptees)) {
+                    continue;
+                }
+                List<String> groupe = new ArrayList<>(axes.length);
+                for (int axe : axes) {
+                    groupe.add(valeurs.get(axe));
+                }
+                groupes.merge(groupe, cellule.getValue(), Long::sum);
+                total += cellule.getValue();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Map<String, Object>> lignes = new ArrayList<>(groupes.size());
+        groupes.entrySet().stream()
+                .sorted(Map.Entry.<List<String>, Long>comparingByValue().reversed()
+                        .thenComparing(e -> String.join("\u0000", e.getKey())))
+                .forEach(e -> {
+                    Map<String, Object> ligne = new LinkedHashMap<>();
+                    for (int i = 0; i < axes.length; i++) {
+                        ligne.put(DIMENSIONS.get(axes[i]), e.getKey().get(i));
+                    }
+                    ligne.put("nombre", e.getValue());
+                    lignes.add(ligne);
+                });
+
+        Map<String, Object> resultat = new LinkedHashMap<>();
+        resultat.put("dimensions", dimensions);
+        resultat.put("filtres", filtres);
+        resultat.put("total", total);
+        resultat.put("lignes", lignes);
+        return resultat;
+    }
+
+    @Override
+    protected void reinitialiser() {
+        profils.clear();
+        cellules.clear();
+    }
+
+    @Override
+    protected void construire() {
+        long debut = System.currentTimeMillis();
+        jour = LocalDate.now();
+        for (Object[] ligne : volontaireRepository.findDemographieRows()) {
+            Profil profil = profil(ligne);
+            profils.put(profil.idVol(), profil);
+            compter(profil);
+        }
+        logger.info("Cube démographique construit sur {} volontaires ({} cellules) en {} ms",
+                profils.size(), cellules.size(), System.currentTimeMillis() - debut);
+    }
+
+    @Override
+    protected void rafraichir(Integer idVol) {
+        List<Object[]> lignes = volontaireRepository.findDemographieRow(idVol);
+        Profil ancien = profils.remove(idVol);
+        if (ancien != null) {
+            decompter(ancien);
+        }
+        if (!lignes.isEmpty()) {
+            Profil nouveau = profil(lignes.get(0));
+            profils.put(idVol, nouveau);
+            compter(nouveau);
+        }
+    }
+
+    /**
+     * Les tranches d'âge dépendent de la date du jour.
+     */
+    @Override
+    protected boolean aJour() {
+        return LocalDate.now().equals(jour);
+    }
+
+    @Override
+    protected void actualiser() {
+        recompter();
+    }
+
+    /**
+     * Recalcule les cellules depuis les profils en mémoire, pour les tranches
+     * d'âge d'un nouveau jour.
+     */
+    private void recompter() {
+        cellules.clear();
+        jour = LocalDate.now();
+        profils.values().forEach(this::compter);
+    }
+
+    private Map<String, Long> repartition(int axe) {
+        Map<String, Long> repartition = new HashMap<>();
+        cellules.forEach((valeurs, nombre) -> {
+            String valeur = valeurs.get(axe);
+            if (!NON_RENSEIGNE.equals(valeur)) {
+                repartition.merge(valeur, nombre, Long::sum);
+            }
+        });
+        return repartition;
+    }
+
+    private static boolean accepte(List<String> valeurs, Map<Integer, Set<String>> acceptees) {
+        for (Map.Entry<Integer, Set<String>> filtre : acceptees.entrySet()) {
+            if (!filtre.getValue().contains(valeurs.get(filtre.getKey()).toLowerCase(Locale.ROOT))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void compter(Profil profil) {
+        cellules.merge(cellule(profil), 1L, Long::sum);
+    }
+
+    private void decompter(Profil profil) {
+        cellules.computeIfPresent(cellule(profil), (cle, nombre) -> nombre > 1 ? nombre - 1 : null);
+    }
+
+    private List<String> cellule(Profil profil) {
+        return Arrays.asList(profil.sexe(), profil.ethnie(), profil.phototype(), profil.typePeau(),
+                trancheAge(profil.dateNaissance(), jour), profil.archive() ? ARCHIVE : ACTIF);
+    }
+
+    private static int axe(String dimension) {
+        for (int i = 0; i < DIMENSIONS.size(); i++) {
+            if (DIMENSIONS.get(i).equalsIgnoreCase(dimension)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Dimension inconnue: " + dimension
+                + " (attendu: " + String.join(", ", DIMENSIONS) + ")");
+    }
+
+    /**
+     * Profil d'une ligne de {@code findDemographieRows} :
+     * idVol, sexe, ethnie, phototype, type de peau, date de naissance, archive.
+     */
+    private static Profil profil(Object[] ligne) {
+        return new Profil(
+                (Integer) ligne[0],
+                valeur(VolontaireNormalizer.normalizeSexe((String) ligne[1])),
+                valeur((String) ligne[2]),
+                valeur(VolontaireNormalizer.normalizePhototype((String) ligne[3])),
+                valeur(VolontaireNormalizer.normalizeTypePeauVisage((String) ligne[4])),
+                date(ligne[5]),
+                Boolean.TRUE.equals(ligne[6]));
+    }
+
+    private static String valeur(String brute) {
+        return brute == null || brute.isBlank() ? NON_RENSEIGNE : brute.trim();
+    }
+
+    private static LocalDate date(Object brute) {
+        if (brute instanceof java.sql.Date d) {
+            return d.toLocalDate();
+        }
+        if (brute instanceof LocalDate d) {
+            return d;
+        }
+        return null;
+    }
+
+    static String trancheAge(LocalDate dateNaissance, LocalDate aujourdhui) {
+        if (dateNaissance == null) {
+            return NON_RENSEIGNE;
+        }
+        int age = Period.between(dateNaissance, aujourdhui).getYears();
+        if (age < 18) {
+            return "Moins de 18 ans";
+        } else if (age < 30) {
+            return "18-29 ans";
+        } else if (age < 40) {
+            return "30-39 ans";
+        } else if (age < 50) {
+            return "40-49 ans";
+        } else if (age < 60) {
+            return "50-59 ans";
+        }
+        return "60 ans et plus";
+    }
+
+    private record Profil(Integer idVol, String sexe, String ethnie, String phototype, String typePeau,
+                          LocalDate dateNaissance, boolean archive) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.cosmetest.business.service.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Répartition des valeurs de plusieurs colonnes produit de volontaire_hc en
+ * une seule lecture de la table.
+ *
+ * La requête générée est une agrégation conditionnelle : une ligne de
+ * résultat, avec le total puis un {@code SUM(colonne = valeur)} par valeur
+ * connue et par produit. Les noms de colonnes viennent exclusivement de
+ * {@link VolontaireHcFieldRegistry}.
+ */
+final class VolontaireHcDistributionQuery {
+
+    static final String NON_SPECIFIE = "non spécifié";
+    static final String AUTRE = "autre";
+
+    /** Valeurs comptées individuellement, dans l'ordre des colonnes de la requête. */
+    static final List<String> VALEURS = List.of("oui", "regulierement", "occasionnellement", "non", "jamais");
+
+    /** Valeurs qui comptent comme une utilisation du produit. */
+    private static final List<String> UTILISATION = List.of("oui", "regulierement");
+
+    private static final int COLONNES_PAR_PRODUIT = VALEURS.size() + 1;
+
+    private final List<String> produits;
+    private final String sql;
+
+    VolontaireHcDistributionQuery(Collection<String> produits) {
+        this.produits = List.copyOf(produits);
+        StringBuilder select = new StringBuilder("SELECT COUNT(*)");
+        for (String produit : this.produits) {
+            String colonne = VolontaireHcFieldRegistry.require(produit).columnName();
+            for (String valeur : VALEURS) {
+                select.append(", SUM(").append(colonne).append(" = '").append(valeur).append("')");
+            }
+            select.append(", SUM(").append(colonne).append(" IS NULL)");
+        }
+        this.sql = select.append(" FROM volontaire_hc").toString();
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    /**
+     * Répartition complète par produit : chaque valeur connue, puis
+     * {@value #NON_SPECIFIE} (NULL) et {@value #AUTRE} (toute autre valeur).
+     */
+    Map<String, Map<String, Long>> distributions(Object[] ligne) {
+        long total = nombre(ligne[0]);
+        Map<String, Map<String, Long>> distributions = new LinkedHashMap<>();
+        for (int p = 0; p < produits.size(); p++) {
+            int base = 1 + p * COLONNES_PAR_PRODUIT;
+            Map<String, Long> distribution = new LinkedHashMap<>();
+            long comptes = 0;
+            for (int v = 0; v < VALEURS.size(); v++) {
+                long nombre = nombre(ligne[base + v]);
+                distribution.put(VALEURS.get(v), nombre);
+                comptes += nombre;
+            }
+            long nonSpecifies = nombre(ligne[base + VALEURS.size()]);
+            distribution.put(NON_SPECIFIE, nonSpecifies);
+            distribution.put(AUTRE, total - comptes - nonSpecifies);
+            distributions.put(produits.get(p), distribution);
+        }
+        return distributions;
+    }
+
+    /**
+     * Nombre d'utilisateurs (« oui » ou « regulierement ») par produit.
+     */
+    Map<String, Long> utilisations(Object[] ligne) {
+        Map<String, Long> utilisations = new LinkedHashMap<>();
+        distributions(ligne).forEach((produit, distribution) -> utilisations.put(produit,
+                UTILISATION.stream().mapToLong(distribution::get).sum()));
+        return utilisations;
+    }
+
+    private static long nombre(Object valeur) {
+        // SUM sur une table vide renvoie NULL
+        return valeur == null ? 0L : ((Number) valeur).longValue();
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.VolontaireHcDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
 import com.example.cosmetest.business.mapper.VolontaireHcMapper;
 import com.example.cosmetest.business.service.VolontaireHcService;
 import com.example.cosmetest.domain.model.VolontaireHc;
 import com.example.cosmetest.data.repository.VolontaireHcRepository;
 import com.example.cosmetest.exception.AmbiguousVolontaireHcException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +26,7 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
 
     private final VolontaireHcRepository volontaireHcRepository;
     private final VolontaireHcMapper volontaireHcMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @PersistenceContext
     private EntityManager entityManager;
@@ -32,10 +35,19 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
     private static final List<String> VALEURS_AUTORISEES = Arrays.asList("oui", "non", "occasionnellement",
             "regulierement", "jamais", null);
 
+    private static final VolontaireHcDistributionQuery TOUS_PRODUITS =
+            new VolontaireHcDistributionQuery(VolontaireHcFieldRegistry.names());
+    private static final VolontaireHcDistributionQuery LIEUX_ACHAT = new VolontaireHcDistributionQuery(List.of(
+            "achatGrandesSurfaces",
+            "achatInstitutParfumerie",
+            "achatInternet",
+            "achatPharmacieParapharmacie"));
+
     public VolontaireHcServiceImpl(VolontaireHcRepository volontaireHcRepository,
-            VolontaireHcMapper volontaireHcMapper) {
+            VolontaireHcMapper volontaireHcMapper, ApplicationEventPublisher eventPublisher) {
         this.volontaireHcRepository = volontaireHcRepository;
         this.volontaireHcMapper = volontaireHcMapper;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -58,6 +70,7 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
         }
 
         VolontaireHc savedVolontaireHc = volontaireHcRepository.save(volontaireHc);
+        eventPublisher.publishEvent(VolontaireChangedEvent.of(savedVolontaireHc.getIdVol()));
         VolontaireHcDTO savedDto = volontaireHcMapper.toDTO(savedVolontaireHc);
 
         // Normaliser à nouveau après la conversion
@@ -74,6 +87,7 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
         Optional<VolontaireHc> volontaireHc = findUniqueByIdVol(idVol);
         if (volontaireHc.isPresent()) {
             volontaireHcRepository.delete(volontaireHc.get());
+            eventPublisher.publishEvent(VolontaireChangedEvent.of(idVol));
             return true;
         }
 
@@ -132,6 +146,7 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
                 .map(volontaireHc -> {
                     VolontaireHcFieldRegistry.require(produit).set(volontaireHc, valeur);
                     VolontaireHc savedVolontaireHc = volontaireHcRepository.save(volontaireHc);
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(idVol));
                     return volontaireHcMapper.toDTO(savedVolontaireHc);
                 });
     }
@@ -154,6 +169,7 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
                             VolontaireHcFieldRegistry.require(produit).set(volontaireHc, valeur));
 
                     VolontaireHc savedVolontaireHc = volontaireHcRepository.save(volontaireHc);
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(idVol));
                     return volontaireHcMapper.toDTO(savedVolontaireHc);
                 });
     }
@@ -184,59 +200,35 @@ public class VolontaireHcServiceImpl implements VolontaireHcService {
             throw new IllegalArgumentException("La limite doit être un nombre positif");
         }
 
-        Map<String, Long> produitsUtilisation = new HashMap<>();
-
-        // Pour chaque champ explicitement autorisé, faire un COUNT en base.
-        for (String produit : VolontaireHcFieldRegistry.names()) {
-            String columnName = getColumnName(produit);
-            Number count = (Number) entityManager.createNativeQuery(
-                    "SELECT COUNT(*) FROM volontaire_hc WHERE " + columnName + " IN ('oui', 'regulierement')")
-                    .getSingleResult();
-
-            if (count.longValue() > 0) {
-                produitsUtilisation.put(produit, count.longValue());
-            }
-        }
-
-        // Trier par nombre d'utilisateurs décroissant et limiter
-        return produitsUtilisation.entrySet()
-                .stream()
-                .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
-                .limit(limit)
-                .collect(Collectors.toMap(
-                        Map.Entry::getKey,
-                        Map.Entry::getValue,
-                        (e1, e2) -> e1,
-                        LinkedHashMap::new));
+        // Un seul parcours de volontaire_hc pour tous les champs autorisés
+        return trierParUtilisation(TOUS_PRODUITS.utilisations(executer(TOUS_PRODUITS)), limit);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Long> getLieuxAchatPreferences() {
-        Map<String, Long> lieuxAchatPreferences = new HashMap<>();
-
-        // 4 COUNT en base au lieu de charger toute la table
-        List<String> lieuxAchat = Arrays.asList(
-                "achatGrandesSurfaces",
-                "achatInstitutParfumerie",
-                "achatInternet",
-                "achatPharmacieParapharmacie");
+        return trierParUtilisation(LIEUX_ACHAT.utilisations(executer(LIEUX_ACHAT)), Long.MAX_VALUE);
+    }
 
-        for (String lieu : lieuxAchat) {
-            String columnName = getColumnName(lieu);
-            Number count = (Number) entityManager.createNativeQuery(
-                    "SELECT COUNT(*) FROM volontaire_hc WHERE " + columnName + " IN ('oui', 'regulierement')")
-                    .getSingleResult();
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Map<String, Long>> getDistributionsProduits() {
+        return TOUS_PRODUITS.distributions(executer(TOUS_PRODUITS));
+    }
 
-            if (count.longValue() > 0) {
-                lieuxAchatPreferences.put(lieu, count.longValue());
-            }
-        }
+    private Object[] executer(VolontaireHcDistributionQuery query) {
+        return (Object[]) entityManager.createNativeQuery(query.sql()).getSingleResult();
+    }
 
-        // Trier par nombre d'utilisateurs décroissant
-        return lieuxAchatPreferences.entrySet()
+    /**
+     * Produits utilisés par au moins un volontaire, par nombre d'utilisateurs décroissant
+     */
+    private static Map<String, Long> trierParUtilisation(Map<String, Long> utilisations, long limit) {
+        return utilisations.entrySet()
                 .stream()
+                .filter(entry -> entry.getValue() > 0)
                 .sorted(Map.Entry.comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
                         Map.Entry::getValue,
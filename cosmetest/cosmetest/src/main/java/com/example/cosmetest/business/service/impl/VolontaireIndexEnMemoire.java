@@ -0,0 +1,197 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Socle des index de volontaires tenus en mémoire : construction complète à
+ * la première lecture, puis mise à jour volontaire par volontaire après
+ * chaque écriture ({@link VolontaireChangedEvent}).
+ *
+ * Un événement n'est jamais appliqué tel quel : il marque le volontaire comme
+ * périmé, et sa ligne est relue en base sous le verrou d'écriture, par
+ * l'écouteur s'il obtient le verrou sans attendre, sinon par la lecture
+ * suivante. Relire sous le verrou rend l'ordre d'arrivée des événements
+ * indifférent : chaque application recopie le dernier état validé. Les
+ * volontaires périmés sont oubliés avant une construction complète, si bien
+ * qu'un événement arrivé pendant celle-ci est rejoué ensuite au lieu d'être
+ * perdu. Une reconstruction planifiée rattrape les écritures faites hors des
+ * services ou sur une autre instance.
+ *
+ * Les lectures encadrent leur accès par {@link #verrouillerEnLecture()} et
+ * {@code lock.readLock().unlock()} ; les méthodes abstraites sont appelées
+ * sous le verrou d'écriture.
+ */
+abstract class VolontaireIndexEnMemoire {
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    protected final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Set<Integer> perimes = ConcurrentHashMap.newKeySet();
+    private final String nom;
+
+    private volatile boolean charge;
+    private volatile boolean reconstructionDemandee;
+
+    /**
+     * @param nom désignation de l'index dans les journaux (« index de recherche »...)
+     */
+    protected VolontaireIndexEnMemoire(String nom) {
+        this.nom = nom;
+    }
+
+    /**
+     * Vide toutes les structures de l'index.
+     */
+    protected abstract void reinitialiser();
+
+    /**
+     * Remplit l'index depuis la base ; les structures viennent d'être vidées.
+     */
+    protected abstract void construire();
+
+    /**
+     * Recopie l'état en base d'un volontaire, ou le retire s'il n'existe plus.
+     */
+    protected abstract void rafraichir(Integer idVol);
+
+    /**
+     * Faux quand l'index dépend de la date du jour et doit être actualisé.
+     */
+    protected boolean aJour() {
+        return true;
+    }
+
+    /**
+     * Actualise un index chargé qui n'est plus {@link #aJour()}.
+     */
+    protected void actualiser() {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVolontaireChanged(VolontaireChangedEvent event) {
+        if (event.volontaireConnu()) {
+            perimes.add(event.idVol());
+        } else {
+            reconstructionDemandee = true;
+        }
+        // Verrou occupé (lecture ou construction en cours) : la lecture suivante s'en charge
+        if (charge && lock.writeLock().tryLock()) {
+            try {
+                if (charge) {
+                    rattraper();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Oublie tout l'index ; il sera reconstruit à la prochaine lecture.
+     */
+    public void invalider() {
+        lock.writeLock().lock();
+        try {
+            oublier();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruit un index déjà chargé ; un index jamais lu reste vide.
+     */
+    @Scheduled(cron = "${volontaires.index.reconciliation-cron:0 45 3 * * *}")
+    public void reconcilier() {
+        if (!charge) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (charge) {
+                charger();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Réconciliation de l'{} impossible: {}", nom, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Verrou de lecture sur un index chargé et à jour : construit l'index ou
+     * rejoue les volontaires périmés au besoin, puis rétrograde le verrou
+     * d'écriture pour qu'aucune invalidation ne s'intercale.
+     */
+    protected void verrouillerEnLecture() {
+        lock.readLock().lock();
+        if (charge && !reconstructionDemandee && perimes.isEmpty() && aJour()) {
+            return;
+        }
+        lock.readLock().unlock();
+        lock.writeLock().lock();
+        try {
+            if (charge) {
+                rattraper();
+            }
+            if (!charge) {
+                charger();
+            } else if (!aJour()) {
+                actualiser();
+            }
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void charger() {
+        charge = false;
+        // Oubliés avant la lecture : une écriture pendant la construction repérime son volontaire
+        reconstructionDemandee = false;
+        perimes.clear();
+        reinitialiser();
+        try {
+            construire();
+        } catch (RuntimeException e) {
+            reinitialiser();
+            throw e;
+        }
+        charge = true;
+    }
+
+    private void rattraper() {
+        if (reconstructionDemandee) {
+            oublier();
+            return;
+        }
+        for (Integer idVol : List.copyOf(perimes)) {
+            perimes.remove(idVol);
+            try {
+                rafraichir(idVol);
+            } catch (RuntimeException e) {
+                // L'index sera reconstruit à la prochaine lecture plutôt que de rester faux
+                logger.warn("Mise à jour de l'{} impossible pour le volontaire {}: {}", nom, idVol, e.getMessage());
+                oublier();
+                return;
+            }
+        }
+    }
+
+    private void oublier() {
+        charge = false;
+        reconstructionDemandee = false;
+        perimes.clear();
+        reinitialiser();
+    }
+}
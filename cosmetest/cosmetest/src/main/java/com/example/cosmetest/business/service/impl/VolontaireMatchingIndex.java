@@ -0,0 +1,401 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.PanelMatchDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.business.mapper.VolontaireNormalizer;
+import com.example.cosmetest.data.repository.VolontaireHcRepository;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import com.example.cosmetest.domain.model.Panel;
+import com.example.cosmetest.domain.model.Volontaire;
+import com.example.cosmetest.domain.model.VolontaireHc;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Index colonnaire en mémoire des attributs de volontaires utilisés par le
+ * matching de panels.
+ *
+ * Chaque attribut comparable à un critère de panel (et chaque habitude
+ * cosmétique) est une colonne d'entiers, une case par volontaire, contenant le
+ * code de la valeur normalisée dans un dictionnaire commun ; 0 signifie « non
+ * renseigné ». Les scores cliniques sont des colonnes de float (NaN si absent).
+ * L'index est construit au premier matching par lecture paginée des tables
+ * volontaire et volontaire_hc, puis mis à jour ligne par ligne après chaque
+ * écriture ({@link VolontaireChangedEvent}, voir {@link VolontaireIndexEnMemoire}).
+ */
+@Component
+public class VolontaireMatchingIndex extends VolontaireIndexEnMemoire {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolontaireMatchingIndex.class);
+
+    static final int ABSENT = 0;
+    static final int NON_RESPECTE = 0;
+    static final int INCONNU = 1;
+    static final int RESPECTE = 2;
+    private static final int PAGE_CHARGEMENT = 500;
+
+    private final VolontaireRepository volontaireRepository;
+    private final VolontaireHcRepository volontaireHcRepository;
+
+    private final List<String> attributs = List.copyOf(PanelCriteriaRegistry.ATTRIBUTS.keySet());
+    private final List<String> habitudes = List.copyOf(VolontaireHcFieldRegistry.names());
+    private final List<String> scores = List.copyOf(PanelCriteriaRegistry.SCORES.keySet());
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> valeurs = new ArrayList<>();
+    private final Map<Integer, Integer> ligneParVolontaire = new HashMap<>();
+    private final BitSet supprimees = new BitSet();
+
+    private int lignes;
+    private int[] ids;
+    private String[] noms;
+    private String[] prenoms;
+    private String[] sexes;
+    private boolean[] archives;
+    private int[][] colonnesAttributs;
+    private int[][] colonnesHabitudes;
+    private float[][] colonnesScores;
+
+    public VolontaireMatchingIndex(VolontaireRepository volontaireRepository,
+                                   VolontaireHcRepository volontaireHcRepository) {
+        super("index de matching");
+        this.volontaireRepository = volontaireRepository;
+        this.volontaireHcRepository = volontaireHcRepository;
+        reinitialiser();
+    }
+
+    /**
+     * Classe les volontaires selon leur correspondance aux critères renseignés
+     * du panel et aux habitudes demandées.
+     *
+     * @param panel           critères du panel (les critères vides sont ignorés)
+     * @param habitudes       habitudes cosmétiques exigées, valeurs acceptées
+     *                        séparées par des virgules (peut être vide)
+     * @param includeArchived inclure les volontaires archivés
+     * @param tolerance       nombre de critères non respectés toléré
+     * @param pageable        page demandée
+     * @return volontaires éligibles, du meilleur score au moins bon
+     */
+    public Page<PanelMatchDTO> match(Panel panel, Map<String, String> habitudes, boolean includeArchived,
+                                     int tolerance, Pageable pageable) {
+        verrouillerEnLecture();
+        try {
+            List<Critere> criteres = compiler(panel, habitudes);
+            int toleres = Math.max(0, tolerance);
+
+            int[] eligibles = new int[lignes];
+            double[] scoreParLigne = new double[lignes];
+            int[] nonRespectesParLigne = new int[lignes];
+            int total = 0;
+            for (int ligne = 0; ligne < lignes; ligne++) {
+                if (supprimees.get(ligne) || (!includeArchived && archives[ligne])) {
+                    continue;
+                }
+                int points = 0;
+                int nonRespectes = 0;
+                for (Critere critere : criteres) {
+                    int resultat = critere.evaluer(ligne);
+                    points += resultat;
+                    if (resultat == NON_RESPECTE && ++nonRespectes > toleres) {
+                        break;
+                    }
+                }
+                if (nonRespectes > toleres) {
+                    continue;
+                }
+                scoreParLigne[ligne] = criteres.isEmpty() ? 1.0 : points / (2.0 * criteres.size());
+                nonRespectesParLigne[ligne] = nonRespectes;
+                eligibles[total++] = ligne;
+            }
+
+            List<Integer> classement = IntStream.of(Arrays.copyOf(eligibles, total)).boxed()
+                    .sorted(Comparator.<Integer>comparingDouble(ligne -> -scoreParLigne[ligne])
+                            .thenComparingInt(ligne -> nonRespectesParLigne[ligne])
+                            .thenComparingInt(ligne -> ids[ligne]))
+                    .toList();
+
+            int debut = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+            int fin = pageable.isPaged() ? Math.min(debut + pageable.getPageSize(), total) : total;
+            List<PanelMatchDTO> contenu = new ArrayList<>(fin - debut);
+            for (int ligne : classement.subList(debut, fin)) {
+                contenu.add(resultat(ligne, criteres, scoreParLigne[ligne]));
+            }
+            return new PageImpl<>(contenu, pageable, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected void rafraichir(Integer idVol) {
+        Optional<Volontaire> volontaire = volontaireRepository.findById(idVol);
+        if (volontaire.isEmpty()) {
+            supprimer(idVol);
+            return;
+        }
+        int ligne = ecrireVolontaire(volontaire.get());
+        ecrireHabitudes(ligne, volontaireHcRepository.findByIdVol(idVol).orElse(null));
+    }
+
+    @Override
+    protected void construire() {
+        long debut = System.nanoTime();
+
+        Page<Volontaire> volontaires;
+        int numero = 0;
+        do {
+            volontaires = volontaireRepository.findAll(PageRequest.of(numero++, PAGE_CHARGEMENT, Sort.by("idVol")));
+            volontaires.forEach(this::ecrireVolontaire);
+        } while (volontaires.hasNext());
+
+        Page<VolontaireHc> volontairesHc;
+        numero = 0;
+        do {
+            volontairesHc = volontaireHcRepository.findAll(PageRequest.of(numero++, PAGE_CHARGEMENT, Sort.by("idVol")));
+            for (VolontaireHc volontaireHc : volontairesHc) {
+                Integer ligne = ligneParVolontaire.get(volontaireHc.getIdVol());
+                if (ligne != null) {
+                    ecrireHabitudes(ligne, volontaireHc);
+                }
+            }
+        } while (volontairesHc.hasNext());
+
+        logger.info("Index de matching construit: {} volontaire(s), {} valeur(s) distincte(s) en {} ms",
+                ligneParVolontaire.size(), valeurs.size() - 1, (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    @Override
+    protected void reinitialiser() {
+        codes.clear();
+        valeurs.clear();
+        valeurs.add(null);
+        ligneParVolontaire.clear();
+        supprimees.clear();
+        lignes = 0;
+        ids = new int[0];
+        noms = new String[0];
+        prenoms = new String[0];
+        sexes = new String[0];
+        archives = new boolean[0];
+        colonnesAttributs = new int[attributs.size()][0];
+        colonnesHabitudes = new int[habitudes.size()][0];
+        colonnesScores = new float[scores.size()][0];
+    }
+
+    private int ecrireVolontaire(Volontaire volontaire) {
+        int ligne = ligneParVolontaire.computeIfAbsent(volontaire.getIdVol(), this::nouvelleLigne);
+        noms[ligne] = volontaire.getNomVol();
+        prenoms[ligne] = volontaire.getPrenomVol();
+        sexes[ligne] = VolontaireNormalizer.normalizeSexe(volontaire.getSexe());
+        archives[ligne] = Boolean.TRUE.equals(volontaire.getArchive());
+        for (int i = 0; i < attributs.size(); i++) {
+            String attribut = attributs.get(i);
+            String valeur = PanelCriteriaRegistry.ATTRIBUTS.get(attribut).valeur().apply(volontaire);
+            colonnesAttributs[i][ligne] = coder(normaliser(attribut, valeur));
+        }
+        for (int i = 0; i < scores.size(); i++) {
+            Float valeur = PanelCriteriaRegistry.SCORES.get(scores.get(i)).valeur().apply(volontaire);
+            colonnesScores[i][ligne] = valeur != null ? valeur : Float.NaN;
+        }
+        return ligne;
+    }
+
+    private void ecrireHabitudes(int ligne, VolontaireHc volontaireHc) {
+        for (int i = 0; i < habitudes.size(); i++) {
+            String habitude = habitudes.get(i);
+            colonnesHabitudes[i][ligne] = volontaireHc == null
+                    ? ABSENT
+                    : coder(normaliser(habitude, VolontaireHcFieldRegistry.require(habitude).get(volontaireHc)));
+        }
+    }
+
+    private void supprimer(Integer idVol) {
+        Integer ligne = ligneParVolontaire.remove(idVol);
+        if (ligne != null) {
+            supprimees.set(ligne);
+        }
+    }
+
+    private int nouvelleLigne(Integer idVol) {
+        if (lignes == ids.length) {
+            int capacite = Math.max(64, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacite);
+            noms = Arrays.copyOf(noms, capacite);
+            prenoms = Arrays.copyOf(prenoms, capacite);
+            sexes = Arrays.copyOf(sexes, capacite);
+            archives = Arrays.copyOf(archives, capacite);
+            for (int i = 0; i < colonnesAttributs.length; i++) {
+                colonnesAttributs[i] = Arrays.copyOf(colonnesAttributs[i], capacite);
+            }
+            for (int i = 0; i < colonnesHabitudes.length; i++) {
+                colonnesHabitudes[i] = Arrays.copyOf(colonnesHabitudes[i], capacite);
+            }
+            for (int i = 0; i < colonnesScores.length; i++) {
+                colonnesScores[i] = Arrays.copyOf(colonnesScores[i], capacite);
+            }
+        }
+        ids[lignes] = idVol;
+        return lignes++;
+    }
+
+    private List<Critere> compiler(Panel panel, Map<String, String> habitudesDemandees) {
+        List<Critere> criteres = new ArrayList<>();
+        for (int i = 0; i < attributs.size(); i++) {
+            String attribut = attributs.get(i);
+            String valeur = PanelCriteriaRegistry.ATTRIBUTS.get(attribut).critere().apply(panel);
+            BitSet acceptes = acceptes(attribut, valeur);
+            if (acceptes != null) {
+                criteres.add(new CritereValeur(attribut, colonnesAttributs[i], acceptes));
+            }
+        }
+        for (int i = 0; i < scores.size(); i++) {
+            PanelCriteriaRegistry.Score score = PanelCriteriaRegistry.SCORES.get(scores.get(i));
+            Float min = borne(scores.get(i), score.min().apply(panel));
+            Float max = borne(scores.get(i), score.max().apply(panel));
+            if (min != null || max != null) {
+                criteres.add(new CriterePlage(scores.get(i), colonnesScores[i],
+                        min != null ? min : Float.NEGATIVE_INFINITY, max != null ? max : Float.POSITIVE_INFINITY));
+            }
+        }
+        if (habitudesDemandees != null) {
+            for (Map.Entry<String, String> demande : habitudesDemandees.entrySet()) {
+                VolontaireHcFieldRegistry.require(demande.getKey());
+                BitSet acceptes = acceptes(demande.getKey(), demande.getValue());
+                if (acceptes != null) {
+                    criteres.add(new CritereValeur(demande.getKey(),
+                            colonnesHabitudes[habitudes.indexOf(demande.getKey())], acceptes));
+                }
+            }
+        }
+        return criteres;
+    }
+
+    /**
+     * Codes acceptés pour un critère ; plusieurs valeurs peuvent être séparées
+     * par des virgules. Une valeur jamais rencontrée n'a pas de code et ne
+     * peut donc être respectée par aucun volontaire.
+     *
+     * @return null si le critère n'est pas renseigné
+     */
+    private BitSet acceptes(String attribut, String critere) {
+        if (critere == null || critere.isBlank()) {
+            return null;
+        }
+        BitSet acceptes = new BitSet();
+        boolean renseigne = false;
+        for (String alternative : critere.split("[,;|]")) {
+            String valeur = normaliser(attribut, alternative);
+            if (valeur != null) {
+                renseigne = true;
+                Integer code = codes.get(valeur);
+                if (code != null) {
+                    acceptes.set(code);
+                }
+            }
+        }
+        return renseigne ? acceptes : null;
+    }
+
+    private static Float borne(String score, String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            return null;
+        }
+        try {
+            return Float.parseFloat(valeur.trim().replace(',', '.'));
+        } catch (NumberFormatException e) {
+            logger.debug("Borne de score ignorée pour {}: '{}'", score, valeur);
+            return null;
+        }
+    }
+
+    private int coder(String valeur) {
+        if (valeur == null) {
+            return ABSENT;
+        }
+        return codes.computeIfAbsent(valeur, v -> {
+            valeurs.add(v);
+            return valeurs.size() - 1;
+        });
+    }
+
+    static String normaliser(String attribut, String brut) {
+        if (brut == null || brut.isBlank()) {
+            return null;
+        }
+        String valeur = switch (attribut) {
+            case "sexe" -> VolontaireNormalizer.normalizeSexe(brut);
+            case "phototype" -> VolontaireNormalizer.normalizePhototype(brut);
+            case "typePeauVisage" -> VolontaireNormalizer.normalizeTypePeauVisage(brut);
+            default -> brut;
+        };
+        return Normalizer.normalize(valeur.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private PanelMatchDTO resultat(int ligne, List<Critere> criteres, double score) {
+        PanelMatchDTO dto = new PanelMatchDTO();
+        dto.setIdVol(ids[ligne]);
+        dto.setNomVol(noms[ligne]);
+        dto.setPrenomVol(prenoms[ligne]);
+        dto.setSexe(sexes[ligne]);
+        dto.setScore(score);
+        for (Critere critere : criteres) {
+            int issue = critere.evaluer(ligne);
+            switch (issue) {
+                case RESPECTE -> dto.setCriteresRespectes(dto.getCriteresRespectes() + 1);
+                case INCONNU -> dto.setCriteresInconnus(dto.getCriteresInconnus() + 1);
+                default -> dto.setCriteresNonRespectes(dto.getCriteresNonRespectes() + 1);
+            }
+            dto.getScoresParCritere().put(critere.nom(), issue / 2.0);
+        }
+        return dto;
+    }
+
+    private sealed interface Critere permits CritereValeur, CriterePlage {
+        String nom();
+
+        int evaluer(int ligne);
+    }
+
+    private record CritereValeur(String nom, int[] colonne, BitSet acceptes) implements Critere {
+        @Override
+        public int evaluer(int ligne) {
+            int code = colonne[ligne];
+            if (code == ABSENT) {
+                return INCONNU;
+            }
+            return acceptes.get(code) ? RESPECTE : NON_RESPECTE;
+        }
+    }
+
+    private record CriterePlage(String nom, float[] colonne, float min, float max) implements Critere {
+        @Override
+        public int evaluer(int ligne) {
+            float valeur = colonne[ligne];
+            if (Float.isNaN(valeur)) {
+                return INCONNU;
+            }
+            return valeur >= min && valeur <= max ? RESPECTE : NON_RESPECTE;
+        }
+    }
+}
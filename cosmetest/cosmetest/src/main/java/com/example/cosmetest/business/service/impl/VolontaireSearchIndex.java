@@ -0,0 +1,389 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.VolontaireSuggestionDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import com.example.cosmetest.domain.model.Volontaire;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche en mémoire sur l'identifiant, le nom, le prénom, l'email
+ * et les téléphones des volontaires.
+ *
+ * Les textes sont normalisés (minuscules, sans accents, espaces réduits) et
+ * découpés en trigrammes ; chaque trigramme pointe vers la liste triée des
+ * lignes qui le contiennent. Une recherche intersecte les listes des
+ * trigrammes de la saisie puis vérifie la sous-chaîne sur les seuls
+ * candidats, ce qui donne le même résultat qu'un {@code LIKE '%x%'} sans
+ * parcourir la table. Les saisies de moins de trois caractères sont
+ * vérifiées sur toutes les lignes.
+ *
+ * L'index est construit à la première recherche, puis mis à jour ligne par
+ * ligne après chaque écriture ({@link VolontaireChangedEvent}, voir
+ * {@link VolontaireIndexEnMemoire}).
+ */
+@Component
+public class VolontaireSearchIndex extends VolontaireIndexEnMemoire {
+
+    private static final Logger logger = LoggerFactory.getLogger(VolontaireSearchIndex.class);
+
+    private static final int N = 3;
+    private static final Pattern TELEPHONE = Pattern.compile("[0-9 .+()/-]+");
+
+    /** Pertinence : valeur exacte, début de champ, début de mot, ailleurs. */
+    private static final int EXACT = 0;
+    private static final int DEBUT_CHAMP = 1;
+    private static final int DEBUT_MOT = 2;
+    private static final int CONTENU = 3;
+    private static final int ABSENT = Integer.MAX_VALUE;
+
+    private final VolontaireRepository volontaireRepository;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Integer> ligneParVolontaire = new HashMap<>();
+    private final BitSet supprimees = new BitSet();
+
+    private int lignes;
+    private int[] ids = new int[0];
+    private boolean[] archives = new boolean[0];
+    private String[] noms = new String[0];
+    private String[] prenoms = new String[0];
+    private String[] emails = new String[0];
+    /** Textes normalisés par ligne : id, nom, prénom, nom prénom, prénom nom, email. */
+    private String[][] textes = new String[0][];
+    /** Téléphones de la ligne réduits à leurs chiffres. */
+    private String[][] telephones = new String[0][];
+
+    public VolontaireSearchIndex(VolontaireRepository volontaireRepository) {
+        super("index de recherche");
+        this.volontaireRepository = volontaireRepository;
+    }
+
+    /**
+     * Identifiants des volontaires dont l'identifiant, le nom, le prénom, les
+     * deux concaténations nom/prénom, l'email ou un téléphone contient la
+     * saisie, du plus pertinent au moins pertinent puis par identifiant décroissant.
+     */
+    public List<Integer> rechercher(String saisie, boolean includeArchived) {
+        verrouillerEnLecture();
+        try {
+            List<Integer> resultat = new ArrayList<>();
+            for (int ligne : classer(saisie, includeArchived)) {
+                resultat.add(ids[ligne]);
+            }
+            return resultat;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Les {@code limite} meilleures correspondances, sans accès à la base.
+     */
+    public List<VolontaireSuggestionDTO> suggerer(String saisie, boolean includeArchived, int limite) {
+        verrouillerEnLecture();
+        try {
+            List<VolontaireSuggestionDTO> suggestions = new ArrayList<>();
+            for (int ligne : classer(saisie, includeArchived)) {
+                if (suggestions.size() >= limite) {
+                    break;
+                }
+                suggestions.add(new VolontaireSuggestionDTO(ids[ligne], noms[ligne], prenoms[ligne],
+                        emails[ligne], archives[ligne]));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    protected void rafraichir(Integer idVol) {
+        Optional<Volontaire> volontaire = volontaireRepository.findById(idVol);
+        if (volontaire.isEmpty()) {
+            supprimer(idVol);
+            return;
+        }
+        Volontaire v = volontaire.get();
+        ecrire(v.getIdVol(), v.getNomVol(), v.getPrenomVol(), v.getEmailVol(),
+                v.getTelPortableVol(), v.getTelDomicileVol(), v.getArchive());
+    }
+
+    /**
+     * Lignes correspondant à la saisie, classées ; le verrou de lecture doit être tenu.
+     */
+    private List<Integer> classer(String saisie, boolean includeArchived) {
+        String texte = normaliser(saisie);
+        if (texte == null) {
+            return List.of();
+        }
+        String chiffres = TELEPHONE.matcher(texte).matches() ? texte.replaceAll("[^0-9]", "") : "";
+
+        BitSet candidats = candidats(texte);
+        if (!chiffres.isEmpty()) {
+            candidats.or(candidats(chiffres));
+        }
+        candidats.andNot(supprimees);
+
+        List<int[]> trouves = new ArrayList<>();
+        for (int ligne = candidats.nextSetBit(0); ligne >= 0; ligne = candidats.nextSetBit(ligne + 1)) {
+            if (!includeArchived && archives[ligne]) {
+                continue;
+            }
+            int pertinence = Math.min(pertinence(textes[ligne], texte),
+                    chiffres.isEmpty() ? ABSENT : pertinence(telephones[ligne], chiffres));
+            if (pertinence != ABSENT) {
+                trouves.add(new int[] { ligne, pertinence });
+            }
+        }
+        trouves.sort(Comparator.<int[]>comparingInt(t -> t[1]).thenComparingInt(t -> -ids[t[0]]));
+        return trouves.stream().map(t -> t[0]).toList();
+    }
+
+    /**
+     * Lignes contenant tous les trigrammes de la saisie ; toutes les lignes si
+     * la saisie est plus courte qu'un trigramme.
+     */
+    private BitSet candidats(String texte) {
+        BitSet candidats = new BitSet(lignes);
+        if (texte.length() < N) {
+            candidats.set(0, lignes);
+            return candidats;
+        }
+        List<Postings> listes = new ArrayList<>();
+        for (String trigramme : trigrammes(texte)) {
+            Postings liste = postings.get(trigramme);
+            if (liste == null) {
+                return candidats;
+            }
+            listes.add(liste);
+        }
+        listes.sort(Comparator.comparingInt(Postings::taille));
+        Postings plusCourte = listes.get(0);
+        suivant:
+        for (int i = 0; i < plusCourte.taille(); i++) {
+            int ligne = plusCourte.get(i);
+            for (int j = 1; j < listes.size(); j++) {
+                if (!listes.get(j).contient(ligne)) {
+                    continue suivant;
+                }
+            }
+            candidats.set(ligne);
+        }
+        return candidats;
+    }
+
+    private static int pertinence(String[] champs, String texte) {
+        int meilleure = ABSENT;
+        for (String champ : champs) {
+            if (champ == null) {
+                continue;
+            }
+            int position = champ.indexOf(texte);
+            if (position < 0) {
+                continue;
+            }
+            int pertinence;
+            if (champ.length() == texte.length()) {
+                pertinence = EXACT;
+            } else if (position == 0) {
+                pertinence = DEBUT_CHAMP;
+            } else if (champ.contains(" " + texte) || !Character.isLetterOrDigit(champ.charAt(position - 1))) {
+                pertinence = DEBUT_MOT;
+            } else {
+                pertinence = CONTENU;
+            }
+            meilleure = Math.min(meilleure, pertinence);
+        }
+        return meilleure;
+    }
+
+    @Override
+    protected void construire() {
+        long debut = System.nanoTime();
+        for (Object[] ligne : volontaireRepository.findSearchIndexRows()) {
+            ecrire((Integer) ligne[0], (String) ligne[1], (String) ligne[2], (String) ligne[3],
+                    (String) ligne[4], (String) ligne[5], (Boolean) ligne[6]);
+        }
+        logger.info("Index de recherche volontaires construit: {} volontaire(s), {} trigramme(s) en {} ms",
+                ligneParVolontaire.size(), postings.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    @Override
+    protected void reinitialiser() {
+        postings.clear();
+        ligneParVolontaire.clear();
+        supprimees.clear();
+        lignes = 0;
+        ids = new int[0];
+        archives = new boolean[0];
+        noms = new String[0];
+        prenoms = new String[0];
+        emails = new String[0];
+        textes = new String[0][];
+        telephones = new String[0][];
+    }
+
+    private void ecrire(Integer idVol, String nom, String prenom, String email,
+                        String telPortable, String telDomicile, Boolean archive) {
+        Integer existante = ligneParVolontaire.get(idVol);
+        int ligne;
+        if (existante != null) {
+            retirerTrigrammes(existante);
+            ligne = existante;
+        } else {
+            ligne = nouvelleLigne(idVol);
+        }
+        String nomNormalise = normaliser(nom);
+        String prenomNormalise = normaliser(prenom);
+        archives[ligne] = Boolean.TRUE.equals(archive);
+        noms[ligne] = nom;
+        prenoms[ligne] = prenom;
+        emails[ligne] = email;
+        textes[ligne] = new String[] {
+                String.valueOf(idVol),
+                nomNormalise,
+                prenomNormalise,
+                nomNormalise != null && prenomNormalise != null ? nomNormalise + " " + prenomNormalise : null,
+                nomNormalise != null && prenomNormalise != null ? prenomNormalise + " " + nomNormalise : null,
+                normaliser(email) };
+        telephones[ligne] = new String[] { chiffres(telPortable), chiffres(telDomicile) };
+
+        for (String trigramme : trigrammesDeLigne(ligne)) {
+            postings.computeIfAbsent(trigramme, t -> new Postings()).ajouter(ligne);
+        }
+    }
+
+    private void supprimer(Integer idVol) {
+        Integer ligne = ligneParVolontaire.remove(idVol);
+        if (ligne != null) {
+            retirerTrigrammes(ligne);
+            supprimees.set(ligne);
+        }
+    }
+
+    private void retirerTrigrammes(int ligne) {
+        for (String trigramme : trigrammesDeLigne(ligne)) {
+            Postings liste = postings.get(trigramme);
+            if (liste != null && liste.retirer(ligne) && liste.taille() == 0) {
+                postings.remove(trigramme);
+            }
+        }
+    }
+
+    private Set<String> trigrammesDeLigne(int ligne) {
+        Set<String> trigrammes = new LinkedHashSet<>();
+        for (String champ : textes[ligne]) {
+            trigrammes.addAll(trigrammes(champ));
+        }
+        for (String telephone : telephones[ligne]) {
+            trigrammes.addAll(trigrammes(telephone));
+        }
+        return trigrammes;
+    }
+
+    private int nouvelleLigne(Integer idVol) {
+        if (lignes == ids.length) {
+            int capacite = Math.max(64, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacite);
+            archives = Arrays.copyOf(archives, capacite);
+            noms = Arrays.copyOf(noms, capacite);
+            prenoms = Arrays.copyOf(prenoms, capacite);
+            emails = Arrays.copyOf(emails, capacite);
+            textes = Arrays.copyOf(textes, capacite);
+            telephones = Arrays.copyOf(telephones, capacite);
+        }
+        ids[lignes] = idVol;
+        ligneParVolontaire.put(idVol, lignes);
+        return lignes++;
+    }
+
+    private static Set<String> trigrammes(String texte) {
+        Set<String> trigrammes = new LinkedHashSet<>();
+        if (texte != null) {
+            for (int i = 0; i + N <= texte.length(); i++) {
+                trigrammes.add(texte.substring(i, i + N));
+            }
+        }
+        return trigrammes;
+    }
+
+    static String normaliser(String brut) {
+        if (brut == null || brut.isBlank()) {
+            return null;
+        }
+        String texte = Normalizer.normalize(brut.trim(), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .replaceAll("\\s+", " ")
+                .toLowerCase(Locale.ROOT);
+        return texte.isEmpty() ? null : texte;
+    }
+
+    private static String chiffres(String telephone) {
+        if (telephone == null) {
+            return null;
+        }
+        String chiffres = telephone.replaceAll("[^0-9]", "");
+        return chiffres.isEmpty() ? null : chiffres;
+    }
+
+    /**
+     * Liste triée de numéros de ligne.
+     */
+    private static final class Postings {
+        private int[] lignes = new int[4];
+        private int taille;
+
+        int taille() {
+            return taille;
+        }
+
+        int get(int index) {
+            return lignes[index];
+        }
+
+        boolean contient(int ligne) {
+            return Arrays.binarySearch(lignes, 0, taille, ligne) >= 0;
+        }
+
+        void ajouter(int ligne) {
+            int position = Arrays.binarySearch(lignes, 0, taille, ligne);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (taille == lignes.length) {
+                lignes = Arrays.copyOf(lignes, taille * 2);
+            }
+            System.arraycopy(lignes, position, lignes, position + 1, taille - position);
+            lignes[position] = ligne;
+            taille++;
+        }
+
+        boolean retirer(int ligne) {
+            int position = Arrays.binarySearch(lignes, 0, taille, ligne);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(lignes, position + 1, lignes, position, taille - position - 1);
+            taille--;
+            return true;
+        }
+    }
+}
@@ -3,18 +3,27 @@ package com.example.cosmetest.business.service.impl;
 import com.example.cosmetest.business.dto.VolontaireDTO;
 import com.example.cosmetest.business.dto.VolontaireDetailDTO;
 import com.example.cosmetest.business.dto.VolontaireNotificationDTO;
+import com.example.cosmetest.business.dto.VolontaireSearchCriteriaDTO;
+import com.example.cosmetest.business.dto.VolontaireSuggestionDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
 import com.example.cosmetest.business.mapper.VolontaireMapper;
 import com.example.cosmetest.business.service.PhotoProxyService;
+import com.example.cosmetest.business.service.PhotoResolutionService;
 import com.example.cosmetest.business.service.VolontaireService;
 import com.example.cosmetest.exception.AmbiguousVolontaireException;
+import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.Volontaire;
 import com.example.cosmetest.data.repository.AnnulationRepository;
 import com.example.cosmetest.data.repository.EtudeVolontaireRepository;
 import com.example.cosmetest.data.repository.RdvRepository;
+import com.example.cosmetest.data.repository.VolontaireCriteria;
 import com.example.cosmetest.data.repository.VolontaireRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.PageRequest;
 
@@ -42,17 +51,30 @@ public class VolontaireServiceImpl implements VolontaireService {
     private final EtudeVolontaireRepository etudeVolontaireRepository;
     private final AnnulationRepository annulationRepository;
     private final PhotoProxyService photoProxyService;
+    private final PhotoResolutionService photoResolutionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VolontaireSearchIndex searchIndex;
+    private final VolontaireDemographieCube demographieCube;
     private static final Logger logger = LoggerFactory.getLogger(VolontaireServiceImpl.class);
+    /** Identifiants par clause IN lors du chargement des résultats de l'index de recherche. */
+    private static final int PAQUET_CHARGEMENT = 500;
 
     public VolontaireServiceImpl(VolontaireRepository volontaireRepository, VolontaireMapper volontaireMapper,
                                  RdvRepository rdvRepository, EtudeVolontaireRepository etudeVolontaireRepository,
-                                 AnnulationRepository annulationRepository, PhotoProxyService photoProxyService) {
+                                 AnnulationRepository annulationRepository, PhotoProxyService photoProxyService,
+                                 PhotoResolutionService photoResolutionService,
+                                 ApplicationEventPublisher eventPublisher, VolontaireSearchIndex searchIndex,
+                                 VolontaireDemographieCube demographieCube) {
         this.volontaireRepository = volontaireRepository;
         this.volontaireMapper = volontaireMapper;
         this.rdvRepository = rdvRepository;
         this.etudeVolontaireRepository = etudeVolontaireRepository;
         this.annulationRepository = annulationRepository;
         this.photoProxyService = photoProxyService;
+        this.photoResolutionService = photoResolutionService;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.demographieCube = demographieCube;
     }
 
     @Override
@@ -124,19 +146,7 @@ public class VolontaireServiceImpl implements VolontaireService {
     @Override
     @Transactional(readOnly = true)
     public List<VolontaireDTO> searchVolontairesByNomPrenom(String nom, String prenom) {
-        List<Volontaire> volontaires;
-
-        if (nom != null && prenom != null) {
-            volontaires = volontaireRepository.findByNomVolAndPrenomVol(nom, prenom);
-        } else if (nom != null) {
-            volontaires = volontaireRepository.findByNomVol(nom);
-        } else if (prenom != null) {
-            volontaires = volontaireRepository.findByPrenomVol(prenom);
-        } else {
-            volontaires = volontaireRepository.findAll();
-        }
-
-        return volontaireMapper.toDTOList(volontaires);
+        return searchAll(VolontaireCriteria.create().nom(nom).prenom(prenom));
     }
 
     @Override
@@ -145,22 +155,8 @@ public class VolontaireServiceImpl implements VolontaireService {
         if (keyword == null || keyword.trim().isEmpty()) {
             return volontaireRepository.findAll(pageable).map(volontaireMapper::toDTO);
         }
-
-        // Échapper les caractères spéciaux SQL LIKE (au lieu de les supprimer)
-        String cleanKeyword = keyword.trim()
-                .replace("\\", "\\\\")
-                .replace("%", "\\%")
-                .replace("_", "\\_")
-                .replaceAll("[\\[\\]^]", "");
-
-        // Ajouter les wildcards pour la recherche partielle
-        String searchTerm = "%" + cleanKeyword + "%";
-
-        // Utiliser la requête native (MySQL gère nativement l'escape \ dans LIKE)
-        Page<Volontaire> volontairesPage = volontaireRepository.findByFullTextSearchNative(searchTerm, pageable);
-
-        // Convertir les entités en DTOs
-        return volontairesPage.map(volontaireMapper::toDTO);
+        // Classement par pertinence de l'index ; seule la page demandée est lue en base
+        return charger(searchIndex.rechercher(keyword, true), pageable).map(volontaireMapper::toDTO);
     }
 
     @Override
@@ -169,69 +165,49 @@ public class VolontaireServiceImpl implements VolontaireService {
         if (searchText == null || searchText.trim().isEmpty()) {
             return getAllVolontaires();
         }
+        return volontaireMapper.toDTOList(charger(searchIndex.rechercher(searchText, true)));
+    }
 
-        List<Volontaire> volontaires = volontaireRepository.searchVolontaires(searchText);
-        return volontaireMapper.toDTOList(volontaires);
+    @Override
+    public List<VolontaireSuggestionDTO> suggestVolontaires(String saisie, boolean includeArchived, int limite) {
+        return searchIndex.suggerer(saisie, includeArchived, limite);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<VolontaireDTO> searchVolontairesByCriteria(String sexe, Integer ageMin, Integer ageMax,
             String ethnie, String phototype, String typePeau) {
-        List<Volontaire> volontaires = volontaireRepository.findAll();
-
-        // Filtrer par sexe
-        if (sexe != null && !sexe.trim().isEmpty()) {
-            volontaires = volontaires.stream()
-                    .filter(v -> sexe.equals(v.getSexe()))
-                    .collect(Collectors.toList());
-        }
-
-        // Filtrer par âge
-        if (ageMin != null || ageMax != null) {
-            LocalDate now = LocalDate.now();
-            LocalDate minBirthDate = (ageMax != null) ? now.minusYears(ageMax) : null;
-            LocalDate maxBirthDate = (ageMin != null) ? now.minusYears(ageMin) : null;
-
-            volontaires = volontaires.stream()
-                    .filter(v -> {
-                        LocalDate birthDate = v.getDateNaissance();
-                        if (birthDate == null) {
-                            return false;
-                        }
-
-                        boolean isAfterMinBirthDate = minBirthDate == null ||
-                                !birthDate.isBefore(minBirthDate);
-                        boolean isBeforeMaxBirthDate = maxBirthDate == null ||
-                                !birthDate.isAfter(maxBirthDate);
-
-                        return isAfterMinBirthDate && isBeforeMaxBirthDate;
-                    })
-                    .collect(Collectors.toList());
-        }
-
-        // Filtrer par ethnie
-        if (ethnie != null && !ethnie.trim().isEmpty()) {
-            volontaires = volontaires.stream()
-                    .filter(v -> ethnie.equals(v.getEthnie()))
-                    .collect(Collectors.toList());
-        }
+        return searchAll(VolontaireCriteria.create()
+                .sexe(sexe)
+                .ageBetween(ageMin, ageMax, LocalDate.now())
+                .ethnie(ethnie)
+                .phototype(phototype)
+                .typePeauVisage(typePeau));
+    }
 
-        // Filtrer par phototype
-        if (phototype != null && !phototype.trim().isEmpty()) {
-            volontaires = volontaires.stream()
-                    .filter(v -> phototype.equals(v.getPhototype()))
-                    .collect(Collectors.toList());
-        }
+    @Override
+    @Transactional(readOnly = true)
+    public Page<VolontaireDTO> searchVolontairesByCriteria(VolontaireSearchCriteriaDTO criteria, Pageable pageable) {
+        VolontaireCriteria where = VolontaireCriteria.create()
+                .sexe(criteria.sexe())
+                .ageBetween(criteria.ageMin(), criteria.ageMax(), LocalDate.now())
+                .ethnie(criteria.ethnie())
+                .phototype(criteria.phototype())
+                .typePeauVisage(criteria.typePeau())
+                .dateInscriptionBetween(criteria.dateInscriptionDebut(), criteria.dateInscriptionFin())
+                .archive(criteria.includeArchived() ? null : Boolean.FALSE);
+        return searchPage(where, pageable);
+    }
 
-        // Filtrer par type de peau
-        if (typePeau != null && !typePeau.trim().isEmpty()) {
-            volontaires = volontaires.stream()
-                    .filter(v -> typePeau.equals(v.getTypePeauVisage()))
-                    .collect(Collectors.toList());
-        }
+    private Page<VolontaireDTO> searchPage(VolontaireCriteria criteria, Pageable pageable) {
+        return volontaireRepository.searchSummaries(criteria, pageable).map(volontaireMapper::toSummaryDTO);
+    }
 
-        return volontaireMapper.toDTOList(volontaires);
+    /**
+     * Tous les volontaires correspondant aux critères, en une seule requête projetée
+     */
+    private List<VolontaireDTO> searchAll(VolontaireCriteria criteria) {
+        return searchPage(criteria, Pageable.unpaged()).getContent();
     }
 
     @Override
@@ -252,6 +228,7 @@ public class VolontaireServiceImpl implements VolontaireService {
         }
 
         Volontaire savedVolontaire = volontaireRepository.save(volontaire);
+        eventPublisher.publishEvent(VolontaireChangedEvent.of(savedVolontaire.getIdVol()));
         return volontaireMapper.toDTO(savedVolontaire);
     }
 
@@ -273,6 +250,7 @@ public class VolontaireServiceImpl implements VolontaireService {
         }
 
         Volontaire savedVolontaire = volontaireRepository.save(volontaire);
+        eventPublisher.publishEvent(VolontaireChangedEvent.of(savedVolontaire.getIdVol()));
         return volontaireMapper.toDetailDTO(savedVolontaire);
     }
 
@@ -289,7 +267,9 @@ public class VolontaireServiceImpl implements VolontaireService {
                     volontaireDTO.setIdVol(id); // Assurer l'ID correct
                     Volontaire updatedVolontaire = volontaireMapper.updateEntityFromDTO(existingVolontaire,
                             volontaireDTO);
-                    return volontaireMapper.toDTO(volontaireRepository.save(updatedVolontaire));
+                    VolontaireDTO saved = volontaireMapper.toDTO(volontaireRepository.save(updatedVolontaire));
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
+                    return saved;
                 });
     }
 
@@ -307,7 +287,9 @@ public class VolontaireServiceImpl implements VolontaireService {
                     volontaireDetailDTO.setIdVol(id); // Assurer l'ID correct
                     Volontaire updatedVolontaire = volontaireMapper.updateEntityFromDetailDTO(existingVolontaire,
                             volontaireDetailDTO);
-                    return volontaireMapper.toDetailDTO(volontaireRepository.save(updatedVolontaire));
+                    VolontaireDetailDTO saved = volontaireMapper.toDetailDTO(volontaireRepository.save(updatedVolontaire));
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
+                    return saved;
                 });
     }
 
@@ -320,7 +302,9 @@ public class VolontaireServiceImpl implements VolontaireService {
         return volontaireRepository.findById(id)
                 .map(volontaire -> {
                     volontaire.setArchive(archive);
-                    return volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    VolontaireDTO saved = volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
+                    return saved;
                 });
     }
 
@@ -348,7 +332,9 @@ public class VolontaireServiceImpl implements VolontaireService {
                     volontaire.setArchive(true);
                     volontaire.setStandby(true);
                     volontaire.setDateFinStandby(dateFinStandby);
-                    return volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    VolontaireDTO saved = volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
+                    return saved;
                 });
     }
 
@@ -363,7 +349,9 @@ public class VolontaireServiceImpl implements VolontaireService {
                     volontaire.setArchive(false);
                     volontaire.setStandby(false);
                     volontaire.setDateFinStandby(null);
-                    return volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    VolontaireDTO saved = volontaireMapper.toDTO(volontaireRepository.save(volontaire));
+                    eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
+                    return saved;
                 });
     }
 
@@ -386,9 +374,15 @@ public class VolontaireServiceImpl implements VolontaireService {
             return false;
         }
 
-        // 1. Supprimer les RDV liés au volontaire
+        // 1. Supprimer les RDV liés au volontaire, en notant les jours touchés par étude
+        Map<Integer, List<Date>> joursParEtude = rdvRepository.findByIdVolontaire(id).stream()
+                .filter(rdv -> rdv.getDate() != null)
+                .collect(Collectors.groupingBy(Rdv::getIdEtude,
+                        Collectors.mapping(Rdv::getDate, Collectors.toList())));
         int rdvDeleted = rdvRepository.deleteByIdVolontaire(id);
         logger.info("Suppression de {} RDV pour le volontaire {}", rdvDeleted, id);
+        joursParEtude.forEach((idEtude, jours) ->
+                eventPublisher.publishEvent(RdvChangedEvent.forDates(idEtude, jours)));
 
         // 2. Supprimer les annulations liées au volontaire
         int annulationsDeleted = annulationRepository.deleteByIdVol(id);
@@ -400,6 +394,7 @@ public class VolontaireServiceImpl implements VolontaireService {
 
         // 4. Supprimer le volontaire
         volontaireRepository.deleteById(id);
+        eventPublisher.publishEvent(VolontaireChangedEvent.of(id));
         return true;
     }
 
@@ -547,86 +542,19 @@ public class VolontaireServiceImpl implements VolontaireService {
             return List.of();
         }
 
-        Date sqlDateDebut = Date.valueOf(dateDebut);
-        Date sqlDateFin = Date.valueOf(dateFin);
-
-        List<Volontaire> volontaires = volontaireRepository.findAll()
-                .stream()
-                .filter(v -> {
-                    Date dateI = Date.valueOf(v.getDateI());
-                    return dateI != null &&
-                            (dateI.after(sqlDateDebut) || dateI.equals(sqlDateDebut)) &&
-                            (dateI.before(sqlDateFin) || dateI.equals(sqlDateFin));
-                })
-                .collect(Collectors.toList());
-
-        return volontaireMapper.toDTOList(volontaires);
+        return searchAll(VolontaireCriteria.create().dateInscriptionBetween(dateDebut, dateFin));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Map<String, Object> getVolontairesStatistics() {
-        List<Volontaire> allVolontaires = volontaireRepository.findAll();
-        int totalVolontaires = allVolontaires.size();
-
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("totalVolontaires", totalVolontaires);
-
-        // Répartition par sexe
-        Map<String, Long> sexeDistribution = allVolontaires.stream()
-                .filter(v -> v.getSexe() != null)
-                .collect(Collectors.groupingBy(Volontaire::getSexe, Collectors.counting()));
-        statistics.put("sexeDistribution", sexeDistribution);
-
-        // Répartition par ethnie
-        Map<String, Long> ethnieDistribution = allVolontaires.stream()
-                .filter(v -> v.getEthnie() != null)
-                .collect(Collectors.groupingBy(Volontaire::getEthnie, Collectors.counting()));
-        statistics.put("ethnieDistribution", ethnieDistribution);
-
-        // Répartition par phototype
-        Map<String, Long> phototypeDistribution = allVolontaires.stream()
-                .filter(v -> v.getPhototype() != null)
-                .collect(Collectors.groupingBy(Volontaire::getPhototype, Collectors.counting()));
-        statistics.put("phototypeDistribution", phototypeDistribution);
-
-        // Répartition par type de peau
-        Map<String, Long> typePeauDistribution = allVolontaires.stream()
-                .filter(v -> v.getTypePeauVisage() != null)
-                .collect(Collectors.groupingBy(Volontaire::getTypePeauVisage, Collectors.counting()));
-        statistics.put("typePeauDistribution", typePeauDistribution);
-
-        // Répartition par tranche d'âge
-        Map<String, Long> ageDistribution = new HashMap<>();
-        LocalDate now = LocalDate.now();
-
-        allVolontaires.stream()
-                .filter(v -> v.getDateNaissance() != null)
-                .forEach(v -> {
-                    LocalDate birthDate = v.getDateNaissance();
-                    int age = Period.between(birthDate, now).getYears();
-
-                    String ageRange;
-                    if (age < 18) {
-                        ageRange = "Moins de 18 ans";
-                    } else if (age < 30) {
-                        ageRange = "18-29 ans";
-                    } else if (age < 40) {
-                        ageRange = "30-39 ans";
-                    } else if (age < 50) {
-                        ageRange = "40-49 ans";
-                    } else if (age < 60) {
-                        ageRange = "50-59 ans";
-                    } else {
-                        ageRange = "60 ans et plus";
-                    }
-
-                    ageDistribution.merge(ageRange, 1L, Long::sum);
-                });
-
-        statistics.put("ageDistribution", ageDistribution);
+        return demographieCube.statistiques();
+    }
 
-        return statistics;
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> croiserStatistiques(List<String> dimensions, Map<String, Set<String>> filtres) {
+        return demographieCube.croiser(dimensions, filtres);
     }
 
     /**
@@ -794,27 +722,17 @@ public class VolontaireServiceImpl implements VolontaireService {
                             return null;
                     }
 
-                    // Tester toutes les variantes possibles
+                    // Tester toutes les variantes possibles, en parallèle, avec mémorisation
                     List<String> fileVariants = generatePhotoFileVariants(prefix, nomVolontaire, dateFormatted);
-                    logger.debug("Génération de {} variantes à tester pour {}", fileVariants.size(), nomVolontaire);
-
-                    for (int i = 0; i < fileVariants.size(); i++) {
-                        String fileName = fileVariants.get(i);
-                        logger.debug("Test variante {}/{}: '{}'", i + 1, fileVariants.size(), fileName);
-
-                        try {
-                            if (checkPhotoExists(fileName)) {
-                                logger.debug("Photo trouvée: '{}'", fileName);
-                                Map<String, Object> result = new HashMap<>();
-                                result.put("photoUrl", photoProxyService.publicUrl(fileName));
-                                result.put("fileName", fileName);
-                                result.put("exists", true);
-                                return result;
-                            }
-                        } catch (IllegalStateException e) {
-                            if ("PHOTO_SERVER_UNREACHABLE".equals(e.getMessage())) break;
-                            throw e;
-                        }
+                    Optional<String> found = photoResolutionService.resolveFirst(
+                            photoKeyPrefix(id) + prefix, fileVariants);
+                    if (found.isPresent()) {
+                        String fileName = found.get();
+                        Map<String, Object> result = new HashMap<>();
+                        result.put("photoUrl", photoProxyService.publicUrl(fileName));
+                        result.put("fileName", fileName);
+                        result.put("exists", true);
+                        return result;
                     }
 
                     // Aucune variante trouvée
@@ -861,8 +779,8 @@ public class VolontaireServiceImpl implements VolontaireService {
         return variants;
     }
 
-    private boolean checkPhotoExists(String fileName) {
-        return photoProxyService.exists(fileName);
+    private static String photoKeyPrefix(Integer idVol) {
+        return idVol + ":";
     }
 
     @Override
@@ -883,13 +801,20 @@ public class VolontaireServiceImpl implements VolontaireService {
                     // Liste des préfixes pour tous les types de photos
                     String[] prefixes = { "f_", "fpp_", "fpc_", "d_", "dpp_", "dpc_", "g_", "gpp_", "gpc_" };
 
+                    // Une seule vague de vérifications pour tous les types de photos.
+                    // Clé distincte de getVolontairePhoto : seul le nom canonique est testé ici.
+                    Map<String, List<String>> candidatesByKey = new LinkedHashMap<>();
+                    for (String prefix : prefixes) {
+                        candidatesByKey.put(photoKeyPrefix(id) + prefix + "canonique",
+                                List.of(prefix + nom + dateFormatted + ".JPG"));
+                    }
+                    Map<String, Optional<String>> resolved = photoResolutionService.resolveAll(candidatesByKey);
+
                     // Création d'une liste pour stocker les informations des photos
                     List<Map<String, Object>> photos = new ArrayList<>();
 
-                    // Pour chaque préfixe, vérifier si la photo existe
                     for (String prefix : prefixes) {
-                        String fileName = prefix + nom + dateFormatted + ".JPG";
-                        boolean exists = checkPhotoExists(fileName);
+                        Optional<String> found = resolved.get(photoKeyPrefix(id) + prefix + "canonique");
 
                         // Déterminer le type de photo en français pour l'affichage
                         String photoType;
@@ -937,7 +862,8 @@ public class VolontaireServiceImpl implements VolontaireService {
                         }
 
                         // Si la photo existe, ajouter ses informations à la liste
-                        if (exists) {
+                        if (found.isPresent()) {
+                            String fileName = found.get();
                             Map<String, Object> photoInfo = new HashMap<>();
                             photoInfo.put("type", photoType);
                             photoInfo.put("code", photoCode);
@@ -958,9 +884,9 @@ public class VolontaireServiceImpl implements VolontaireService {
         Page<Volontaire> volontairesPage;
 
         if (search != null && !search.trim().isEmpty()) {
-            volontairesPage = includeArchived
-                    ? volontaireRepository.searchAll(search, pageable)
-                    : volontaireRepository.searchActive(search, pageable);
+            List<Integer> ids = new ArrayList<>(searchIndex.rechercher(search, includeArchived));
+            ids.sort(Comparator.reverseOrder());
+            volontairesPage = charger(ids, pageable);
         } else {
             volontairesPage = includeArchived
                     ? volontaireRepository.findAll(pageable)
@@ -1016,6 +942,41 @@ public class VolontaireServiceImpl implements VolontaireService {
         return volontairesPage.map(this::convertToDto);
     }
 
+    /**
+     * Page d'identifiants déjà classés, chargée en une requête dans le même ordre.
+     */
+    private Page<Volontaire> charger(List<Integer> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(charger(ids), pageable, ids.size());
+        }
+        int debut = (int) Math.min(pageable.getOffset(), ids.size());
+        int fin = Math.min(debut + pageable.getPageSize(), ids.size());
+        return new PageImpl<>(charger(ids.subList(debut, fin)), pageable, ids.size());
+    }
+
+    /**
+     * Volontaires dans l'ordre des identifiants, lus par paquets pour borner la clause IN.
+     */
+    private List<Volontaire> charger(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Volontaire> parId = new HashMap<>(ids.size());
+        for (int debut = 0; debut < ids.size(); debut += PAQUET_CHARGEMENT) {
+            List<Integer> paquet = ids.subList(debut, Math.min(debut + PAQUET_CHARGEMENT, ids.size()));
+            volontaireRepository.findAllByIdVolIn(paquet).forEach(v -> parId.put(v.getIdVol(), v));
+        }
+        List<Volontaire> volontaires = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Volontaire volontaire = parId.get(id);
+            // Absent si supprimé entre la recherche et le chargement
+            if (volontaire != null) {
+                volontaires.add(volontaire);
+            }
+        }
+        return volontaires;
+    }
+
     private VolontaireDTO convertToDto(Volontaire volontaire) {
         VolontaireDTO dto = new VolontaireDTO(
                 volontaire.getIdVol(),
@@ -0,0 +1,50 @@
+package com.example.cosmetest.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches applicatifs en mémoire (Caffeine).
+ *
+ * Chaque cache a sa propre politique (taille maximale, durée de vie) décrite
+ * par une spécification Caffeine configurable dans application.properties.
+ * Les statistiques sont toujours activées : Spring Boot Actuator publie alors
+ * les compteurs hit/miss/éviction sur /actuator/metrics et /actuator/prometheus
+ * (métriques cache.gets, cache.puts, cache.evictions, cache.size).
+ */
+@Configuration
+public class CacheConfig {
+
+    public static final String CALENDRIER_PERIODE = "calendrierPeriode";
+    public static final String CALENDRIER_SEMAINE = "calendrierSemaine";
+    public static final String CALENDRIER_CACHE = "calendrierCache";
+    public static final String PRINCIPAUX_AUTHENTIFIES = "principauxAuthentifies";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.calendrier-periode.spec:maximumSize=200,expireAfterWrite=10m}") String periodeSpec,
+            @Value("${cache.calendrier-semaine.spec:maximumSize=100,expireAfterWrite=10m}") String semaineSpec,
+            @Value("${cache.calendrier-cache.spec:maximumSize=100,expireAfterWrite=10m}") String cacheSpec,
+            @Value("${cache.principaux.spec:maximumSize=500,expireAfterWrite=60s}") String principauxSpec) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(CALENDRIER_PERIODE, build(periodeSpec));
+        cacheManager.registerCustomCache(CALENDRIER_SEMAINE, build(semaineSpec));
+        cacheManager.registerCustomCache(CALENDRIER_CACHE, build(cacheSpec));
+        cacheManager.registerCustomCache(PRINCIPAUX_AUTHENTIFIES, build(principauxSpec));
+        return cacheManager;
+    }
+
+    private static com.github.benmanes.caffeine.cache.Cache<Object, Object> build(String spec) {
+        CaffeineSpec parsed = CaffeineSpec.parse(spec);
+        if (spec.contains("recordStats")) {
+            return Caffeine.from(parsed).build();
+        }
+        return Caffeine.from(parsed).recordStats().build();
+    }
+}
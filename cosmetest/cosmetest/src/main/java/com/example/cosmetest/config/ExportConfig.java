@@ -0,0 +1,62 @@
+package com.example.cosmetest.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Ressources réservées aux exports en flux (/api/v1/exports) : un petit pool
+ * de connexions et un exécuteur dimensionnés sur {@code export.max-concurrent},
+ * pour qu'un export long n'occupe ni le pool principal ni l'exécuteur
+ * asynchrone de Spring MVC.
+ *
+ * Ces beans ne sont injectés que sous le qualificatif {@link #EXPORT} ; la
+ * source de données et l'exécuteur auto-configurés restent ceux du reste de
+ * l'application.
+ */
+@Configuration
+public class ExportConfig {
+
+    public static final String EXPORT = "export";
+
+    /**
+     * Même base que la source principale, en lecture seule. Avec MySQL, la
+     * lecture par curseur ({@code useCursorFetch}) n'est activée que sur ce
+     * pool : elle fait passer toutes les requêtes en instructions préparées
+     * côté serveur, ce qui n'apporte rien aux autres lectures.
+     */
+    @Bean(defaultCandidate = false)
+    @Qualifier(EXPORT)
+    public HikariDataSource exportDataSource(DataSourceProperties proprietes,
+                                             @Value("${export.max-concurrent:2}") int maxSimultanes) {
+        HikariDataSource source = proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        source.setPoolName("CosmetestExportPool");
+        source.setMaximumPoolSize(maxSimultanes);
+        source.setMinimumIdle(0);
+        source.setReadOnly(true);
+        if (source.getJdbcUrl() != null && source.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            source.addDataSourceProperty("useCursorFetch", "true");
+        }
+        return source;
+    }
+
+    /**
+     * Exécute l'écriture des exports ; le nombre d'exports en cours est déjà
+     * borné par le service, la file ne fait qu'absorber le bref intervalle où
+     * un thread rend sa place avant d'être libre.
+     */
+    @Bean(defaultCandidate = false)
+    @Qualifier(EXPORT)
+    public ThreadPoolTaskExecutor exportTaskExecutor(@Value("${export.max-concurrent:2}") int maxSimultanes) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("export-");
+        executor.setCorePoolSize(maxSimultanes);
+        executor.setMaxPoolSize(maxSimultanes);
+        executor.setQueueCapacity(maxSimultanes);
+        return executor;
+    }
+}
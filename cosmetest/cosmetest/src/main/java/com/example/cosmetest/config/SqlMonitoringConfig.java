@@ -0,0 +1,113 @@
+package com.example.cosmetest.config;
+
+import com.example.cosmetest.data.monitoring.SqlActivite;
+import com.example.cosmetest.data.monitoring.SqlMonitoring;
+import com.example.cosmetest.data.monitoring.SqlMonitoringDataSource;
+import com.example.cosmetest.data.monitoring.SqlMonitoringHibernateListener;
+import com.example.cosmetest.filter.SqlMonitoringFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Instrumentation SQL : nombre d'instructions, temps JDBC et entités
+ * chargées, par point d'entrée HTTP et par méthode de service
+ * ({@code @Service}), avec détection des N+1 présumés. Désactivée par
+ * défaut ; activée par {@code sql.monitoring.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.monitoring.enabled", havingValue = "true")
+public class SqlMonitoringConfig {
+
+    @Bean
+    public SqlMonitoring sqlMonitoring(
+            MeterRegistry meterRegistry,
+            @Value("${sql.monitoring.n-plus-one-threshold:10}") int seuilNPlusUn,
+            @Value("${sql.monitoring.slow-request:PT1S}") Duration requeteLente,
+            @Value("${sql.monitoring.statement-warn:100}") int instructionsMax,
+            @Value("${sql.monitoring.sample-interval:PT1M}") Duration intervalleEchantillon) {
+        return new SqlMonitoring(meterRegistry, seuilNPlusUn, requeteLente, instructionsMax, intervalleEchantillon);
+    }
+
+    @Bean
+    public SqlMonitoringHibernateListener sqlMonitoringHibernateListener(EntityManagerFactory entityManagerFactory) {
+        return new SqlMonitoringHibernateListener(entityManagerFactory);
+    }
+
+    /**
+     * Placé juste avant la chaîne Spring Security pour compter aussi les
+     * lectures faites pendant l'authentification.
+     */
+    @Bean
+    public FilterRegistrationBean<SqlMonitoringFilter> sqlMonitoringFilter(SqlMonitoring sqlMonitoring) {
+        FilterRegistrationBean<SqlMonitoringFilter> registrationBean =
+                new FilterRegistrationBean<>(new SqlMonitoringFilter(sqlMonitoring));
+        registrationBean.addUrlPatterns("/*");
+        registrationBean.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 5);
+        return registrationBean;
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource source && !(bean instanceof SqlMonitoringDataSource)
+                        ? new SqlMonitoringDataSource(source)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public static ServiceSqlMonitoringPostProcessor sqlMonitoringServicePostProcessor(
+            ObjectProvider<SqlMonitoring> sqlMonitoring) {
+        return new ServiceSqlMonitoringPostProcessor(sqlMonitoring);
+    }
+
+    /**
+     * Englobe chaque bean {@code @Service} ; un proxy existant (par exemple
+     * {@code @Transactional}) reçoit l'advisor en tête, la mesure inclut donc
+     * le commit. Un service sans proxy reçoit un proxy sur ses interfaces, ou
+     * sur sa classe s'il n'en a pas.
+     */
+    static final class ServiceSqlMonitoringPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        ServiceSqlMonitoringPostProcessor(ObjectProvider<SqlMonitoring> sqlMonitoring) {
+            MethodInterceptor interceptor = invocation -> {
+                SqlActivite racine = SqlActivite.ouvrir();
+                SqlActivite activite = racine != null ? racine : SqlActivite.courante();
+                SqlActivite.Mesure avant = activite.mesure();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    if (racine != null) {
+                        racine.fermer();
+                    }
+                    sqlMonitoring.getObject().methodeTerminee(
+                            ClassUtils.getUserClass(invocation.getThis()).getSimpleName(),
+                            invocation.getMethod().getName(), activite, activite.mesure().moins(avant),
+                            racine != null);
+                }
+            };
+            this.advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+            setBeforeExistingAdvisors(true);
+        }
+    }
+}
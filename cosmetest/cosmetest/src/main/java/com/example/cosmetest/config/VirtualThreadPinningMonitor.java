@@ -0,0 +1,129 @@
+package com.example.cosmetest.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Signale les threads virtuels épinglés à leur thread porteur : opération
+ * bloquante (JDBC, socket, attente) faite dans un bloc {@code synchronized} ou
+ * sous du code natif. Tant qu'il est épinglé, le thread virtuel immobilise un
+ * des rares threads porteurs, ce qui annule le bénéfice du mode virtuel.
+ *
+ * Les événements JFR {@code jdk.VirtualThreadPinned} au-delà du seuil sont
+ * comptés dans la métrique {@code threads.virtual.pinned}, par site (première
+ * méthode de l'application dans la pile), et la pile est journalisée au plus
+ * une fois par site et par intervalle d'échantillonnage.
+ */
+@Component
+@ConditionalOnProperty(name = "threads.pinning.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String EVENEMENT = "jdk.VirtualThreadPinned";
+    private static final String PAQUETAGE = "com.example.cosmetest.";
+    private static final int FRAMES_JOURNALISEES = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration seuil;
+    private final Duration intervalleEchantillon;
+    private final Map<String, Instant> derniersEchantillons = new ConcurrentHashMap<>();
+    private RecordingStream flux;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${threads.pinning.threshold:PT0.02S}") Duration seuil,
+            @Value("${threads.pinning.sample-interval:PT1M}") Duration intervalleEchantillon) {
+        this.meterRegistry = meterRegistry;
+        this.seuil = seuil;
+        this.intervalleEchantillon = intervalleEchantillon;
+    }
+
+    @PostConstruct
+    void demarrer() {
+        try {
+            flux = new RecordingStream();
+            flux.enable(EVENEMENT).withThreshold(seuil).withStackTrace();
+            flux.onEvent(EVENEMENT, this::epingle);
+            flux.startAsync();
+            logger.info("Diagnostic d'épinglage des threads virtuels actif (seuil {})", seuil);
+        } catch (RuntimeException e) {
+            // JFR absent ou refusé par la JVM : l'application démarre sans le diagnostic
+            logger.warn("Diagnostic d'épinglage des threads virtuels indisponible: {}", e.getMessage());
+            flux = null;
+        }
+    }
+
+    @PreDestroy
+    void arreter() {
+        if (flux != null) {
+            flux.close();
+        }
+    }
+
+    void epingle(RecordedEvent evenement) {
+        List<RecordedFrame> frames = frames(evenement.getStackTrace());
+        String site = site(frames);
+        Timer.builder("threads.virtual.pinned")
+                .description("Threads virtuels épinglés à leur thread porteur au-delà du seuil")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(evenement.getDuration());
+
+        Instant maintenant = Instant.now();
+        Instant retenu = derniersEchantillons.compute(site, (cle, precedent) ->
+                precedent == null || !maintenant.isBefore(precedent.plus(intervalleEchantillon))
+                        ? maintenant
+                        : precedent);
+        if (retenu == maintenant) {
+            logger.warn("Thread virtuel épinglé {} ms dans {}:\n{}",
+                    evenement.getDuration().toMillis(), site, pile(frames));
+        }
+    }
+
+    /**
+     * Première méthode de l'application dans la pile, ou la méthode en tête
+     * si l'épinglage se produit entièrement dans une bibliothèque.
+     */
+    private static String site(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(PAQUETAGE))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::methode)
+                .orElse("inconnu");
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace pile) {
+        return pile == null ? List.of() : pile.getFrames().stream().filter(RecordedFrame::isJavaFrame).toList();
+    }
+
+    private static String methode(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    private static String pile(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(FRAMES_JOURNALISEES)
+                .map(frame -> "\tat " + methode(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.cosmetest.data.monitoring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Activité SQL d'une unité de travail (requête HTTP, ou appel de service hors
+ * requête) sur le thread courant : instructions exécutées, temps JDBC, lignes
+ * lues, entités chargées et nombre d'exécutions par forme d'instruction.
+ *
+ * Hors d'une activité ouverte, l'enregistrement ne coûte qu'une lecture de
+ * ThreadLocal. Les requêtes lancées sur d'autres threads ne sont pas comptées.
+ */
+public final class SqlActivite {
+
+    private static final ThreadLocal<SqlActivite> COURANTE = new ThreadLocal<>();
+    /** Au-delà, les nouvelles formes sont regroupées pour borner la mémoire. */
+    static final int FORMES_MAX = 256;
+    static final String AUTRES_FORMES = "(autres)";
+
+    private static final Pattern CHAINES = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NOMBRES = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern LISTES_IN = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ESPACES = Pattern.compile("\\s+");
+
+    private final long debut = System.nanoTime();
+    private long instructions;
+    private long nanosJdbc;
+    private long lignes;
+    private long entites;
+    private final Map<String, int[]> formes = new HashMap<>();
+
+    private SqlActivite() {
+    }
+
+    /**
+     * Ouvre une activité sur le thread courant.
+     *
+     * @return la nouvelle activité, ou {@code null} si une activité englobante
+     *         est déjà ouverte (elle reste alors la seule comptée)
+     */
+    public static SqlActivite ouvrir() {
+        if (COURANTE.get() != null) {
+            return null;
+        }
+        SqlActivite activite = new SqlActivite();
+        COURANTE.set(activite);
+        return activite;
+    }
+
+    public static SqlActivite courante() {
+        return COURANTE.get();
+    }
+
+    public void fermer() {
+        if (COURANTE.get() == this) {
+            COURANTE.remove();
+        }
+    }
+
+    /**
+     * @param forme forme de l'instruction ({@link #forme(String)}), calculée
+     *              par l'appelant pour qu'une instruction préparée ne la
+     *              calcule qu'une fois
+     */
+    static void instructionExecutee(String forme, long nanos) {
+        SqlActivite activite = COURANTE.get();
+        if (activite == null) {
+            return;
+        }
+        activite.instructions++;
+        activite.nanosJdbc += nanos;
+        int[] compte = activite.formes.get(forme);
+        if (compte == null) {
+            if (activite.formes.size() >= FORMES_MAX) {
+                forme = AUTRES_FORMES;
+            }
+            compte = activite.formes.computeIfAbsent(forme, f -> new int[1]);
+        }
+        compte[0]++;
+    }
+
+    static void ligneLue() {
+        SqlActivite activite = COURANTE.get();
+        if (activite != null) {
+            activite.lignes++;
+        }
+    }
+
+    static void entiteChargee() {
+        SqlActivite activite = COURANTE.get();
+        if (activite != null) {
+            activite.entites++;
+        }
+    }
+
+    public Mesure mesure() {
+        return new Mesure(instructions, nanosJdbc, lignes, entites);
+    }
+
+    public long dureeNanos() {
+        return System.nanoTime() - debut;
+    }
+
+    /**
+     * Formes exécutées au moins {@code seuil} fois, les plus répétées d'abord.
+     */
+    public List<Map.Entry<String, Integer>> formesRepetees(int seuil) {
+        List<Map.Entry<String, Integer>> repetees = new ArrayList<>();
+        formes.forEach((forme, compte) -> {
+            if (compte[0] >= seuil && !AUTRES_FORMES.equals(forme)) {
+                repetees.add(Map.entry(forme, compte[0]));
+            }
+        });
+        repetees.sort(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()));
+        return repetees;
+    }
+
+    /**
+     * Forme d'une instruction : littéraux remplacés par {@code ?}, listes IN
+     * réduites à un paramètre et espaces normalisés, pour que deux exécutions
+     * de la même requête avec des valeurs différentes se retrouvent.
+     */
+    static String forme(String sql) {
+        if (sql == null) {
+            return "?";
+        }
+        String forme = CHAINES.matcher(sql).replaceAll("?");
+        forme = NOMBRES.matcher(forme).replaceAll("?");
+        forme = LISTES_IN.matcher(forme).replaceAll("in (?)");
+        return ESPACES.matcher(forme).replaceAll(" ").trim();
+    }
+
+    /**
+     * Compteurs cumulés ; la différence de deux mesures donne l'activité
+     * d'une portion de l'unité de travail.
+     */
+    public record Mesure(long instructions, long nanosJdbc, long lignes, long entites) {
+
+        public Mesure moins(Mesure avant) {
+            return new Mesure(instructions - avant.instructions, nanosJdbc - avant.nanosJdbc,
+                    lignes - avant.lignes, entites - avant.entites);
+        }
+    }
+}
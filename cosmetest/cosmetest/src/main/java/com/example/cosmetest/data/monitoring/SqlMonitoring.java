@@ -0,0 +1,164 @@
+package com.example.cosmetest.data.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Publie l'activité SQL dans Micrometer, par point d'entrée HTTP
+ * ({@code sql.request.*}, avec histogrammes) et par méthode de service
+ * ({@code sql.service.*}, sans histogramme pour borner le nombre de séries).
+ *
+ * Une unité de travail qui exécute la même forme d'instruction au moins
+ * {@code seuilNPlusUn} fois est comptée comme N+1 présumé
+ * ({@code sql.n_plus_one}). Les unités lentes, trop bavardes ou N+1 sont
+ * journalisées avec leurs formes les plus répétées, au plus un échantillon
+ * par point d'entrée et par {@code intervalleEchantillon}.
+ */
+public class SqlMonitoring {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlMonitoring.class);
+    private static final int FORMES_JOURNALISEES = 3;
+    private static final int FORME_LONGUEUR_MAX = 300;
+
+    private final MeterRegistry meterRegistry;
+    private final int seuilNPlusUn;
+    private final long lenteNanos;
+    private final int instructionsMax;
+    private final long intervalleEchantillonNanos;
+    private final Map<String, Long> derniersEchantillons = new ConcurrentHashMap<>();
+
+    public SqlMonitoring(MeterRegistry meterRegistry, int seuilNPlusUn, Duration requeteLente,
+                         int instructionsMax, Duration intervalleEchantillon) {
+        if (seuilNPlusUn < 2 || instructionsMax <= 0) {
+            throw new IllegalArgumentException("Les seuils de l'instrumentation SQL doivent être strictement positifs");
+        }
+        this.meterRegistry = meterRegistry;
+        this.seuilNPlusUn = seuilNPlusUn;
+        this.lenteNanos = requeteLente.toNanos();
+        this.instructionsMax = instructionsMax;
+        this.intervalleEchantillonNanos = intervalleEchantillon.toNanos();
+    }
+
+    /**
+     * Fin d'une requête HTTP.
+     *
+     * @param uri gabarit du point d'entrée (par exemple {@code /api/rdvs/{id}})
+     */
+    public void requeteTerminee(String methodeHttp, String uri, int statut, SqlActivite activite) {
+        SqlActivite.Mesure mesure = activite.mesure();
+        String outcome = statut >= 500 ? "SERVER_ERROR" : statut >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+        DistributionSummary.builder("sql.request.statements")
+                .description("Instructions SQL exécutées par requête HTTP")
+                .tags("method", methodeHttp, "uri", uri, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(mesure.instructions());
+        Timer.builder("sql.request.jdbc")
+                .description("Temps passé dans JDBC par requête HTTP")
+                .tags("method", methodeHttp, "uri", uri, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(mesure.nanosJdbc(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("sql.request.rows")
+                .description("Lignes lues par requête HTTP")
+                .tags("method", methodeHttp, "uri", uri, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(mesure.lignes());
+        DistributionSummary.builder("sql.request.entities")
+                .description("Entités JPA chargées par requête HTTP")
+                .tags("method", methodeHttp, "uri", uri, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(mesure.entites());
+        analyser("http", methodeHttp + " " + uri, activite, mesure);
+    }
+
+    /**
+     * Fin d'un appel de service ; les appels imbriqués sont inclus dans la
+     * mesure de l'appelant.
+     *
+     * @param racine vrai si l'appel n'était pas déjà couvert par une requête HTTP
+     *               ou un autre appel de service (tâche planifiée, écouteur...)
+     */
+    public void methodeTerminee(String service, String methode, SqlActivite activite,
+                                SqlActivite.Mesure mesure, boolean racine) {
+        if (mesure.instructions() == 0) {
+            return;
+        }
+        DistributionSummary.builder("sql.service.statements")
+                .description("Instructions SQL exécutées par appel de méthode de service")
+                .tags("service", service, "method", methode)
+                .register(meterRegistry)
+                .record(mesure.instructions());
+        Timer.builder("sql.service.jdbc")
+                .description("Temps passé dans JDBC par appel de méthode de service")
+                .tags("service", service, "method", methode)
+                .register(meterRegistry)
+                .record(mesure.nanosJdbc(), TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("sql.service.rows")
+                .description("Lignes lues par appel de méthode de service")
+                .tags("service", service, "method", methode)
+                .register(meterRegistry)
+                .record(mesure.lignes());
+        DistributionSummary.builder("sql.service.entities")
+                .description("Entités JPA chargées par appel de méthode de service")
+                .tags("service", service, "method", methode)
+                .register(meterRegistry)
+                .record(mesure.entites());
+        if (racine) {
+            analyser("service", service + "." + methode, activite, mesure);
+        }
+    }
+
+    private void analyser(String origine, String nom, SqlActivite activite, SqlActivite.Mesure mesure) {
+        List<Map.Entry<String, Integer>> repetees = activite.formesRepetees(seuilNPlusUn);
+        if (!repetees.isEmpty()) {
+            Counter.builder("sql.n_plus_one")
+                    .description("Unités de travail répétant une même forme d'instruction (N+1 présumé)")
+                    .tags("origin", origine, "name", nom)
+                    .register(meterRegistry)
+                    .increment();
+        }
+        long duree = activite.dureeNanos();
+        boolean lente = duree >= lenteNanos;
+        boolean bavarde = mesure.instructions() >= instructionsMax;
+        if ((lente || bavarde || !repetees.isEmpty()) && echantillonner(nom)) {
+            logger.warn("SQL {} {}: {} ms dont {} ms JDBC, {} instruction(s), {} ligne(s), {} entité(s){}{}",
+                    origine, nom, TimeUnit.NANOSECONDS.toMillis(duree),
+                    TimeUnit.NANOSECONDS.toMillis(mesure.nanosJdbc()), mesure.instructions(), mesure.lignes(),
+                    mesure.entites(), repetees.isEmpty() ? "" : " ; N+1 présumé: ",
+                    repetees.stream()
+                            .limit(FORMES_JOURNALISEES)
+                            .map(e -> e.getValue() + " x [" + tronquer(e.getKey()) + "]")
+                            .collect(Collectors.joining(" ; ")));
+        }
+    }
+
+    private boolean echantillonner(String nom) {
+        long maintenant = System.nanoTime();
+        Long precedent = derniersEchantillons.get(nom);
+        if (precedent != null && maintenant - precedent < intervalleEchantillonNanos) {
+            return false;
+        }
+        // Si deux threads passent ensemble, un seul gagne le remplacement
+        return precedent == null
+                ? derniersEchantillons.putIfAbsent(nom, maintenant) == null
+                : derniersEchantillons.replace(nom, precedent, maintenant);
+    }
+
+    private static String tronquer(String forme) {
+        return forme.length() <= FORME_LONGUEUR_MAX ? forme : forme.substring(0, FORME_LONGUEUR_MAX) + "…";
+    }
+}
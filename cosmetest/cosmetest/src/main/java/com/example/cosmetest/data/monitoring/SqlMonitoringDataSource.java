@@ -0,0 +1,123 @@
+package com.example.cosmetest.data.monitoring;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Source de données qui rapporte à l'{@link SqlActivite} courante chaque
+ * exécution d'instruction, avec sa durée et sa forme, et chaque ligne lue.
+ * Un lot JDBC compte pour une exécution, comme un aller-retour.
+ *
+ * Un ResultSet n'est enveloppé que s'il est obtenu pendant une activité
+ * ouverte : hors activité, la lecture des lignes reste directe.
+ */
+public class SqlMonitoringDataSource extends DelegatingDataSource {
+
+    public SqlMonitoringDataSource(DataSource cible) {
+        super(cible);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connexion(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connexion(super.getConnection(username, password));
+    }
+
+    private static Connection connexion(Connection connexion) {
+        return proxy(Connection.class, (p, methode, arguments) -> {
+            Object resultat = invoquer(connexion, methode, arguments);
+            return switch (methode.getName()) {
+                case "prepareStatement" -> instruction(PreparedStatement.class, (Statement) resultat,
+                        (String) arguments[0]);
+                case "prepareCall" -> instruction(CallableStatement.class, (Statement) resultat,
+                        (String) arguments[0]);
+                case "createStatement" -> instruction(Statement.class, (Statement) resultat, null);
+                default -> resultat;
+            };
+        });
+    }
+
+    /**
+     * @param sqlPrepare la requête d'une instruction préparée, {@code null}
+     *                   pour une instruction simple dont le SQL est passé à
+     *                   chaque exécution
+     */
+    private static <S extends Statement> S instruction(Class<S> type, Statement instruction, String sqlPrepare) {
+        String[] dernierLot = new String[1];
+        // Forme d'une instruction préparée : calculée à la première exécution suivie, puis réutilisée
+        String[] formePreparee = new String[1];
+        return proxy(type, (p, methode, arguments) -> {
+            String nom = methode.getName();
+            if (nom.equals("addBatch") && arguments != null && arguments.length == 1) {
+                dernierLot[0] = (String) arguments[0];
+            }
+            if (!nom.startsWith("execute")) {
+                Object resultat = invoquer(instruction, methode, arguments);
+                return nom.equals("getResultSet") || nom.equals("getGeneratedKeys")
+                        ? lignes((ResultSet) resultat)
+                        : resultat;
+            }
+            long debut = System.nanoTime();
+            try {
+                Object resultat = invoquer(instruction, methode, arguments);
+                return resultat instanceof ResultSet rs ? lignes(rs) : resultat;
+            } finally {
+                long nanos = System.nanoTime() - debut;
+                if (SqlActivite.courante() != null) {
+                    String forme;
+                    if (sqlPrepare != null) {
+                        if (formePreparee[0] == null) {
+                            formePreparee[0] = SqlActivite.forme(sqlPrepare);
+                        }
+                        forme = formePreparee[0];
+                    } else {
+                        forme = SqlActivite.forme(arguments != null && arguments.length > 0
+                                && arguments[0] instanceof String s ? s : dernierLot[0]);
+                    }
+                    SqlActivite.instructionExecutee(forme, nanos);
+                }
+            }
+        });
+    }
+
+    private static ResultSet lignes(ResultSet resultSet) {
+        if (resultSet == null || SqlActivite.courante() == null) {
+            return resultSet;
+        }
+        return proxy(ResultSet.class, (p, methode, arguments) -> {
+            Object resultat = invoquer(resultSet, methode, arguments);
+            if (methode.getName().equals("next") && Boolean.TRUE.equals(resultat)) {
+                SqlActivite.ligneLue();
+            }
+            return resultat;
+        });
+    }
+
+    private static Object invoquer(Object cible, Method methode, Object[] arguments) throws Throwable {
+        try {
+            return methode.invoke(cible, arguments);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlMonitoringDataSource.class.getClassLoader(), new Class<?>[]{type},
+                handler);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.cosmetest.data.monitoring;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Compte dans l'{@link SqlActivite} courante chaque entité hydratée par Hibernate.
+ */
+public class SqlMonitoringHibernateListener implements PostLoadEventListener {
+
+    public SqlMonitoringHibernateListener(EntityManagerFactory entityManagerFactory) {
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        SqlActivite.entiteChargee();
+    }
+}
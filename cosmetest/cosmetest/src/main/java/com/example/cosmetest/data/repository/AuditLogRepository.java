@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     Page<AuditLog> findAllByOrderByCreatedAtDesc(Pageable pageable);
@@ -33,6 +34,55 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
             @Param("fin") LocalDateTime fin,
             Pageable pageable);
 
+    /**
+     * Page suivant la clé {@code (apres, apresId)}, tous deux nuls pour la
+     * première page. L'index {@code idx_audit_created_at} contient aussi la
+     * clé primaire : il sert directement l'ordre {@code (created_at, id)}.
+     */
+    @Query("""
+            SELECT a FROM AuditLog a
+            WHERE (:entite IS NULL OR UPPER(a.entite) = UPPER(:entite))
+              AND (:utilisateur IS NULL OR LOWER(a.utilisateur) = LOWER(:utilisateur))
+              AND (:action IS NULL OR a.action = :action)
+              AND (:debut IS NULL OR a.createdAt >= :debut)
+              AND (:fin IS NULL OR a.createdAt <= :fin)
+              AND (:apres IS NULL OR a.createdAt < :apres OR (a.createdAt = :apres AND a.id < :apresId))
+            ORDER BY a.createdAt DESC, a.id DESC
+            """)
+    List<AuditLog> searchApres(
+            @Param("entite") String entite,
+            @Param("utilisateur") String utilisateur,
+            @Param("action") AuditLog.Action action,
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin,
+            @Param("apres") LocalDateTime apres,
+            @Param("apresId") Long apresId,
+            Pageable limite);
+
+    /**
+     * Nombre de lignes correspondant aux filtres de {@link #search}, arrêté à
+     * {@code plafond} par la base. L'action est passée par son nom, comme elle
+     * est stockée.
+     */
+    @Query(value = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM audit_log a
+                WHERE (:entite IS NULL OR UPPER(a.entite) = UPPER(:entite))
+                  AND (:utilisateur IS NULL OR LOWER(a.utilisateur) = LOWER(:utilisateur))
+                  AND (:action IS NULL OR a.action = :action)
+                  AND (:debut IS NULL OR a.created_at >= :debut)
+                  AND (:fin IS NULL OR a.created_at <= :fin)
+                LIMIT :plafond
+            ) lignes
+            """, nativeQuery = true)
+    long countJusqua(
+            @Param("entite") String entite,
+            @Param("utilisateur") String utilisateur,
+            @Param("action") String action,
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin,
+            @Param("plafond") int plafond);
+
     @Modifying
     @Query("DELETE FROM AuditLog a WHERE a.createdAt < :before")
     int deleteByCreatedAtBefore(LocalDateTime before);
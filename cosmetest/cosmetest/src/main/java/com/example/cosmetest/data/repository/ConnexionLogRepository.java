@@ -4,9 +4,44 @@ import com.example.cosmetest.domain.model.ConnexionLog;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ConnexionLogRepository extends JpaRepository<ConnexionLog, Long> {
     Page<ConnexionLog> findAllByOrderByCreatedAtDesc(Pageable pageable);
     Page<ConnexionLog> findByCreatedAtBetweenOrderByCreatedAtDesc(java.time.LocalDateTime debut, java.time.LocalDateTime fin, Pageable pageable);
     int deleteByCreatedAtBefore(java.time.LocalDateTime cutoff);
+
+    /**
+     * Page suivant la clé {@code (apres, apresId)}, tous deux nuls pour la
+     * première page ; servie par l'index {@code idx_connexion_created_at}.
+     */
+    @Query("""
+            SELECT c FROM ConnexionLog c
+            WHERE (:debut IS NULL OR c.createdAt >= :debut)
+              AND (:fin IS NULL OR c.createdAt <= :fin)
+              AND (:apres IS NULL OR c.createdAt < :apres OR (c.createdAt = :apres AND c.id < :apresId))
+            ORDER BY c.createdAt DESC, c.id DESC
+            """)
+    List<ConnexionLog> findApres(
+            @Param("debut") LocalDateTime debut,
+            @Param("fin") LocalDateTime fin,
+            @Param("apres") LocalDateTime apres,
+            @Param("apresId") Long apresId,
+            Pageable limite);
+
+    /** Nombre de lignes de la période, arrêté à {@code plafond} par la base. */
+    @Query(value = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM connexion_log c
+                WHERE (:debut IS NULL OR c.created_at >= :debut)
+                  AND (:fin IS NULL OR c.created_at <= :fin)
+                LIMIT :plafond
+            ) lignes
+            """, nativeQuery = true)
+    long countJusqua(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin,
+                     @Param("plafond") int plafond);
 }
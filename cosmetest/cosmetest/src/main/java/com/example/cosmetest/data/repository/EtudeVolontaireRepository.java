@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 public interface EtudeVolontaireRepository extends JpaRepository<EtudeVolontaire, Long> {
@@ -38,10 +39,45 @@ public interface EtudeVolontaireRepository extends JpaRepository<EtudeVolontaire
             """)
     List<Object[]> countActiveDistinctVolunteersByStudyIds(@Param("idEtudes") List<Integer> idEtudes);
 
+    @Query("select ev.idVolontaire from EtudeVolontaire ev where ev.idEtude=:idEtude group by ev.idVolontaire having count(ev)>1 order by ev.idVolontaire")
+    List<Integer> findDuplicateVolontairesByEtude(@Param("idEtude") int idEtude);
+
+    /**
+     * [total, non payés annulés] pour le paiement en lot d'une étude. Aucun des
+     * deux ne dépend d'un paiement concurrent : les déjà payés se déduisent du
+     * nombre de lignes mises à jour.
+     */
+    @Query("""
+            select count(ev),
+                   coalesce(sum(case when (ev.paye is null or ev.paye <> 1) and exists (
+                       select a.idAnnuler from Annulation a
+                       where a.idEtude = ev.idEtude and a.idVol = ev.idVolontaire
+                   ) then 1 else 0 end), 0)
+            from EtudeVolontaire ev
+            where ev.idEtude = :idEtude
+            """)
+    List<Object[]> countPaymentStatesByEtude(@Param("idEtude") int idEtude);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update EtudeVolontaire ev set ev.paye = 1
+            where ev.idEtude = :idEtude
+              and (ev.paye is null or ev.paye <> 1)
+              and not exists (
+                select a.idAnnuler from Annulation a
+                where a.idEtude = ev.idEtude and a.idVol = ev.idVolontaire
+              )
+            """)
+    int markUnpaidActiveAsPaidByEtude(@Param("idEtude") int idEtude);
+
     @Query("select count(ev) from EtudeVolontaire ev where ev.idVolontaire=:idVolontaire")
     Long countEtudesByVolontaire(@Param("idVolontaire") int idVolontaire);
     boolean existsByIdEtudeAndIdVolontaire(int idEtude, int idVolontaire);
 
+    @Query("select distinct ev.idVolontaire from EtudeVolontaire ev where ev.idEtude=:idEtude and ev.idVolontaire in :idVolontaires")
+    List<Integer> findAssociatedVolunteerIds(@Param("idEtude") int idEtude,
+            @Param("idVolontaires") Collection<Integer> idVolontaires);
+
     @Query("select count(ev) from EtudeVolontaire ev where ev.idEtude=:idEtude and ev.numSujet=:numSujet and ev.idVolontaire<>:idVolontaire")
     long countNumSujetUsedByOtherVolontaire(@Param("idEtude") int idEtude, @Param("numSujet") int numSujet,
             @Param("idVolontaire") int idVolontaire);
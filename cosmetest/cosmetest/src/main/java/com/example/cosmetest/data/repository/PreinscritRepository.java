@@ -4,6 +4,7 @@ import com.example.cosmetest.domain.model.Preinscrit;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.sql.Date;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -82,4 +83,12 @@ public interface PreinscritRepository extends JpaRepository<Preinscrit, Integer>
      * @return true si un préinscrit avec cet email existe, false sinon
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Compte les préinscrits dont la date de préinscription (texte) vaut l'une
+     * des valeurs données
+     * @param dates la même date sous ses différentes écritures
+     * @return le nombre de préinscrits correspondants
+     */
+    int countByDatePreInscriptionIn(Collection<String> dates);
 }
\ No newline at end of file
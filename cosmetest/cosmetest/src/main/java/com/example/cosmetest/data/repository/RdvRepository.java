@@ -10,6 +10,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.sql.Date;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,9 +23,15 @@ public interface RdvRepository extends JpaRepository<Rdv, Long> {
 
         boolean existsByIdEtudeAndIdRdv(Integer idEtude, Integer idRdv);
 
+        List<Rdv> findByIdEtudeAndIdRdvBetweenOrderByIdRdvAsc(Integer idEtude, Integer premier, Integer dernier);
+
         @Query("SELECT r FROM Rdv r WHERE r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE'")
         Page<Rdv> findOperationalRdvs(Pageable pageable);
 
+        @Query("SELECT r FROM Rdv r WHERE r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE' "
+                        + "ORDER BY r.date DESC, r.rdvPk DESC")
+        List<Rdv> findRecentOperationalRdvs(Pageable pageable);
+
         @Query("SELECT r FROM Rdv r WHERE r.idVolontaire = :idVolontaire")
         List<Rdv> findByIdVolontaire(@Param("idVolontaire") Integer idVolontaire);
 
@@ -160,53 +167,24 @@ public interface RdvRepository extends JpaRepository<Rdv, Long> {
         }
 
         /**
-         * Compte les RDV par jour de la semaine entre deux dates
-         */
-        @Query("SELECT DAYOFWEEK(r.date) as dayOfWeek, COUNT(r) FROM Rdv r " +
-                        "WHERE r.date BETWEEN :dateDebut AND :dateFin " +
-                        "AND (r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE') " +
-                        "GROUP BY DAYOFWEEK(r.date) " +
-                        "ORDER BY DAYOFWEEK(r.date)")
-        List<Object[]> countRdvByDayOfWeekBetweenDatesRaw(
-                        @Param("dateDebut") Date dateDebut,
-                        @Param("dateFin") Date dateFin);
-
-        /**
-         * Méthode wrapper pour convertir les numéros de jours en noms français
-         */
-        default Map<String, Integer> countRdvByDayOfWeekBetweenDates(Date dateDebut, Date dateFin) {
-                List<Object[]> results = countRdvByDayOfWeekBetweenDatesRaw(dateDebut, dateFin);
-                String[] jours = { "", "Dimanche", "Lundi", "Mardi", "Mercredi", "Jeudi", "Vendredi", "Samedi" };
-
-                return results.stream()
-                                .collect(Collectors.toMap(
-                                                row -> jours[(Integer) row[0]],
-                                                row -> ((Long) row[1]).intValue(),
-                                                (existing, replacement) -> existing,
-                                                HashMap::new));
-        }
-
-        /**
-         * Compte les RDV par heure entre deux dates
+         * Compte les RDV non annulés par jour entre deux dates
          */
-        @Query("SELECT SUBSTRING(r.heure, 1, 2) as heure, COUNT(r) FROM Rdv r " +
+        @Query("SELECT r.date, COUNT(r) FROM Rdv r " +
                         "WHERE r.date BETWEEN :dateDebut AND :dateFin " +
-                        "AND r.heure IS NOT NULL " +
                         "AND (r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE') " +
-                        "GROUP BY SUBSTRING(r.heure, 1, 2) " +
-                        "ORDER BY SUBSTRING(r.heure, 1, 2)")
-        List<Object[]> countRdvByHourBetweenDatesRaw(
+                        "GROUP BY r.date")
+        List<Object[]> countRdvByDateBetweenDatesRaw(
                         @Param("dateDebut") Date dateDebut,
                         @Param("dateFin") Date dateFin);
 
         /**
-         * Méthode wrapper pour formater les heures
+         * Méthode wrapper : nombre de RDV par jour, les jours sans RDV sont absents
          */
-        default Map<String, Integer> countRdvByHourBetweenDates(Date dateDebut, Date dateFin) {
-                List<Object[]> results = countRdvByHourBetweenDatesRaw(dateDebut, dateFin);
+        default Map<LocalDate, Integer> countRdvByDateBetweenDates(Date dateDebut, Date dateFin) {
+                List<Object[]> results = countRdvByDateBetweenDatesRaw(dateDebut, dateFin);
                 return results.stream()
                                 .collect(Collectors.toMap(
-                                                row -> row[0] + "h",
+                                                row -> ((Date) row[0]).toLocalDate(),
                                                 row -> ((Long) row[1]).intValue(),
                                                 (existing, replacement) -> existing,
                                                 HashMap::new));
@@ -329,70 +307,6 @@ public interface RdvRepository extends JpaRepository<Rdv, Long> {
                                 .collect(Collectors.toList());
         }
 
-        /**
-         * Compte les RDV par semaine entre deux dates - Version corrigée avec
-         * WEEKOFYEAR
-         */
-        @Query("SELECT YEAR(r.date) as annee, WEEKOFYEAR(r.date) as semaine, COUNT(r) FROM Rdv r " +
-                        "WHERE r.date BETWEEN :dateDebut AND :dateFin " +
-                        "AND (r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE') " +
-                        "GROUP BY YEAR(r.date), WEEKOFYEAR(r.date) " +
-                        "ORDER BY YEAR(r.date), WEEKOFYEAR(r.date)")
-        List<Object[]> countRdvByWeekBetweenDatesRaw(
-                        @Param("dateDebut") Date dateDebut,
-                        @Param("dateFin") Date dateFin);
-
-        /**
-         * Méthode wrapper pour les statistiques par semaine
-         */
-        default List<Map<String, Object>> countRdvByWeekBetweenDates(Date dateDebut, Date dateFin) {
-                List<Object[]> results = countRdvByWeekBetweenDatesRaw(dateDebut, dateFin);
-
-                return results.stream()
-                                .map(row -> {
-                                        Map<String, Object> map = new HashMap<>();
-                                        map.put("annee", row[0]);
-                                        map.put("semaine", row[1]);
-                                        map.put("count", ((Long) row[2]).intValue());
-                                        return map;
-                                })
-                                .collect(Collectors.toList());
-        }
-
-        /**
-         * Compte les RDV par semaine et état entre deux dates - Version corrigée avec
-         * WEEKOFYEAR
-         */
-        @Query("SELECT YEAR(r.date) as annee, WEEKOFYEAR(r.date) as semaine, COUNT(r) FROM Rdv r " +
-                        "WHERE r.date BETWEEN :dateDebut AND :dateFin " +
-                        "AND r.etat = :etat " +
-                        "AND (r.etat IS NULL OR UPPER(r.etat) <> 'ANNULE') " +
-                        "GROUP BY YEAR(r.date), WEEKOFYEAR(r.date) " +
-                        "ORDER BY YEAR(r.date), WEEKOFYEAR(r.date)")
-        List<Object[]> countRdvByWeekAndEtatBetweenDatesRaw(
-                        @Param("dateDebut") Date dateDebut,
-                        @Param("dateFin") Date dateFin,
-                        @Param("etat") String etat);
-
-        /**
-         * Méthode wrapper pour les statistiques par semaine et état
-         */
-        default List<Map<String, Object>> countRdvByWeekAndEtatBetweenDates(
-                        Date dateDebut, Date dateFin, String etat) {
-                List<Object[]> results = countRdvByWeekAndEtatBetweenDatesRaw(dateDebut, dateFin, etat);
-
-                return results.stream()
-                                .map(row -> {
-                                        Map<String, Object> map = new HashMap<>();
-                                        map.put("annee", row[0]);
-                                        map.put("semaine", row[1]);
-                                        map.put("etat", etat);
-                                        map.put("count", ((Long) row[2]).intValue());
-                                        return map;
-                                })
-                                .collect(Collectors.toList());
-        }
-
         /**
          *  Récupère les RDV d'une étude pour une date spécifique avec optimisation
          * Méthode spécialisée pour éviter de charger tous les RDV d'une étude
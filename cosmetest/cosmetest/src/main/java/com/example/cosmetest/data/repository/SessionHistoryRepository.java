@@ -10,11 +10,51 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 public interface SessionHistoryRepository extends JpaRepository<SessionHistory, Long> {
     Page<SessionHistory> findAllByOrderByLoginTimeDesc(Pageable pageable);
     Page<SessionHistory> findByLoginContainingIgnoreCaseOrderByLoginTimeDesc(String login, Pageable pageable);
 
+    /**
+     * Page suivant la clé {@code (apres, apresId)}, tous deux nuls pour la
+     * première page ; servie par l'index {@code idx_session_login_time}.
+     * Le login recherché passe d'abord par {@link #motifLike(String)}.
+     */
+    @Query("""
+            SELECT s FROM SessionHistory s
+            WHERE (:login IS NULL OR LOWER(s.login) LIKE LOWER(CONCAT('%', :login, '%')) ESCAPE '!')
+              AND (:apres IS NULL OR s.loginTime < :apres OR (s.loginTime = :apres AND s.id < :apresId))
+            ORDER BY s.loginTime DESC, s.id DESC
+            """)
+    List<SessionHistory> findApres(
+            @Param("login") String login,
+            @Param("apres") Instant apres,
+            @Param("apresId") Long apresId,
+            Pageable limite);
+
+    /** Nombre de sessions du filtre de {@link #findApres}, arrêté à {@code plafond} par la base. */
+    @Query(value = """
+            SELECT COUNT(*) FROM (
+                SELECT 1 FROM session_history s
+                WHERE (:login IS NULL OR LOWER(s.login) LIKE LOWER(CONCAT('%', :login, '%')) ESCAPE '!')
+                LIMIT :plafond
+            ) lignes
+            """, nativeQuery = true)
+    long countJusqua(@Param("login") String login, @Param("plafond") int plafond);
+
+    /**
+     * Protège {@code %}, {@code _} et le caractère d'échappement {@code !} pour
+     * qu'un login saisi soit cherché tel quel. Le {@code \} habituel est évité :
+     * MySQL l'interprète déjà dans les littéraux.
+     */
+    static String motifLike(String login) {
+        if (login == null) {
+            return null;
+        }
+        return login.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
     @Modifying
     @Transactional
     @Query("DELETE FROM SessionHistory s WHERE s.logoutTime < :before")
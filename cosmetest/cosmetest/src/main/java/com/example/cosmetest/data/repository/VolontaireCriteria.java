@@ -0,0 +1,127 @@
+package com.example.cosmetest.data.repository;
+
+import com.example.cosmetest.domain.model.Volontaire;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Critères de recherche de volontaires, combinables librement.
+ *
+ * Chaque critère renseigné devient un prédicat SQL (combinés par AND) ; un
+ * critère null ou vide est ignoré. Les critères sont évalués par
+ * {@link VolontaireSearchRepository#searchSummaries}, jamais en mémoire.
+ *
+ * <pre>
+ * VolontaireCriteria.create().sexe("F").ageBetween(18, 35, LocalDate.now()).phototype("3")
+ * </pre>
+ */
+public final class VolontaireCriteria {
+
+    @FunctionalInterface
+    interface Filter {
+        Predicate toPredicate(CriteriaBuilder cb, Root<Volontaire> root);
+    }
+
+    private final List<Filter> filters = new ArrayList<>();
+
+    private VolontaireCriteria() {
+    }
+
+    public static VolontaireCriteria create() {
+        return new VolontaireCriteria();
+    }
+
+    public VolontaireCriteria sexe(String sexe) {
+        return equalTo("sexe", sexe);
+    }
+
+    public VolontaireCriteria nom(String nom) {
+        return equalTo("nomVol", nom);
+    }
+
+    public VolontaireCriteria prenom(String prenom) {
+        return equalTo("prenomVol", prenom);
+    }
+
+    public VolontaireCriteria ethnie(String ethnie) {
+        return equalTo("ethnie", ethnie);
+    }
+
+    public VolontaireCriteria phototype(String phototype) {
+        return equalTo("phototype", phototype);
+    }
+
+    public VolontaireCriteria typePeauVisage(String typePeauVisage) {
+        return equalTo("typePeauVisage", typePeauVisage);
+    }
+
+    public VolontaireCriteria archive(Boolean archive) {
+        if (archive != null) {
+            filters.add((cb, root) -> cb.equal(root.get("archive"), archive));
+        }
+        return this;
+    }
+
+    /**
+     * Âge révolu compris entre {@code ageMin} et {@code ageMax} (bornes incluses,
+     * chacune facultative) à la date {@code today}. Les volontaires sans date
+     * de naissance sont exclus dès qu'une borne est renseignée.
+     */
+    public VolontaireCriteria ageBetween(Integer ageMin, Integer ageMax, LocalDate today) {
+        LocalDate bornApres = ageMax != null ? today.minusYears(ageMax) : null;
+        LocalDate bornAvant = ageMin != null ? today.minusYears(ageMin) : null;
+        return dateBetween("dateNaissance", bornApres, bornAvant);
+    }
+
+    /**
+     * Date d'inscription comprise entre les deux dates (bornes incluses, chacune facultative).
+     */
+    public VolontaireCriteria dateInscriptionBetween(LocalDate debut, LocalDate fin) {
+        return dateBetween("dateI", debut, fin);
+    }
+
+    /**
+     * Ajoute tous les critères d'un autre jeu de critères.
+     */
+    public VolontaireCriteria and(VolontaireCriteria other) {
+        if (other != null && other != this) {
+            filters.addAll(other.filters);
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return filters.isEmpty();
+    }
+
+    Predicate toPredicate(CriteriaBuilder cb, Root<Volontaire> root) {
+        return cb.and(filters.stream()
+                .map(filter -> filter.toPredicate(cb, root))
+                .toArray(Predicate[]::new));
+    }
+
+    private VolontaireCriteria equalTo(String attribute, String value) {
+        if (value != null && !value.trim().isEmpty()) {
+            filters.add((cb, root) -> cb.equal(root.get(attribute), value));
+        }
+        return this;
+    }
+
+    private VolontaireCriteria dateBetween(String attribute, LocalDate from, LocalDate to) {
+        if (from != null) {
+            Date sqlFrom = Date.valueOf(from);
+            filters.add((cb, root) -> cb.greaterThanOrEqualTo(root.<Date>get(attribute), sqlFrom));
+        }
+        if (to != null) {
+            Date sqlTo = Date.valueOf(to);
+            filters.add((cb, root) -> cb.lessThanOrEqualTo(root.<Date>get(attribute), sqlTo));
+        }
+        return this;
+    }
+}
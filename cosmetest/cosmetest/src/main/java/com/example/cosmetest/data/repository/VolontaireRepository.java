@@ -18,7 +18,7 @@ import java.util.stream.Collectors;
 /**
  * Repository pour l'accès aux données de l'entité Volontaire
  */
-public interface VolontaireRepository extends JpaRepository<Volontaire, Integer> {
+public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>, VolontaireSearchRepository {
 
         // ==================== MÉTHODES EXISTANTES ====================
 
@@ -118,27 +118,27 @@ public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>
         Page<Volontaire> findByFullTextSearch(@Param("keyword") String keyword, Pageable pageable);
 
         /**
-         * Version SQL native optimisée exploitant directement l'index fulltext
-         * Recherche dans: ID, nom, prénom, nom+prénom, email, téléphones
+         * Champs servant à construire l'index de recherche en mémoire :
+         * idVol, nom, prénom, email, téléphone portable, téléphone domicile, archive
          */
-        @Query(value = "SELECT * FROM volontaire WHERE " +
-                        "CAST(id_vol AS CHAR) LIKE :keyword OR " +
-                        "LOWER(nom_vol) LIKE LOWER(:keyword) OR " +
-                        "LOWER(prenom_vol) LIKE LOWER(:keyword) OR " +
-                        "LOWER(CONCAT(nom_vol, ' ', prenom_vol)) LIKE LOWER(:keyword) OR " +
-                        "LOWER(CONCAT(prenom_vol, ' ', nom_vol)) LIKE LOWER(:keyword) OR " +
-                        "CAST(tel_domicile_vol AS CHAR) LIKE :keyword OR " +
-                        "CAST(tel_portable_vol AS CHAR) LIKE :keyword OR " +
-                        "LOWER(email_vol) LIKE LOWER(:keyword)", countQuery = "SELECT COUNT(*) FROM volontaire WHERE " +
-                                        "CAST(id_vol AS CHAR) LIKE :keyword OR " +
-                                        "LOWER(nom_vol) LIKE LOWER(:keyword) OR " +
-                                        "LOWER(prenom_vol) LIKE LOWER(:keyword) OR " +
-                                        "LOWER(CONCAT(nom_vol, ' ', prenom_vol)) LIKE LOWER(:keyword) OR " +
-                                        "LOWER(CONCAT(prenom_vol, ' ', nom_vol)) LIKE LOWER(:keyword) OR " +
-                                        "CAST(tel_domicile_vol AS CHAR) LIKE :keyword OR " +
-                                        "CAST(tel_portable_vol AS CHAR) LIKE :keyword OR " +
-                                        "LOWER(email_vol) LIKE LOWER(:keyword)", nativeQuery = true)
-        Page<Volontaire> findByFullTextSearchNative(@Param("keyword") String keyword, Pageable pageable);
+        @Query("SELECT v.idVol, v.nomVol, v.prenomVol, v.emailVol, v.telPortableVol, v.telDomicileVol, v.archive " +
+                        "FROM Volontaire v ORDER BY v.idVol")
+        List<Object[]> findSearchIndexRows();
+
+        /**
+         * Champs servant à construire le cube démographique en mémoire :
+         * idVol, sexe, ethnie, phototype, type de peau, date de naissance, archive
+         */
+        @Query("SELECT v.idVol, v.sexe, v.ethnie, v.phototype, v.typePeauVisage, v.dateNaissance, v.archive " +
+                        "FROM Volontaire v")
+        List<Object[]> findDemographieRows();
+
+        /**
+         * Même projection que {@link #findDemographieRows()} pour un seul volontaire
+         */
+        @Query("SELECT v.idVol, v.sexe, v.ethnie, v.phototype, v.typePeauVisage, v.dateNaissance, v.archive " +
+                        "FROM Volontaire v WHERE v.idVol = :idVol")
+        List<Object[]> findDemographieRow(@Param("idVol") Integer idVol);
 
         /**
          * Trouve des volontaires par phototype
@@ -160,21 +160,6 @@ public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>
          */
         List<Volontaire> findByAcne(String acne);
 
-        /**
-         * Recherche de volontaires par texte (recherche plein texte)
-         * Recherche dans: ID, nom, prénom, nom+prénom, email, téléphones
-         */
-        @Query(value = "SELECT * FROM volontaire v WHERE " +
-                        "CAST(v.id_vol AS CHAR) LIKE CONCAT('%', :searchText, '%') OR " +
-                        "LOWER(v.nom_vol) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-                        "LOWER(v.prenom_vol) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-                        "LOWER(CONCAT(v.nom_vol, ' ', v.prenom_vol)) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-                        "LOWER(CONCAT(v.prenom_vol, ' ', v.nom_vol)) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-                        "LOWER(v.email_vol) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-                        "CAST(v.tel_domicile_vol AS CHAR) LIKE CONCAT('%', :searchText, '%') OR " +
-                        "CAST(v.tel_portable_vol AS CHAR) LIKE CONCAT('%', :searchText, '%')", nativeQuery = true)
-        List<Volontaire> searchVolontaires(@Param("searchText") String searchText);
-
         /**
          * Compte le nombre de volontaires non archivés
          */
@@ -190,32 +175,6 @@ public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>
 
         List<Volontaire> findByDateIOrderByIdVolDesc(Date dateI, Pageable pageable);
 
-        /**
-         * Recherche tous les volontaires (archivés et non archivés)
-         * Recherche dans: ID, nom, prénom, nom+prénom, email
-         */
-        @Query("SELECT v FROM Volontaire v WHERE " +
-                        "(CAST(v.idVol AS string) LIKE CONCAT('%', :search, '%') " +
-                        "OR LOWER(v.nomVol) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(v.prenomVol) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(CONCAT(v.nomVol, ' ', v.prenomVol)) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(CONCAT(v.prenomVol, ' ', v.nomVol)) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(v.emailVol) LIKE LOWER(CONCAT('%', :search, '%')))")
-        Page<Volontaire> searchAll(@Param("search") String search, Pageable pageable);
-
-        /**
-         * Recherche les volontaires actifs (non archivés)
-         * Recherche dans: ID, nom, prénom, nom+prénom, email
-         */
-        @Query("SELECT v FROM Volontaire v WHERE v.archive = false AND " +
-                        "(CAST(v.idVol AS string) LIKE CONCAT('%', :search, '%') " +
-                        "OR LOWER(v.nomVol) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(v.prenomVol) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(CONCAT(v.nomVol, ' ', v.prenomVol)) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(CONCAT(v.prenomVol, ' ', v.nomVol)) LIKE LOWER(CONCAT('%', :search, '%')) " +
-                        "OR LOWER(v.emailVol) LIKE LOWER(CONCAT('%', :search, '%')))")
-        Page<Volontaire> searchActive(@Param("search") String search, Pageable pageable);
-
         List<Volontaire> findAllByIdVolIn(java.util.List<Integer> ids);
 
         /**
@@ -301,46 +260,6 @@ public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>
                                                 }));
         }
 
-        /**
-         * Compte les volontaires actifs par tranche d'âge
-         */
-        @Query(value = "SELECT " +
-                        "CASE " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 18 THEN 'Moins de 18 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 30 THEN '18-29 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 40 THEN '30-39 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 50 THEN '40-49 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 60 THEN '50-59 ans' " +
-                        "  ELSE '60 ans et plus' " +
-                        "END as trancheAge, " +
-                        "COUNT(*) as nombre " +
-                        "FROM volontaire " +
-                        "WHERE ARCHIVE = false AND DATE_NAISSANCE IS NOT NULL " +
-                        "GROUP BY " +
-                        "CASE " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 18 THEN 'Moins de 18 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 30 THEN '18-29 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 40 THEN '30-39 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 50 THEN '40-49 ans' " +
-                        "  WHEN DATEDIFF(CURDATE(), DATE_NAISSANCE) / 365 < 60 THEN '50-59 ans' " +
-                        "  ELSE '60 ans et plus' " +
-                        "END", nativeQuery = true)
-        List<Object[]> countVolontairesActifsByTrancheAgeRaw();
-
-        /**
-         * Méthode wrapper pour les statistiques par tranche d'âge
-         */
-        default Map<String, Integer> countVolontairesActifsByTrancheAge() {
-                List<Object[]> results = countVolontairesActifsByTrancheAgeRaw();
-
-                return results.stream()
-                                .collect(Collectors.toMap(
-                                                row -> (String) row[0],
-                                                row -> ((Long) row[1]).intValue(),
-                                                (existing, replacement) -> existing,
-                                                HashMap::new));
-        }
-
         /**
          * Trouve les volontaires les plus actifs dans une période (basé sur le nombre
          * de RDV)
@@ -376,50 +295,6 @@ public interface VolontaireRepository extends JpaRepository<Volontaire, Integer>
                                 .collect(Collectors.toList());
         }
 
-        /**
-         * Compte les volontaires par sexe (actifs uniquement)
-         */
-        @Query("SELECT v.sexe, COUNT(v) FROM Volontaire v " +
-                        "WHERE v.archive = false AND v.sexe IS NOT NULL " +
-                        "GROUP BY v.sexe")
-        List<Object[]> countVolontairesActifsBySexeRaw();
-
-        /**
-         * Méthode wrapper pour les statistiques par sexe
-         */
-        default Map<String, Integer> countVolontairesActifsBySexe() {
-                List<Object[]> results = countVolontairesActifsBySexeRaw();
-
-                return results.stream()
-                                .collect(Collectors.toMap(
-                                                row -> (String) row[0],
-                                                row -> ((Long) row[1]).intValue(),
-                                                (existing, replacement) -> existing,
-                                                HashMap::new));
-        }
-
-        /**
-         * Compte les volontaires par type de peau (actifs uniquement)
-         */
-        @Query("SELECT v.typePeauVisage, COUNT(v) FROM Volontaire v " +
-                        "WHERE v.archive = false AND v.typePeauVisage IS NOT NULL " +
-                        "GROUP BY v.typePeauVisage")
-        List<Object[]> countVolontairesActifsByTypePeauRaw();
-
-        /**
-         * Méthode wrapper pour les statistiques par type de peau
-         */
-        default Map<String, Integer> countVolontairesActifsByTypePeau() {
-                List<Object[]> results = countVolontairesActifsByTypePeauRaw();
-
-                return results.stream()
-                                .collect(Collectors.toMap(
-                                                row -> (String) row[0],
-                                                row -> ((Long) row[1]).intValue(),
-                                                (existing, replacement) -> existing,
-                                                HashMap::new));
-        }
-
         /**
          * Trouve les volontaires disponibles (sans RDV) pour une période donnée
          */
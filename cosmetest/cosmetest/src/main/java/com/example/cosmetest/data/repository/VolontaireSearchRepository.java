@@ -0,0 +1,33 @@
+package com.example.cosmetest.data.repository;
+
+import jakarta.persistence.Tuple;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Recherche de volontaires par critères combinés, évaluée entièrement en SQL.
+ */
+public interface VolontaireSearchRepository {
+
+    /**
+     * Colonnes projetées par {@link #searchSummaries} ; chaque élément du
+     * tuple porte le nom de l'attribut comme alias.
+     */
+    List<String> SUMMARY_COLUMNS = List.of(
+            "idVol", "titreVol", "nomVol", "prenomVol", "adresseVol", "cpVol", "villeVol",
+            "telDomicileVol", "telPortableVol", "emailVol", "sexe", "dateNaissance", "archive",
+            "standby", "dateFinStandby", "commentairesVol", "ethnie", "sousEthnie", "phototype",
+            "typePeauVisage", "poids", "taille", "dateI", "dateModif", "santeCompatible", "observations");
+
+    /**
+     * Page de volontaires correspondant aux critères, limitée aux
+     * {@link #SUMMARY_COLUMNS}. Sans tri demandé, les résultats sont triés par
+     * identifiant. Le comptage n'est exécuté que si la page est pleine.
+     *
+     * @throws IllegalArgumentException si le tri porte sur une propriété hors
+     *         de {@link #SUMMARY_COLUMNS}
+     */
+    Page<Tuple> searchSummaries(VolontaireCriteria criteria, Pageable pageable);
+}
@@ -0,0 +1,78 @@
+package com.example.cosmetest.data.repository;
+
+import com.example.cosmetest.domain.model.Volontaire;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+/**
+ * Implémentation Criteria API de {@link VolontaireSearchRepository},
+ * rattachée à {@link VolontaireRepository} par Spring Data.
+ */
+class VolontaireSearchRepositoryImpl implements VolontaireSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Tuple> searchSummaries(VolontaireCriteria criteria, Pageable pageable) {
+        VolontaireCriteria where = criteria != null ? criteria : VolontaireCriteria.create();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Volontaire> root = select.from(Volontaire.class);
+        select.multiselect(SUMMARY_COLUMNS.stream()
+                        .<Selection<?>>map(column -> root.get(column).alias(column))
+                        .toList())
+                .where(where.toPredicate(cb, root))
+                .orderBy(orders(cb, root, pageable.getSortOr(Sort.by("idVol"))));
+
+        TypedQuery<Tuple> query = entityManager.createQuery(select);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(cb, where));
+    }
+
+    private long count(CriteriaBuilder cb, VolontaireCriteria criteria) {
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Volontaire> root = count.from(Volontaire.class);
+        count.select(cb.count(root)).where(criteria.toPredicate(cb, root));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    private static List<Order> orders(CriteriaBuilder cb, Root<Volontaire> root, Sort sort) {
+        return sort.stream()
+                .map(order -> order.isAscending()
+                        ? cb.asc(sortable(root, order.getProperty()))
+                        : cb.desc(sortable(root, order.getProperty())))
+                .toList();
+    }
+
+    /**
+     * Le tri vient de la requête HTTP : seules les colonnes projetées sont
+     * acceptées, jamais un chemin arbitraire de l'entité.
+     */
+    private static Path<Object> sortable(Root<Volontaire> root, String property) {
+        if (!SUMMARY_COLUMNS.contains(property)) {
+            throw new IllegalArgumentException("Champ de tri non autorisé: " + property);
+        }
+        return root.get(property);
+    }
+}
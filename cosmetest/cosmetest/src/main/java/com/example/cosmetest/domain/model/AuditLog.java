@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
     public enum Action {
-        CREATE, UPDATE, DELETE, ARCHIVE, UNARCHIVE, LOGIN, LOGOUT, PAYE, ANNULATION, ASSIGN, UNASSIGN
+        CREATE, UPDATE, DELETE, ARCHIVE, UNARCHIVE, LOGIN, LOGOUT, PAYE, ANNULATION, ASSIGN, UNASSIGN, EXPORT
     }
 
     @Id
@@ -61,4 +61,9 @@ public class AuditLog {
     public String getDetails() { return details; }
     public String getIp() { return ip; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return "AuditLog[" + createdAt + " " + utilisateur + " " + action + " " + entite + ":" + entiteId + "]";
+    }
 }
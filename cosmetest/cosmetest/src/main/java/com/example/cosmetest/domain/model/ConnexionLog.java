@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "connexion_log")
+@Table(name = "connexion_log", indexes = {
+    @Index(name = "idx_connexion_created_at", columnList = "created_at")
+})
 public class ConnexionLog {
 
     @Id
@@ -38,4 +40,9 @@ public class ConnexionLog {
     public boolean isSuccess() { return success; }
     public String getIp() { return ip; }
     public LocalDateTime getCreatedAt() { return createdAt; }
+
+    @Override
+    public String toString() {
+        return "ConnexionLog[" + createdAt + " " + login + (success ? " succès" : " échec") + "]";
+    }
 }
@@ -4,7 +4,9 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "session_history")
+@Table(name = "session_history", indexes = {
+    @Index(name = "idx_session_login_time", columnList = "login_time")
+})
 public class SessionHistory {
 
     @Id
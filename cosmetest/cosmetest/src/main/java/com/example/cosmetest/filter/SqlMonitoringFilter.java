@@ -0,0 +1,43 @@
+package com.example.cosmetest.filter;
+
+import com.example.cosmetest.data.monitoring.SqlActivite;
+import com.example.cosmetest.data.monitoring.SqlMonitoring;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Ouvre une activité SQL pour chaque requête HTTP et la publie à la fin,
+ * étiquetée par le gabarit du point d'entrée plutôt que par l'URI brute.
+ */
+public class SqlMonitoringFilter extends OncePerRequestFilter {
+
+    private final SqlMonitoring sqlMonitoring;
+
+    public SqlMonitoringFilter(SqlMonitoring sqlMonitoring) {
+        this.sqlMonitoring = sqlMonitoring;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlActivite activite = SqlActivite.ouvrir();
+        if (activite == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            activite.fermer();
+            Object gabarit = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlMonitoring.requeteTerminee(request.getMethod(), gabarit != null ? gabarit.toString() : "UNKNOWN",
+                    response.getStatus(), activite);
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.cosmetest.presentation.controller;
 
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.business.service.AuditLogService;
 import com.example.cosmetest.domain.model.AuditLog;
+import com.example.cosmetest.presentation.pagination.CursorPageBody;
+import com.example.cosmetest.presentation.pagination.PageRequestFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
@@ -27,6 +30,13 @@ public class AuditController {
         this.auditLogService = auditLogService;
     }
 
+    /**
+     * Journal d'audit filtré, le plus récent d'abord. Avec {@code cursor}
+     * (vide pour la première page), la pagination se fait par curseur, sans
+     * {@code COUNT(*)} : {@code nextCursor} donne la page suivante et
+     * {@code total=true} ajoute un total approximatif. Sans {@code cursor},
+     * pagination par numéro de page.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getLogs(
@@ -36,7 +46,9 @@ public class AuditController {
             @RequestParam(required = false) String utilisateur,
             @RequestParam(required = false) String dateDebut,
             @RequestParam(required = false) String dateFin,
-            @RequestParam(required = false) String action) {
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean total) {
 
         int safePage = Math.max(0, page);
         int safeSize = Math.min(MAX_PAGE_SIZE, Math.max(1, size));
@@ -47,20 +59,18 @@ public class AuditController {
         LocalDateTime fin = blankToNull(dateFin) == null
                 ? null : LocalDate.parse(dateFin).atTime(23, 59, 59);
         AuditLog.Action normalizedAction = parseAction(action);
+        if (cursor != null) {
+            PageCurseur<AuditLog> result = auditLogService.searchCurseur(
+                    normalizedEntity, normalizedUser, normalizedAction, debut, fin,
+                    PageRequestFactory.createCursor(cursor, safeSize, total));
+            return ResponseEntity.ok(CursorPageBody.of(
+                    result.contenu().stream().map(AuditController::toMap).toList(), result));
+        }
         Page<AuditLog> result = auditLogService.search(
                 normalizedEntity, normalizedUser, normalizedAction,
                 debut, fin, safePage, safeSize);
 
-        var logs = result.getContent().stream().map(log -> Map.<String, Object>of(
-            "id", log.getId(),
-            "utilisateur", log.getUtilisateur(),
-            "action", log.getAction().name(),
-            "entite", log.getEntite(),
-            "entiteId", log.getEntiteId() != null ? log.getEntiteId() : "",
-            "details", log.getDetails() != null ? log.getDetails() : "",
-            "ip", log.getIp() != null ? log.getIp() : "",
-            "createdAt", log.getCreatedAt().toString()
-        )).toList();
+        var logs = result.getContent().stream().map(AuditController::toMap).toList();
 
         return ResponseEntity.ok(Map.of(
             "content", logs,
@@ -71,6 +81,19 @@ public class AuditController {
         ));
     }
 
+    private static Map<String, Object> toMap(AuditLog log) {
+        return Map.of(
+            "id", log.getId(),
+            "utilisateur", log.getUtilisateur(),
+            "action", log.getAction().name(),
+            "entite", log.getEntite(),
+            "entiteId", log.getEntiteId() != null ? log.getEntiteId() : "",
+            "details", log.getDetails() != null ? log.getDetails() : "",
+            "ip", log.getIp() != null ? log.getIp() : "",
+            "createdAt", log.getCreatedAt().toString()
+        );
+    }
+
     private static String blankToNull(String value) {
         return value == null || value.isBlank() ? null : value.trim();
     }
@@ -17,6 +17,7 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 import jakarta.validation.Valid;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -68,6 +69,24 @@ public class AuthController {
         return cookie.toString();
     }
 
+    /**
+     * Jeton de la requête : en-tête Authorization (clients API) puis cookie (navigateurs web)
+     */
+    private String extractToken(HttpServletRequest request) {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if ("jwt".equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
     // === ROUTES /api/auth ===
 
     @PostMapping("/api/auth/login")
@@ -122,10 +141,16 @@ public class AuthController {
     }
 
     @PostMapping("/api/auth/logout")
-    public ResponseEntity<?> logoutUser(HttpServletResponse response, Authentication authentication) {
+    public ResponseEntity<?> logoutUser(HttpServletRequest request, HttpServletResponse response,
+                                        Authentication authentication) {
         if (authentication != null) {
             activeSessionService.unregister(authentication.getName());
         }
+        // Le jeton reste signé et valide jusqu'à son expiration : il est révoqué sur toutes les instances
+        String token = extractToken(request);
+        if (token != null) {
+            authService.invalidateToken(token);
+        }
         String cookieValue = buildCookieValue(null, 0);
         response.setHeader("Set-Cookie", cookieValue);
         return ResponseEntity.ok("Déconnexion réussie");
@@ -1,7 +1,9 @@
 package com.example.cosmetest.presentation.controller;
 
 import com.example.cosmetest.business.dto.CalendrierDTO;
+import com.example.cosmetest.business.dto.RdvSeriePointDTO;
 import com.example.cosmetest.business.service.CalendrierService;
+import com.example.cosmetest.business.service.RdvRollupService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,6 +13,9 @@ import java.time.LocalDate;
 import java.util.Map;
 import java.util.Collections;
 import java.util.List;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Contrôleur REST optimisé pour le calendrier des rendez-vous
@@ -24,9 +29,11 @@ public class CalendrierController {
     private static final Logger logger = LoggerFactory.getLogger(CalendrierController.class);
 
     private final CalendrierService calendrierService;
+    private final RdvRollupService rdvRollupService;
 
-    public CalendrierController(CalendrierService calendrierService) {
+    public CalendrierController(CalendrierService calendrierService, RdvRollupService rdvRollupService) {
         this.calendrierService = calendrierService;
+        this.rdvRollupService = rdvRollupService;
     }
 
     /**
@@ -199,30 +206,82 @@ public class CalendrierController {
         }
     }
 
+    /**
+     * Série temporelle des rendez-vous, lue dans la table pré-agrégée : adaptée
+     * aux graphiques sur plusieurs années.
+     *
+     * Exemple : {@code GET /api/calendrier/series?du=2023-01-01&au=2026-12-31&pas=mois&groupe=etat}.
+     *
+     * @param pas            jour, semaine (ISO, du lundi) ou mois
+     * @param groupe         aucun, etat, etude ou heure
+     * @param etats          états retenus, séparés par des virgules ; tous par défaut
+     * @param inclureAnnules compter aussi les rendez-vous annulés
+     */
+    @GetMapping("/series")
+    public ResponseEntity<List<RdvSeriePointDTO>> getSerie(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate du,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate au,
+            @RequestParam(defaultValue = "semaine") String pas,
+            @RequestParam(defaultValue = "aucun") String groupe,
+            @RequestParam(required = false) Integer idEtude,
+            @RequestParam(required = false) String etats,
+            @RequestParam(defaultValue = "false") boolean inclureAnnules) {
+
+        Set<String> filtreEtats = etats == null ? Set.of() : Arrays.stream(etats.split(","))
+                .map(String::trim).filter(e -> !e.isEmpty()).collect(Collectors.toSet());
+        return ResponseEntity.ok(rdvRollupService.serie(du, au, RdvRollupService.Pas.depuis(pas),
+                RdvRollupService.Groupe.depuis(groupe), idEtude, filtreEtats, inclureAnnules));
+    }
+
     /**
      * Récupère les créneaux libres pour une période donnée
+     *
+     * Sans durée, un créneau correspond à une tranche de planning ; avec une
+     * durée, chaque heure retournée permet une visite complète.
      */
     @GetMapping("/creneaux-libres")
     public ResponseEntity<Map<String, Object>> getCreneauxLibres(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
             @RequestParam(defaultValue = "08:00") String heureDebut,
-            @RequestParam(defaultValue = "18:00") String heureFin) {
+            @RequestParam(defaultValue = "18:00") String heureFin,
+            @RequestParam(required = false) Integer duree,
+            @RequestParam(required = false) Integer capacite) {
 
         logger.debug("Recherche de créneaux libres du {} au {} entre {}h et {}h",
                 dateDebut, dateFin, heureDebut, heureFin);
 
         try {
             Map<String, Object> creneauxLibres = calendrierService.getCreneauxLibres(
-                    dateDebut, dateFin, heureDebut, heureFin);
+                    dateDebut, dateFin, heureDebut, heureFin, duree, capacite);
             return ResponseEntity.ok(creneauxLibres);
 
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Erreur lors de la recherche de créneaux libres", e);
             return ResponseEntity.status(500).build();
         }
     }
 
+    /**
+     * Récupère les premiers créneaux où une visite de la durée demandée peut
+     * être planifiée, jour après jour sur la période
+     */
+    @GetMapping("/creneaux-libres/premiers")
+    public ResponseEntity<Map<String, Object>> getPremiersCreneauxLibres(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @RequestParam(defaultValue = "08:00") String heureDebut,
+            @RequestParam(defaultValue = "18:00") String heureFin,
+            @RequestParam int duree,
+            @RequestParam(defaultValue = "10") int nombre,
+            @RequestParam(required = false) Integer capacite) {
+
+        return ResponseEntity.ok(calendrierService.getPremiersCreneauxLibres(
+                dateDebut, dateFin, heureDebut, heureFin, duree, Math.min(nombre, 200), capacite));
+    }
+
     /**
      * Pré-charge les données pour améliorer les performances du cache
      */
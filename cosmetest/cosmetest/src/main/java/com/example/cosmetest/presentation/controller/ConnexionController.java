@@ -1,18 +1,26 @@
 package com.example.cosmetest.presentation.controller;
 
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.business.service.ActiveSessionService;
 import com.example.cosmetest.business.service.ConnexionLogService;
 import com.example.cosmetest.data.repository.SessionHistoryRepository;
 import com.example.cosmetest.domain.model.ConnexionLog;
 import com.example.cosmetest.domain.model.SessionHistory;
+import com.example.cosmetest.presentation.pagination.CursorPageBody;
+import com.example.cosmetest.presentation.pagination.PageRequestFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 
 import java.util.List;
 import java.util.Map;
@@ -42,10 +50,21 @@ public class ConnexionController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
             @RequestParam(required = false) String dateDebut,
-            @RequestParam(required = false) String dateFin) {
+            @RequestParam(required = false) String dateFin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean total) {
 
         int safePage = Math.max(0, page);
         int safeSize = Math.min(MAX_PAGE_SIZE, Math.max(1, size));
+        if (cursor != null) {
+            // Par curseur, chaque borne de date est facultative
+            PageCurseur<ConnexionLog> result = connexionLogService.findCurseur(
+                    dateDebut != null && !dateDebut.isBlank() ? LocalDate.parse(dateDebut).atStartOfDay() : null,
+                    dateFin != null && !dateFin.isBlank() ? LocalDate.parse(dateFin).atTime(23, 59, 59) : null,
+                    PageRequestFactory.createCursor(cursor, safeSize, total));
+            return ResponseEntity.ok(CursorPageBody.of(
+                    result.contenu().stream().map(ConnexionController::connexionToMap).toList(), result));
+        }
         Page<ConnexionLog> result;
         if (dateDebut != null && !dateDebut.isBlank() && dateFin != null && !dateFin.isBlank()) {
             java.time.LocalDateTime debut = java.time.LocalDate.parse(dateDebut).atStartOfDay();
@@ -55,13 +74,7 @@ public class ConnexionController {
             result = connexionLogService.findAll(safePage, safeSize);
         }
 
-        var logs = result.getContent().stream().map(log -> Map.<String, Object>of(
-            "id", log.getId(),
-            "login", log.getLogin(),
-            "success", log.isSuccess(),
-            "ip", log.getIp() != null ? log.getIp() : "",
-            "createdAt", log.getCreatedAt().toString()
-        )).collect(Collectors.toList());
+        var logs = result.getContent().stream().map(ConnexionController::connexionToMap).collect(Collectors.toList());
 
         return ResponseEntity.ok(Map.of(
             "content", logs,
@@ -94,25 +107,22 @@ public class ConnexionController {
     public ResponseEntity<Map<String, Object>> getSessionHistory(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "50") int size,
-            @RequestParam(required = false) String login) {
+            @RequestParam(required = false) String login,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean total) {
 
         int safePage = Math.max(0, page);
         int safeSize = Math.min(MAX_PAGE_SIZE, Math.max(1, size));
+        if (cursor != null) {
+            return ResponseEntity.ok(sessionHistoryCurseur(login != null && !login.isBlank() ? login.trim() : null,
+                    PageRequestFactory.createCursor(cursor, safeSize, total)));
+        }
         PageRequest pageable = PageRequest.of(safePage, safeSize);
         Page<SessionHistory> result = (login != null && !login.isBlank())
                 ? sessionHistoryRepository.findByLoginContainingIgnoreCaseOrderByLoginTimeDesc(login, pageable)
                 : sessionHistoryRepository.findAllByOrderByLoginTimeDesc(pageable);
 
-        var entries = result.getContent().stream().map(s -> {
-            Map<String, Object> m = new java.util.HashMap<>();
-            m.put("id", s.getId());
-            m.put("login", s.getLogin());
-            m.put("loginTime", s.getLoginTime().toString());
-            m.put("logoutTime", s.getLogoutTime() != null ? s.getLogoutTime().toString() : null);
-            m.put("durationSeconds", s.getDurationSeconds());
-            m.put("reason", s.getReason());
-            return m;
-        }).collect(Collectors.toList());
+        var entries = result.getContent().stream().map(ConnexionController::sessionToMap).collect(Collectors.toList());
 
         return ResponseEntity.ok(Map.of(
             "content", entries,
@@ -132,4 +142,39 @@ public class ConnexionController {
         int deleted = sessionHistoryRepository.deleteByLogoutTimeBefore(cutoff);
         return ResponseEntity.ok(Map.of("deleted", deleted, "before", before));
     }
+
+    /**
+     * Historique des sessions par curseur {@code (loginTime, id)}, sans {@code COUNT(*)}.
+     */
+    private Map<String, Object> sessionHistoryCurseur(String login, DemandeCurseur demande) {
+        Instant apres = demande.apres() != null ? demande.apres().cle().toInstant(ZoneOffset.UTC) : null;
+        String motif = SessionHistoryRepository.motifLike(login);
+        List<SessionHistory> lignes = sessionHistoryRepository.findApres(motif, apres, demande.apresId(),
+                demande.limite());
+        PageCurseur<SessionHistory> result = PageCurseur.de(lignes, demande,
+                s -> new Curseur(LocalDateTime.ofInstant(s.getLoginTime(), ZoneOffset.UTC), s.getId()),
+                plafond -> sessionHistoryRepository.countJusqua(motif, plafond));
+        return CursorPageBody.of(result.contenu().stream().map(ConnexionController::sessionToMap).toList(), result);
+    }
+
+    private static Map<String, Object> connexionToMap(ConnexionLog log) {
+        return Map.of(
+            "id", log.getId(),
+            "login", log.getLogin(),
+            "success", log.isSuccess(),
+            "ip", log.getIp() != null ? log.getIp() : "",
+            "createdAt", log.getCreatedAt().toString()
+        );
+    }
+
+    private static Map<String, Object> sessionToMap(SessionHistory s) {
+        Map<String, Object> m = new java.util.HashMap<>();
+        m.put("id", s.getId());
+        m.put("login", s.getLogin());
+        m.put("loginTime", s.getLoginTime().toString());
+        m.put("logoutTime", s.getLogoutTime() != null ? s.getLogoutTime().toString() : null);
+        m.put("durationSeconds", s.getDurationSeconds());
+        m.put("reason", s.getReason());
+        return m;
+    }
 }
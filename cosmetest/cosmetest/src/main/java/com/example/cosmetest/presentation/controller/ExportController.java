@@ -0,0 +1,126 @@
+package com.example.cosmetest.presentation.controller;
+
+import com.example.cosmetest.business.service.AuditLogService;
+import com.example.cosmetest.business.service.ExportService;
+import com.example.cosmetest.config.ExportConfig;
+import com.example.cosmetest.domain.model.AuditLog;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports en flux (NDJSON ou CSV) des volontaires, rendez-vous, paiements et
+ * annulations, à utiliser à la place des listes complètes non paginées.
+ *
+ * Exemple : {@code GET /api/v1/exports/rdvs?format=csv&columns=idEtude,idVolontaire,date&idEtude=12}.
+ * Tout paramètre autre que {@code format} et {@code columns} est un filtre.
+ *
+ * L'écriture tourne sur l'exécuteur réservé aux exports, avec son propre
+ * délai ({@code export.timeout}) ; chaque export est journalisé dans l'audit.
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private final ExportService exportService;
+    private final AuditLogService auditLogService;
+    private final AsyncTaskExecutor exportExecutor;
+    private final Duration delai;
+
+    public ExportController(ExportService exportService, AuditLogService auditLogService,
+                            @Qualifier(ExportConfig.EXPORT) AsyncTaskExecutor exportExecutor,
+                            @Value("${export.timeout:PT15M}") Duration delai) {
+        this.exportService = exportService;
+        this.auditLogService = auditLogService;
+        this.exportExecutor = exportExecutor;
+        this.delai = delai;
+    }
+
+    /**
+     * Colonnes et filtres acceptés par un export.
+     */
+    @GetMapping("/{jeu}/colonnes")
+    public ResponseEntity<Map<String, List<String>>> getColonnes(@PathVariable String jeu) {
+        ExportService.Jeu j = ExportService.Jeu.depuis(jeu);
+        return ResponseEntity.ok(Map.of(
+                "colonnes", exportService.colonnesDisponibles(j),
+                "filtres", exportService.filtresDisponibles(j)));
+    }
+
+    /**
+     * Exporte un jeu de données. Colonnes et filtres sont validés avant
+     * l'envoi de la première ligne : une erreur donne un 400, pas un fichier
+     * tronqué. Quand les exports simultanés sont au maximum, la réponse est
+     * un 503.
+     *
+     * @param jeu     volontaires, rdvs, paiements ou annulations
+     * @param format  ndjson (par défaut) ou csv
+     * @param columns colonnes séparées par des virgules ; toutes par défaut
+     */
+    @GetMapping("/{jeu}")
+    public WebAsyncTask<Void> exporter(@PathVariable String jeu,
+                                       @RequestParam(defaultValue = "ndjson") String format,
+                                       @RequestParam(required = false) String columns,
+                                       @RequestParam Map<String, String> params,
+                                       HttpServletRequest request,
+                                       HttpServletResponse response) {
+        Map<String, String> filtres = new HashMap<>(params);
+        filtres.remove("format");
+        filtres.remove("columns");
+        List<String> colonnes = columns == null || columns.isBlank() ? List.of()
+                : Arrays.stream(columns.split(",")).map(String::trim).filter(c -> !c.isEmpty()).toList();
+
+        ExportService.Jeu j = ExportService.Jeu.depuis(jeu);
+        ExportService.Export export;
+        try {
+            export = exportService.preparer(j, ExportService.Format.depuis(format), colonnes, filtres);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+
+        String user = SecurityContextHolder.getContext().getAuthentication().getName();
+        logger.info("Export {} demandé par {} (filtres: {})", j.nom(), user, filtres);
+        auditLogService.log(user, AuditLog.Action.EXPORT, "EXPORT", j.nom(),
+                "format=" + format + " colonnes=" + (colonnes.isEmpty() ? "toutes" : colonnes) + " filtres=" + filtres,
+                request.getRemoteAddr());
+
+        response.setContentType(export.contentType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(export.nomFichier()).build().toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        // Pas de Content-Length : la réponse part en transfert par morceaux
+        WebAsyncTask<Void> tache = new WebAsyncTask<>(delai.toMillis(), exportExecutor, () -> {
+            export.ecrire(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+        // Délai dépassé ou exécution refusée : la place réservée est rendue
+        tache.onCompletion(export::close);
+        return tache;
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.cosmetest.presentation.controller;
 
+import com.example.cosmetest.business.dto.PaginatedResponse;
 import com.example.cosmetest.business.dto.PanelDTO;
+import com.example.cosmetest.business.dto.PanelMatchDTO;
+import com.example.cosmetest.business.service.PanelMatchingService;
 import com.example.cosmetest.business.service.PanelService;
+import com.example.cosmetest.presentation.pagination.PageRequestFactory;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,6 +14,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Contrôleur REST pour la gestion des panels
@@ -18,9 +24,11 @@ import java.util.List;
 public class PanelController {
 
     private final PanelService panelService;
+    private final PanelMatchingService panelMatchingService;
 
-    public PanelController(PanelService panelService) {
+    public PanelController(PanelService panelService, PanelMatchingService panelMatchingService) {
         this.panelService = panelService;
+        this.panelMatchingService = panelMatchingService;
     }
 
     /**
@@ -47,6 +55,34 @@ public class PanelController {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Panel non trouvé avec l'ID: " + id));
     }
 
+    /**
+     * Volontaires correspondant aux critères d'un panel, classés par score
+     *
+     * @param id l'identifiant du panel
+     * @param habitudes critères d'habitudes de consommation (champ VolontaireHc → valeur attendue), optionnels
+     * @param includeArchived inclure les volontaires archivés
+     * @param tolerance nombre de critères non respectés admis
+     * @return la page de volontaires avec le détail des critères
+     */
+    @PostMapping("/{id}/matching")
+    public ResponseEntity<PaginatedResponse<PanelMatchDTO>> matchVolontaires(
+            @PathVariable Integer id,
+            @RequestBody(required = false) Map<String, String> habitudes,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "0") int tolerance) {
+        Page<PanelMatchDTO> matches = panelMatchingService
+                .matchVolontaires(id, habitudes, includeArchived, tolerance, PageRequestFactory.create(page, size))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Panel non trouvé avec l'ID: " + id));
+        return ResponseEntity.ok(new PaginatedResponse<>(
+                matches.getContent(),
+                matches.getNumber(),
+                matches.getSize(),
+                matches.getTotalElements(),
+                matches.getTotalPages()));
+    }
+
     /**
      * Récupère les panels d'une étude spécifique
      *
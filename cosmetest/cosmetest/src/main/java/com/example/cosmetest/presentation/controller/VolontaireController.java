@@ -3,31 +3,46 @@ package com.example.cosmetest.presentation.controller;
 import com.example.cosmetest.business.dto.VolontaireDTO;
 import com.example.cosmetest.business.dto.VolontaireDetailDTO;
 import com.example.cosmetest.business.dto.VolontaireNotificationDTO;
+import com.example.cosmetest.business.dto.VolontaireSearchCriteriaDTO;
+import com.example.cosmetest.business.dto.VolontaireSuggestionDTO;
 import com.example.cosmetest.business.service.AuditLogService;
 import com.example.cosmetest.business.service.PhotoProxyService;
+import com.example.cosmetest.business.service.PhotoThumbnailService;
 import com.example.cosmetest.business.service.VolontaireService;
 import com.example.cosmetest.domain.model.AuditLog;
 import com.example.cosmetest.domain.model.Volontaire;
+import com.example.cosmetest.presentation.pagination.PageRequestFactory;
 import com.example.cosmetest.utils.ReflectionUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.web.bind.annotation.*;
 
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.http.CacheControl;
@@ -47,12 +62,20 @@ public class VolontaireController {
     private final VolontaireService volontaireService;
     private final AuditLogService auditLogService;
     private final PhotoProxyService photoProxyService;
+    private final PhotoThumbnailService photoThumbnailService;
+
+    /** Les miniatures portent un ETag : passé ce délai, le navigateur revalide (304). */
+    private static final Duration THUMBNAIL_BROWSER_MAX_AGE = Duration.ofHours(1);
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final Set<String> CRITERIA_SORT_PROPERTIES = Set.of(
+            "idVol", "nomVol", "prenomVol", "sexe", "dateNaissance", "phototype", "dateI", "dateModif");
 
     public VolontaireController(VolontaireService volontaireService, AuditLogService auditLogService,
-                                PhotoProxyService photoProxyService) {
+                                PhotoProxyService photoProxyService, PhotoThumbnailService photoThumbnailService) {
         this.volontaireService = volontaireService;
         this.auditLogService = auditLogService;
         this.photoProxyService = photoProxyService;
+        this.photoThumbnailService = photoThumbnailService;
     }
 
     /**
@@ -119,6 +142,9 @@ public class VolontaireController {
     /**
      * Récupère tous les volontaires sans pagination pour le matching
      *
+     * Conservé pour les écrans existants ; le matching se fait désormais côté
+     * serveur via {@code POST /api/panels/{id}/matching}.
+     *
      * @return liste complète des volontaires
      */
     @GetMapping("/allstats")
@@ -143,6 +169,40 @@ public class VolontaireController {
         return ResponseEntity.ok(volontaires);
     }
 
+    /**
+     * Répartitions des volontaires par sexe, ethnie, phototype, type de peau
+     * et tranche d'âge, archivés compris
+     */
+    @GetMapping("/statistiques")
+    public ResponseEntity<Map<String, Object>> getStatistiques() {
+        return ResponseEntity.ok(volontaireService.getVolontairesStatistics());
+    }
+
+    /**
+     * Croisement des statistiques démographiques, ex.
+     * {@code /statistiques/croisement?dimensions=phototype,trancheAge,sexe&statut=actif}.
+     * Tout paramètre autre que {@code dimensions} filtre la dimension du même
+     * nom ; plusieurs valeurs séparées par des virgules sont acceptées.
+     *
+     * @param dimensions dimensions du regroupement séparées par des virgules
+     * @return total filtré et nombre de volontaires par combinaison
+     */
+    @GetMapping("/statistiques/croisement")
+    public ResponseEntity<Map<String, Object>> croiserStatistiques(
+            @RequestParam(required = false) String dimensions,
+            @RequestParam Map<String, String> params) {
+        Map<String, Set<String>> filtres = new HashMap<>();
+        params.forEach((dimension, valeurs) -> {
+            if (!"dimensions".equals(dimension)) {
+                filtres.put(dimension, Arrays.stream(valeurs.split(","))
+                        .map(String::trim).filter(v -> !v.isEmpty()).collect(Collectors.toSet()));
+            }
+        });
+        List<String> axes = dimensions == null || dimensions.isBlank() ? List.of()
+                : Arrays.stream(dimensions.split(",")).map(String::trim).filter(d -> !d.isEmpty()).toList();
+        return ResponseEntity.ok(volontaireService.croiserStatistiques(axes, filtres));
+    }
+
     /**
      * Récupère tous les volontaires actifs (non archivés)
      *
@@ -544,7 +604,7 @@ public class VolontaireController {
     }
 
     /**
-     * Recherche les volontaires par mot-clé utilisant l'index fulltext
+     * Recherche les volontaires par mot-clé utilisant l'index de recherche en mémoire
      * Recherche dans nom, prénom, téléphones, email ET par ID
      *
      * @param keyword mot-clé de recherche (peut être un ID, nom, prénom, etc.)
@@ -604,6 +664,54 @@ public class VolontaireController {
         }
     }
 
+    /**
+     * Recherche multicritère (sexe, âge, ethnie, phototype, type de peau,
+     * date d'inscription) évaluée en SQL, paginée et triée
+     *
+     * @param sortBy    champ de tri, parmi {@link #CRITERIA_SORT_PROPERTIES}
+     * @param direction ASC ou DESC
+     * @return page de volontaires correspondant à tous les critères renseignés
+     */
+    @GetMapping("/search/criteres")
+    public ResponseEntity<Page<VolontaireDTO>> searchByCriteria(
+            @RequestParam(required = false) String sexe,
+            @RequestParam(required = false) Integer ageMin,
+            @RequestParam(required = false) Integer ageMax,
+            @RequestParam(required = false) String ethnie,
+            @RequestParam(required = false) String phototype,
+            @RequestParam(required = false) String typePeau,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate dateInscriptionFrom,
+            @RequestParam(required = false) @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate dateInscriptionTo,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "idVol") String sortBy,
+            @RequestParam(defaultValue = "ASC") String direction) {
+
+        Pageable pageable = PageRequestFactory.create(page, size, sortBy, direction, CRITERIA_SORT_PROPERTIES);
+        VolontaireSearchCriteriaDTO criteria = new VolontaireSearchCriteriaDTO(sexe, ageMin, ageMax, ethnie,
+                phototype, typePeau, dateInscriptionFrom, dateInscriptionTo, includeArchived);
+        return ResponseEntity.ok(volontaireService.searchVolontairesByCriteria(criteria, pageable));
+    }
+
+    /**
+     * Autocomplétion de la barre de recherche : répond depuis l'index en
+     * mémoire, sans requête sur la table volontaire
+     *
+     * @param q               texte saisi
+     * @param limit           nombre maximal de suggestions (50 au plus)
+     * @param includeArchived inclure les volontaires archivés
+     * @return les suggestions classées par pertinence
+     */
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<VolontaireSuggestionDTO>> suggestVolontaires(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "true") boolean includeArchived) {
+        int limite = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(volontaireService.suggestVolontaires(q, includeArchived, limite));
+    }
+
     /**
      * Recherche un volontaire par son adresse email
      *
@@ -657,6 +765,11 @@ public class VolontaireController {
             }
 
             return ResponseEntity.ok(photoInfo);
+        } catch (PhotoProxyService.PhotoServerUnavailableException e) {
+            logger.warn("Serveur photo indisponible pour le volontaire {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("message", "Serveur photo momentanément indisponible"));
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération de la photo: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -702,6 +815,11 @@ public class VolontaireController {
                         logger.warn("Volontaire non trouvé avec l'ID: {}", id);
                         return ResponseEntity.notFound().build();
                     });
+        } catch (PhotoProxyService.PhotoServerUnavailableException e) {
+            logger.warn("Serveur photo indisponible pour le volontaire {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .body(Map.of("message", "Serveur photo momentanément indisponible"));
         } catch (Exception e) {
             logger.error("Erreur lors de la récupération des photos: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -710,30 +828,123 @@ public class VolontaireController {
     }
 
     /**
-     * Récupère directement l'image d'une photo d'un volontaire
+     * Récupère directement l'image d'une photo d'un volontaire.
+     * L'image est relayée en flux depuis le serveur photo, sans être chargée
+     * en mémoire ; une plage d'octets (en-tête Range) peut être demandée.
      *
-     * @param id   l'identifiant du volontaire
-     * @param type le type de photo (face, droite, gauche, etc.)
-     * @return l'image de la photo ou une réponse 404 si elle n'existe pas
+     * @param id    l'identifiant du volontaire
+     * @param type  le type de photo (face, droite, gauche, etc.)
+     * @param range      en-tête Range facultatif (une seule plage)
+     * @param webRequest requête courante, pour fermer le flux amont quelle que soit l'issue de l'envoi
+     * @return l'image de la photo (200 ou 206) ou une réponse 404 si elle n'existe pas
      */
     @GetMapping("/{id}/photos/{type}/image")
-    public ResponseEntity<byte[]> getVolontairePhotoImage(@PathVariable Integer id, @PathVariable String type) {
-        return proxyPhoto(id, type, "image");
+    public ResponseEntity<StreamingResponseBody> getVolontairePhotoImage(
+            @PathVariable Integer id, @PathVariable String type,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            NativeWebRequest webRequest) {
+        return proxyPhoto(id, type, "image",
+                name -> streamPhoto(photoProxyService.openStream(name, range), webRequest));
     }
 
     /**
      * Récupère directement la miniature d'une photo d'un volontaire
      *
-     * @param id   l'identifiant du volontaire
-     * @param type le type de photo (face, droite, gauche, etc.)
-     * @return la miniature de la photo ou une réponse 404 si elle n'existe pas
+     * @param id         l'identifiant du volontaire
+     * @param type       le type de photo (face, droite, gauche, etc.)
+     * @param size       plus grand côté souhaité en pixels (ramené à une taille configurée)
+     * @param webRequest requête courante, pour la validation If-None-Match / If-Modified-Since
+     * @return la miniature JPEG, 304 si le navigateur l'a déjà, ou 404 si la photo n'existe pas
      */
     @GetMapping("/{id}/photos/{type}/thumbnail")
-    public ResponseEntity<byte[]> getVolontairePhotoThumbnail(@PathVariable Integer id, @PathVariable String type) {
-        return proxyPhoto(id, type, "miniature");
+    public ResponseEntity<byte[]> getVolontairePhotoThumbnail(@PathVariable Integer id, @PathVariable String type,
+                                                              @RequestParam(required = false) Integer size,
+                                                              WebRequest webRequest) {
+        return proxyPhoto(id, type, "miniature", name -> thumbnail(name, size, webRequest));
+    }
+
+    private ResponseEntity<byte[]> thumbnail(String name, Integer size, WebRequest webRequest) {
+        int pixels = photoThumbnailService.resolveSize(size);
+        // Un HEAD suffit à savoir si la miniature sur disque correspond encore à l'original
+        String version = photoProxyService.version(name).orElse(null);
+        Optional<PhotoThumbnailService.Thumbnail> cached = version == null
+                ? Optional.empty() : photoThumbnailService.findCached(name, version, pixels);
+        PhotoThumbnailService.Thumbnail thumbnail;
+        if (cached.isPresent()) {
+            thumbnail = cached.get();
+        } else {
+            PhotoProxyService.PhotoPayload payload = photoProxyService.fetch(name);
+            Optional<PhotoThumbnailService.Thumbnail> rendered =
+                    photoThumbnailService.render(name, version, pixels, payload);
+            if (rendered.isEmpty()) {
+                // Document non décodable (PDF...) : on sert l'original
+                return originalPhoto(payload);
+            }
+            thumbnail = rendered.get();
+        }
+
+        if (webRequest != null
+                && webRequest.checkNotModified(thumbnail.etag(), thumbnail.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(thumbnail.etag()).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(thumbnail.contentType())
+                .eTag(thumbnail.etag())
+                .lastModified(thumbnail.lastModified())
+                .cacheControl(CacheControl.maxAge(THUMBNAIL_BROWSER_MAX_AGE).cachePrivate())
+                .body(thumbnail.bytes());
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamPhoto(PhotoProxyService.PhotoStream stream,
+                                                              NativeWebRequest webRequest) {
+        if (webRequest != null) {
+            // Le corps n'est écrit que si l'envoi asynchrone démarre et aboutit : client parti,
+            // délai dépassé ou exécution refusée doivent aussi rendre la connexion amont
+            WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(stream,
+                    new CallableProcessingInterceptor() {
+                        @Override
+                        public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                            closeQuietly(stream);
+                        }
+                    });
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(stream.contentType());
+        headers.setCacheControl(CacheControl.noCache().mustRevalidate());
+        headers.setPragma("no-cache");
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (stream.contentLength() >= 0) {
+            headers.setContentLength(stream.contentLength());
+        }
+        if (stream.contentRange() != null) {
+            headers.set(HttpHeaders.CONTENT_RANGE, stream.contentRange());
+        }
+        StreamingResponseBody body = output -> {
+            try (stream) {
+                stream.transferTo(output);
+            }
+        };
+        return new ResponseEntity<>(body, headers, stream.partial() ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK);
     }
 
-    private ResponseEntity<byte[]> proxyPhoto(Integer id, String type, String label) {
+    private static void closeQuietly(PhotoProxyService.PhotoStream stream) {
+        try {
+            stream.close();
+        } catch (IOException e) {
+            logger.debug("Fermeture du flux photo: {}", e.getMessage());
+        }
+    }
+
+    private ResponseEntity<byte[]> originalPhoto(PhotoProxyService.PhotoPayload payload) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(payload.contentType());
+        headers.setCacheControl(CacheControl.noCache().mustRevalidate());
+        headers.setPragma("no-cache");
+        return new ResponseEntity<>(payload.bytes(), headers, HttpStatus.OK);
+    }
+
+    private <T> ResponseEntity<T> proxyPhoto(Integer id, String type, String label,
+                                             Function<String, ResponseEntity<T>> responder) {
         if (id == null) {
             return ResponseEntity.badRequest().build();
         }
@@ -746,20 +957,26 @@ public class VolontaireController {
             if (!(fileName instanceof String name)) {
                 return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
             }
-            PhotoProxyService.PhotoPayload payload = photoProxyService.fetch(name);
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(payload.contentType());
-            headers.setCacheControl(CacheControl.noCache().mustRevalidate());
-            headers.setPragma("no-cache");
-            return new ResponseEntity<>(payload.bytes(), headers, HttpStatus.OK);
+            return responder.apply(name);
         } catch (PhotoProxyService.InvalidPhotoPathException e) {
             logger.warn("Chemin de {} photo rejeté pour le volontaire {}", label, id);
             return ResponseEntity.badRequest().build();
         } catch (PhotoProxyService.PhotoNotFoundException e) {
             return ResponseEntity.notFound().build();
+        } catch (PhotoProxyService.PhotoRangeNotSatisfiableException e) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            if (e.getContentRange() != null) {
+                builder.header(HttpHeaders.CONTENT_RANGE, e.getContentRange());
+            }
+            return builder.build();
         } catch (PhotoProxyService.PhotoTimeoutException e) {
             logger.warn("Timeout du serveur photo pour le volontaire {}", id);
             return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        } catch (PhotoProxyService.PhotoServerUnavailableException e) {
+            logger.warn("Serveur photo indisponible pour le volontaire {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
         } catch (PhotoProxyService.PhotoTooLargeException | PhotoProxyService.PhotoUpstreamException e) {
             logger.warn("Réponse invalide du serveur photo pour le volontaire {}: {}", id, e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
@@ -242,6 +242,16 @@ public class VolontaireHcController {
         return ResponseEntity.ok(lieuxAchatPreferences);
     }
 
+    /**
+     * Obtient la répartition des valeurs de tous les produits
+     *
+     * @return pour chaque produit, le nombre de volontaires par valeur
+     */
+    @GetMapping("/statistiques/produits")
+    public ResponseEntity<Map<String, Map<String, Long>>> getDistributionsProduits() {
+        return ResponseEntity.ok(volontaireHcService.getDistributionsProduits());
+    }
+
     /**
      * Recherche les volontaires qui utilisent une combinaison de produits
      *
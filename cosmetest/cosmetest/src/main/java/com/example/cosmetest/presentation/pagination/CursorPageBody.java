@@ -0,0 +1,34 @@
+package com.example.cosmetest.presentation.pagination;
+
+import com.example.cosmetest.business.pagination.PageCurseur;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corps de réponse d'une page obtenue par curseur, pendant du
+ * {@code content / totalElements / page / size} des pages par numéro.
+ */
+public final class CursorPageBody {
+
+    private CursorPageBody() {
+    }
+
+    /**
+     * {@code nextCursor} est {@code null} sur la dernière page ;
+     * {@code approximateTotal} et {@code approximateTotalCapped} ne sont
+     * présents que si le total a été demandé.
+     */
+    public static Map<String, Object> of(List<?> content, PageCurseur<?> page) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("content", content);
+        body.put("size", page.contenu().size());
+        body.put("nextCursor", page.suivant() != null ? page.suivant().jeton() : null);
+        if (page.totalApproximatif() != null) {
+            body.put("approximateTotal", page.totalApproximatif());
+            body.put("approximateTotalCapped", page.totalPlafonne());
+        }
+        return body;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.cosmetest.presentation.pagination;
 
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -43,4 +45,16 @@ public final class PageRequestFactory {
         int requestedSize = size > 0 ? size : DEFAULT_PAGE_SIZE;
         return PageRequest.of(safePage, Math.min(MAX_PAGE_SIZE, requestedSize));
     }
+
+    /**
+     * Variante par curseur : {@code cursor} vide ou absent pour la première
+     * page, sinon le jeton {@code nextCursor} de la page précédente.
+     *
+     * @throws IllegalArgumentException si le jeton est invalide
+     */
+    public static DemandeCurseur createCursor(String cursor, int size, boolean total) {
+        int requestedSize = size > 0 ? size : DEFAULT_PAGE_SIZE;
+        Curseur apres = cursor == null || cursor.isBlank() ? null : Curseur.depuis(cursor.trim());
+        return new DemandeCurseur(apres, Math.min(MAX_PAGE_SIZE, requestedSize), total);
+    }
 }
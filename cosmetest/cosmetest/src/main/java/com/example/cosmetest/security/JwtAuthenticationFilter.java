@@ -2,6 +2,7 @@ package com.example.cosmetest.security;
 
 import com.example.cosmetest.business.service.ActiveSessionService;
 import com.example.cosmetest.business.service.CustomUserDetailsService;
+import com.example.cosmetest.business.service.TokenRevocationStore;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
@@ -27,14 +28,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenUtil jwtTokenUtil;
     private final CustomUserDetailsService userDetailsService;
     private final ActiveSessionService activeSessionService;
+    private final TokenRevocationStore tokenRevocationStore;
 
     public JwtAuthenticationFilter(
             JwtTokenUtil jwtTokenUtil,
             CustomUserDetailsService userDetailsService,
-            ActiveSessionService activeSessionService) {
+            ActiveSessionService activeSessionService,
+            TokenRevocationStore tokenRevocationStore) {
         this.jwtTokenUtil = jwtTokenUtil;
         this.userDetailsService = userDetailsService;
         this.activeSessionService = activeSessionService;
+        this.tokenRevocationStore = tokenRevocationStore;
     }
 
     // Environnement: pour marquer le cookie Secure en prod
@@ -56,22 +60,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             if (token != null) {
                 try {
-                    // Vérifier d'abord si le token est expiré
-                    if (jwtTokenUtil.isTokenExpired(token)) {
+                    // Signature vérifiée et réclamations décodées une seule fois par requête
+                    ParsedJwt jwt = jwtTokenUtil.parse(request, token);
+
+                    if (jwt.isExpired()) {
                         logger.warn("Token expiré détecté - renvoi 401");
                         sendUnauthorizedResponse(response, "Token expired");
                         return;
                     }
 
-                    // Extraire le username
-                    String username = jwtTokenUtil.extractUsername(token);
+                    String username = jwt.username();
                     logger.debug("Identité extraite du token");
 
-                    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // Jeton déconnecté : requête traitée comme anonyme, les routes publiques restent accessibles
+                    boolean revoque = tokenRevocationStore.estRevoque(token);
+                    if (revoque) {
+                        logger.debug("Token révoqué ignoré");
+                    }
+
+                    if (!revoque && username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                        UserDetails userDetails = userDetailsService.loadAuthenticatedUser(username);
 
-                        // Valider le token avec les détails utilisateur
-                        if (jwtTokenUtil.validateToken(token, userDetails)) {
+                        // Le jeton est signé, non expiré : il reste à vérifier qu'il désigne bien ce compte
+                        if (username.equals(userDetails.getUsername())) {
                             UsernamePasswordAuthenticationToken authentication =
                                     new UsernamePasswordAuthenticationToken(
                                             userDetails, null, userDetails.getAuthorities());
@@ -86,14 +97,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                             logger.debug("Authentification réussie pour l'utilisateur: {}", username);
 
                             // Sliding refresh: si le token expire bientôt, émettre un nouveau token
-                            long remainingSeconds = (jwtTokenUtil.extractExpiration(token).getTime() - System.currentTimeMillis()) / 1000;
+                            long remainingSeconds = jwt.remainingSeconds();
                             if (remainingSeconds > 0 && remainingSeconds < REFRESH_THRESHOLD_SECONDS) {
                                 try {
-                                    String role = jwtTokenUtil.extractRole(token);
-                                    String newToken = jwtTokenUtil.generateToken(username, role);
+                                    String newToken = jwtTokenUtil.generateToken(username, jwt.role());
 
-                                    long newTokenMaxAge = (jwtTokenUtil.extractExpiration(newToken).getTime() - System.currentTimeMillis()) / 1000;
-                                    if (newTokenMaxAge < 0) newTokenMaxAge = 0;
+                                    long newTokenMaxAge = Math.max(0, jwtTokenUtil.getExpirationSeconds());
                                     String cookie = "jwt=" + newToken
                                             + "; Path=/"
                                             + "; Max-Age=" + newTokenMaxAge
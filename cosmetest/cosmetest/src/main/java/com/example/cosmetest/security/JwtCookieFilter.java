@@ -1,6 +1,5 @@
 package com.example.cosmetest.security;
 
-import com.example.cosmetest.business.service.AuthService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -12,12 +11,12 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 @Component
 public class JwtCookieFilter extends OncePerRequestFilter {
-  private final AuthService authService;
+  private final JwtTokenUtil jwtTokenUtil;
   private final boolean isProd = !"dev".equals(
       System.getenv().getOrDefault("SPRING_PROFILES_ACTIVE", "dev"));
 
-  public JwtCookieFilter(AuthService authService) {
-    this.authService = authService;
+  public JwtCookieFilter(JwtTokenUtil jwtTokenUtil) {
+    this.jwtTokenUtil = jwtTokenUtil;
   }
 
   @Override
@@ -39,8 +38,9 @@ public class JwtCookieFilter extends OncePerRequestFilter {
 
     if (token != null) {
       try {
-        // Valide/parse le token; si invalide, une exception sera levée par le service
-        authService.getUsernameFromToken(token);
+        // Valide/parse le token; si invalide, une exception est levée.
+        // Le résultat est mémorisé sur la requête et réutilisé par JwtAuthenticationFilter.
+        jwtTokenUtil.parse(request, token);
         // Ici, on ne set pas d'authentification: JwtAuthenticationFilter s'en charge.
       } catch (Exception ex) {
         // Token invalide/expiré -> supprimer le cookie
@@ -1,8 +1,10 @@
 package com.example.cosmetest.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -20,11 +22,61 @@ import java.util.function.Function;
 @Component
 public class JwtTokenUtil {
 
-    @Value("${jwt.secret}")
-    private String secret;
+    private static final String PARSED_TOKEN_ATTRIBUTE = JwtTokenUtil.class.getName() + ".PARSED_TOKEN";
 
-    @Value("${jwt.expiration}")
-    private Long expiration;
+    private final Long expiration;
+
+    // La clé et le parseur sont immuables et thread-safe : construits une seule fois.
+    private final SecretKey key;
+    private final JwtParser parser;
+
+    public JwtTokenUtil(
+            @Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") Long expiration) {
+        this.expiration = expiration;
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+    }
+
+    /**
+     * Vérifie la signature du jeton et le décode en une seule opération.
+     *
+     * @param token le jeton JWT
+     * @return la vue immuable du jeton
+     * @throws io.jsonwebtoken.JwtException si le jeton est invalide ou expiré
+     */
+    public ParsedJwt parse(String token) {
+        Claims claims = extractAllClaims(token);
+        return new ParsedJwt(token, claims.getSubject(), claims.get("role", String.class),
+                claims.getIssuedAt(), claims.getExpiration());
+    }
+
+    /**
+     * Variante de {@link #parse(String)} mémorisée pour la requête HTTP en cours :
+     * les filtres successifs qui lisent le même jeton ne le vérifient qu'une fois.
+     *
+     * @param request la requête courante
+     * @param token le jeton JWT
+     * @return la vue immuable du jeton
+     */
+    public ParsedJwt parse(HttpServletRequest request, String token) {
+        if (request.getAttribute(PARSED_TOKEN_ATTRIBUTE) instanceof ParsedJwt parsed
+                && parsed.token().equals(token)) {
+            return parsed;
+        }
+        ParsedJwt parsed = parse(token);
+        request.setAttribute(PARSED_TOKEN_ATTRIBUTE, parsed);
+        return parsed;
+    }
+
+    /**
+     * @return la durée de validité, en secondes, des jetons émis
+     */
+    public long getExpirationSeconds() {
+        return expiration;
+    }
 
     /**
      * Extrait le nom d'utilisateur du jeton JWT
@@ -65,12 +117,7 @@ public class JwtTokenUtil {
      * @return toutes les réclamations
      */
     private Claims extractAllClaims(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
     /**
@@ -104,7 +151,6 @@ public class JwtTokenUtil {
      * @return le jeton JWT
      */
     private String createToken(Map<String, Object> claims, String subject) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
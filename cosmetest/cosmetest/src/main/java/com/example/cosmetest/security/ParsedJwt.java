@@ -0,0 +1,25 @@
+package com.example.cosmetest.security;
+
+import java.util.Date;
+
+/**
+ * Vue immuable d'un jeton JWT dont la signature a déjà été vérifiée.
+ * Obtenue via {@link JwtTokenUtil#parse(String)} : un jeton n'est vérifié
+ * et décodé qu'une fois, toutes les réclamations utiles sont ensuite lues ici.
+ */
+public record ParsedJwt(String token, String username, String role, Date issuedAt, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    /**
+     * @return le nombre de secondes avant expiration (négatif si expiré)
+     */
+    public long remainingSeconds() {
+        if (expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        return (expiration.getTime() - System.currentTimeMillis()) / 1000;
+    }
+}
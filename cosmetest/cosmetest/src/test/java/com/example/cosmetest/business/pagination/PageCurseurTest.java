@@ -0,0 +1,56 @@
+package com.example.cosmetest.business.pagination;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCurseurTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 7, 16, 10, 0);
+
+    @Test
+    void laLigneEnTropDonneLeCurseurSuivant() {
+        DemandeCurseur demande = new DemandeCurseur(null, 2, false);
+
+        PageCurseur<Curseur> page = PageCurseur.de(
+                List.of(new Curseur(T0, 9), new Curseur(T0, 8), new Curseur(T0.minusSeconds(1), 12)),
+                demande, c -> c, plafond -> 0);
+
+        assertThat(demande.limite().getPageSize()).isEqualTo(3);
+        assertThat(page.contenu()).hasSize(2);
+        assertThat(page.suivant()).isEqualTo(new Curseur(T0, 8));
+        assertThat(Curseur.depuis(page.suivant().jeton())).isEqualTo(page.suivant());
+        assertThat(page.totalApproximatif()).isNull();
+    }
+
+    @Test
+    void laDernierePageNAPasDeCurseur() {
+        PageCurseur<Curseur> page = PageCurseur.de(List.of(new Curseur(T0, 1)),
+                new DemandeCurseur(new Curseur(T0, 2), 2, false), c -> c, plafond -> 0);
+
+        assertThat(page.contenu()).hasSize(1);
+        assertThat(page.suivant()).isNull();
+    }
+
+    @Test
+    void leTotalEstPlafonne() {
+        AtomicInteger plafondDemande = new AtomicInteger();
+
+        PageCurseur<Curseur> exact = PageCurseur.de(List.of(), new DemandeCurseur(null, 20, true), c -> c,
+                plafond -> 3);
+        PageCurseur<Curseur> plafonne = PageCurseur.de(List.of(), new DemandeCurseur(null, 20, true), c -> c,
+                plafond -> {
+                    plafondDemande.set(plafond);
+                    return plafond;
+                });
+
+        assertThat(exact.totalApproximatif()).isEqualTo(3);
+        assertThat(exact.totalPlafonne()).isFalse();
+        assertThat(plafonne.totalApproximatif()).isEqualTo(PageCurseur.PLAFOND_TOTAL);
+        assertThat(plafonne.totalPlafonne()).isTrue();
+        assertThat(plafondDemande.get()).isEqualTo(PageCurseur.PLAFOND_TOTAL + 1);
+    }
+}
@@ -1,12 +1,13 @@
 package com.example.cosmetest.business.service;
 
+import com.example.cosmetest.business.service.impl.LocalActiveSessionStore;
 import com.example.cosmetest.data.repository.SessionHistoryRepository;
 import com.example.cosmetest.domain.model.SessionHistory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -27,16 +28,21 @@ class ActiveSessionServiceTest {
     @Mock
     private SessionHistoryRepository sessionHistoryRepository;
 
-    @InjectMocks
+    private final LocalActiveSessionStore store = new LocalActiveSessionStore();
     private ActiveSessionService service;
 
+    @BeforeEach
+    void setUp() {
+        service = new ActiveSessionService(sessionHistoryRepository, store);
+    }
+
     // ─── Helpers réflexion ────────────────────────────────────────────────────
 
     @SuppressWarnings("unchecked")
     private ConcurrentHashMap<String, Object> getSessions() throws Exception {
-        Field f = ActiveSessionService.class.getDeclaredField("sessions");
+        Field f = LocalActiveSessionStore.class.getDeclaredField("sessions");
         f.setAccessible(true);
-        return (ConcurrentHashMap<String, Object>) f.get(service);
+        return (ConcurrentHashMap<String, Object>) f.get(store);
     }
 
     private void setLastActivity(Object sessionInfo, Instant instant) throws Exception {
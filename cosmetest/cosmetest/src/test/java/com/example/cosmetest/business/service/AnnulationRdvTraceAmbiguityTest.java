@@ -9,6 +9,7 @@ import com.example.cosmetest.data.repository.RdvRepository;
 import com.example.cosmetest.domain.model.Annulation;
 import com.example.cosmetest.domain.model.Rdv;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 
@@ -25,7 +26,7 @@ class AnnulationRdvTraceAmbiguityTest {
         AnnulationMapper mapper = mock(AnnulationMapper.class);
         RdvIdAllocator allocator = mock(RdvIdAllocator.class);
         AnnulationServiceImpl service = new AnnulationServiceImpl(
-                annulationRepository, mapper, rdvRepository, allocator);
+                annulationRepository, mapper, rdvRepository, allocator, mock(ApplicationEventPublisher.class));
 
         AnnulationDTO request = new AnnulationDTO();
         request.setIdVol(42);
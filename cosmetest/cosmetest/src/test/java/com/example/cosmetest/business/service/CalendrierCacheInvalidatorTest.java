@@ -0,0 +1,88 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.dto.CalendrierDTO;
+import com.example.cosmetest.business.event.EtudeChangedEvent;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CalendrierCacheInvalidatorTest {
+
+    private CacheManager cacheManager;
+    private CalendrierCacheInvalidator invalidator;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new CacheConfig().cacheManager(
+                "maximumSize=10", "maximumSize=10", "maximumSize=10", "maximumSize=10");
+        invalidator = new CalendrierCacheInvalidator(cacheManager);
+    }
+
+    @Test
+    void unRdvNInvalideQueLesPeriodesQuiContiennentSaDate() {
+        Cache periode = cacheManager.getCache(CacheConfig.CALENDRIER_PERIODE);
+        periode.put("2026-07-13_2026-07-19_true", "semaine touchée");
+        periode.put("2026-07-20_2026-07-26_true", "semaine suivante");
+        Cache semaine = cacheManager.getCache(CacheConfig.CALENDRIER_SEMAINE);
+        semaine.put("2026-07-13", "semaine touchée");
+        semaine.put("2026-07-06", "semaine précédente");
+
+        invalidator.onRdvChanged(new RdvChangedEvent(10, Set.of(LocalDate.of(2026, 7, 15))));
+
+        assertThat(periode.get("2026-07-13_2026-07-19_true")).isNull();
+        assertThat(periode.get("2026-07-20_2026-07-26_true")).isNotNull();
+        assertThat(semaine.get("2026-07-13")).isNull();
+        assertThat(semaine.get("2026-07-06")).isNotNull();
+    }
+
+    @Test
+    void desJoursInconnusOuUneEtudeModifieeVidentLeCalendrier() {
+        Cache periode = cacheManager.getCache(CacheConfig.CALENDRIER_PERIODE);
+        periode.put("2026-07-20_2026-07-26_true", "semaine");
+
+        invalidator.onRdvChanged(RdvChangedEvent.unknownDates(10));
+        assertThat(periode.get("2026-07-20_2026-07-26_true")).isNull();
+
+        periode.put("2026-07-20_2026-07-26_true", "semaine");
+        invalidator.onEtudeChanged(new EtudeChangedEvent(10));
+        assertThat(periode.get("2026-07-20_2026-07-26_true")).isNull();
+    }
+
+    @Test
+    void unVolontaireModifieRetireLesEntreesOuFigurentSesRdv() {
+        Cache periode = cacheManager.getCache(CacheConfig.CALENDRIER_PERIODE);
+        periode.put("2026-07-13_2026-07-19_true", calendrier(7, 8));
+        periode.put("2026-07-20_2026-07-26_true", calendrier(8));
+        Cache semaine = cacheManager.getCache(CacheConfig.CALENDRIER_SEMAINE);
+        semaine.put("2026-07-13", calendrier(7));
+
+        invalidator.onVolontaireChanged(VolontaireChangedEvent.of(7));
+
+        assertThat(periode.get("2026-07-13_2026-07-19_true")).isNull();
+        assertThat(periode.get("2026-07-20_2026-07-26_true")).isNotNull();
+        assertThat(semaine.get("2026-07-13")).isNull();
+
+        invalidator.onVolontaireChanged(VolontaireChangedEvent.unknown());
+        assertThat(periode.get("2026-07-20_2026-07-26_true")).isNull();
+    }
+
+    private static CalendrierDTO calendrier(Integer... idVolontaires) {
+        CalendrierDTO calendrier = new CalendrierDTO();
+        calendrier.setRdvs(Arrays.stream(idVolontaires).map(idVol -> {
+            CalendrierDTO.RendezVousEnrichiDTO rdv = new CalendrierDTO.RendezVousEnrichiDTO();
+            rdv.setIdVolontaire(idVol);
+            return rdv;
+        }).toList());
+        return calendrier;
+    }
+}
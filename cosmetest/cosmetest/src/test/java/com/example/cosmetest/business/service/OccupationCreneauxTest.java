@@ -0,0 +1,94 @@
+package com.example.cosmetest.business.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OccupationCreneauxTest {
+
+    private static final LocalDate LUNDI = LocalDate.of(2026, 3, 2);
+    private static final LocalDate MARDI = LUNDI.plusDays(1);
+
+    @Test
+    void utiliseLaDureeReelleDuRdv() {
+        OccupationCreneaux occupation = occupation(15, 1);
+
+        occupation.occuper(LUNDI, LocalTime.of(9, 0), 120);
+
+        assertThat(occupation.creneauxLibres(LUNDI, 15))
+                .contains(LocalTime.of(8, 45), LocalTime.of(11, 0))
+                .doesNotContain(LocalTime.of(9, 0), LocalTime.of(10, 0));
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(10, 45), 15)).isFalse();
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(11, 0), 15)).isTrue();
+    }
+
+    @Test
+    void unRdvNonAligneOccupeToutesLesTranchesQuIlTouche() {
+        OccupationCreneaux occupation = occupation(30, 1);
+
+        occupation.occuper(LUNDI, LocalTime.of(9, 20), 20);
+
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(9, 0), 30)).isFalse();
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(9, 30), 30)).isFalse();
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(10, 0), 30)).isTrue();
+    }
+
+    @Test
+    void laCapacitePermetDesVisitesSimultanees() {
+        OccupationCreneaux occupation = occupation(30, 2);
+
+        occupation.occuper(LUNDI, LocalTime.of(9, 0), 60);
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(9, 0), 60)).isTrue();
+
+        occupation.occuper(LUNDI, LocalTime.of(9, 30), 30);
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(9, 0), 30)).isTrue();
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(9, 0), 60)).isFalse();
+    }
+
+    @Test
+    void premiersCreneauxSurPlusieursJours() {
+        OccupationCreneaux occupation = occupation(30, 1);
+        occupation.occuper(LUNDI, LocalTime.of(8, 0), 9 * 60);
+
+        List<OccupationCreneaux.Creneau> creneaux = occupation.premiersCreneauxLibres(3, 90);
+
+        assertThat(creneaux).containsExactly(
+                new OccupationCreneaux.Creneau(MARDI, LocalTime.of(8, 0), LocalTime.of(9, 30)),
+                new OccupationCreneaux.Creneau(MARDI, LocalTime.of(8, 30), LocalTime.of(10, 0)),
+                new OccupationCreneaux.Creneau(MARDI, LocalTime.of(9, 0), LocalTime.of(10, 30)));
+    }
+
+    @Test
+    void uneVisiteNeDepassePasLaFermeture() {
+        OccupationCreneaux occupation = occupation(30, 1);
+
+        assertThat(occupation.creneauxLibres(LUNDI, 60)).last().isEqualTo(LocalTime.of(17, 0));
+        assertThat(occupation.estLibre(LUNDI, LocalTime.of(17, 30), 60)).isFalse();
+    }
+
+    @Test
+    void ignoreLesRdvHorsPeriodeEtHorsHoraires() {
+        OccupationCreneaux occupation = occupation(30, 1);
+
+        occupation.occuper(LUNDI.minusDays(1), LocalTime.of(9, 0), 60);
+        occupation.occuper(LUNDI, LocalTime.of(7, 0), 60);
+        occupation.occuper(LUNDI, LocalTime.of(18, 0), 60);
+
+        assertThat(occupation.creneauxLibres(LUNDI, 30)).hasSize(20);
+    }
+
+    @Test
+    void refuseUnePeriodeInversee() {
+        assertThatThrownBy(() -> new OccupationCreneaux(MARDI, LUNDI, LocalTime.of(8, 0), LocalTime.of(18, 0), 30, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static OccupationCreneaux occupation(int granularite, int capacite) {
+        return new OccupationCreneaux(LUNDI, MARDI, LocalTime.of(8, 0), LocalTime.of(18, 0), granularite, capacite);
+    }
+}
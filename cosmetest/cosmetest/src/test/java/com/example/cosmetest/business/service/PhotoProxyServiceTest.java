@@ -1,13 +1,17 @@
 package com.example.cosmetest.business.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -129,6 +133,162 @@ class PhotoProxyServiceTest {
         assertThat(server.takeRequest().getMethod()).isEqualTo("HEAD");
     }
 
+    @Test
+    void readsPhotoVersionFromHeadValidators() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "\"v2\""));
+        server.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader("Last-Modified", "Mon, 02 Mar 2026 08:00:00 GMT")
+                .setHeader("Content-Length", "5"));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 1024);
+
+        assertThat(service.version("face.JPG")).contains("\"v2\"");
+        assertThat(service.version("face.JPG")).contains("Mon, 02 Mar 2026 08:00:00 GMT|5");
+        assertThat(service.version("face.JPG")).isEmpty();
+        assertThat(server.takeRequest().getMethod()).isEqualTo("HEAD");
+    }
+
+    @Test
+    void streamsPhotoAndForwardsSingleByteRange() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse()
+                .setResponseCode(206)
+                .setHeader("Content-Type", "application/pdf")
+                .setHeader("Content-Range", "bytes 2-4/10")
+                .setBody("345"));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 1024);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PhotoProxyService.PhotoStream stream = service.openStream("scan.pdf", "bytes=2-4")) {
+            assertThat(stream.partial()).isTrue();
+            assertThat(stream.contentLength()).isEqualTo(3);
+            assertThat(stream.contentRange()).isEqualTo("bytes 2-4/10");
+            stream.transferTo(output);
+        }
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("345");
+        assertThat(server.takeRequest().getHeader("Range")).isEqualTo("bytes=2-4");
+    }
+
+    @Test
+    void ignoresMultipleOrMalformedRanges() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("photo"));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 1024);
+
+        try (PhotoProxyService.PhotoStream stream = service.openStream("face.JPG", "bytes=0-1,4-5")) {
+            assertThat(stream.partial()).isFalse();
+        }
+
+        assertThat(server.takeRequest().getHeader("Range")).isNull();
+    }
+
+    @Test
+    void mapsUnsatisfiableRangeToDedicatedException() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(416).setHeader("Content-Range", "bytes */10"));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 1024);
+
+        assertThatThrownBy(() -> service.openStream("scan.pdf", "bytes=50-60"))
+                .isInstanceOf(PhotoProxyService.PhotoRangeNotSatisfiableException.class)
+                .extracting(e -> ((PhotoProxyService.PhotoRangeNotSatisfiableException) e).getContentRange())
+                .isEqualTo("bytes */10");
+    }
+
+    @Test
+    void stopsStreamingChunkedResponseOnceLimitIsExceeded() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setChunkedBody("12345", 1));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 4);
+
+        try (PhotoProxyService.PhotoStream stream = service.openStream("face.JPG", null)) {
+            assertThatThrownBy(() -> stream.transferTo(new ByteArrayOutputStream()))
+                    .isInstanceOf(PhotoProxyService.PhotoTooLargeException.class);
+        }
+    }
+
+    @Test
+    void reusesKeepAliveConnectionsAcrossCalls() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("photo"));
+        server.start();
+        PhotoProxyService service = service(server.url("/photos/").toString(), 1024);
+
+        service.exists("face.JPG");
+        service.fetch("face.JPG");
+
+        assertThat(server.takeRequest().getSequenceNumber()).isZero();
+        assertThat(server.takeRequest().getSequenceNumber()).isEqualTo(1);
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailuresAndFailsFastWithoutCallingServer() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PhotoProxyService service = new PhotoProxyService(server.url("/photos/").toString(), true, 1_000, 1_000,
+                1024, 4, Duration.ofMillis(100), 2, Duration.ofMinutes(1), 2, Duration.ofMinutes(1), registry);
+
+        assertThatThrownBy(() -> service.exists("face.JPG")).isInstanceOf(PhotoProxyService.PhotoUpstreamException.class);
+        assertThatThrownBy(() -> service.exists("face.JPG")).isInstanceOf(PhotoProxyService.PhotoUpstreamException.class);
+        assertThatThrownBy(() -> service.exists("face.JPG"))
+                .isInstanceOf(PhotoProxyService.PhotoServerUnavailableException.class);
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        assertThat(service.circuitState()).isEqualTo(PhotoServerCircuitBreaker.State.OPEN);
+        assertThat(registry.get("photo.upstream.rejected").tag("reason", "circuit_open").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("photo.upstream.requests").tag("outcome", "5xx").timer().count()).isEqualTo(2);
+        assertThat(registry.get("photo.upstream.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void rejectsCallsBeyondBulkheadWhileWaitingForHeaders() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setHeadersDelay(500, TimeUnit.MILLISECONDS));
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PhotoProxyService service = new PhotoProxyService(server.url("/photos/").toString(), true, 1_000, 1_000,
+                1024, 1, Duration.ofMillis(50), 2, Duration.ofMinutes(1), 5, Duration.ofMinutes(1), registry);
+        CompletableFuture<Boolean> slow = CompletableFuture.supplyAsync(() -> service.exists("face.JPG"));
+        while (registry.get("photo.upstream.in_flight").gauge().value() == 0 && !slow.isDone()) {
+            Thread.sleep(5);
+        }
+
+        assertThatThrownBy(() -> service.exists("face.JPG"))
+                .isInstanceOf(PhotoProxyService.PhotoServerUnavailableException.class);
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesBulkheadOnceHeadersAreReceived() throws Exception {
+        server = new MockWebServer();
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("photo"));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        server.start();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        PhotoProxyService service = new PhotoProxyService(server.url("/photos/").toString(), true, 1_000, 1_000,
+                1024, 1, Duration.ofMillis(50), 2, Duration.ofMinutes(1), 5, Duration.ofMinutes(1), registry);
+
+        // Un client lent qui n'a pas fini de lire ne retient pas la seule place disponible
+        try (PhotoProxyService.PhotoStream ignored = service.openStream("face.JPG", null)) {
+            assertThat(registry.get("photo.upstream.in_flight").gauge().value()).isZero();
+            assertThat(service.exists("face.JPG")).isTrue();
+        }
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+    }
+
     @Test
     void rejectsUnsafeBaseConfiguration() {
         assertThatThrownBy(() -> service("file:///tmp/photos/", 1024))
@@ -0,0 +1,176 @@
+package com.example.cosmetest.business.service;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PhotoResolutionServiceTest {
+
+    private final PhotoProxyService photoProxyService = mock(PhotoProxyService.class);
+    private final PhotoResolutionService service = new PhotoResolutionService(
+            photoProxyService, 4, 5_000, Duration.ofMinutes(30), Duration.ofMinutes(2), 100);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void retientLaPremiereVarianteExistanteDansLOrdreDePriorite() {
+        when(photoProxyService.exists(anyString())).thenReturn(false);
+        when(photoProxyService.exists("f_b.JPG")).thenReturn(true);
+        when(photoProxyService.exists("f_d.JPG")).thenReturn(true);
+
+        Optional<String> found = service.resolveFirst("7:f_", List.of("f_a.JPG", "f_b.JPG", "f_c.JPG", "f_d.JPG"));
+
+        assertThat(found).contains("f_b.JPG");
+    }
+
+    @Test
+    void memoriseLesAbsencesEtLesPresences() {
+        when(photoProxyService.exists("f_a.JPG")).thenReturn(false);
+        when(photoProxyService.exists("d_a.JPG")).thenReturn(true);
+
+        assertThat(service.resolveFirst("7:f_", List.of("f_a.JPG"))).isEmpty();
+        assertThat(service.resolveFirst("7:f_", List.of("f_a.JPG"))).isEmpty();
+        assertThat(service.resolveFirst("7:d_", List.of("d_a.JPG"))).contains("d_a.JPG");
+        assertThat(service.resolveFirst("7:d_", List.of("d_a.JPG"))).contains("d_a.JPG");
+
+        verify(photoProxyService, times(1)).exists("f_a.JPG");
+        verify(photoProxyService, times(1)).exists("d_a.JPG");
+    }
+
+    @Test
+    void nePasMemoriserUnEchecDuServeurPhoto() {
+        when(photoProxyService.exists("f_a.JPG"))
+                .thenThrow(new PhotoProxyService.PhotoUpstreamException("Serveur photo inaccessible"))
+                .thenReturn(true);
+
+        assertThatThrownBy(() -> service.resolveFirst("7:f_", List.of("f_a.JPG")))
+                .isInstanceOf(PhotoProxyService.PhotoUpstreamException.class);
+        assertThat(service.resolveFirst("7:f_", List.of("f_a.JPG"))).contains("f_a.JPG");
+    }
+
+    @Test
+    void resoutPlusieursTypesEnUnSeulLotEtConserveLOrdre() {
+        when(photoProxyService.exists("f_a.JPG")).thenReturn(true);
+        when(photoProxyService.exists("d_a.JPG")).thenReturn(false);
+        when(photoProxyService.exists("g_a.JPG")).thenReturn(true);
+        Map<String, List<String>> candidates = new LinkedHashMap<>();
+        candidates.put("7:f_", List.of("f_a.JPG"));
+        candidates.put("7:d_", List.of("d_a.JPG"));
+        candidates.put("7:g_", List.of("g_a.JPG"));
+
+        Map<String, Optional<String>> resolved = service.resolveAll(candidates);
+
+        assertThat(resolved).containsOnlyKeys("7:f_", "7:d_", "7:g_");
+        assertThat(resolved.keySet()).containsExactly("7:f_", "7:d_", "7:g_");
+        assertThat(resolved.get("7:f_")).contains("f_a.JPG");
+        assertThat(resolved.get("7:d_")).isEmpty();
+        assertThat(resolved.get("7:g_")).contains("g_a.JPG");
+    }
+
+    @Test
+    void invaliderOublieLesResolutionsDuVolontaire() {
+        when(photoProxyService.exists("f_a.JPG")).thenReturn(false);
+        when(photoProxyService.exists("f_b.JPG")).thenReturn(false);
+
+        service.resolveFirst("7:f_", List.of("f_a.JPG"));
+        service.resolveFirst("70:f_", List.of("f_b.JPG"));
+        service.invalidate("7:");
+        service.resolveFirst("7:f_", List.of("f_a.JPG"));
+        service.resolveFirst("70:f_", List.of("f_b.JPG"));
+
+        verify(photoProxyService, times(2)).exists("f_a.JPG");
+        verify(photoProxyService, times(1)).exists("f_b.JPG");
+    }
+
+    @Test
+    void uneModificationValideeDuVolontaireOublieSesResolutions() {
+        when(photoProxyService.exists("f_a.JPG")).thenReturn(false);
+
+        service.resolveFirst("7:f_", List.of("f_a.JPG"));
+        service.onVolontaireChanged(VolontaireChangedEvent.of(7));
+        service.resolveFirst("7:f_", List.of("f_a.JPG"));
+
+        verify(photoProxyService, times(2)).exists("f_a.JPG");
+    }
+
+    @Test
+    void lesHeadSontBornesToutesResolutionsConfondues() {
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        when(photoProxyService.exists(anyString())).thenAnswer(invocation -> {
+            maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            enCours.decrementAndGet();
+            return false;
+        });
+        Map<String, List<String>> candidates = new LinkedHashMap<>();
+        for (String type : List.of("f_", "d_", "g_")) {
+            candidates.put("7:" + type, List.of(type + "a.JPG", type + "b.JPG", type + "c.JPG", type + "d.JPG"));
+        }
+
+        service.resolveAll(candidates);
+
+        verify(photoProxyService, times(12)).exists(anyString());
+        assertThat(maximum.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void neLancePasLeLotSuivantQuandUneVarianteEstTrouvee() {
+        when(photoProxyService.exists(anyString())).thenReturn(false);
+        when(photoProxyService.exists("f_b.JPG")).thenReturn(true);
+        List<String> candidates = List.of("f_a.JPG", "f_b.JPG", "f_c.JPG", "f_d.JPG",
+                "f_e.JPG", "f_f.JPG", "f_g.JPG", "f_h.JPG");
+
+        assertThat(service.resolveFirst("7:f_", candidates)).contains("f_b.JPG");
+
+        verify(photoProxyService, times(4)).exists(anyString());
+    }
+
+    @Test
+    void uneRechercheNAttendPasIndefinimentSaPlace() throws Exception {
+        PhotoResolutionService etroit = new PhotoResolutionService(
+                photoProxyService, 1, 50, Duration.ofMinutes(30), Duration.ofMinutes(2), 100);
+        CountDownLatch enCours = new CountDownLatch(1);
+        CountDownLatch liberer = new CountDownLatch(1);
+        when(photoProxyService.exists("lent.JPG")).thenAnswer(invocation -> {
+            enCours.countDown();
+            liberer.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        try {
+            CompletableFuture<Optional<String>> lente =
+                    CompletableFuture.supplyAsync(() -> etroit.resolveFirst("1:f_", List.of("lent.JPG")));
+            assertThat(enCours.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> etroit.resolveFirst("2:f_", List.of("autre.JPG")))
+                    .isInstanceOf(PhotoProxyService.PhotoServerUnavailableException.class);
+
+            liberer.countDown();
+            assertThat(lente.get(5, TimeUnit.SECONDS)).contains("lent.JPG");
+        } finally {
+            liberer.countDown();
+            etroit.shutdown();
+        }
+    }
+}
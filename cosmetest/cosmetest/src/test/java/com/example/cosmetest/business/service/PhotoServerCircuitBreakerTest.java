@@ -0,0 +1,116 @@
+package com.example.cosmetest.business.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoServerCircuitBreakerTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final PhotoServerCircuitBreaker breaker = new PhotoServerCircuitBreaker(3, Duration.ofSeconds(30), clock);
+
+    @Test
+    void resteFermeTantQueLesEchecsNeSontPasConsecutifs() {
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+        breaker.onFailure(breaker.tryAcquire());
+
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isNotEqualTo(PhotoServerCircuitBreaker.REFUSED);
+    }
+
+    @Test
+    void sOuvreAuSeuilPuisNAutoriseQuUnSeulEssaiApresLeDelai() {
+        ouvrir();
+
+        assertThat(breaker.tryAcquire()).isEqualTo(PhotoServerCircuitBreaker.REFUSED);
+
+        clock.advance(Duration.ofSeconds(30));
+        long essai = breaker.tryAcquire();
+        assertThat(essai).isNotEqualTo(PhotoServerCircuitBreaker.REFUSED);
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(PhotoServerCircuitBreaker.REFUSED);
+
+        breaker.onSuccess(essai);
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void seRouvreSiLEssaiEchoue() {
+        ouvrir();
+        clock.advance(Duration.ofSeconds(31));
+        long essai = breaker.tryAcquire();
+
+        breaker.onFailure(essai);
+
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.OPEN);
+        clock.advance(Duration.ofSeconds(10));
+        assertThat(breaker.tryAcquire()).isEqualTo(PhotoServerCircuitBreaker.REFUSED);
+    }
+
+    @Test
+    void unSuccesTardifNeRefermePasUnDisjoncteurOuvertNiNeTrancheLEssai() {
+        long lent = breaker.tryAcquire();
+        ouvrir();
+
+        breaker.onSuccess(lent);
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.OPEN);
+
+        clock.advance(Duration.ofSeconds(30));
+        breaker.tryAcquire();
+        breaker.onSuccess(lent);
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isEqualTo(PhotoServerCircuitBreaker.REFUSED);
+    }
+
+    @Test
+    void unEchecTardifNeProlongePasLOuverture() {
+        long lent = breaker.tryAcquire();
+        ouvrir();
+
+        clock.advance(Duration.ofSeconds(20));
+        breaker.onFailure(lent);
+        clock.advance(Duration.ofSeconds(10));
+
+        assertThat(breaker.tryAcquire()).isNotEqualTo(PhotoServerCircuitBreaker.REFUSED);
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void ouvrir() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+        assertThat(breaker.state()).isEqualTo(PhotoServerCircuitBreaker.State.OPEN);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.cosmetest.business.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PhotoThumbnailServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reduitLImageEtLaConserveSurDisque() throws IOException {
+        PhotoThumbnailService service = service(1_000_000);
+
+        var thumbnail = service.render("f_test.JPG", "v1", 160, jpeg(1200, 800)).orElseThrow();
+
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(thumbnail.bytes()));
+        assertThat(image.getWidth()).isEqualTo(160);
+        assertThat(image.getHeight()).isEqualTo(107);
+        assertThat(thumbnail.contentType()).isEqualTo(MediaType.IMAGE_JPEG);
+
+        var cached = service.findCached("f_test.JPG", "v1", 160).orElseThrow();
+        assertThat(cached.bytes()).isEqualTo(thumbnail.bytes());
+        assertThat(cached.etag()).isEqualTo(thumbnail.etag());
+        assertThat(service.findCached("f_test.JPG", "v1", 320)).isEmpty();
+    }
+
+    @Test
+    void retrouveLesMiniaturesApresRedemarrage() throws IOException {
+        service(1_000_000).render("f_test.JPG", "v1", 160, jpeg(400, 400));
+
+        assertThat(service(1_000_000).findCached("f_test.JPG", "v1", 160)).isPresent();
+    }
+
+    @Test
+    void evinceLesMiniaturesLesMoinsRecemmentServiesAuDelaDeLaTailleMaximale() throws IOException {
+        PhotoThumbnailService probe = service(1_000_000);
+        long oneThumbnail = probe.render("sonde.JPG", "v1", 160, jpeg(400, 400)).orElseThrow().bytes().length;
+        Files.delete(directory.resolve(onlyFile()));
+
+        PhotoThumbnailService service = service(oneThumbnail * 2 + oneThumbnail / 2);
+        service.render("a.JPG", "v1", 160, jpeg(400, 400));
+        service.render("b.JPG", "v1", 160, jpeg(400, 400));
+        service.findCached("a.JPG", "v1", 160);
+        service.render("c.JPG", "v1", 160, jpeg(400, 400));
+
+        assertThat(service.findCached("a.JPG", "v1", 160)).isPresent();
+        assertThat(service.findCached("b.JPG", "v1", 160)).isEmpty();
+        assertThat(service.findCached("c.JPG", "v1", 160)).isPresent();
+    }
+
+    @Test
+    void unOriginalRemplaceProduitUneNouvelleMiniature() throws IOException {
+        PhotoThumbnailService service = service(1_000_000);
+        service.render("f_test.JPG", "v1", 160, jpeg(400, 400));
+
+        assertThat(service.findCached("f_test.JPG", "v2", 160)).isEmpty();
+    }
+
+    @Test
+    void sansValidateurLaMiniatureEstRangeeSousLEmpreinteDuContenu() throws IOException {
+        PhotoThumbnailService service = service(1_000_000);
+        var premiere = service.render("f_test.JPG", null, 160, jpeg(400, 400)).orElseThrow();
+
+        assertThat(service.render("f_test.JPG", null, 160, jpeg(400, 400)).orElseThrow().etag())
+                .isEqualTo(premiere.etag());
+        assertThat(service.render("f_test.JPG", null, 160, jpeg(400, 300)).orElseThrow().etag())
+                .isNotEqualTo(premiere.etag());
+    }
+
+    @Test
+    void renvoieVidePourUnDocumentNonDecodable() {
+        var pdf = new PhotoProxyService.PhotoPayload("%PDF-1.4".getBytes(), MediaType.APPLICATION_PDF);
+
+        assertThat(service(1_000_000).render("f_test.pdf", "v1", 160, pdf)).isEmpty();
+    }
+
+    @Test
+    void rameneLaTailleDemandeeALaTailleConfigureeLaPlusProche() {
+        PhotoThumbnailService service = service(1_000_000);
+
+        assertThat(service.resolveSize(null)).isEqualTo(320);
+        assertThat(service.resolveSize(100)).isEqualTo(160);
+        assertThat(service.resolveSize(200)).isEqualTo(320);
+        assertThat(service.resolveSize(5000)).isEqualTo(320);
+    }
+
+    private PhotoThumbnailService service(long maxBytes) {
+        return new PhotoThumbnailService(directory.toString(), List.of(160, 320), 0.8f, maxBytes);
+    }
+
+    private String onlyFile() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.findFirst().orElseThrow().getFileName().toString();
+        }
+    }
+
+    private static PhotoProxyService.PhotoPayload jpeg(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, (x * 31 + y * 17) & 0xFFFFFF);
+            }
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", output);
+        return new PhotoProxyService.PhotoPayload(output.toByteArray(), MediaType.IMAGE_JPEG);
+    }
+}
@@ -2,6 +2,7 @@ package com.example.cosmetest.business.service;
 
 import com.example.cosmetest.business.dto.RdvDTO;
 import com.example.cosmetest.business.mapper.RdvMapper;
+import com.example.cosmetest.business.service.impl.RdvBatchWriter;
 import com.example.cosmetest.business.service.impl.RdvIdAllocator;
 import com.example.cosmetest.business.service.impl.RdvServiceImpl;
 import com.example.cosmetest.data.repository.AnnulationRepository;
@@ -9,6 +10,7 @@ import com.example.cosmetest.data.repository.EtudeRepository;
 import com.example.cosmetest.data.repository.GroupeRepository;
 import com.example.cosmetest.data.repository.RdvRepository;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 
@@ -28,7 +30,9 @@ class RdvBatchValidationTest {
                 mock(AnnulationRepository.class),
                 mock(EtudeVolontaireService.class),
                 mock(GroupeRepository.class),
-                mock(RdvIdAllocator.class));
+                mock(RdvIdAllocator.class),
+                mock(RdvBatchWriter.class),
+                mock(ApplicationEventPublisher.class));
         RdvDTO first = new RdvDTO();
         first.setIdEtude(10);
         RdvDTO second = new RdvDTO();
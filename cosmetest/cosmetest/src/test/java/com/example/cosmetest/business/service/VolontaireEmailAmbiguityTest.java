@@ -1,6 +1,8 @@
 package com.example.cosmetest.business.service;
 
 import com.example.cosmetest.business.mapper.VolontaireMapper;
+import com.example.cosmetest.business.service.impl.VolontaireDemographieCube;
+import com.example.cosmetest.business.service.impl.VolontaireSearchIndex;
 import com.example.cosmetest.business.service.impl.VolontaireServiceImpl;
 import com.example.cosmetest.data.repository.AnnulationRepository;
 import com.example.cosmetest.data.repository.EtudeVolontaireRepository;
@@ -9,6 +11,7 @@ import com.example.cosmetest.data.repository.VolontaireRepository;
 import com.example.cosmetest.domain.model.Volontaire;
 import com.example.cosmetest.exception.AmbiguousVolontaireException;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 
@@ -27,7 +30,11 @@ class VolontaireEmailAmbiguityTest {
                 mock(RdvRepository.class),
                 mock(EtudeVolontaireRepository.class),
                 mock(AnnulationRepository.class),
-                mock(PhotoProxyService.class));
+                mock(PhotoProxyService.class),
+                mock(PhotoResolutionService.class),
+                mock(ApplicationEventPublisher.class),
+                mock(VolontaireSearchIndex.class),
+                mock(VolontaireDemographieCube.class));
         when(repository.findByEmailVol("duplicate@example.test"))
                 .thenReturn(List.of(new Volontaire(), new Volontaire()));
 
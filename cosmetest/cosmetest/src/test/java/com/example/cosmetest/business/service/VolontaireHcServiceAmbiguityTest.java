@@ -7,6 +7,7 @@ import com.example.cosmetest.data.repository.VolontaireHcRepository;
 import com.example.cosmetest.domain.model.VolontaireHc;
 import com.example.cosmetest.exception.AmbiguousVolontaireHcException;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.List;
 
@@ -18,7 +19,8 @@ class VolontaireHcServiceAmbiguityTest {
 
     private final VolontaireHcRepository repository = mock(VolontaireHcRepository.class);
     private final VolontaireHcMapper mapper = mock(VolontaireHcMapper.class);
-    private final VolontaireHcServiceImpl service = new VolontaireHcServiceImpl(repository, mapper);
+    private final VolontaireHcServiceImpl service = new VolontaireHcServiceImpl(
+            repository, mapper, mock(ApplicationEventPublisher.class));
 
     @Test
     void readRejectsAmbiguousRows() {
@@ -0,0 +1,142 @@
+package com.example.cosmetest.business.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WriteBehindBufferTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<String>> lots = new CopyOnWriteArrayList<>();
+    private WriteBehindBuffer<String> buffer;
+
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void ecritParLotsDesQueLaTailleEstAtteinte() {
+        buffer = buffer(100, 3, Duration.ofMinutes(1), lots::add);
+
+        List.of("a", "b", "c", "d", "e", "f").forEach(buffer::ajouter);
+
+        attendre(() -> lots.size() == 2);
+        buffer.close();
+        assertThat(lots).containsExactly(List.of("a", "b", "c"), List.of("d", "e", "f"));
+        assertThat(registry.get("write_behind.batch.size").summary().count()).isEqualTo(2);
+    }
+
+    @Test
+    void ecritUnLotIncompletApresLeDelai() {
+        buffer = buffer(100, 100, Duration.ofMillis(50), lots::add);
+
+        buffer.ajouter("a");
+
+        attendre(() -> lots.size() == 1);
+        assertThat(lots).containsExactly(List.of("a"));
+        assertThat(registry.get("write_behind.delay").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void laFilePleineFaitEcrireLAppelant() throws InterruptedException {
+        CountDownLatch demarre = new CountDownLatch(1);
+        CountDownLatch libere = new CountDownLatch(1);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        buffer = buffer(1, 1, Duration.ofMinutes(1), lot -> {
+            threads.add(Thread.currentThread().getName());
+            lots.add(lot);
+            if (lot.contains("a")) {
+                demarre.countDown();
+                attendre(libere);
+            }
+        });
+
+        buffer.ajouter("a");
+        assertThat(demarre.await(2, TimeUnit.SECONDS)).isTrue();
+        buffer.ajouter("b");
+        buffer.ajouter("c");
+
+        assertThat(lots).contains(List.of("c"));
+        assertThat(threads).contains(Thread.currentThread().getName());
+        assertThat(buffer.enAttente()).isEqualTo(1);
+        assertThat(registry.get("write_behind.backpressure").tag("outcome", "direct").counter().count()).isEqualTo(1);
+
+        libere.countDown();
+        buffer.close();
+        assertThat(lots).flatExtracting(lot -> lot).containsExactlyInAnyOrder("a", "b", "c");
+    }
+
+    @Test
+    void unLotRefuseEstReessayeEntreeParEntree() {
+        buffer = buffer(100, 3, Duration.ofMinutes(1), lot -> {
+            if (lot.contains("x")) {
+                throw new IllegalStateException("refusé");
+            }
+            lots.add(lot);
+        });
+
+        List.of("a", "x", "b").forEach(buffer::ajouter);
+
+        attendre(() -> lots.size() == 2);
+        assertThat(lots).containsExactly(List.of("a"), List.of("b"));
+        assertThat(registry.get("write_behind.failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lArretEcritLesEntreesEnAttente() {
+        buffer = buffer(100, 100, Duration.ofMinutes(1), lots::add);
+
+        buffer.ajouter("a");
+        buffer.ajouter("b");
+        buffer.close();
+
+        assertThat(lots).flatExtracting(lot -> lot).containsExactly("a", "b");
+
+        buffer.ajouter("c");
+        assertThat(lots).last().isEqualTo(List.of("c"));
+    }
+
+    @Test
+    void refuseUneConfigurationInvalide() {
+        assertThatThrownBy(() -> buffer(0, 1, Duration.ofSeconds(1), lots::add))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> buffer(1, 1, Duration.ZERO, lots::add))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private WriteBehindBuffer<String> buffer(int capacite, int tailleLot, Duration intervalle,
+                                             Consumer<List<String>> ecriture) {
+        return new WriteBehindBuffer<>("test", capacite, tailleLot, intervalle, Duration.ofMillis(20),
+                ecriture, registry);
+    }
+
+    private static void attendre(BooleanSupplier condition) {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition non atteinte à temps").isLessThan(limite);
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void attendre(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.TypeAnnulation;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.sql.Date;
 import java.util.List;
@@ -25,7 +26,8 @@ class AnnulationRebatchServiceTest {
         AnnulationMapper mapper = mock(AnnulationMapper.class);
         RdvRepository rdvs = mock(RdvRepository.class);
         RdvIdAllocator allocator = mock(RdvIdAllocator.class);
-        AnnulationServiceImpl service = new AnnulationServiceImpl(annulations, mapper, rdvs, allocator);
+        AnnulationServiceImpl service = new AnnulationServiceImpl(
+                annulations, mapper, rdvs, allocator, mock(ApplicationEventPublisher.class));
 
         AnnulationDTO request = new AnnulationDTO();
         request.setIdVol(42);
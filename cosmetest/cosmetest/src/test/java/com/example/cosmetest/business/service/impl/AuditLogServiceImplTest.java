@@ -2,19 +2,27 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.data.repository.AuditLogRepository;
 import com.example.cosmetest.domain.model.AuditLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.PreparedStatement;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Calendar;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -28,34 +36,71 @@ class AuditLogServiceImplTest {
     @Mock
     private AuditLogRepository repository;
 
-    @InjectMocks
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private AuditLogServiceImpl service;
 
+    @BeforeEach
+    void setUp() {
+        // Lots d'une entrée : chaque log() est écrit dès que le thread d'écriture le prend
+        service = new AuditLogServiceImpl(repository, jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                100, 1, Duration.ofSeconds(1), Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
     // ─── log() ────────────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("log() - doit sauvegarder une entrée avec les bons champs")
-    void log_shouldSaveAuditLogWithCorrectFields() {
+    @DisplayName("log() - doit écrire une entrée avec les bons champs, hors du thread appelant")
+    void log_shouldInsertAuditLogWithCorrectFields() throws Exception {
         service.log("alice", AuditLog.Action.CREATE, "VOLONTAIRE", "42", "détail", "127.0.0.1");
 
-        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(repository).save(captor.capture());
-        AuditLog saved = captor.getValue();
-
-        assertThat(saved.getUtilisateur()).isEqualTo("alice");
-        assertThat(saved.getAction()).isEqualTo(AuditLog.Action.CREATE);
-        assertThat(saved.getEntite()).isEqualTo("VOLONTAIRE");
-        assertThat(saved.getEntiteId()).isEqualTo("42");
-        assertThat(saved.getDetails()).isEqualTo("détail");
-        assertThat(saved.getIp()).isEqualTo("127.0.0.1");
-        assertThat(saved.getCreatedAt()).isNotNull();
+        ArgumentCaptor<BatchPreparedStatementSetter> captor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(startsWith("INSERT INTO audit_log"), captor.capture());
+        assertThat(captor.getValue().getBatchSize()).isEqualTo(1);
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        captor.getValue().setValues(ps, 0);
+        verify(ps).setString(1, "alice");
+        verify(ps).setString(2, "CREATE");
+        verify(ps).setString(3, "VOLONTAIRE");
+        verify(ps).setString(4, "42");
+        verify(ps).setString(5, "détail");
+        verify(ps).setString(6, "127.0.0.1");
+        verify(ps).setTimestamp(eq(7), notNull(), any(Calendar.class));
+        verify(repository, never()).save(any());
     }
 
     @Test
     @DisplayName("log() - doit accepter details et ip null")
-    void log_shouldAcceptNullDetailsAndIp() {
+    void log_shouldAcceptNullDetailsAndIp() throws Exception {
         service.log("bob", AuditLog.Action.DELETE, "ETUDE", "5", null, null);
-        verify(repository).save(any(AuditLog.class));
+
+        ArgumentCaptor<BatchPreparedStatementSetter> captor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, timeout(2000)).batchUpdate(anyString(), captor.capture());
+        PreparedStatement ps = mock(PreparedStatement.class);
+        captor.getValue().setValues(ps, 0);
+        verify(ps).setString(5, null);
+        verify(ps).setString(6, null);
+    }
+
+    @Test
+    @DisplayName("logTransactional() - doit sauvegarder dans la transaction de l'appelant")
+    void logTransactional_shouldSaveThroughRepository() {
+        service.logTransactional("alice", AuditLog.Action.ASSIGN, "ETUDE_VOLONTAIRE", "1-2-3", null, null);
+
+        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
+        verify(repository).save(captor.capture());
+        assertThat(captor.getValue().getAction()).isEqualTo(AuditLog.Action.ASSIGN);
+        verifyNoInteractions(jdbcTemplate);
     }
 
     // ─── findAll() ────────────────────────────────────────────────────────────
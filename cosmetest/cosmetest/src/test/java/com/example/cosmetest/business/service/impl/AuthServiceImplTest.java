@@ -9,8 +9,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -35,6 +37,9 @@ class AuthServiceImplTest {
     @Mock
     private JwtTokenUtil jwtTokenUtil;
 
+    @Spy
+    private LocalTokenRevocationStore tokenRevocationStore = new LocalTokenRevocationStore();
+
     @InjectMocks
     private AuthServiceImpl authService;
 
@@ -226,6 +231,7 @@ class AuthServiceImplTest {
         String token = "blacklisted.token";
         
         // Invalider le token d'abord
+        expireDansUneHeure(token);
         authService.invalidateToken(token);
 
         // When
@@ -311,6 +317,7 @@ class AuthServiceImplTest {
         String token = "token.to.invalidate";
 
         // When
+        expireDansUneHeure(token);
         authService.invalidateToken(token);
 
         // Then
@@ -327,6 +334,10 @@ class AuthServiceImplTest {
         String token2 = "token2";
         String token3 = "token3";
 
+        expireDansUneHeure(token1);
+        expireDansUneHeure(token2);
+        expireDansUneHeure(token3);
+
         // When
         authService.invalidateToken(token1);
         authService.invalidateToken(token2);
@@ -348,6 +359,21 @@ class AuthServiceImplTest {
         assertThat(authService.validateToken(null)).isFalse();
     }
 
+    @Test
+    @DisplayName("invalidateToken() - Jeton illisible ou expiré : rien à révoquer")
+    void testInvalidateToken_UnreadableToken_NotStored() {
+        // Given
+        String token = "expired.token";
+        when(jwtTokenUtil.extractExpiration(token))
+                .thenThrow(new RuntimeException("Token expiré"));
+
+        // When
+        authService.invalidateToken(token);
+
+        // Then
+        verify(tokenRevocationStore, never()).revoquer(eq(token), any());
+    }
+
     // ===== TESTS DE SCÉNARIOS COMPLETS =====
 
     @Test
@@ -378,6 +404,7 @@ class AuthServiceImplTest {
         assertThat(isValidBeforeLogout).isTrue();
 
         // When - Logout
+        expireDansUneHeure(generatedToken);
         authService.invalidateToken(generatedToken);
 
         // Then - Le token ne devrait plus être valide
@@ -464,4 +491,9 @@ class AuthServiceImplTest {
         verify(identifiantRepository, times(1)).findByIdentifiant(login);
         verify(jwtTokenUtil, times(1)).generateToken(login, "ROLE_GUEST");
     }
+
+    private void expireDansUneHeure(String token) {
+        when(jwtTokenUtil.extractExpiration(token))
+                .thenReturn(new Date(System.currentTimeMillis() + 3_600_000));
+    }
 }
@@ -2,7 +2,12 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.CalendrierDTO;
 import com.example.cosmetest.business.dto.EtudeDTO;
+import com.example.cosmetest.business.dto.RdvSeriePointDTO;
+import com.example.cosmetest.business.service.DisponibiliteService;
 import com.example.cosmetest.business.service.EtudeService;
+import com.example.cosmetest.business.service.OccupationCreneaux;
+import com.example.cosmetest.business.service.RdvRollupService;
+import com.example.cosmetest.config.CacheConfig;
 import com.example.cosmetest.data.repository.*;
 import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.RdvId;
@@ -12,7 +17,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -21,6 +28,7 @@ import org.springframework.data.domain.Pageable;
 import java.sql.Date;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.*;
@@ -50,6 +58,18 @@ class CalendrierServiceImplTest {
     @Mock
     private EtudeService etudeService;
 
+    @Mock
+    private DisponibiliteService disponibiliteService;
+
+    @Mock
+    private RdvRollupService rdvRollupService;
+
+    @Spy
+    private LecturesParalleles lecturesParalleles = new LecturesParalleles(2, 4);
+
+    @Spy
+    private CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+
     @InjectMocks
     private CalendrierServiceImpl calendrierService;
 
@@ -162,10 +182,20 @@ class CalendrierServiceImplTest {
             .thenReturn(Map.of("Planifié", 5, "Effectué", 3, "Annulé", 2));
         when(etudeRepository.countEtudesActivesEntreDates(any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(3);
-        when(rdvRepository.countRdvByDayOfWeekBetweenDates(any(Date.class), any(Date.class)))
-            .thenReturn(Map.of("MONDAY", 2, "WEDNESDAY", 3));
-        when(rdvRepository.countRdvByHourBetweenDates(any(Date.class), any(Date.class)))
-            .thenReturn(Map.of("09:00", 4, "14:00", 6));
+        LocalDate lundi = LocalDate.of(2024, 6, 17);
+        when(rdvRollupService.serie(dateDebut, dateFin, RdvRollupService.Pas.JOUR,
+                RdvRollupService.Groupe.AUCUN, null, Set.of(), false))
+            .thenReturn(List.of(
+                new RdvSeriePointDTO("2024-06-17", lundi, null, 2),
+                new RdvSeriePointDTO("2024-06-19", lundi.plusDays(2), null, 3),
+                new RdvSeriePointDTO("2024-06-24", lundi.plusWeeks(1), null, 1)));
+        when(rdvRollupService.serie(dateDebut, dateFin, RdvRollupService.Pas.JOUR,
+                RdvRollupService.Groupe.HEURE, null, Set.of(), false))
+            .thenReturn(List.of(
+                new RdvSeriePointDTO("2024-06-17", lundi, "", 1),
+                new RdvSeriePointDTO("2024-06-17", lundi, "09", 1),
+                new RdvSeriePointDTO("2024-06-19", lundi.plusDays(2), "09", 3),
+                new RdvSeriePointDTO("2024-06-24", lundi.plusWeeks(1), "14", 1)));
 
         // Act
         Map<String, Object> result = calendrierService.getStatistiquesPeriode(dateDebut, dateFin);
@@ -176,6 +206,8 @@ class CalendrierServiceImplTest {
                                         "repartitionJours", "repartitionHeures");
         assertThat(result.get("totalRdv")).isEqualTo(10);
         assertThat(result.get("totalEtudes")).isEqualTo(3);
+        assertThat(result.get("repartitionJours")).isEqualTo(Map.of("Lundi", 3, "Mercredi", 3));
+        assertThat(result.get("repartitionHeures")).isEqualTo(Map.of("09h", 4, "14h", 1));
     }
 
     @Test
@@ -187,10 +219,8 @@ class CalendrierServiceImplTest {
             .thenReturn(Collections.emptyMap());
         when(etudeRepository.countEtudesActivesEntreDates(any(LocalDate.class), any(LocalDate.class)))
             .thenReturn(0);
-        when(rdvRepository.countRdvByDayOfWeekBetweenDates(any(Date.class), any(Date.class)))
-            .thenReturn(Collections.emptyMap());
-        when(rdvRepository.countRdvByHourBetweenDates(any(Date.class), any(Date.class)))
-            .thenReturn(Collections.emptyMap());
+        when(rdvRollupService.serie(any(), any(), any(), any(), any(), any(), anyBoolean()))
+            .thenReturn(List.of());
 
         // Act
         Map<String, Object> result = calendrierService.getStatistiquesPeriode(dateDebut, dateFin);
@@ -199,6 +229,8 @@ class CalendrierServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.get("totalRdv")).isEqualTo(0);
         assertThat(result.get("totalEtudes")).isEqualTo(0);
+        assertThat(result.get("repartitionJours")).isEqualTo(Map.of());
+        assertThat(result.get("repartitionHeures")).isEqualTo(Map.of());
     }
 
     // ==================== Tests getCreneauxLibres() ====================
@@ -206,12 +238,42 @@ class CalendrierServiceImplTest {
     @Test
     @DisplayName("getCreneauxLibres() - Recherche de créneaux libres")
     void testGetCreneauxLibres_Success() {
+        // Arrange
+        OccupationCreneaux occupation = new OccupationCreneaux(dateDebut, dateFin,
+                LocalTime.of(9, 0), LocalTime.of(18, 0), 30, 1);
+        occupation.occuper(dateDebut, LocalTime.of(10, 0), 90);
+        when(disponibiliteService.occupation(dateDebut, dateFin, "09:00", "18:00", null)).thenReturn(occupation);
+
         // Act
         Map<String, Object> result = calendrierService.getCreneauxLibres(dateDebut, dateFin, "09:00", "18:00");
 
         // Assert
         assertThat(result).isNotNull();
         assertThat(result).containsKey("creneaux");
+        @SuppressWarnings("unchecked")
+        Map<LocalDate, List<String>> creneaux = (Map<LocalDate, List<String>>) result.get("creneaux");
+        assertThat(creneaux).hasSize(8);
+        assertThat(creneaux.get(dateDebut)).contains("09:30", "11:30").doesNotContain("10:00", "10:30", "11:00");
+        assertThat(creneaux.get(dateFin)).hasSize(18);
+    }
+
+    @Test
+    @DisplayName("getPremiersCreneauxLibres() - Premiers créneaux pour une visite longue")
+    void testGetPremiersCreneauxLibres_Success() {
+        // Arrange
+        OccupationCreneaux occupation = new OccupationCreneaux(dateDebut, dateFin,
+                LocalTime.of(9, 0), LocalTime.of(12, 0), 30, 1);
+        occupation.occuper(dateDebut, LocalTime.of(10, 0), 30);
+        when(disponibiliteService.occupation(dateDebut, dateFin, "09:00", "12:00", null)).thenReturn(occupation);
+
+        // Act
+        Map<String, Object> result = calendrierService.getPremiersCreneauxLibres(
+                dateDebut, dateFin, "09:00", "12:00", 60, 2, null);
+
+        // Assert
+        assertThat(result.get("creneaux")).isEqualTo(List.of(
+                Map.of("date", dateDebut, "heureDebut", "09:00", "heureFin", "10:00"),
+                Map.of("date", dateDebut, "heureDebut", "10:30", "heureFin", "11:30")));
     }
 
     // ==================== Tests getDonneesJournee() ====================
@@ -273,14 +335,84 @@ class CalendrierServiceImplTest {
     @DisplayName("getTendancesUtilisation() - Analyse des tendances sur un mois")
     void testGetTendancesUtilisation_Success() {
         // Arrange
-        int nombreJours = 30;
+        LocalDate semaine23 = LocalDate.of(2024, 6, 3);
+        LocalDate semaine24 = LocalDate.of(2024, 6, 10);
+        when(rdvRollupService.serie(any(LocalDate.class), any(LocalDate.class), eq(RdvRollupService.Pas.SEMAINE),
+                eq(RdvRollupService.Groupe.ETAT), isNull(), eq(Set.of()), eq(true)))
+            .thenReturn(List.of(
+                new RdvSeriePointDTO("2024-W23", semaine23, "ANNULE", 2),
+                new RdvSeriePointDTO("2024-W23", semaine23, "CONFIRME", 4),
+                new RdvSeriePointDTO("2024-W24", semaine24, "CONFIRME", 5),
+                new RdvSeriePointDTO("2024-W24", semaine24, "EN_ATTENTE", 1)));
 
         // Act
-        Map<String, Object> result = calendrierService.getTendancesUtilisation(nombreJours);
+        Map<String, Object> result = calendrierService.getTendancesUtilisation(4);
 
         // Assert
-        assertThat(result).isNotNull();
         assertThat(result).containsKey("periode");
+        // Les annulés sont suivis par état mais exclus du total hebdomadaire
+        assertThat(result.get("evolutionRdvParSemaine")).isEqualTo(List.of(
+            Map.of("annee", 2024, "semaine", 23, "count", 4),
+            Map.of("annee", 2024, "semaine", 24, "count", 6)));
+        @SuppressWarnings("unchecked")
+        Map<String, List<Map<String, Object>>> evolutionEtats =
+            (Map<String, List<Map<String, Object>>>) result.get("evolutionEtats");
+        assertThat(evolutionEtats).containsOnlyKeys("CONFIRME", "EN_ATTENTE", "ANNULE", "COMPLETE");
+        assertThat(evolutionEtats.get("CONFIRME")).containsExactly(
+            Map.of("annee", 2024, "semaine", 23, "count", 4, "etat", "CONFIRME"),
+            Map.of("annee", 2024, "semaine", 24, "count", 5, "etat", "CONFIRME"));
+        assertThat(evolutionEtats.get("ANNULE")).containsExactly(
+            Map.of("annee", 2024, "semaine", 23, "count", 2, "etat", "ANNULE"));
+        assertThat(evolutionEtats.get("EN_ATTENTE")).containsExactly(
+            Map.of("annee", 2024, "semaine", 24, "count", 1, "etat", "EN_ATTENTE"));
+        assertThat(evolutionEtats.get("COMPLETE")).isEmpty();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> predictions = (Map<String, Object>) result.get("predictions");
+        assertThat(predictions.get("tendance")).isEqualTo("HAUSSE");
+    }
+
+    // ==================== Tests cache ====================
+
+    @Test
+    @DisplayName("getDonneesCalendrierOptimisees() - Seuls les appels servis par le cache le signalent")
+    void testGetDonneesCalendrierOptimisees_SignaleLesDonneesEnCache() {
+        CalendrierDTO genere = calendrierService.getDonneesCalendrierOptimisees(dateDebut, dateFin, true);
+        CalendrierDTO servi = calendrierService.getDonneesCalendrierOptimisees(dateDebut, dateFin, true);
+
+        assertThat(genere.getMetaDonnees().isDonneesCache()).isFalse();
+        assertThat(servi.getMetaDonnees().isDonneesCache()).isTrue();
+        assertThat(servi.getMetaDonnees().getHorodatageGeneration())
+            .isEqualTo(genere.getMetaDonnees().getHorodatageGeneration());
+        verify(rdvRepository, times(1)).findByDateBetweenWithEtudeAndVolontaireOptimized(any(), any());
+    }
+
+    @Test
+    @DisplayName("getDonneesAvecCache() - Un rafraîchissement forcé régénère et remplace l'entrée")
+    void testGetDonneesAvecCache_RafraichissementForce() {
+        calendrierService.getDonneesAvecCache(dateDebut, dateFin, false);
+        CalendrierDTO force = calendrierService.getDonneesAvecCache(dateDebut, dateFin, true);
+        CalendrierDTO servi = calendrierService.getDonneesAvecCache(dateDebut, dateFin, false);
+
+        assertThat(force.getMetaDonnees().isDonneesCache()).isFalse();
+        assertThat(servi.getMetaDonnees().isDonneesCache()).isTrue();
+        assertThat(servi.getMetaDonnees().getHorodatageGeneration())
+            .isEqualTo(force.getMetaDonnees().getHorodatageGeneration());
+        verify(rdvRepository, times(2)).findByDateBetweenWithEtudeAndVolontaireOptimized(any(), any());
+    }
+
+    @Test
+    @DisplayName("prechargerDonneesFrequentesOptimisees() - Remplit les caches sans passer par le proxy")
+    void testPrechargerDonneesFrequentesOptimisees_RemplitLesCaches() {
+        LocalDate today = LocalDate.now();
+        LocalDate lundi = today.with(DayOfWeek.MONDAY);
+
+        calendrierService.prechargerDonneesFrequentesOptimisees();
+
+        assertThat(cacheManager.getCache(CacheConfig.CALENDRIER_SEMAINE).get(lundi.toString())).isNotNull();
+        assertThat(cacheManager.getCache(CacheConfig.CALENDRIER_SEMAINE).get(lundi.plusWeeks(1).toString()))
+            .isNotNull();
+        assertThat(cacheManager.getCache(CacheConfig.CALENDRIER_PERIODE).get(today.withDayOfMonth(1) + "_"
+            + today.withDayOfMonth(today.lengthOfMonth()) + "_true")).isNotNull();
     }
 
     // ==================== Tests invaliderCacheCalendrier() ====================
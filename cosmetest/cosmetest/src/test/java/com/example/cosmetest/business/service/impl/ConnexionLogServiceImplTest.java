@@ -2,22 +2,31 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.data.repository.ConnexionLogRepository;
 import com.example.cosmetest.domain.model.ConnexionLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.PreparedStatement;
+import java.time.Duration;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,43 +36,89 @@ class ConnexionLogServiceImplTest {
     @Mock
     private ConnexionLogRepository repository;
 
-    @InjectMocks
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     private ConnexionLogServiceImpl service;
 
+    @BeforeEach
+    void setUp() {
+        // Lots longs et délai d'une minute : rien n'est écrit avant flush()
+        service = new ConnexionLogServiceImpl(repository, jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                100, 100, Duration.ofMinutes(1), Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
     // ─── log() ────────────────────────────────────────────────────────────────
 
     @Test
-    @DisplayName("log() - connexion réussie : doit sauvegarder avec success=true")
-    void log_successfulLogin_shouldSaveWithSuccessTrue() {
+    @DisplayName("log() - connexion réussie : doit écrire avec success=true")
+    void log_successfulLogin_shouldInsertWithSuccessTrue() throws Exception {
         service.log("alice", true, "192.168.1.1");
 
-        ArgumentCaptor<ConnexionLog> captor = ArgumentCaptor.forClass(ConnexionLog.class);
-        verify(repository).save(captor.capture());
-        ConnexionLog saved = captor.getValue();
+        PreparedStatement ps = mock(PreparedStatement.class);
+        ecrire(1).setValues(ps, 0);
 
-        assertThat(saved.getLogin()).isEqualTo("alice");
-        assertThat(saved.isSuccess()).isTrue();
-        assertThat(saved.getIp()).isEqualTo("192.168.1.1");
-        assertThat(saved.getCreatedAt()).isNotNull();
+        verify(ps).setString(1, "alice");
+        verify(ps).setBoolean(2, true);
+        verify(ps).setString(3, "192.168.1.1");
+        verify(repository, never()).save(any());
     }
 
     @Test
-    @DisplayName("log() - connexion échouée : doit sauvegarder avec success=false")
-    void log_failedLogin_shouldSaveWithSuccessFalse() {
-        service.log("hacker", false, "10.0.0.1");
+    @DisplayName("log() - plusieurs connexions : un seul lot JDBC")
+    void log_severalLogins_shouldBeWrittenInOneBatch() throws Exception {
+        service.log("alice", true, "10.0.0.1");
+        service.log("hacker", false, "10.0.0.2");
+        service.log("bob", true, null);
+
+        BatchPreparedStatementSetter lot = ecrire(3);
+        PreparedStatement ps = mock(PreparedStatement.class);
+        lot.setValues(ps, 1);
+
+        verify(ps).setString(1, "hacker");
+        verify(ps).setBoolean(2, false);
+    }
+
+    @Test
+    @DisplayName("log() - un lot est écrit puis validé dans une seule transaction")
+    void log_batchIsCommittedInOneTransaction() {
+        service.log("alice", true, null);
+        service.log("bob", false, null);
 
-        ArgumentCaptor<ConnexionLog> captor = ArgumentCaptor.forClass(ConnexionLog.class);
-        verify(repository).save(captor.capture());
+        service.shutdown();
 
-        assertThat(captor.getValue().isSuccess()).isFalse();
-        assertThat(captor.getValue().getLogin()).isEqualTo("hacker");
+        InOrder ordre = inOrder(transactionManager, jdbcTemplate);
+        ordre.verify(transactionManager).getTransaction(any());
+        ordre.verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO connexion_log"), any(BatchPreparedStatementSetter.class));
+        ordre.verify(transactionManager).commit(any());
+        verify(transactionManager, times(1)).commit(any());
     }
 
     @Test
-    @DisplayName("log() - doit accepter une IP null")
-    void log_shouldAcceptNullIp() {
+    @DisplayName("log() - l'arrêt de l'application écrit les connexions en attente")
+    void shutdown_shouldFlushPendingEntries() {
         service.log("alice", true, null);
-        verify(repository).save(any(ConnexionLog.class));
+
+        service.shutdown();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO connexion_log"), any(BatchPreparedStatementSetter.class));
+    }
+
+    /** Arrête le service, ce qui écrit les entrées en attente, et renvoie l'unique lot écrit. */
+    private BatchPreparedStatementSetter ecrire(int taille) {
+        service.shutdown();
+        ArgumentCaptor<BatchPreparedStatementSetter> captor = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO connexion_log"), captor.capture());
+        assertThat(captor.getValue().getBatchSize()).isEqualTo(taille);
+        return captor.getValue();
     }
 
     // ─── findAll() ────────────────────────────────────────────────────────────
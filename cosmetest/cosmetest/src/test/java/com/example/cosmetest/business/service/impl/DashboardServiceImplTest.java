@@ -2,6 +2,7 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.*;
 import com.example.cosmetest.business.service.*;
+import com.example.cosmetest.data.repository.EtudeRepository;
 import com.example.cosmetest.data.repository.RdvRepository;
 import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.RdvId;
@@ -9,7 +10,6 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
@@ -53,7 +53,9 @@ class DashboardServiceImplTest {
     @Mock
     private EtudeVolontaireService etudeVolontaireService;
 
-    @InjectMocks
+    @Mock
+    private EtudeRepository etudeRepository;
+
     private DashboardServiceImpl dashboardService;
 
     private VolontaireDTO volontaireDTO;
@@ -62,6 +64,11 @@ class DashboardServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        DashboardSnapshot snapshot = new DashboardSnapshot(
+                volontaireService, etudeService, rdvService, preinscritService, etudeRepository);
+        dashboardService = new DashboardServiceImpl(
+                etudeService, rdvService, rdvRepository, etudeVolontaireService, snapshot);
+
         volontaireDTO = new VolontaireDTO();
         volontaireDTO.setIdVol(1);
         volontaireDTO.setPrenomVol("Jean");
@@ -300,8 +307,8 @@ class DashboardServiceImplTest {
         List<VolontaireDTO> volontaires = Collections.singletonList(volontaireDTO);
         List<RdvDTO> rdvs = Collections.singletonList(rdvDTO);
 
-        when(volontaireService.getRecentVolontaires(10)).thenReturn(volontaires);
-        when(rdvService.getRecentRdvs(10)).thenReturn(rdvs);
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(volontaires);
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(rdvs);
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -309,16 +316,16 @@ class DashboardServiceImplTest {
         // Assert
         assertThat(result).isNotEmpty();
         assertThat(result).hasSizeGreaterThanOrEqualTo(1);
-        verify(volontaireService, times(1)).getRecentVolontaires(10);
-        verify(rdvService, times(1)).getRecentRdvs(10);
+        verify(volontaireService, times(1)).getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX);
+        verify(rdvService, times(1)).getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX);
     }
 
     @Test
     @DisplayName("getRecentActivities() - Aucune activité récente")
     void testGetRecentActivities_Empty() {
         // Arrange
-        when(volontaireService.getRecentVolontaires(10)).thenReturn(Collections.emptyList());
-        when(rdvService.getRecentRdvs(10)).thenReturn(Collections.emptyList());
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -337,8 +344,8 @@ class DashboardServiceImplTest {
         volontaireNull.setNomVol(null);
         volontaireNull.setDateI(LocalDate.now());
 
-        when(volontaireService.getRecentVolontaires(10)).thenReturn(Collections.singletonList(volontaireNull));
-        when(rdvService.getRecentRdvs(10)).thenReturn(Collections.emptyList());
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.singletonList(volontaireNull));
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -357,8 +364,8 @@ class DashboardServiceImplTest {
         rdvNullDate.setIdEtude(2);
         rdvNullDate.setDate(null); // Date null
 
-        when(volontaireService.getRecentVolontaires(10)).thenReturn(Collections.emptyList());
-        when(rdvService.getRecentRdvs(10)).thenReturn(Collections.singletonList(rdvNullDate));
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.singletonList(rdvNullDate));
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -384,8 +391,8 @@ class DashboardServiceImplTest {
         v2.setNomVol("Martin");
         v2.setDateI(LocalDate.now().minusDays(1));
 
-        when(volontaireService.getRecentVolontaires(10)).thenReturn(Arrays.asList(v1, v2));
-        when(rdvService.getRecentRdvs(10)).thenReturn(Collections.emptyList());
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Arrays.asList(v1, v2));
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -406,8 +413,8 @@ class DashboardServiceImplTest {
             createVolontaire(3, "Pierre", "Durand")
         );
 
-        when(volontaireService.getRecentVolontaires(2)).thenReturn(volontaires);
-        when(rdvService.getRecentRdvs(2)).thenReturn(Collections.emptyList());
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(volontaires);
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(Collections.emptyList());
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(2);
@@ -420,7 +427,7 @@ class DashboardServiceImplTest {
     @DisplayName("getRecentActivities() - Exception lors de la récupération")
     void testGetRecentActivities_Exception() {
         // Arrange
-        when(volontaireService.getRecentVolontaires(10)).thenThrow(new RuntimeException("Database error"));
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenThrow(new RuntimeException("Database error"));
 
         // Act
         List<ActiviteRecenteDTO> result = dashboardService.getRecentActivities(10);
@@ -0,0 +1,144 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.ActiviteRecenteDTO;
+import com.example.cosmetest.business.dto.RdvDTO;
+import com.example.cosmetest.business.dto.VolontaireDTO;
+import com.example.cosmetest.business.event.EtudeChangedEvent;
+import com.example.cosmetest.business.event.PreinscritChangedEvent;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.business.service.EtudeService;
+import com.example.cosmetest.business.service.PreinscritService;
+import com.example.cosmetest.business.service.RdvService;
+import com.example.cosmetest.business.service.VolontaireService;
+import com.example.cosmetest.data.repository.EtudeRepository;
+import com.example.cosmetest.domain.model.Etude;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardSnapshotTest {
+
+    private final VolontaireService volontaireService = mock(VolontaireService.class);
+    private final EtudeService etudeService = mock(EtudeService.class);
+    private final RdvService rdvService = mock(RdvService.class);
+    private final PreinscritService preinscritService = mock(PreinscritService.class);
+    private final EtudeRepository etudeRepository = mock(EtudeRepository.class);
+    private final DashboardSnapshot snapshot = new DashboardSnapshot(
+            volontaireService, etudeService, rdvService, preinscritService, etudeRepository);
+
+    @Test
+    void lesLecturesSuivantesNeTouchentPasLaBase() {
+        when(volontaireService.countActiveVolontaires()).thenReturn(150);
+        when(preinscritService.countNewPreinscritsToday()).thenReturn(4);
+
+        snapshot.stats();
+        snapshot.dailyStats();
+        snapshot.activites(10);
+
+        assertThat(snapshot.stats().getVolontairesActifs()).isEqualTo(150);
+        assertThat(snapshot.dailyStats().getNouvellesPreinscriptions()).isEqualTo(4);
+        verify(volontaireService, times(1)).countActiveVolontaires();
+        verify(etudeService, times(1)).getCurrentEtudes();
+        verify(rdvService, times(1)).getRecentRdvs(anyInt());
+        verify(preinscritService, times(1)).countPreinscrits();
+    }
+
+    @Test
+    void uneEcritureNeRecalculeQueSaPartie() {
+        when(preinscritService.countPreinscrits()).thenReturn(25, 26);
+        snapshot.stats();
+
+        snapshot.onPreinscritChanged(new PreinscritChangedEvent(7));
+
+        assertThat(snapshot.stats().getPreinscrits()).isEqualTo(26);
+        verify(preinscritService, times(2)).countPreinscrits();
+        verify(volontaireService, times(1)).countActiveVolontaires();
+        verify(rdvService, times(1)).countRdvForToday();
+        verify(etudeService, times(1)).getCurrentEtudes();
+    }
+
+    @Test
+    void leFilFusionneVolontairesEtRdvAvecLesReferencesEnUneRequete() {
+        VolontaireDTO volontaire = new VolontaireDTO();
+        volontaire.setIdVol(1);
+        volontaire.setPrenomVol("Jean");
+        volontaire.setNomVol("Dupont");
+        volontaire.setDateI(LocalDate.now().minusDays(1));
+        when(volontaireService.getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(List.of(volontaire));
+        when(rdvService.getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX)).thenReturn(List.of(
+                rdv(10L, 3, LocalDate.now()), rdv(11L, 3, LocalDate.now().minusDays(3)), rdv(12L, 4, null)));
+        Etude etude = new Etude();
+        etude.setIdEtude(3);
+        etude.setRef("ETU-003");
+        when(etudeRepository.findAllById(anyIterable())).thenReturn(List.of(etude));
+
+        List<ActiviteRecenteDTO> activites = snapshot.activites(10);
+
+        assertThat(activites).extracting(ActiviteRecenteDTO::getId).containsExactly(10L, 12L, 1L, 11L);
+        assertThat(activites.get(0).getDescription()).isEqualTo("a planifié un RDV pour l'étude ETU-003");
+        assertThat(activites.get(1).getDescription()).endsWith("#4");
+        assertThat(activites.get(2).getDescription()).isEqualTo("a ajouté le volontaire Jean Dupont");
+        assertThat(snapshot.activites(2)).hasSize(2);
+        verify(etudeRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void uneModificationDEtudeRafraichitAussiLeFilDesRdv() {
+        snapshot.activites(10);
+
+        snapshot.onEtudeChanged(new EtudeChangedEvent(3));
+        snapshot.activites(10);
+
+        verify(etudeService, times(2)).getCurrentEtudes();
+        verify(rdvService, times(2)).getRecentRdvs(DashboardSnapshot.ACTIVITES_MAX);
+        verify(volontaireService, times(1)).getRecentVolontaires(DashboardSnapshot.ACTIVITES_MAX);
+    }
+
+    @Test
+    void laReconciliationRecalculeTout() {
+        snapshot.reconcilier();
+        verify(volontaireService, times(0)).countActiveVolontaires();
+
+        snapshot.stats();
+        snapshot.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        snapshot.onRdvChanged(RdvChangedEvent.unknownDates(3));
+        snapshot.reconcilier();
+        snapshot.stats();
+
+        verify(volontaireService, times(2)).countActiveVolontaires();
+        verify(rdvService, times(2)).countRdvForToday();
+        verify(etudeService, times(2)).getCurrentEtudes();
+        verify(preinscritService, times(2)).countPreinscrits();
+    }
+
+    @Test
+    void unEchecLaisseLaPartiePerimee() {
+        when(volontaireService.countActiveVolontaires())
+                .thenThrow(new IllegalStateException("base indisponible"))
+                .thenReturn(150);
+
+        assertThatThrownBy(snapshot::stats).isInstanceOf(IllegalStateException.class);
+
+        assertThat(snapshot.stats().getVolontairesActifs()).isEqualTo(150);
+    }
+
+    private static RdvDTO rdv(Long rdvPk, Integer idEtude, LocalDate date) {
+        RdvDTO dto = new RdvDTO();
+        dto.setRdvPk(rdvPk);
+        dto.setIdEtude(idEtude);
+        dto.setDate(date != null ? Date.valueOf(date) : null);
+        return dto;
+    }
+}
@@ -45,6 +45,13 @@ class EtudeVolontaireServiceImplTest {
         verify(repository, never()).save(any());
     }
 
+    @Test void validationDUneNouvelleAssociationNEcritRien() {
+        assertThatThrownBy(() -> service.validateNewAssociation(new EtudeVolontaireDTO(1,2,0,100,0,0,"INSCRIT")))
+                .isInstanceOf(IllegalArgumentException.class);
+        service.validateNewAssociation(new EtudeVolontaireDTO(1,2,3,100,0,0,"INSCRIT"));
+        verifyNoInteractions(repository);
+    }
+
     @Test void compteLesVolontairesDistinctsDePlusieursEtudesEnUneRequete() {
         when(repository.countActiveDistinctVolunteersByStudyIds(List.of(1, 2)))
                 .thenReturn(List.of(new Object[]{1, 12L}, new Object[]{2, 4L}));
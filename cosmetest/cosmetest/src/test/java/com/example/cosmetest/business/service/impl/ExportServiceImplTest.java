@@ -0,0 +1,120 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.ExportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExportServiceImplTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:export;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final ExportServiceImpl service = new ExportServiceImpl(dataSource, 2, 1);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE rdv (RDV_PK BIGINT PRIMARY KEY, ID_ETUDE INT, ID_RDV INT, "
+                + "ID_VOLONTAIRE INT, ID_GROUPE INT, DATE DATE, HEURE VARCHAR(10), ETAT VARCHAR(20), "
+                + "COMMENTAIRES VARCHAR(200), DUREE INT)");
+        jdbcTemplate.update("INSERT INTO rdv VALUES (3, 12, 2, 7, 1, DATE '2026-03-02', '10h00', 'PLANIFIE', "
+                + "'Apporter \"fiche\", signée', 30)");
+        jdbcTemplate.update("INSERT INTO rdv VALUES (1, 12, 1, 5, 1, DATE '2026-03-01', '09h00', 'CONFIRME', NULL, NULL)");
+        jdbcTemplate.update("INSERT INTO rdv VALUES (2, 13, 1, 5, 1, DATE '2026-03-01', '09h30', 'CONFIRME', NULL, 45)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS rdv");
+    }
+
+    @Test
+    void exporteEnNdjsonLesColonnesDemandeesDansLOrdreDeLaCle() throws IOException {
+        ExportService.Export export = service.preparer(ExportService.Jeu.RDVS, ExportService.Format.NDJSON,
+                List.of("rdvPk", "date", "duree"), Map.of("idEtude", "12"));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long lignes = export.ecrire(sortie);
+
+        assertThat(lignes).isEqualTo(2);
+        assertThat(sortie.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"rdvPk\":1,\"date\":\"2026-03-01\",\"duree\":null}\n"
+                        + "{\"rdvPk\":3,\"date\":\"2026-03-02\",\"duree\":30}\n");
+        assertThat(export.nomFichier()).startsWith("rdvs-").endsWith(".ndjson");
+    }
+
+    @Test
+    void exporteEnCsvAvecEnteteEtChampsEchappes() throws IOException {
+        ExportService.Export export = service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of("rdvPk", "commentaires"), Map.of("du", "2026-03-02"));
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        export.ecrire(sortie);
+
+        assertThat(sortie.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "rdvPk,commentaires\r\n3,\"Apporter \"\"fiche\"\", signée\"\r\n");
+    }
+
+    @Test
+    void sansColonnesExporteToutLeJeu() throws IOException {
+        ExportService.Export export = service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of(), Map.of());
+
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        long lignes = export.ecrire(sortie);
+
+        assertThat(lignes).isEqualTo(3);
+        assertThat(sortie.toString(StandardCharsets.UTF_8)).startsWith(
+                String.join(",", service.colonnesDisponibles(ExportService.Jeu.RDVS)) + "\r\n");
+    }
+
+    @Test
+    void limiteLesExportsSimultanesEtRendLaPlaceALaFin() throws IOException {
+        ExportService.Export premier = service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of("rdvPk"), Map.of());
+
+        assertThatThrownBy(() -> service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of("rdvPk"), Map.of()))
+                .isInstanceOf(IllegalStateException.class);
+
+        premier.ecrire(new ByteArrayOutputStream());
+        premier.close();
+        ExportService.Export abandonne = service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of("rdvPk"), Map.of());
+        abandonne.close();
+        abandonne.close();
+
+        service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV, List.of("rdvPk"), Map.of()).close();
+        assertThatThrownBy(() -> abandonne.ecrire(new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void refuseColonnesFiltresEtValeursInconnus() {
+        assertThatThrownBy(() -> service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of("RDV_PK; DROP TABLE rdv"), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Colonne inconnue");
+        assertThatThrownBy(() -> service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of(), Map.of("nomVol", "Martin")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Filtre inconnu");
+        assertThatThrownBy(() -> service.preparer(ExportService.Jeu.RDVS, ExportService.Format.CSV,
+                List.of(), Map.of("du", "01/03/2026")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Valeur invalide");
+        assertThatThrownBy(() -> ExportService.Jeu.depuis("etudes"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
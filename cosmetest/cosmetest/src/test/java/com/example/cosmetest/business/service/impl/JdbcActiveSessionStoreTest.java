@@ -0,0 +1,114 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.ActiveSessionStore.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcActiveSessionStoreTest {
+
+    private static final Instant T0 = Instant.parse("2026-03-02T08:00:00Z");
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:sessions;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    private final JdbcActiveSessionStore noeudA = new JdbcActiveSessionStore(jdbcTemplate, transactionManager);
+    private final JdbcActiveSessionStore noeudB = new JdbcActiveSessionStore(jdbcTemplate, transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE session_active (LOGIN VARCHAR(255) PRIMARY KEY, "
+                + "CONNEXION TIMESTAMP NOT NULL, DERNIERE_ACTION TIMESTAMP NOT NULL, FERMETURE TIMESTAMP NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS session_active");
+    }
+
+    @Test
+    void laListeCouvreLesSessionsDeTousLesNoeuds() {
+        noeudA.ouvrir("alice", T0);
+        noeudB.activite("bob", T0.plusSeconds(10), false);
+        noeudB.activite("alice", T0.plusSeconds(60), true);
+        noeudB.activite("alice", T0.plusSeconds(30), true);
+
+        // L'activité du nœud B n'est visible qu'une fois écrite
+        assertThat(noeudA.actives(T0)).extracting(Session::login).containsExactly("alice");
+        noeudB.ecrire();
+
+        assertThat(noeudA.actives(T0)).containsExactly(
+                new Session("alice", T0, T0.plusSeconds(60)),
+                new Session("bob", T0.plusSeconds(10), T0.plusSeconds(10)));
+    }
+
+    @Test
+    void uneRequeteDeFondNeRepousseNiLInactiviteNiLaConnexion() {
+        noeudA.ouvrir("alice", T0);
+        noeudB.activite("alice", T0.plusSeconds(120), false);
+
+        assertThat(noeudB.actives(T0)).containsExactly(new Session("alice", T0, T0));
+    }
+
+    @Test
+    void uneSessionExpireeNEstRendueQuAUnSeulNoeud() {
+        noeudA.ouvrir("alice", T0);
+        noeudA.ouvrir("bob", T0.plusSeconds(600));
+
+        assertThat(noeudB.expirer(T0.plusSeconds(300))).extracting(Session::login).containsExactly("alice");
+        assertThat(noeudA.expirer(T0.plusSeconds(300))).isEmpty();
+        assertThat(noeudA.actives(T0)).extracting(Session::login).containsExactly("bob");
+    }
+
+    @Test
+    void laFermetureRetireLaSessionUneSeuleFois() {
+        noeudA.ouvrir("alice", T0);
+        noeudA.activite("alice", T0.plusSeconds(45), true);
+
+        assertThat(noeudA.fermer("alice")).contains(new Session("alice", T0, T0.plusSeconds(45)));
+        assertThat(noeudB.fermer("alice")).isEmpty();
+        assertThat(noeudB.actives(T0)).isEmpty();
+    }
+
+    @Test
+    void uneActiviteEnAttenteAvantLaFermetureNeRecreePasLaSession() {
+        noeudA.ouvrir("alice", T0);
+        noeudB.activite("alice", T0.plusSeconds(30), true);
+        noeudB.activite("alice", T0.plusSeconds(40), false);
+
+        assertThat(noeudA.fermer("alice")).contains(new Session("alice", T0, T0));
+        noeudB.ecrire();
+
+        assertThat(noeudA.actives(T0)).isEmpty();
+        assertThat(noeudA.fermer("alice")).isEmpty();
+    }
+
+    @Test
+    void uneActivitePosterieureALaFermetureRouvreLaSession() {
+        Instant apres = Instant.now().plusSeconds(60);
+        noeudA.ouvrir("alice", T0);
+        noeudA.fermer("alice");
+
+        noeudB.activite("alice", apres, true);
+        noeudB.ecrire();
+
+        assertThat(noeudA.actives(T0)).containsExactly(new Session("alice", apres, apres));
+    }
+
+    @Test
+    void lesFermeturesSontPurgeesAvecLesSessionsExpirees() {
+        noeudA.ouvrir("alice", T0);
+        noeudA.fermer("alice");
+
+        assertThat(noeudB.expirer(Instant.now().plusSeconds(1))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM session_active", Integer.class)).isZero();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.service.TokenRevocationStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcTokenRevocationStoreTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:revocation;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final MutableClock clock = new MutableClock();
+    private final JdbcTokenRevocationStore noeudA = new JdbcTokenRevocationStore(jdbcTemplate, clock);
+    private final JdbcTokenRevocationStore noeudB = new JdbcTokenRevocationStore(jdbcTemplate, clock);
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE token_revoque (CLE CHAR(43) PRIMARY KEY, "
+                + "EXPIRATION TIMESTAMP NOT NULL, REVOQUE_LE TIMESTAMP NOT NULL)");
+        noeudA.synchroniser();
+        noeudB.synchroniser();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS token_revoque");
+    }
+
+    @Test
+    void uneRevocationEstVueParLesAutresNoeudsApresSynchronisation() {
+        noeudA.revoquer("jeton.a", clock.instant().plus(Duration.ofHours(1)));
+        noeudA.revoquer("jeton.a", clock.instant().plus(Duration.ofHours(1)));
+
+        assertThat(noeudA.estRevoque("jeton.a")).isTrue();
+
+        clock.advance(Duration.ofSeconds(5));
+        noeudB.synchroniser();
+
+        assertThat(noeudB.estRevoque("jeton.a")).isTrue();
+        assertThat(noeudB.estRevoque("jeton.b")).isFalse();
+    }
+
+    @Test
+    void unJetonAbsentDuFiltreEstAccepteSansLireLaBase() {
+        noeudA.revoquer("jeton.a", clock.instant().plus(Duration.ofHours(1)));
+        // Toute lecture échouerait désormais
+        jdbcTemplate.execute("DROP TABLE token_revoque");
+
+        assertThat(noeudA.estRevoque("jeton.b")).isFalse();
+    }
+
+    @Test
+    void laPurgeRetireLesJetonsExpires() {
+        noeudA.revoquer("jeton.court", clock.instant().plus(Duration.ofMinutes(5)));
+        noeudA.revoquer("jeton.long", clock.instant().plus(Duration.ofHours(1)));
+
+        clock.advance(Duration.ofMinutes(10));
+        noeudB.purger();
+
+        assertThat(noeudB.estRevoque("jeton.court")).isFalse();
+        assertThat(noeudB.estRevoque("jeton.long")).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT CLE FROM token_revoque", String.class))
+                .containsExactly(TokenRevocationStore.cle("jeton.long"));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.cosmetest.business.service.impl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LecturesParallelesTest {
+
+    private final LecturesParalleles lecturesParalleles = new LecturesParalleles(2, 3);
+
+    @AfterEach
+    void tearDown() {
+        lecturesParalleles.shutdown();
+    }
+
+    @Test
+    void rendLesResultatsDeChaqueLectureSansDepasserLePlafond() {
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        List<LecturesParalleles.Branche<Integer>> branches = new ArrayList<>();
+
+        try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
+            for (int i = 0; i < 6; i++) {
+                int valeur = i;
+                branches.add(lot.lancer(() -> {
+                    maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+                    Thread.sleep(20);
+                    enCours.decrementAndGet();
+                    return valeur * 10;
+                }));
+            }
+            lot.attendre();
+        }
+
+        assertThat(branches).extracting(LecturesParalleles.Branche::get).containsExactly(0, 10, 20, 30, 40, 50);
+        assertThat(maximum.get()).isEqualTo(2);
+    }
+
+    @Test
+    void unEchecAnnuleLesAutresLecturesEtRemonteSonErreur() throws InterruptedException {
+        CountDownLatch demarree = new CountDownLatch(1);
+        AtomicBoolean interrompue = new AtomicBoolean();
+
+        try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
+            lot.lancer(() -> {
+                demarree.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrompue.set(true);
+                    throw e;
+                }
+                return 1;
+            });
+            lot.lancer(() -> {
+                demarree.await();
+                throw new IllegalStateException("requête en échec");
+            });
+
+            assertThatThrownBy(lot::attendre)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("requête en échec");
+        }
+
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!interrompue.get() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertThat(interrompue).isTrue();
+    }
+
+    @Test
+    void lesLotsSimultanesPartagentLePlafondGlobal() throws InterruptedException {
+        AtomicInteger enCours = new AtomicInteger();
+        AtomicInteger maximum = new AtomicInteger();
+        List<Thread> requetes = new ArrayList<>();
+
+        for (int r = 0; r < 3; r++) {
+            requetes.add(Thread.ofPlatform().start(() -> {
+                try (LecturesParalleles.Lot lot = lecturesParalleles.lot()) {
+                    for (int i = 0; i < 2; i++) {
+                        lot.lancer(() -> {
+                            maximum.accumulateAndGet(enCours.incrementAndGet(), Math::max);
+                            Thread.sleep(50);
+                            enCours.decrementAndGet();
+                            return null;
+                        });
+                    }
+                    lot.attendre();
+                }
+            }));
+        }
+        for (Thread requete : requetes) {
+            requete.join();
+        }
+
+        assertThat(maximum.get()).isEqualTo(3);
+    }
+
+    @Test
+    void refuseUnPlafondNul() {
+        assertThatThrownBy(() -> new LecturesParalleles(0, 4)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new LecturesParalleles(2, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
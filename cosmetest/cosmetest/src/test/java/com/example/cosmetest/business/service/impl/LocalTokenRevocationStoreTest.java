@@ -0,0 +1,61 @@
+package com.example.cosmetest.business.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenRevocationStoreTest {
+
+    private final MutableClock clock = new MutableClock();
+    private final LocalTokenRevocationStore store = new LocalTokenRevocationStore(clock);
+
+    @Test
+    void unJetonRevoqueLeResteJusquaSonExpirationPuisDisparait() {
+        store.revoquer("jeton.a", clock.instant().plus(Duration.ofMinutes(30)));
+
+        assertThat(store.estRevoque("jeton.a")).isTrue();
+        assertThat(store.estRevoque("jeton.b")).isFalse();
+
+        clock.advance(Duration.ofMinutes(31));
+
+        assertThat(store.estRevoque("jeton.a")).isFalse();
+        assertThat(store.taille()).isZero();
+    }
+
+    @Test
+    void unJetonDejaExpireNEstPasConserve() {
+        store.revoquer("jeton.a", clock.instant().minusSeconds(1));
+
+        assertThat(store.estRevoque("jeton.a")).isFalse();
+        assertThat(store.taille()).isZero();
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,16 +1,13 @@
 package com.example.cosmetest.business.service.impl;
 
-import com.example.cosmetest.business.dto.AnnulationDTO;
-import com.example.cosmetest.business.dto.EtudeVolontaireDTO;
 import com.example.cosmetest.business.dto.PaymentBatchResultDTO;
-import com.example.cosmetest.business.service.AnnulationService;
 import com.example.cosmetest.business.service.EtudeService;
-import com.example.cosmetest.business.service.EtudeVolontaireService;
-import com.example.cosmetest.domain.model.EtudeVolontaireId;
+import com.example.cosmetest.data.repository.EtudeVolontaireRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -23,17 +20,14 @@ import static org.mockito.Mockito.*;
 
 /**
  * Tests unitaires pour PaymentBatchServiceImpl
- * Service de traitement par lot des paiements
+ * Service de traitement par lot des paiements (requêtes ensemblistes)
  */
 @ExtendWith(MockitoExtension.class)
 @DisplayName("PaymentBatchServiceImpl - Tests unitaires")
 class PaymentBatchServiceImplTest {
 
     @Mock
-    private EtudeVolontaireService etudeVolontaireService;
-
-    @Mock
-    private AnnulationService annulationService;
+    private EtudeVolontaireRepository etudeVolontaireRepository;
 
     @Mock
     private EtudeService etudeService;
@@ -42,14 +36,10 @@ class PaymentBatchServiceImplTest {
     private PaymentBatchServiceImpl paymentBatchService;
 
     private int idEtude;
-    private List<EtudeVolontaireDTO> associations;
-    private List<AnnulationDTO> annulations;
 
     @BeforeEach
     void setUp() {
         idEtude = 1;
-        associations = new ArrayList<>();
-        annulations = new ArrayList<>();
     }
 
     // ==================== Tests markAllAsPaid() - Scénarios de succès ====================
@@ -58,16 +48,8 @@ class PaymentBatchServiceImplTest {
     @DisplayName("markAllAsPaid() - Tous les volontaires marqués comme payés")
     void testMarkAllAsPaid_AllSuccess() {
         // Arrange - 3 volontaires non payés
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0); // Non payé
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 0); // Non payé
-        EtudeVolontaireDTO vol3 = createVolontaireDTO(1, 30, 0); // Non payé
-        associations.add(vol1);
-        associations.add(vol2);
-        associations.add(vol3);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        givenStates(3, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(3);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
 
         // Act
@@ -82,16 +64,33 @@ class PaymentBatchServiceImplTest {
         assertThat(result.getSkippedAnnules()).isEqualTo(0);
         assertThat(result.getErrorCount()).isEqualTo(0);
         assertThat(result.getErrors()).isEmpty();
-        
-        verify(etudeVolontaireService, atLeast(3)).updatePaye(anyLong(), eq(1));
+
+        verify(etudeVolontaireRepository, times(1)).markUnpaidActiveAsPaidByEtude(idEtude);
         verify(etudeService, times(1)).updatePayeStatus(eq(idEtude), anyInt());
     }
 
+    @Test
+    @DisplayName("markAllAsPaid() - Contrôle, mise à jour puis comptage, dans cet ordre")
+    void testMarkAllAsPaid_SetBasedStatementsInOrder() {
+        givenStates(2, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(2);
+        when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
+
+        paymentBatchService.markAllAsPaid(idEtude);
+
+        InOrder inOrder = inOrder(etudeVolontaireRepository, etudeService);
+        inOrder.verify(etudeVolontaireRepository).findDuplicateVolontairesByEtude(idEtude);
+        inOrder.verify(etudeVolontaireRepository).markUnpaidActiveAsPaidByEtude(idEtude);
+        inOrder.verify(etudeVolontaireRepository).countPaymentStatesByEtude(idEtude);
+        inOrder.verify(etudeService).updatePayeStatus(idEtude, 2);
+        verifyNoMoreInteractions(etudeVolontaireRepository);
+    }
+
     @Test
     @DisplayName("markAllAsPaid() - Aucune association pour l'étude")
     void testMarkAllAsPaid_NoAssociations() {
         // Arrange
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(Collections.emptyList());
+        givenStates(0, 0);
         when(etudeService.updatePayeStatus(idEtude, 0)).thenReturn(true);
 
         // Act
@@ -103,14 +102,14 @@ class PaymentBatchServiceImplTest {
         assertThat(result.getProcessedCount()).isEqualTo(0);
         assertThat(result.getUpdatedCount()).isEqualTo(0);
         verify(etudeService, times(1)).updatePayeStatus(idEtude, 0);
-        verify(etudeVolontaireService, never()).updatePaye(anyLong(), anyInt());
     }
 
     @Test
-    @DisplayName("markAllAsPaid() - Liste null d'associations")
-    void testMarkAllAsPaid_NullAssociations() {
+    @DisplayName("markAllAsPaid() - Agrégat sans ligne ni valeurs")
+    void testMarkAllAsPaid_EmptyAggregate() {
         // Arrange
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(null);
+        when(etudeVolontaireRepository.countPaymentStatesByEtude(idEtude))
+                .thenReturn(Collections.singletonList(new Object[] { null, null }));
         when(etudeService.updatePayeStatus(idEtude, 0)).thenReturn(true);
 
         // Act
@@ -127,17 +126,9 @@ class PaymentBatchServiceImplTest {
     @Test
     @DisplayName("markAllAsPaid() - Certains volontaires déjà payés")
     void testMarkAllAsPaid_SomeAlreadyPaid() {
-        // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0); // Non payé
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 1); // Déjà payé
-        EtudeVolontaireDTO vol3 = createVolontaireDTO(1, 30, 1); // Déjà payé
-        associations.add(vol1);
-        associations.add(vol2);
-        associations.add(vol3);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        // Arrange - 1 à payer, 2 déjà payés
+        givenStates(3, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(1);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
 
         // Act
@@ -145,24 +136,17 @@ class PaymentBatchServiceImplTest {
 
         // Assert
         assertThat(result.getProcessedCount()).isEqualTo(3);
-        assertThat(result.getUpdatedCount()).isEqualTo(1); // Seulement vol1
-        assertThat(result.getAlreadyPaidCount()).isEqualTo(2); // vol2 et vol3
+        assertThat(result.getUpdatedCount()).isEqualTo(1);
+        assertThat(result.getAlreadyPaidCount()).isEqualTo(2);
         assertThat(result.getSkippedAnnules()).isEqualTo(0);
-        
-        verify(etudeVolontaireService, times(1)).updatePaye(anyLong(), eq(1));
     }
 
     @Test
     @DisplayName("markAllAsPaid() - Tous déjà payés")
     void testMarkAllAsPaid_AllAlreadyPaid() {
         // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 1);
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 1);
-        associations.add(vol1);
-        associations.add(vol2);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
+        givenStates(2, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(0);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
 
         // Act
@@ -171,7 +155,6 @@ class PaymentBatchServiceImplTest {
         // Assert
         assertThat(result.getUpdatedCount()).isEqualTo(0);
         assertThat(result.getAlreadyPaidCount()).isEqualTo(2);
-        verify(etudeVolontaireService, never()).updatePaye(anyLong(), anyInt());
         verify(etudeService, times(1)).updatePayeStatus(idEtude, 2);
     }
 
@@ -180,23 +163,9 @@ class PaymentBatchServiceImplTest {
     @Test
     @DisplayName("markAllAsPaid() - Exclure les volontaires annulés")
     void testMarkAllAsPaid_WithCancelledVolunteers() {
-        // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0); // Non payé, actif
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 0); // Non payé, ANNULÉ
-        EtudeVolontaireDTO vol3 = createVolontaireDTO(1, 30, 0); // Non payé, actif
-        associations.add(vol1);
-        associations.add(vol2);
-        associations.add(vol3);
-
-        // Annulation pour vol2
-        AnnulationDTO annulation = new AnnulationDTO();
-        annulation.setIdVol(20);
-        annulation.setIdEtude(1);
-        annulations.add(annulation);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(annulations);
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        // Arrange - 2 actifs, 1 annulé
+        givenStates(3, 1);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(2);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
 
         // Act
@@ -204,31 +173,17 @@ class PaymentBatchServiceImplTest {
 
         // Assert
         assertThat(result.getProcessedCount()).isEqualTo(3);
-        assertThat(result.getUpdatedCount()).isEqualTo(2); // vol1 et vol3
-        assertThat(result.getSkippedAnnules()).isEqualTo(1); // vol2 annulé
+        assertThat(result.getUpdatedCount()).isEqualTo(2);
+        assertThat(result.getSkippedAnnules()).isEqualTo(1);
         assertThat(result.getAlreadyPaidCount()).isEqualTo(0);
-        
-        verify(etudeVolontaireService, times(2)).updatePaye(anyLong(), eq(1));
     }
 
     @Test
     @DisplayName("markAllAsPaid() - Tous les volontaires annulés")
     void testMarkAllAsPaid_AllCancelled() {
         // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 0);
-        associations.add(vol1);
-        associations.add(vol2);
-
-        AnnulationDTO annul1 = new AnnulationDTO();
-        annul1.setIdVol(10);
-        AnnulationDTO annul2 = new AnnulationDTO();
-        annul2.setIdVol(20);
-        annulations.add(annul1);
-        annulations.add(annul2);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(annulations);
+        givenStates(2, 2);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(0);
         when(etudeService.updatePayeStatus(idEtude, 0)).thenReturn(true);
 
         // Act
@@ -237,75 +192,22 @@ class PaymentBatchServiceImplTest {
         // Assert
         assertThat(result.getUpdatedCount()).isEqualTo(0);
         assertThat(result.getSkippedAnnules()).isEqualTo(2);
-        verify(etudeVolontaireService, never()).updatePaye(anyLong(), anyInt());
         verify(etudeService).updatePayeStatus(idEtude, 0);
         verify(etudeService, never()).updatePayeStatus(idEtude, 2);
     }
 
-    @Test
-    @DisplayName("markAllAsPaid() - Liste null d'annulations")
-    void testMarkAllAsPaid_NullAnnulations() {
-        // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        associations.add(vol1);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(null);
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
-        when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
-
-        // Act
-        PaymentBatchResultDTO result = paymentBatchService.markAllAsPaid(idEtude);
-
-        // Assert
-        assertThat(result.getUpdatedCount()).isEqualTo(1);
-        assertThat(result.getSkippedAnnules()).isEqualTo(0);
-    }
-
     // ==================== Tests markAllAsPaid() - Gestion des erreurs ====================
 
     @Test
-    @DisplayName("markAllAsPaid() - Une erreur de paiement fait échouer atomiquement le lot")
+    @DisplayName("markAllAsPaid() - Une erreur de mise à jour fait échouer atomiquement le lot")
     void testMarkAllAsPaid_UpdateError() {
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 0);
-        EtudeVolontaireDTO vol3 = createVolontaireDTO(1, 30, 0);
-        associations.add(vol1);
-        associations.add(vol2);
-        associations.add(vol3);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1)))
-            .thenReturn(vol1)
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude))
             .thenThrow(new RuntimeException("Erreur base de données"));
 
         assertThatThrownBy(() -> paymentBatchService.markAllAsPaid(idEtude))
             .isInstanceOf(RuntimeException.class)
             .hasMessage("Erreur base de données");
 
-        verify(etudeVolontaireService, times(2)).updatePaye(anyLong(), eq(1));
-        verify(etudeService, never()).updatePayeStatus(anyInt(), anyInt());
-    }
-
-    @Test
-    @DisplayName("markAllAsPaid() - Toutes les mises à jour échouent")
-    void testMarkAllAsPaid_AllUpdatesFail() {
-        // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 0);
-        associations.add(vol1);
-        associations.add(vol2);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1)))
-            .thenThrow(new RuntimeException("Erreur"));
-        assertThatThrownBy(() -> paymentBatchService.markAllAsPaid(idEtude))
-            .isInstanceOf(RuntimeException.class)
-            .hasMessage("Erreur");
-
-        verify(etudeVolontaireService, times(1)).updatePaye(anyLong(), eq(1));
         verify(etudeService, never()).updatePayeStatus(anyInt(), anyInt());
     }
 
@@ -313,12 +215,8 @@ class PaymentBatchServiceImplTest {
     @DisplayName("markAllAsPaid() - Erreur lors de la mise à jour du statut étude")
     void testMarkAllAsPaid_EtudeStatusUpdateError() {
         // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        associations.add(vol1);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        givenStates(1, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(1);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(false);
 
         assertThatThrownBy(() -> paymentBatchService.markAllAsPaid(idEtude))
@@ -329,12 +227,8 @@ class PaymentBatchServiceImplTest {
     @Test
     @DisplayName("markAllAsPaid() - Exception lors de la mise à jour du statut étude")
     void testMarkAllAsPaid_EtudeStatusUpdateException() {
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);
-        associations.add(vol1);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(Collections.emptyList());
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        givenStates(1, 0);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(1);
         when(etudeService.updatePayeStatus(idEtude, 2))
             .thenThrow(new RuntimeException("Erreur statut"));
 
@@ -348,25 +242,9 @@ class PaymentBatchServiceImplTest {
     @Test
     @DisplayName("markAllAsPaid() - Mix : déjà payés, annulés, à traiter")
     void testMarkAllAsPaid_MixedScenario() {
-        // Arrange
-        EtudeVolontaireDTO vol1 = createVolontaireDTO(1, 10, 0);  // À payer
-        EtudeVolontaireDTO vol2 = createVolontaireDTO(1, 20, 1);  // Déjà payé
-        EtudeVolontaireDTO vol3 = createVolontaireDTO(1, 30, 0);  // Annulé
-        EtudeVolontaireDTO vol4 = createVolontaireDTO(1, 40, 0);  // À payer
-        EtudeVolontaireDTO vol5 = createVolontaireDTO(1, 50, 1);  // Déjà payé
-        associations.add(vol1);
-        associations.add(vol2);
-        associations.add(vol3);
-        associations.add(vol4);
-        associations.add(vol5);
-
-        AnnulationDTO annulation = new AnnulationDTO();
-        annulation.setIdVol(30);
-        annulations.add(annulation);
-
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
-        when(annulationService.getAnnulationsByEtude(idEtude)).thenReturn(annulations);
-        when(etudeVolontaireService.updatePaye(anyLong(), eq(1))).thenReturn(vol1);
+        // Arrange - 2 à payer, 2 déjà payés, 1 annulé
+        givenStates(5, 1);
+        when(etudeVolontaireRepository.markUnpaidActiveAsPaidByEtude(idEtude)).thenReturn(2);
         when(etudeService.updatePayeStatus(idEtude, 2)).thenReturn(true);
 
         // Act
@@ -374,42 +252,30 @@ class PaymentBatchServiceImplTest {
 
         // Assert
         assertThat(result.getProcessedCount()).isEqualTo(5);
-        assertThat(result.getUpdatedCount()).isEqualTo(2);      // vol1 et vol4
-        assertThat(result.getAlreadyPaidCount()).isEqualTo(2);  // vol2 et vol5
-        assertThat(result.getSkippedAnnules()).isEqualTo(1);    // vol3
+        assertThat(result.getUpdatedCount()).isEqualTo(2);
+        assertThat(result.getAlreadyPaidCount()).isEqualTo(2);
+        assertThat(result.getSkippedAnnules()).isEqualTo(1);
         assertThat(result.getErrorCount()).isEqualTo(0);
-        
-        verify(etudeVolontaireService, times(2)).updatePaye(anyLong(), eq(1));
+        assertThat(result.toString())
+            .isEqualTo("etude=1, traites=5, payes=2, dejaPayes=2, annulesIgnores=1, erreurs=0");
     }
 
     @Test
     @DisplayName("markAllAsPaid() - Refuse explicitement les doublons métier")
     void testMarkAllAsPaid_RefusesDuplicateBusinessPair() {
-        associations.add(createVolontaireDTO(1, 10, 0));
-        EtudeVolontaireDTO duplicate = createVolontaireDTO(1, 10, 1);
-        duplicate.setId(999L);
-        associations.add(duplicate);
-        when(etudeVolontaireService.getEtudeVolontairesByEtude(idEtude)).thenReturn(associations);
+        when(etudeVolontaireRepository.findDuplicateVolontairesByEtude(idEtude)).thenReturn(List.of(10));
 
         assertThatThrownBy(() -> paymentBatchService.markAllAsPaid(idEtude))
                 .isInstanceOf(com.example.cosmetest.exception.AmbiguousEtudeVolontaireException.class)
                 .hasMessageContaining("10");
-        verify(etudeVolontaireService, never()).updatePaye(anyLong(), anyInt());
+        verify(etudeVolontaireRepository, never()).markUnpaidActiveAsPaidByEtude(anyInt());
         verify(etudeService, never()).updatePayeStatus(anyInt(), anyInt());
     }
 
     // ==================== Méthode utilitaire ====================
 
-    private EtudeVolontaireDTO createVolontaireDTO(int idEtude, int idVolontaire, int paye) {
-        EtudeVolontaireDTO dto = new EtudeVolontaireDTO();
-        dto.setId((long) idVolontaire);
-        dto.setIdEtude(idEtude);
-        dto.setIdVolontaire(idVolontaire);
-        dto.setIdGroupe(1);
-        dto.setIv(1);
-        dto.setNumsujet(1);
-        dto.setPaye(paye);
-        dto.setStatut("Actif");
-        return dto;
+    private void givenStates(long total, long annulesNonPayes) {
+        when(etudeVolontaireRepository.countPaymentStatesByEtude(idEtude))
+                .thenReturn(Collections.singletonList(new Object[] { total, annulesNonPayes }));
     }
 }
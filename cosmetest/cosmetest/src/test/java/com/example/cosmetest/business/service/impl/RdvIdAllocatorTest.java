@@ -8,7 +8,9 @@ import org.junit.jupiter.api.Test;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -60,5 +62,21 @@ class RdvIdAllocatorTest {
 
         assertThat(allocator.nextForStudy(42)).isEqualTo(9);
     }
-}
 
+    @Test
+    @DisplayName("réserve un bloc consécutif après le dernier rendez-vous en une seule lecture")
+    void reservesContiguousBlock() {
+        RdvRepository repository = mock(RdvRepository.class);
+        Rdv last = new Rdv();
+        last.setId(100L);
+        last.setIdEtude(42);
+        last.setIdRdv(7);
+        when(repository.findLastRdvForEtudeForUpdate(42)).thenReturn(Optional.of(last));
+
+        RdvIdAllocator allocator = new RdvIdAllocator(repository);
+
+        assertThat(allocator.nextBlockForStudy(42)).isEqualTo(8);
+        verify(repository).findLastRdvForEtudeForUpdate(42);
+        verify(repository, never()).existsByIdEtudeAndIdRdv(anyInt(), anyInt());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.RdvSeriePointDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
+import com.example.cosmetest.business.service.RdvRollupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RdvRollupServiceImplTest {
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:rollup;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final RdvRollupServiceImpl service =
+            new RdvRollupServiceImpl(jdbcTemplate, new DataSourceTransactionManager(dataSource));
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE rdv (RDV_PK BIGINT PRIMARY KEY, ID_ETUDE INT, DATE DATE, "
+                + "HEURE VARCHAR(10), ETAT VARCHAR(20))");
+        jdbcTemplate.execute("CREATE TABLE rdv_rollup (JOUR DATE NOT NULL, ID_ETUDE INT NOT NULL, "
+                + "ETAT VARCHAR(255) NOT NULL, TRANCHE_HEURE VARCHAR(2) NOT NULL, NOMBRE INT NOT NULL, "
+                + "PRIMARY KEY (JOUR, ID_ETUDE, ETAT, TRANCHE_HEURE))");
+        rdv(1, 12, "2026-03-02", "09h00", "CONFIRME");
+        rdv(2, 12, "2026-03-02", "09h30", "confirme");
+        rdv(3, 12, "2026-03-04", "14h00", "ANNULE");
+        rdv(4, 13, "2026-03-09", "10h00", null);
+        rdv(5, 13, "2026-04-01", "10h00", "CONFIRME");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS rdv");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS rdv_rollup");
+    }
+
+    @Test
+    void regroupeParSemaineEtParEtatSansLesAnnulesParDefaut() {
+        service.reconstruire();
+
+        assertThat(service.serie(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30),
+                RdvRollupService.Pas.SEMAINE, RdvRollupService.Groupe.ETAT, null, Set.of(), false))
+                .containsExactly(
+                        new RdvSeriePointDTO("2026-W10", LocalDate.of(2026, 3, 2), "CONFIRME", 2),
+                        new RdvSeriePointDTO("2026-W11", LocalDate.of(2026, 3, 9), "", 1),
+                        new RdvSeriePointDTO("2026-W14", LocalDate.of(2026, 3, 30), "CONFIRME", 1));
+    }
+
+    @Test
+    void filtreParEtudeEtParEtatAvecLesAnnules() {
+        service.reconstruire();
+
+        assertThat(service.serie(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31),
+                RdvRollupService.Pas.MOIS, RdvRollupService.Groupe.AUCUN, 12, Set.of("annule", "Confirme"), true))
+                .containsExactly(new RdvSeriePointDTO("2026-03", LocalDate.of(2026, 3, 1), null, 3));
+    }
+
+    @Test
+    void recalculeLesSeulsJoursTouchesApresUneEcriture() {
+        service.reconstruire();
+        rdv(6, 12, "2026-03-02", "11h00", "CONFIRME");
+        jdbcTemplate.update("DELETE FROM rdv WHERE RDV_PK = 5");
+
+        service.onRdvChanged(RdvChangedEvent.forDates(12, java.sql.Date.valueOf("2026-03-02")));
+
+        assertThat(service.serie(LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30),
+                RdvRollupService.Pas.JOUR, RdvRollupService.Groupe.HEURE, null, Set.of(), false))
+                .containsExactly(
+                        new RdvSeriePointDTO("2026-03-02", LocalDate.of(2026, 3, 2), "09", 2),
+                        new RdvSeriePointDTO("2026-03-02", LocalDate.of(2026, 3, 2), "11", 1),
+                        new RdvSeriePointDTO("2026-03-09", LocalDate.of(2026, 3, 9), "10", 1),
+                        // Jour non signalé : l'agrégat attend la reconstruction
+                        new RdvSeriePointDTO("2026-04-01", LocalDate.of(2026, 4, 1), "10", 1));
+
+        service.reconstruire();
+        assertThat(service.serie(LocalDate.of(2026, 4, 1), LocalDate.of(2026, 4, 30),
+                RdvRollupService.Pas.JOUR, RdvRollupService.Groupe.AUCUN, null, Set.of(), false)).isEmpty();
+    }
+
+    @Test
+    void unRattrapageConstruitUneTableVide() {
+        service.rattraper();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(NOMBRE) FROM rdv_rollup", Integer.class)).isEqualTo(5);
+    }
+
+    @Test
+    void refuseUnePeriodeInverseeEtUnPasInconnu() {
+        assertThatThrownBy(() -> service.serie(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 1),
+                RdvRollupService.Pas.JOUR, RdvRollupService.Groupe.AUCUN, null, Set.of(), false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RdvRollupService.Pas.depuis("trimestre"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void rdv(long pk, int idEtude, String date, String heure, String etat) {
+        jdbcTemplate.update("INSERT INTO rdv VALUES (?, ?, ?, ?, ?)",
+                pk, idEtude, java.sql.Date.valueOf(date), heure, etat);
+    }
+}
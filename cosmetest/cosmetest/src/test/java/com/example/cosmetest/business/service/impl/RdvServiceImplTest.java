@@ -2,12 +2,15 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.EtudeVolontaireDTO;
 import com.example.cosmetest.business.dto.RdvDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
 import com.example.cosmetest.business.mapper.RdvMapper;
 import com.example.cosmetest.business.service.EtudeVolontaireService;
 import com.example.cosmetest.data.repository.AnnulationRepository;
 import com.example.cosmetest.data.repository.EtudeRepository;
 import com.example.cosmetest.data.repository.GroupeRepository;
 import com.example.cosmetest.data.repository.RdvRepository;
+import com.example.cosmetest.domain.model.Etude;
+import com.example.cosmetest.domain.model.EtudeVolontaire;
 import com.example.cosmetest.domain.model.Groupe;
 import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.Annulation;
@@ -19,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -31,6 +35,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -68,6 +73,12 @@ class RdvServiceImplTest {
     @Mock
     private RdvIdAllocator rdvIdAllocator;
 
+    @Mock
+    private RdvBatchWriter rdvBatchWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RdvServiceImpl rdvService;
 
@@ -646,29 +657,30 @@ class RdvServiceImplTest {
     @DisplayName("deleteRdv() - Suppression réussie")
     void testDeleteRdv_Success() {
         // Given
-        when(rdvRepository.existsById(testRdvId1)).thenReturn(true);
+        when(rdvRepository.findById(testRdvId1)).thenReturn(Optional.of(testRdv1));
 
         // When
         rdvService.deleteRdv(testRdvId1);
 
         // Then
-        verify(rdvRepository, times(1)).existsById(testRdvId1);
-        verify(rdvRepository, times(1)).deleteById(testRdvId1);
+        verify(rdvRepository, times(1)).delete(testRdv1);
+        verify(eventPublisher).publishEvent(
+                new RdvChangedEvent(101, Set.of(LocalDate.of(2024, 6, 15))));
     }
 
     @Test
     @DisplayName("deleteRdv() - Rendez-vous inexistant lève une exception")
     void testDeleteRdv_NotFound() {
         // Given
-        when(rdvRepository.existsById(testRdvId1)).thenReturn(false);
+        when(rdvRepository.findById(testRdvId1)).thenReturn(Optional.empty());
 
         // When/Then
         assertThatThrownBy(() -> rdvService.deleteRdv(testRdvId1))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("n'existe pas");
 
-        verify(rdvRepository, times(1)).existsById(testRdvId1);
-        verify(rdvRepository, never()).deleteById(any());
+        verify(rdvRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     // ===== TESTS SEARCH RDVS BY COMMENTAIRES =====
@@ -693,6 +705,99 @@ class RdvServiceImplTest {
         verify(rdvMapper, times(1)).toDto(testRdv1);
     }
 
+    // ===== TESTS CREATE RDVS BATCH =====
+
+    @Test
+    @DisplayName("createRdvsBatch() - Réserve un bloc d'identifiants et insère le lot en une fois")
+    void testCreateRdvsBatch_ReservesBlockAndBatchInserts() {
+        Etude etude = new Etude();
+        etude.setIdEtude(101);
+        Groupe groupe = new Groupe();
+        groupe.setIdGroupe(10);
+        groupe.setIdEtude(101);
+        groupe.setIv(35);
+
+        RdvDTO dejaInscrit = batchDto(1, 10);
+        RdvDTO nouveau = batchDto(2, 10);
+        RdvDTO nouveauBis = batchDto(2, 10);
+        RdvDTO groupeInconnu = batchDto(3, 99);
+        RdvDTO libre = batchDto(null, null);
+
+        when(etudeRepository.findById(101)).thenReturn(Optional.of(etude));
+        when(groupeRepository.findAllById(anyIterable())).thenReturn(List.of(groupe));
+        when(etudeVolontaireService.findAssociatedVolunteerIds(eq(101), anyCollection())).thenReturn(Set.of(1));
+        when(rdvIdAllocator.nextBlockForStudy(101)).thenReturn(8);
+        when(rdvRepository.findByIdEtudeAndIdRdvBetweenOrderByIdRdvAsc(101, 8, 11))
+                .thenAnswer(invocation -> List.of(testRdv1, testRdv1, testRdv1, testRdv1));
+
+        List<RdvDTO> created = rdvService.createRdvsBatch(
+                List.of(dejaInscrit, nouveau, nouveauBis, groupeInconnu, libre));
+
+        assertThat(created).hasSize(4);
+        ArgumentCaptor<List<Rdv>> rdvsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rdvBatchWriter).insertRdvs(rdvsCaptor.capture());
+        assertThat(rdvsCaptor.getValue()).extracting(Rdv::getIdRdv).containsExactly(8, 9, 10, 11);
+        assertThat(rdvsCaptor.getValue()).extracting(Rdv::getIdVolontaire).containsExactly(1, 2, 2, null);
+
+        ArgumentCaptor<List<EtudeVolontaire>> associationsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(rdvBatchWriter).insertAssociations(associationsCaptor.capture());
+        assertThat(associationsCaptor.getValue()).singleElement().satisfies(association -> {
+            assertThat(association.getIdVolontaire()).isEqualTo(2);
+            assertThat(association.getIdGroupe()).isEqualTo(10);
+            assertThat(association.getIv()).isEqualTo(35);
+            assertThat(association.getStatut()).isEqualTo("INSCRIT");
+        });
+
+        verify(rdvIdAllocator, never()).nextForStudy(anyInt());
+        verify(rdvRepository, never()).save(any(Rdv.class));
+        verify(etudeVolontaireService, never()).saveEtudeVolontaire(any());
+    }
+
+    @Test
+    @DisplayName("createRdvsBatch() - Une association refusée par le service écarte sa ligne")
+    void testCreateRdvsBatch_ValidatesNewAssociations() {
+        Etude etude = new Etude();
+        etude.setIdEtude(101);
+        when(etudeRepository.findById(101)).thenReturn(Optional.of(etude));
+        when(etudeVolontaireService.findAssociatedVolunteerIds(eq(101), anyCollection())).thenReturn(Set.of());
+        doThrow(new IllegalArgumentException("idVolontaire doit être positif"))
+                .when(etudeVolontaireService).validateNewAssociation(any());
+
+        List<RdvDTO> created = rdvService.createRdvsBatch(List.of(batchDto(2, null)));
+
+        assertThat(created).isEmpty();
+        ArgumentCaptor<EtudeVolontaireDTO> dtoCaptor = ArgumentCaptor.forClass(EtudeVolontaireDTO.class);
+        verify(etudeVolontaireService).validateNewAssociation(dtoCaptor.capture());
+        assertThat(dtoCaptor.getValue().getIdEtude()).isEqualTo(101);
+        assertThat(dtoCaptor.getValue().getIdVolontaire()).isEqualTo(2);
+        verify(rdvIdAllocator, never()).nextBlockForStudy(anyInt());
+        verifyNoInteractions(rdvBatchWriter);
+    }
+
+    @Test
+    @DisplayName("createRdvsBatch() - Aucune réservation quand toutes les lignes sont invalides")
+    void testCreateRdvsBatch_NoValidRowReservesNothing() {
+        Etude etude = new Etude();
+        etude.setIdEtude(101);
+        when(etudeRepository.findById(101)).thenReturn(Optional.of(etude));
+
+        List<RdvDTO> created = rdvService.createRdvsBatch(List.of(batchDto(-1, null), batchDto(3, 99)));
+
+        assertThat(created).isEmpty();
+        verify(rdvIdAllocator, never()).nextBlockForStudy(anyInt());
+        verifyNoInteractions(rdvBatchWriter, eventPublisher);
+    }
+
+    private static RdvDTO batchDto(Integer idVolontaire, Integer idGroupe) {
+        RdvDTO dto = new RdvDTO();
+        dto.setIdEtude(101);
+        dto.setIdVolontaire(idVolontaire);
+        dto.setIdGroupe(idGroupe);
+        dto.setDate(Date.valueOf(LocalDate.of(2024, 6, 15)));
+        dto.setHeure("09:00");
+        return dto;
+    }
+
     // ===== TESTS EXCEPTION HANDLING =====
 
     @Test
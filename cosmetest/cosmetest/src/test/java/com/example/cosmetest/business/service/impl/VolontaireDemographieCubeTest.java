@@ -0,0 +1,116 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VolontaireDemographieCubeTest {
+
+    private final VolontaireRepository volontaireRepository = mock(VolontaireRepository.class);
+    private final VolontaireDemographieCube cube = new VolontaireDemographieCube(volontaireRepository);
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> lignes = new ArrayList<>();
+        lignes.add(ligne(1, "F", "Caucasienne", "III", "Grasse", 25, false));
+        lignes.add(ligne(2, "Féminin", "Caucasienne", "3", "GRASSE", 27, false));
+        lignes.add(ligne(3, "M", null, "IV", "Mixte", 45, false));
+        lignes.add(ligne(4, "F", "Asiatique", "III", null, 62, true));
+        lignes.add(ligne(5, null, "", null, "Sèche", null, false));
+        when(volontaireRepository.findDemographieRows()).thenReturn(lignes);
+    }
+
+    @Test
+    void lesStatistiquesNormalisentEtIgnorentLesValeursNonRenseignees() {
+        Map<String, Object> statistiques = cube.statistiques();
+
+        assertThat(statistiques).containsEntry("totalVolontaires", 5);
+        assertThat(statistiques.get("sexeDistribution")).isEqualTo(Map.of("Féminin", 3L, "Masculin", 1L));
+        assertThat(statistiques.get("phototypeDistribution")).isEqualTo(Map.of("Phototype 3", 3L, "Phototype 4", 1L));
+        assertThat(statistiques.get("typePeauDistribution")).isEqualTo(
+                Map.of("Grasse", 2L, "Mixte", 1L, "Sèche", 1L));
+        assertThat(statistiques.get("ageDistribution")).isEqualTo(
+                Map.of("18-29 ans", 2L, "40-49 ans", 1L, "60 ans et plus", 1L));
+    }
+
+    @Test
+    void croiseEtFiltreLesDimensions() {
+        Map<String, Object> croisement = cube.croiser(List.of("phototype", "trancheAge"),
+                Map.of("statut", Set.of("actif"), "sexe", Set.of("féminin", "Masculin")));
+
+        assertThat(croisement).containsEntry("total", 3L);
+        assertThat(croisement.get("lignes")).isEqualTo(List.of(
+                Map.of("phototype", "Phototype 3", "trancheAge", "18-29 ans", "nombre", 2L),
+                Map.of("phototype", "Phototype 4", "trancheAge", "40-49 ans", "nombre", 1L)));
+    }
+
+    @Test
+    void refuseUneDimensionInconnue() {
+        assertThatThrownBy(() -> cube.croiser(List.of("nomVol"), Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Dimension inconnue");
+        assertThatThrownBy(() -> cube.croiser(List.of(), Map.of("ville", Set.of("Paris"))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void seMetAJourVolontaireParVolontaireApresUneEcriture() {
+        cube.statistiques();
+
+        List<Object[]> archive = new ArrayList<>();
+        archive.add(ligne(1, "F", "Caucasienne", "III", "Grasse", 25, true));
+        when(volontaireRepository.findDemographieRow(1)).thenReturn(archive);
+        when(volontaireRepository.findDemographieRow(3)).thenReturn(List.of());
+
+        cube.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        cube.onVolontaireChanged(VolontaireChangedEvent.of(3));
+
+        Map<String, Object> croisement = cube.croiser(List.of("statut"), Map.of());
+        assertThat(croisement).containsEntry("total", 4L);
+        assertThat(croisement.get("lignes")).isEqualTo(List.of(
+                Map.of("statut", "actif", "nombre", 2L),
+                Map.of("statut", "archive", "nombre", 2L)));
+        verify(volontaireRepository, times(1)).findDemographieRows();
+    }
+
+    @Test
+    void uneInvalidationReconstruitAuProchainAppel() {
+        cube.statistiques();
+
+        cube.onVolontaireChanged(VolontaireChangedEvent.unknown());
+        cube.statistiques();
+
+        verify(volontaireRepository, times(2)).findDemographieRows();
+    }
+
+    @Test
+    void laTrancheDAgeSuitLaDateDuJour() {
+        LocalDate naissance = LocalDate.of(2000, 6, 15);
+
+        assertThat(VolontaireDemographieCube.trancheAge(naissance, LocalDate.of(2030, 6, 14))).isEqualTo("18-29 ans");
+        assertThat(VolontaireDemographieCube.trancheAge(naissance, LocalDate.of(2030, 6, 15))).isEqualTo("30-39 ans");
+        assertThat(VolontaireDemographieCube.trancheAge(null, LocalDate.of(2030, 6, 15)))
+                .isEqualTo(VolontaireDemographieCube.NON_RENSEIGNE);
+    }
+
+    private static Object[] ligne(int id, String sexe, String ethnie, String phototype, String typePeau,
+                                  Integer age, boolean archive) {
+        Date naissance = age == null ? null : Date.valueOf(LocalDate.now().minusYears(age).minusDays(1));
+        return new Object[] { id, sexe, ethnie, phototype, typePeau, naissance, archive };
+    }
+}
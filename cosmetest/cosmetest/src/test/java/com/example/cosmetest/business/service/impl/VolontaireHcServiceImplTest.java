@@ -1,6 +1,7 @@
 package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.VolontaireHcDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
 import com.example.cosmetest.business.mapper.VolontaireHcMapper;
 import com.example.cosmetest.data.repository.VolontaireHcRepository;
 import com.example.cosmetest.domain.model.VolontaireHc;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
@@ -36,6 +38,9 @@ class VolontaireHcServiceImplTest {
     @Mock
     private EntityManager entityManager;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private VolontaireHcServiceImpl volontaireHcService;
 
@@ -160,6 +165,7 @@ class VolontaireHcServiceImplTest {
         // Then
         assertThat(result).isFalse();
         verify(volontaireHcRepository, never()).delete(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -274,6 +280,7 @@ class VolontaireHcServiceImplTest {
         // Then
         assertThat(result).isPresent();
         verify(volontaireHcRepository).save(any(VolontaireHc.class));
+        verify(eventPublisher).publishEvent(VolontaireChangedEvent.of(1));
     }
 
     @Test
@@ -408,18 +415,22 @@ class VolontaireHcServiceImplTest {
 
     @Test
     void testGetProduitsLesPlusUtilises_Success() {
-        // Given - mock native COUNT queries for each product field
+        // Given - une seule requête d'agrégation pour tous les produits
         Query mockQuery = mock(Query.class);
         when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
-        // Each call to getSingleResult returns a count; at least some will be > 0
-        when(mockQuery.getSingleResult()).thenReturn(2L);
+        when(mockQuery.getSingleResult()).thenReturn(ligneAgregee(VolontaireHcFieldRegistry.names(), Map.of(
+                "achatInternet", new long[]{3, 1, 0, 1, 0, 0},
+                "rougeALevres", new long[]{1, 0, 2, 0, 0, 2},
+                "cire", new long[]{0, 2, 0, 0, 1, 0},
+                "tonique", new long[]{0, 0, 0, 3, 0, 1})));
 
         // When
         Map<String, Long> result = volontaireHcService.getProduitsLesPlusUtilises(3);
 
         // Then
-        assertThat(result).isNotEmpty();
-        assertThat(result.size()).isLessThanOrEqualTo(3);
+        assertThat(result).containsExactly(
+                entry("achatInternet", 4L), entry("cire", 2L), entry("rougeALevres", 1L));
+        verify(entityManager, times(1)).createNativeQuery(anyString());
     }
 
     @Test
@@ -432,52 +443,50 @@ class VolontaireHcServiceImplTest {
 
     @Test
     void testGetProduitsLesPlusUtilises_LimitExceedsProducts() {
-        // Given - mock native COUNT queries
+        // Given
         Query mockQuery = mock(Query.class);
         when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
-        when(mockQuery.getSingleResult()).thenReturn(1L);
+        when(mockQuery.getSingleResult()).thenReturn(ligneAgregee(VolontaireHcFieldRegistry.names(), Map.of(
+                "achatInternet", new long[]{1, 0, 0, 0, 0, 0})));
 
         // When
         Map<String, Long> result = volontaireHcService.getProduitsLesPlusUtilises(100);
 
         // Then - Should not throw, just return what's available
-        assertThat(result).isNotEmpty();
+        assertThat(result).containsExactly(entry("achatInternet", 1L));
     }
 
     // ==================== Tests getLieuxAchatPreferences ====================
 
     @Test
     void testGetLieuxAchatPreferences_Success() {
-        // Given - mock 4 native COUNT queries for each lieu d'achat
-        Query mockQuery1 = mock(Query.class);
-        Query mockQuery2 = mock(Query.class);
-        Query mockQuery3 = mock(Query.class);
-        Query mockQuery4 = mock(Query.class);
-
-        // Return different queries for each call
-        when(entityManager.createNativeQuery(anyString()))
-                .thenReturn(mockQuery1, mockQuery2, mockQuery3, mockQuery4);
-        when(mockQuery1.getSingleResult()).thenReturn(2L);  // achatGrandesSurfaces
-        when(mockQuery2.getSingleResult()).thenReturn(1L);  // achatInstitutParfumerie
-        when(mockQuery3.getSingleResult()).thenReturn(1L);  // achatInternet
-        when(mockQuery4.getSingleResult()).thenReturn(0L);  // achatPharmacieParapharmacie
+        // Given - une seule requête pour les 4 lieux d'achat
+        Query mockQuery = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
+        when(mockQuery.getSingleResult()).thenReturn(ligneAgregee(LIEUX_ACHAT, Map.of(
+                "achatGrandesSurfaces", new long[]{2, 0, 0, 0, 0, 0},
+                "achatInstitutParfumerie", new long[]{0, 1, 0, 0, 0, 0},
+                "achatInternet", new long[]{1, 0, 0, 1, 0, 0})));
 
         // When
         Map<String, Long> result = volontaireHcService.getLieuxAchatPreferences();
 
         // Then
-        assertThat(result).isNotEmpty();
         assertThat(result).containsEntry("achatGrandesSurfaces", 2L);
         assertThat(result).containsEntry("achatInternet", 1L);
         assertThat(result).containsEntry("achatInstitutParfumerie", 1L);
+        assertThat(result).doesNotContainKey("achatPharmacieParapharmacie");
+        verify(entityManager, times(1)).createNativeQuery(anyString());
     }
 
     @Test
     void testGetLieuxAchatPreferences_EmptyList() {
-        // Given - all native COUNT queries return 0
+        // Given - table vide : COUNT(*) = 0 et SUM = NULL
         Query mockQuery = mock(Query.class);
         when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
-        when(mockQuery.getSingleResult()).thenReturn(0L);
+        Object[] ligne = new Object[1 + LIEUX_ACHAT.size() * 6];
+        ligne[0] = 0L;
+        when(mockQuery.getSingleResult()).thenReturn(ligne);
 
         // When
         Map<String, Long> result = volontaireHcService.getLieuxAchatPreferences();
@@ -486,6 +495,53 @@ class VolontaireHcServiceImplTest {
         assertThat(result).isEmpty();
     }
 
+    // ==================== Tests getDistributionsProduits ====================
+
+    @Test
+    void testGetDistributionsProduits_ToutesLesValeursEnUneRequete() {
+        // Given - 6 volontaires : oui, regulierement, non, NULL x2 et une valeur hors liste
+        Query mockQuery = mock(Query.class);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(mockQuery);
+        Object[] ligne = ligneAgregee(VolontaireHcFieldRegistry.names(), Map.of(
+                "achatInternet", new long[]{1, 1, 0, 1, 0, 2}));
+        ligne[0] = 6L;
+        when(mockQuery.getSingleResult()).thenReturn(ligne);
+
+        // When
+        Map<String, Map<String, Long>> result = volontaireHcService.getDistributionsProduits();
+
+        // Then
+        assertThat(result).containsOnlyKeys(VolontaireHcFieldRegistry.names());
+        assertThat(result.get("achatInternet")).containsExactly(
+                entry("oui", 1L), entry("regulierement", 1L), entry("occasionnellement", 0L),
+                entry("non", 1L), entry("jamais", 0L), entry("non spécifié", 2L), entry("autre", 1L));
+        assertThat(result.get("cire")).containsEntry("non spécifié", 0L).containsEntry("autre", 6L);
+        verify(entityManager, times(1)).createNativeQuery(anyString());
+    }
+
+    private static final List<String> LIEUX_ACHAT = List.of(
+            "achatGrandesSurfaces", "achatInstitutParfumerie", "achatInternet", "achatPharmacieParapharmacie");
+
+    /**
+     * Ligne de résultat de l'agrégation : COUNT(*), puis pour chaque produit
+     * oui, regulierement, occasionnellement, non, jamais et NULL.
+     */
+    private static Object[] ligneAgregee(Collection<String> produits, Map<String, long[]> comptes) {
+        List<Object> ligne = new ArrayList<>();
+        long total = 0;
+        for (long[] valeurs : comptes.values()) {
+            total = Math.max(total, Arrays.stream(valeurs).sum());
+        }
+        ligne.add(total);
+        for (String produit : produits) {
+            long[] valeurs = comptes.getOrDefault(produit, new long[6]);
+            for (long valeur : valeurs) {
+                ligne.add(valeur);
+            }
+        }
+        return ligne.toArray();
+    }
+
     // ==================== Tests findByMultipleProduits ====================
 
     @Test
@@ -0,0 +1,163 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VolontaireIndexEnMemoireTest {
+
+    /** Base simulée : nom courant par volontaire. */
+    private final Map<Integer, String> base = new HashMap<>(Map.of(1, "Dupont", 2, "Martin"));
+    private final IndexDeTest index = new IndexDeTest();
+
+    @Test
+    void unEvenementAvantLaPremiereLectureNEstPasPerdu() {
+        index.onVolontaireChanged(VolontaireChangedEvent.of(1));
+
+        assertThat(index.lire()).containsEntry(1, "Dupont");
+        assertThat(index.constructions).isEqualTo(1);
+        assertThat(index.rafraichis).isEmpty();
+    }
+
+    @Test
+    void uneEcriturePendantLaConstructionEstRejoueeALaLectureSuivante() {
+        index.pendantLaConstruction = () -> {
+            // La construction a déjà lu Dupont quand la modification est validée
+            base.put(1, "Durand");
+            index.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        };
+
+        assertThat(index.lire()).containsEntry(1, "Dupont");
+        index.pendantLaConstruction = () -> { };
+
+        assertThat(index.lire()).containsEntry(1, "Durand");
+        assertThat(index.constructions).isEqualTo(1);
+        assertThat(index.rafraichis).containsExactly(1);
+    }
+
+    @Test
+    void lesEvenementsRelisentLaBaseEtNeDependentPasDeLeurOrdre() {
+        index.lire();
+        base.put(2, "Petit");
+        base.remove(1);
+
+        index.onVolontaireChanged(VolontaireChangedEvent.of(2));
+        index.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        // Événement en retard pour une écriture déjà appliquée : relit le même état
+        index.onVolontaireChanged(VolontaireChangedEvent.of(2));
+
+        assertThat(index.lire()).containsOnly(Map.entry(2, "Petit"));
+        assertThat(index.constructions).isEqualTo(1);
+    }
+
+    @Test
+    void unEvenementPendantUneLectureEstAppliqueParLaLectureSuivante() throws Exception {
+        index.lire();
+        CountDownLatch lectureEnCours = new CountDownLatch(1);
+        CountDownLatch evenementRecu = new CountDownLatch(1);
+        Thread lecteur = new Thread(() -> {
+            index.verrouillerEnLecture();
+            try {
+                lectureEnCours.countDown();
+                evenementRecu.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                index.lock.readLock().unlock();
+            }
+        });
+        lecteur.start();
+        lectureEnCours.await(5, TimeUnit.SECONDS);
+
+        base.put(2, "Petit");
+        index.onVolontaireChanged(VolontaireChangedEvent.of(2));
+        assertThat(index.rafraichis).isEmpty();
+        evenementRecu.countDown();
+        lecteur.join();
+
+        assertThat(index.lire()).containsEntry(2, "Petit");
+        assertThat(index.rafraichis).containsExactly(2);
+    }
+
+    @Test
+    void unEchecDeMiseAJourReconstruitAuLieuDeResterFaux() {
+        index.lire();
+        index.echecRafraichissement = true;
+        base.put(1, "Durand");
+
+        index.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        index.echecRafraichissement = false;
+
+        assertThat(index.lire()).containsEntry(1, "Durand");
+        assertThat(index.constructions).isEqualTo(2);
+    }
+
+    @Test
+    void laReconciliationNeReconstruitQuUnIndexDejaLu() {
+        index.reconcilier();
+        assertThat(index.constructions).isZero();
+
+        index.lire();
+        base.put(3, "Ajouté hors service");
+        index.reconcilier();
+
+        assertThat(index.constructions).isEqualTo(2);
+        assertThat(index.lire()).containsEntry(3, "Ajouté hors service");
+    }
+
+    private final class IndexDeTest extends VolontaireIndexEnMemoire {
+
+        private final Map<Integer, String> noms = new HashMap<>();
+        private final List<Integer> rafraichis = new ArrayList<>();
+        private Runnable pendantLaConstruction = () -> { };
+        private boolean echecRafraichissement;
+        private int constructions;
+
+        IndexDeTest() {
+            super("index de test");
+        }
+
+        Map<Integer, String> lire() {
+            verrouillerEnLecture();
+            try {
+                return Map.copyOf(noms);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        @Override
+        protected void reinitialiser() {
+            noms.clear();
+        }
+
+        @Override
+        protected void construire() {
+            constructions++;
+            noms.putAll(base);
+            pendantLaConstruction.run();
+        }
+
+        @Override
+        protected void rafraichir(Integer idVol) {
+            if (echecRafraichissement) {
+                throw new IllegalStateException("base indisponible");
+            }
+            rafraichis.add(idVol);
+            String nom = base.get(idVol);
+            if (nom == null) {
+                noms.remove(idVol);
+            } else {
+                noms.put(idVol, nom);
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.PanelMatchDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.data.repository.VolontaireHcRepository;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import com.example.cosmetest.domain.model.Panel;
+import com.example.cosmetest.domain.model.Volontaire;
+import com.example.cosmetest.domain.model.VolontaireHc;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VolontaireMatchingIndexTest {
+
+    private final VolontaireRepository volontaireRepository = mock(VolontaireRepository.class);
+    private final VolontaireHcRepository volontaireHcRepository = mock(VolontaireHcRepository.class);
+    private final VolontaireMatchingIndex index = new VolontaireMatchingIndex(volontaireRepository, volontaireHcRepository);
+
+    @BeforeEach
+    void setUp() {
+        when(volontaireRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                volontaire(1, "F", "Claire", "1.5", false),
+                volontaire(2, "Féminin", "Mate", "3", false),
+                volontaire(3, "M", "Claire", "1", false),
+                volontaire(4, "F", null, null, false),
+                volontaire(5, "F", "Claire", "1", true))));
+        when(volontaireHcRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                habitudes(1, "oui"),
+                habitudes(2, "non"))));
+    }
+
+    @Test
+    void classeLesVolontairesParScoreEtEcarteLesCriteresNonRespectes() {
+        Page<PanelMatchDTO> page = index.match(panel("FEMININ", "claire, mate", "1", "2"),
+                null, false, 0, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PanelMatchDTO::getIdVol).containsExactly(1, 4);
+        PanelMatchDTO premier = page.getContent().get(0);
+        assertThat(premier.getScore()).isEqualTo(1.0);
+        assertThat(premier.getCriteresRespectes()).isEqualTo(3);
+        PanelMatchDTO inconnu = page.getContent().get(1);
+        assertThat(inconnu.getScore()).isEqualTo(4.0 / 6);
+        assertThat(inconnu.getCriteresInconnus()).isEqualTo(2);
+        assertThat(inconnu.getScoresParCritere()).containsEntry("carnation", 0.5).containsEntry("sexe", 1.0);
+    }
+
+    @Test
+    void laToleranceAdmetDesCriteresNonRespectesEtLesArchivesSontOptionnels() {
+        Page<PanelMatchDTO> page = index.match(panel("F", "claire", "1", "2"),
+                null, true, 1, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PanelMatchDTO::getIdVol).containsExactly(1, 5, 4, 3);
+        assertThat(page.getContent().get(3).getCriteresNonRespectes()).isEqualTo(1);
+    }
+
+    @Test
+    void filtreSurLesHabitudesDeConsommation() {
+        Page<PanelMatchDTO> page = index.match(new Panel(), Map.of("achatInternet", "Oui"),
+                false, 0, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PanelMatchDTO::getIdVol).containsExactly(1, 3, 4);
+        assertThat(page.getContent().get(0).getScore()).isEqualTo(1.0);
+    }
+
+    @Test
+    void paginationSurLeClassement() {
+        Page<PanelMatchDTO> page = index.match(new Panel(), null, false, 0, PageRequest.of(1, 2));
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(PanelMatchDTO::getIdVol).containsExactly(3, 4);
+    }
+
+    @Test
+    void metAJourUneSeuleLigneApresUneEcriture() {
+        index.match(new Panel(), null, false, 0, PageRequest.of(0, 10));
+        when(volontaireRepository.findById(3)).thenReturn(Optional.of(volontaire(3, "F", "Claire", "1", false)));
+        when(volontaireHcRepository.findByIdVol(3)).thenReturn(Optional.empty());
+        when(volontaireRepository.findById(2)).thenReturn(Optional.empty());
+
+        index.onVolontaireChanged(VolontaireChangedEvent.of(3));
+        index.onVolontaireChanged(VolontaireChangedEvent.of(2));
+        Page<PanelMatchDTO> page = index.match(panel("F", "claire", null, null),
+                null, false, 0, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(PanelMatchDTO::getIdVol).containsExactly(1, 3, 4);
+        verify(volontaireRepository, times(1)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void unEvenementSansIdentifiantReconstruitLIndex() {
+        index.match(new Panel(), null, false, 0, PageRequest.of(0, 10));
+
+        index.onVolontaireChanged(VolontaireChangedEvent.unknown());
+        index.match(new Panel(), null, false, 0, PageRequest.of(0, 10));
+
+        verify(volontaireRepository, times(2)).findAll(any(Pageable.class));
+    }
+
+    private static Panel panel(String sexe, String carnation, String scorePodMin, String scorePodMax) {
+        Panel panel = new Panel();
+        panel.setSexe(sexe);
+        panel.setCarnation(carnation);
+        panel.setScorePodMin(scorePodMin);
+        panel.setScorePodMax(scorePodMax);
+        return panel;
+    }
+
+    private static Volontaire volontaire(int id, String sexe, String carnation, String scorePod, boolean archive) {
+        Volontaire volontaire = new Volontaire();
+        volontaire.setIdVol(id);
+        volontaire.setNomVol("NOM" + id);
+        volontaire.setPrenomVol("Prenom" + id);
+        volontaire.setSexe(sexe);
+        volontaire.setCarnation(carnation);
+        volontaire.setScorePod(scorePod != null ? Float.valueOf(scorePod) : null);
+        volontaire.setArchive(archive);
+        return volontaire;
+    }
+
+    private static VolontaireHc habitudes(int idVol, String achatInternet) {
+        VolontaireHc volontaireHc = new VolontaireHc();
+        volontaireHc.setIdVol(idVol);
+        volontaireHc.setAchatInternet(achatInternet);
+        return volontaireHc;
+    }
+}
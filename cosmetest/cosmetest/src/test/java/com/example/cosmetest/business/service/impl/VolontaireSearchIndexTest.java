@@ -0,0 +1,108 @@
+package com.example.cosmetest.business.service.impl;
+
+import com.example.cosmetest.business.dto.VolontaireSuggestionDTO;
+import com.example.cosmetest.business.event.VolontaireChangedEvent;
+import com.example.cosmetest.data.repository.VolontaireRepository;
+import com.example.cosmetest.domain.model.Volontaire;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VolontaireSearchIndexTest {
+
+    private final VolontaireRepository volontaireRepository = mock(VolontaireRepository.class);
+    private final VolontaireSearchIndex index = new VolontaireSearchIndex(volontaireRepository);
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> lignes = new ArrayList<>();
+        lignes.add(ligne(1, "Dupont", "Jean", "jean.dupont@mail.fr", "06 12 34 56 78", null, false));
+        lignes.add(ligne(2, "Lefèvre", "Hélène", "helene@exemple.com", null, "01.23.45.67.89", false));
+        lignes.add(ligne(3, "Marchand", "Jean-Paul", null, null, null, true));
+        lignes.add(ligne(4, "Dupontel", "Albert", "albert@mail.fr", null, null, false));
+        when(volontaireRepository.findSearchIndexRows()).thenReturn(lignes);
+    }
+
+    @Test
+    void ignoreLesAccentsEtLaCasse() {
+        assertThat(index.rechercher("LEFEVRE", true)).containsExactly(2);
+        assertThat(index.rechercher("hélène lef", true)).containsExactly(2);
+        assertThat(index.rechercher("  Jean   Dupont ", true)).containsExactly(1);
+    }
+
+    @Test
+    void retrouveLesTelephonesQuelQueSoitLeFormat() {
+        assertThat(index.rechercher("0612", true)).containsExactly(1);
+        assertThat(index.rechercher("45.67", true)).containsExactly(2);
+        assertThat(index.rechercher("23 45 67", true)).containsExactly(2);
+    }
+
+    @Test
+    void classeLaValeurExacteAvantLesDebutsDeChamp() {
+        assertThat(index.rechercher("dupont", true)).containsExactly(1, 4);
+        assertThat(index.rechercher("jean", true)).containsExactly(1, 3);
+        assertThat(index.rechercher("paul", true)).containsExactly(3);
+        assertThat(index.rechercher("mail", true)).containsExactly(4, 1);
+    }
+
+    @Test
+    void lesArchivesSontOptionnelles() {
+        assertThat(index.rechercher("marchand", true)).containsExactly(3);
+        assertThat(index.rechercher("marchand", false)).isEmpty();
+        assertThat(index.rechercher("xyz", true)).isEmpty();
+    }
+
+    @Test
+    void lesSuggestionsSontLimiteesEtNeLisentPasLaTable() {
+        List<VolontaireSuggestionDTO> suggestions = index.suggerer("dup", false, 1);
+
+        assertThat(suggestions).containsExactly(
+                new VolontaireSuggestionDTO(4, "Dupontel", "Albert", "albert@mail.fr", false));
+        verify(volontaireRepository, times(1)).findSearchIndexRows();
+    }
+
+    @Test
+    void seMetAJourLigneParLigneApresUneEcriture() {
+        index.rechercher("dupont", true);
+
+        Volontaire renomme = new Volontaire();
+        renomme.setIdVol(1);
+        renomme.setNomVol("Durand");
+        renomme.setPrenomVol("Jean");
+        renomme.setArchive(false);
+        when(volontaireRepository.findById(1)).thenReturn(Optional.of(renomme));
+        when(volontaireRepository.findById(4)).thenReturn(Optional.empty());
+
+        index.onVolontaireChanged(VolontaireChangedEvent.of(1));
+        index.onVolontaireChanged(VolontaireChangedEvent.of(4));
+
+        assertThat(index.rechercher("dupont", true)).isEmpty();
+        assertThat(index.rechercher("durand", true)).containsExactly(1);
+        assertThat(index.rechercher("0612", true)).isEmpty();
+        verify(volontaireRepository, times(1)).findSearchIndexRows();
+    }
+
+    @Test
+    void uneInvalidationReconstruitAuProchainAppel() {
+        index.rechercher("dupont", true);
+
+        index.onVolontaireChanged(VolontaireChangedEvent.unknown());
+        index.rechercher("dupont", true);
+
+        verify(volontaireRepository, times(2)).findSearchIndexRows();
+    }
+
+    private static Object[] ligne(int id, String nom, String prenom, String email,
+                                  String portable, String domicile, boolean archive) {
+        return new Object[] { id, nom, prenom, email, portable, domicile, archive };
+    }
+}
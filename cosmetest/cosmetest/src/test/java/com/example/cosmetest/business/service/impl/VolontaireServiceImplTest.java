@@ -2,10 +2,18 @@ package com.example.cosmetest.business.service.impl;
 
 import com.example.cosmetest.business.dto.VolontaireDTO;
 import com.example.cosmetest.business.dto.VolontaireDetailDTO;
+import com.example.cosmetest.business.dto.VolontaireSearchCriteriaDTO;
+import com.example.cosmetest.business.event.RdvChangedEvent;
 import com.example.cosmetest.business.mapper.VolontaireMapper;
 
+import com.example.cosmetest.data.repository.AnnulationRepository;
+import com.example.cosmetest.data.repository.EtudeVolontaireRepository;
+import com.example.cosmetest.data.repository.RdvRepository;
+import com.example.cosmetest.data.repository.VolontaireCriteria;
 import com.example.cosmetest.data.repository.VolontaireRepository;
+import com.example.cosmetest.domain.model.Rdv;
 import com.example.cosmetest.domain.model.Volontaire;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,6 +22,7 @@ import org.mockito.InjectMocks;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,6 +32,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import java.util.Optional;
+import java.util.Set;
 import java.sql.Date;
 import java.time.LocalDate;
 
@@ -46,6 +56,21 @@ class VolontaireServiceImplTest {
     @Mock
     private VolontaireMapper volontaireMapper;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private VolontaireSearchIndex searchIndex;
+
+    @Mock
+    private RdvRepository rdvRepository;
+
+    @Mock
+    private AnnulationRepository annulationRepository;
+
+    @Mock
+    private EtudeVolontaireRepository etudeVolontaireRepository;
+
 
     @InjectMocks
     private VolontaireServiceImpl volontaireService;
@@ -268,116 +293,130 @@ class VolontaireServiceImplTest {
     // ===== TESTS SEARCH BY NOM/PRENOM =====
 
     @Test
-    @DisplayName("searchVolontairesByNomPrenom() - Recherche par nom et prénom")
+    @DisplayName("searchVolontairesByNomPrenom() - Recherche projetée en une seule requête")
     void testSearchVolontairesByNomPrenom_BothParams() {
         // Given
-        String nom = "Dupont";
-        String prenom = "Jean";
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
-        List<VolontaireDTO> expectedDTOs = Arrays.asList(testVolontaireDTO1);
-
-        when(volontaireRepository.findByNomVolAndPrenomVol(nom, prenom)).thenReturn(volontaires);
-        when(volontaireMapper.toDTOList(volontaires)).thenReturn(expectedDTOs);
+        Tuple row = mock(Tuple.class);
+        when(volontaireRepository.searchSummaries(any(VolontaireCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+        when(volontaireMapper.toSummaryDTO(row)).thenReturn(testVolontaireDTO1);
 
         // When
-        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom(nom, prenom);
+        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom("Dupont", "Jean");
 
         // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0)).isEqualTo(testVolontaireDTO1);
+        assertThat(result).containsExactly(testVolontaireDTO1);
 
-        verify(volontaireRepository, times(1)).findByNomVolAndPrenomVol(nom, prenom);
-        verify(volontaireMapper, times(1)).toDTOList(volontaires);
+        ArgumentCaptor<VolontaireCriteria> criteriaCaptor = ArgumentCaptor.forClass(VolontaireCriteria.class);
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+        verify(volontaireRepository).searchSummaries(criteriaCaptor.capture(), pageableCaptor.capture());
+        assertThat(criteriaCaptor.getValue().isEmpty()).isFalse();
+        assertThat(pageableCaptor.getValue().isUnpaged()).isTrue();
+        verify(volontaireRepository, never()).findAll();
+        verify(volontaireMapper, never()).toDTOList(any());
     }
 
     @Test
-    @DisplayName("searchVolontairesByNomPrenom() - Recherche par nom seulement")
-    void testSearchVolontairesByNomPrenom_OnlyNom() {
+    @DisplayName("searchVolontairesByNomPrenom() - Aucun paramètre n'ajoute aucun filtre")
+    void testSearchVolontairesByNomPrenom_NoParams() {
         // Given
-        String nom = "Dupont";
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
-        List<VolontaireDTO> expectedDTOs = Arrays.asList(testVolontaireDTO1);
-
-        when(volontaireRepository.findByNomVol(nom)).thenReturn(volontaires);
-        when(volontaireMapper.toDTOList(volontaires)).thenReturn(expectedDTOs);
+        when(volontaireRepository.searchSummaries(any(VolontaireCriteria.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
 
         // When
-        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom(nom, null);
+        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom(null, null);
 
         // Then
-        assertThat(result).hasSize(1);
+        assertThat(result).isEmpty();
 
-        verify(volontaireRepository, times(1)).findByNomVol(nom);
-        verify(volontaireRepository, never()).findByNomVolAndPrenomVol(anyString(), anyString());
-        verify(volontaireMapper, times(1)).toDTOList(volontaires);
+        ArgumentCaptor<VolontaireCriteria> criteriaCaptor = ArgumentCaptor.forClass(VolontaireCriteria.class);
+        verify(volontaireRepository).searchSummaries(criteriaCaptor.capture(), any(Pageable.class));
+        assertThat(criteriaCaptor.getValue().isEmpty()).isTrue();
+        verify(volontaireRepository, never()).findAll();
     }
 
+    // ===== TESTS SEARCH BY CRITERIA =====
+
     @Test
-    @DisplayName("searchVolontairesByNomPrenom() - Recherche par prénom seulement")
-    void testSearchVolontairesByNomPrenom_OnlyPrenom() {
+    @DisplayName("searchVolontairesByCriteria() - Critères et pagination transmis au repository")
+    void testSearchVolontairesByCriteria_Paged() {
         // Given
-        String prenom = "Jean";
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
-        List<VolontaireDTO> expectedDTOs = Arrays.asList(testVolontaireDTO1);
-
-        when(volontaireRepository.findByPrenomVol(prenom)).thenReturn(volontaires);
-        when(volontaireMapper.toDTOList(volontaires)).thenReturn(expectedDTOs);
+        Tuple row = mock(Tuple.class);
+        Pageable pageable = PageRequest.of(2, 20);
+        VolontaireSearchCriteriaDTO criteria = new VolontaireSearchCriteriaDTO(
+                "F", null, null, null, "3", null, null, null, false);
+        when(volontaireRepository.searchSummaries(any(VolontaireCriteria.class), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(row), pageable, 41));
+        when(volontaireMapper.toSummaryDTO(row)).thenReturn(testVolontaireDTO2);
 
         // When
-        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom(null, prenom);
+        Page<VolontaireDTO> result = volontaireService.searchVolontairesByCriteria(criteria, pageable);
 
         // Then
-        assertThat(result).hasSize(1);
-
-        verify(volontaireRepository, times(1)).findByPrenomVol(prenom);
-        verify(volontaireMapper, times(1)).toDTOList(volontaires);
+        assertThat(result.getContent()).containsExactly(testVolontaireDTO2);
+        assertThat(result.getTotalElements()).isEqualTo(41);
+        verify(volontaireRepository, never()).findAll();
     }
 
     @Test
-    @DisplayName("searchVolontairesByNomPrenom() - Aucun paramètre retourne tous")
-    void testSearchVolontairesByNomPrenom_NoParams() {
+    @DisplayName("searchVolontairesByCriteria() - Sans critère, seuls les archivés sont filtrés sauf demande")
+    void testSearchVolontairesByCriteria_ArchivedOnlyOnRequest() {
         // Given
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1, testVolontaire2);
-        List<VolontaireDTO> expectedDTOs = Arrays.asList(testVolontaireDTO1, testVolontaireDTO2);
-
-        when(volontaireRepository.findAll()).thenReturn(volontaires);
-        when(volontaireMapper.toDTOList(volontaires)).thenReturn(expectedDTOs);
+        when(volontaireRepository.searchSummaries(any(VolontaireCriteria.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
 
         // When
-        List<VolontaireDTO> result = volontaireService.searchVolontairesByNomPrenom(null, null);
+        volontaireService.searchVolontairesByCriteria(new VolontaireSearchCriteriaDTO(
+                null, null, null, null, null, null, null, null, false), PageRequest.of(0, 20));
+        volontaireService.searchVolontairesByCriteria(new VolontaireSearchCriteriaDTO(
+                null, null, null, null, null, null, null, null, true), PageRequest.of(0, 20));
 
         // Then
-        assertThat(result).hasSize(2);
+        ArgumentCaptor<VolontaireCriteria> criteriaCaptor = ArgumentCaptor.forClass(VolontaireCriteria.class);
+        verify(volontaireRepository, times(2)).searchSummaries(criteriaCaptor.capture(), any(Pageable.class));
+        assertThat(criteriaCaptor.getAllValues().get(0).isEmpty()).isFalse();
+        assertThat(criteriaCaptor.getAllValues().get(1).isEmpty()).isTrue();
+    }
 
-        verify(volontaireRepository, times(1)).findAll();
-        verify(volontaireMapper, times(1)).toDTOList(volontaires);
+    @Test
+    @DisplayName("getVolontairesAddedBetweenDates() - Filtre sur la date d'inscription en SQL")
+    void testGetVolontairesAddedBetweenDates_UsesCriteria() {
+        // Given
+        when(volontaireRepository.searchSummaries(any(VolontaireCriteria.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        // When
+        List<VolontaireDTO> result = volontaireService.getVolontairesAddedBetweenDates(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31));
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(volontaireRepository).searchSummaries(any(VolontaireCriteria.class), any(Pageable.class));
+        verify(volontaireRepository, never()).findAll();
     }
 
     // ===== TESTS SEARCH WITH PAGINATION =====
 
     @Test
-    @DisplayName("searchVolontaires() avec pagination - Recherche avec mot-clé")
+    @DisplayName("searchVolontaires() avec pagination - Seule la page demandée est chargée, dans l'ordre de l'index")
     void testSearchVolontairesWithPagination_WithKeyword() {
         // Given
         String keyword = "Dupont";
-        Pageable pageable = PageRequest.of(0, 10);
-        String searchTerm = "%" + keyword + "%";
-        
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
-        Page<Volontaire> volontairesPage = new PageImpl<>(volontaires, pageable, 1);
+        Pageable pageable = PageRequest.of(1, 2);
 
-        when(volontaireRepository.findByFullTextSearchNative(searchTerm, pageable)).thenReturn(volontairesPage);
+        when(searchIndex.rechercher(keyword, true)).thenReturn(List.of(5, 4, 2, 1, 3));
+        when(volontaireRepository.findAllByIdVolIn(List.of(2, 1)))
+                .thenReturn(Arrays.asList(testVolontaire1, testVolontaire2));
         when(volontaireMapper.toDTO(testVolontaire1)).thenReturn(testVolontaireDTO1);
+        when(volontaireMapper.toDTO(testVolontaire2)).thenReturn(testVolontaireDTO2);
 
         // When
         Page<VolontaireDTO> result = volontaireService.searchVolontaires(keyword, pageable);
 
         // Then
-        assertThat(result).isNotNull();
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getTotalElements()).isEqualTo(1);
-
-        verify(volontaireRepository, times(1)).findByFullTextSearchNative(searchTerm, pageable);
+        assertThat(result.getContent()).containsExactly(testVolontaireDTO2, testVolontaireDTO1);
+        assertThat(result.getTotalElements()).isEqualTo(5);
+        verify(volontaireRepository, times(1)).findAllByIdVolIn(List.of(2, 1));
     }
 
     @Test
@@ -402,30 +441,23 @@ class VolontaireServiceImplTest {
         assertThat(result.getContent()).hasSize(2);
 
         verify(volontaireRepository, times(1)).findAll(pageable);
-        verify(volontaireRepository, never()).findByFullTextSearchNative(anyString(), any());
+        verifyNoInteractions(searchIndex);
     }
 
     @Test
-    @DisplayName("searchVolontaires() avec pagination - Nettoyage des caractères spéciaux")
-    void testSearchVolontairesWithPagination_SpecialCharactersRemoved() {
+    @DisplayName("searchVolontaires() avec pagination - Aucune correspondance, aucune requête")
+    void testSearchVolontairesWithPagination_NoMatch() {
         // Given
-        String keyword = "Dupont%_[]^";
         Pageable pageable = PageRequest.of(0, 10);
-        String cleanedKeyword = "Dupont\\%\\_";
-        String searchTerm = "%" + cleanedKeyword + "%";
-        
-        List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
-        Page<Volontaire> volontairesPage = new PageImpl<>(volontaires, pageable, 1);
-
-        when(volontaireRepository.findByFullTextSearchNative(searchTerm, pageable)).thenReturn(volontairesPage);
-        when(volontaireMapper.toDTO(testVolontaire1)).thenReturn(testVolontaireDTO1);
+        when(searchIndex.rechercher("zzz", true)).thenReturn(List.of());
 
         // When
-        Page<VolontaireDTO> result = volontaireService.searchVolontaires(keyword, pageable);
+        Page<VolontaireDTO> result = volontaireService.searchVolontaires("zzz", pageable);
 
         // Then
-        assertThat(result).isNotNull();
-        verify(volontaireRepository, times(1)).findByFullTextSearchNative(searchTerm, pageable);
+        assertThat(result.getContent()).isEmpty();
+        assertThat(result.getTotalElements()).isZero();
+        verifyNoInteractions(volontaireRepository);
     }
 
     // ===== TESTS SEARCH WITHOUT PAGINATION =====
@@ -438,7 +470,8 @@ class VolontaireServiceImplTest {
         List<Volontaire> volontaires = Arrays.asList(testVolontaire1);
         List<VolontaireDTO> expectedDTOs = Arrays.asList(testVolontaireDTO1);
 
-        when(volontaireRepository.searchVolontaires(searchText)).thenReturn(volontaires);
+        when(searchIndex.rechercher(searchText, true)).thenReturn(List.of(1));
+        when(volontaireRepository.findAllByIdVolIn(List.of(1))).thenReturn(volontaires);
         when(volontaireMapper.toDTOList(volontaires)).thenReturn(expectedDTOs);
 
         // When
@@ -447,10 +480,38 @@ class VolontaireServiceImplTest {
         // Then
         assertThat(result).hasSize(1);
 
-        verify(volontaireRepository, times(1)).searchVolontaires(searchText);
+        verify(volontaireRepository, times(1)).findAllByIdVolIn(List.of(1));
         verify(volontaireMapper, times(1)).toDTOList(volontaires);
     }
 
+    @Test
+    @DisplayName("searchVolontaires() sans pagination - Résultats chargés par paquets, dans l'ordre de l'index")
+    void testSearchVolontairesWithoutPagination_LoadsInBoundedChunks() {
+        // Given
+        List<Integer> ids = java.util.stream.IntStream.rangeClosed(1, 1200).boxed()
+                .sorted(java.util.Comparator.reverseOrder()).toList();
+        when(searchIndex.rechercher("a", true)).thenReturn(ids);
+        when(volontaireRepository.findAllByIdVolIn(anyList())).thenAnswer(invocation -> {
+            List<Integer> paquet = invocation.getArgument(0);
+            return paquet.stream().map(id -> {
+                Volontaire volontaire = new Volontaire();
+                volontaire.setIdVol(id);
+                return volontaire;
+            }).toList();
+        });
+
+        // When
+        volontaireService.searchVolontaires("a");
+
+        // Then
+        ArgumentCaptor<List<Integer>> paquets = ArgumentCaptor.forClass(List.class);
+        verify(volontaireRepository, times(3)).findAllByIdVolIn(paquets.capture());
+        assertThat(paquets.getAllValues()).allSatisfy(paquet -> assertThat(paquet).hasSizeLessThanOrEqualTo(500));
+        ArgumentCaptor<List<Volontaire>> charges = ArgumentCaptor.forClass(List.class);
+        verify(volontaireMapper).toDTOList(charges.capture());
+        assertThat(charges.getValue()).extracting(Volontaire::getIdVol).containsExactlyElementsOf(ids);
+    }
+
     @Test
     @DisplayName("searchVolontaires() sans pagination - Texte vide retourne tous")
     void testSearchVolontairesWithoutPagination_EmptyText() {
@@ -469,10 +530,56 @@ class VolontaireServiceImplTest {
         assertThat(result).hasSize(2);
 
         verify(volontaireRepository, times(1)).findAll();
-        verify(volontaireRepository, never()).searchVolontaires(anyString());
+        verifyNoInteractions(searchIndex);
         verify(volontaireMapper, times(1)).toDTOList(volontaires);
     }
 
+    @Test
+    @DisplayName("getVolontairesPaginated() - Recherche triée par identifiant décroissant")
+    void testGetVolontairesPaginated_WithSearch() {
+        // Given
+        when(searchIndex.rechercher("mar", false)).thenReturn(List.of(1, 2));
+        when(volontaireRepository.findAllByIdVolIn(List.of(2, 1)))
+                .thenReturn(Arrays.asList(testVolontaire1, testVolontaire2));
+
+        // When
+        Page<VolontaireDTO> result = volontaireService.getVolontairesPaginated(0, 10, false, "mar");
+
+        // Then
+        assertThat(result.getContent()).extracting(VolontaireDTO::getIdVol).containsExactly(2, 1);
+        assertThat(result.getTotalElements()).isEqualTo(2);
+    }
+
+    // ===== TESTS DELETE =====
+
+    @Test
+    @DisplayName("deleteVolontaire() - Les jours des RDV supprimés sont signalés par étude")
+    void testDeleteVolontaire_PublishesRdvDates() {
+        // Given
+        when(volontaireRepository.existsById(1)).thenReturn(true);
+        when(rdvRepository.findByIdVolontaire(1)).thenReturn(List.of(
+                rdv(10, "2026-03-02"), rdv(10, "2026-03-05"), rdv(20, "2026-04-01"), rdv(20, null)));
+
+        // When
+        boolean deleted = volontaireService.deleteVolontaire(1);
+
+        // Then
+        assertThat(deleted).isTrue();
+        ArgumentCaptor<Object> events = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(events.capture());
+        assertThat(events.getAllValues()).filteredOn(RdvChangedEvent.class::isInstance).containsExactlyInAnyOrder(
+                new RdvChangedEvent(10, Set.of(LocalDate.of(2026, 3, 2), LocalDate.of(2026, 3, 5))),
+                new RdvChangedEvent(20, Set.of(LocalDate.of(2026, 4, 1))));
+        verify(rdvRepository).deleteByIdVolontaire(1);
+    }
+
+    private static Rdv rdv(Integer idEtude, String date) {
+        Rdv rdv = new Rdv();
+        rdv.setIdEtude(idEtude);
+        rdv.setDate(date == null ? null : Date.valueOf(date));
+        return rdv;
+    }
+
     // ===== TESTS EXCEPTION HANDLING =====
 
     @Test
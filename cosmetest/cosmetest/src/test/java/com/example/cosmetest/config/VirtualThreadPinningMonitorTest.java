@@ -0,0 +1,50 @@
+package com.example.cosmetest.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor =
+            new VirtualThreadPinningMonitor(registry, Duration.ofMillis(5), Duration.ofMinutes(1));
+    private final Object moniteur = new Object();
+
+    @AfterEach
+    void tearDown() {
+        monitor.arreter();
+    }
+
+    @Test
+    void compteUnThreadVirtuelQuiAttendDansUnSynchronized() throws InterruptedException {
+        monitor.demarrer();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (moniteur) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // Les événements JFR sont livrés au flux par paquets, environ une fois par seconde
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (registry.find("threads.virtual.pinned").timer() == null && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+        Timer epinglages = registry.find("threads.virtual.pinned").timer();
+        assertThat(epinglages).isNotNull();
+        assertThat(epinglages.getId().getTag("site"))
+                .startsWith(VirtualThreadPinningMonitorTest.class.getName() + ".");
+        assertThat(epinglages.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(40);
+    }
+}
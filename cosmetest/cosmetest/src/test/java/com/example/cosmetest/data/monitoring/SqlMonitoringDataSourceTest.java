@@ -0,0 +1,77 @@
+package com.example.cosmetest.data.monitoring;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlMonitoringDataSourceTest {
+
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new SqlMonitoringDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:sqlmonitoring;DB_CLOSE_DELAY=-1", "sa", "")));
+    private SqlActivite activite;
+
+    @AfterEach
+    void tearDown() {
+        if (activite != null) {
+            activite.fermer();
+        }
+        jdbcTemplate.execute("DROP TABLE IF EXISTS volontaire_test");
+    }
+
+    @Test
+    void compteInstructionsLignesEtFormesRepetees() {
+        jdbcTemplate.execute("CREATE TABLE volontaire_test (id INT PRIMARY KEY, nom VARCHAR(50))");
+        activite = SqlActivite.ouvrir();
+
+        jdbcTemplate.batchUpdate("INSERT INTO volontaire_test (id, nom) VALUES (?, ?)",
+                List.of(new Object[]{1, "Martin"}, new Object[]{2, "Dubois"}, new Object[]{3, "Leroy"}));
+        for (int id = 1; id <= 3; id++) {
+            jdbcTemplate.queryForObject("SELECT nom FROM volontaire_test WHERE id = ?", String.class, id);
+        }
+        jdbcTemplate.queryForList("SELECT * FROM volontaire_test");
+
+        SqlActivite.Mesure mesure = activite.mesure();
+        assertThat(mesure.instructions()).isEqualTo(5);
+        assertThat(mesure.lignes()).isEqualTo(6);
+        assertThat(mesure.nanosJdbc()).isPositive();
+        assertThat(activite.formesRepetees(3)).extracting(Map.Entry::getKey)
+                .containsExactly("SELECT nom FROM volontaire_test WHERE id = ?");
+    }
+
+    @Test
+    void neCompteRienHorsDUneActivite() {
+        jdbcTemplate.execute("CREATE TABLE volontaire_test (id INT PRIMARY KEY, nom VARCHAR(50))");
+
+        activite = SqlActivite.ouvrir();
+        SqlActivite.Mesure avant = activite.mesure();
+        activite.fermer();
+        jdbcTemplate.queryForList("SELECT * FROM volontaire_test");
+
+        assertThat(activite.mesure()).isEqualTo(avant);
+        assertThat(SqlActivite.courante()).isNull();
+    }
+
+    @Test
+    void uneActiviteImbriqueeNeRemplacePasLaPremiere() {
+        activite = SqlActivite.ouvrir();
+
+        assertThat(SqlActivite.ouvrir()).isNull();
+        assertThat(SqlActivite.courante()).isSameAs(activite);
+    }
+
+    @Test
+    void laFormeIgnoreLesValeursEtLaTailleDesListesIn() {
+        assertThat(SqlActivite.forme("select * from rdv  where id_etude = 12 and etat = 'ANNULE'"))
+                .isEqualTo("select * from rdv where id_etude = ? and etat = ?");
+        assertThat(SqlActivite.forme("select * from etude where id_etude in (?, ?, ?)"))
+                .isEqualTo(SqlActivite.forme("select * from etude where id_etude IN (?)"));
+        assertThat(SqlActivite.forme("select * from etude where id_etude in (?, ?, ?)"))
+                .isEqualTo("select * from etude where id_etude in (?)");
+    }
+}
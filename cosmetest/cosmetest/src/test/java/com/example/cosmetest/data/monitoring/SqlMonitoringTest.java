@@ -0,0 +1,77 @@
+package com.example.cosmetest.data.monitoring;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlMonitoringTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SqlMonitoring monitoring = new SqlMonitoring(registry, 3, Duration.ofSeconds(1), 100,
+            Duration.ofMinutes(1));
+    private final SqlActivite activite = SqlActivite.ouvrir();
+
+    @AfterEach
+    void tearDown() {
+        activite.fermer();
+    }
+
+    @Test
+    void publieLesMesuresParPointDEntree() {
+        SqlActivite.instructionExecutee("select * from etude where id_etude = ?", 2_000_000);
+        SqlActivite.ligneLue();
+        SqlActivite.entiteChargee();
+
+        monitoring.requeteTerminee("GET", "/api/etudes/{id}", 200, activite);
+
+        assertThat(registry.get("sql.request.statements").tag("uri", "/api/etudes/{id}").summary().totalAmount())
+                .isEqualTo(1);
+        assertThat(registry.get("sql.request.jdbc").tag("outcome", "SUCCESS").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+        assertThat(registry.get("sql.request.rows").summary().totalAmount()).isEqualTo(1);
+        assertThat(registry.get("sql.request.entities").summary().totalAmount()).isEqualTo(1);
+        assertThat(registry.find("sql.n_plus_one").counter()).isNull();
+    }
+
+    @Test
+    void signaleUneFormeRepeteeCommeNPlusUn() {
+        for (int id = 1; id <= 3; id++) {
+            SqlActivite.instructionExecutee("select * from groupe where id_groupe = ?", 1_000);
+        }
+        SqlActivite.instructionExecutee("select * from etude where id_etude = ?", 1_000);
+
+        monitoring.requeteTerminee("GET", "/api/calendrier/semaine", 200, activite);
+
+        assertThat(registry.get("sql.n_plus_one").tag("origin", "http")
+                .tag("name", "GET /api/calendrier/semaine").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void lesMethodesSansSqlNeCreentPasDeSerie() {
+        SqlActivite.Mesure avant = activite.mesure();
+        monitoring.methodeTerminee("OccupationService", "calculer", activite, activite.mesure().moins(avant), false);
+
+        SqlActivite.instructionExecutee("select count(*) from rdv", 1_000);
+        SqlActivite.ligneLue();
+        monitoring.methodeTerminee("RdvServiceImpl", "countRdvForToday", activite, activite.mesure().moins(avant),
+                false);
+
+        assertThat(registry.find("sql.service.statements").tag("service", "OccupationService").summary()).isNull();
+        assertThat(registry.get("sql.service.statements").tag("method", "countRdvForToday").summary().count())
+                .isEqualTo(1);
+        assertThat(registry.get("sql.service.rows").tag("method", "countRdvForToday").summary().totalAmount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void refuseUnSeuilInvalide() {
+        assertThatThrownBy(() -> new SqlMonitoring(registry, 1, Duration.ofSeconds(1), 100, Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
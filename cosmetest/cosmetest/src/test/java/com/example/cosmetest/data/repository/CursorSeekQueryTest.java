@@ -0,0 +1,175 @@
+package com.example.cosmetest.data.repository;
+
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
+import com.example.cosmetest.domain.model.AuditLog;
+import com.example.cosmetest.domain.model.ConnexionLog;
+import com.example.cosmetest.domain.model.SessionHistory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes de pagination par curseur exécutées sur une vraie base (H2, mode MySQL).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:curseur;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CursorSeekQueryTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 7, 16, 10, 0);
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private SessionHistoryRepository sessionHistoryRepository;
+
+    @Autowired
+    private ConnexionLogRepository connexionLogRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void leJournalDAuditSeParcourtSansDoublonNiTrouMalgreLesEgalites() {
+        // Trois lignes à la même seconde : seul l'id les départage
+        Long a = audit("alice", T0);
+        Long b = audit("alice", T0);
+        Long c = audit("bob", T0.minusMinutes(1));
+        Long d = audit("alice", T0);
+        Long e = audit("alice", T0.minusMinutes(1));
+        entityManager.clear();
+
+        List<Long> ids = parcourir(2, demande -> auditLogRepository.searchApres(null, null, null, null, null,
+                demande.apresCle(), demande.apresId(), demande.limite()),
+                log -> new Curseur(log.getCreatedAt(), log.getId()), AuditLog::getId);
+
+        assertThat(ids).containsExactly(d, b, a, e, c);
+    }
+
+    @Test
+    void lesFiltresDAuditSAppliquentAuxPagesSuivantes() {
+        Long a = audit("alice", T0);
+        audit("bob", T0);
+        Long c = audit("alice", T0);
+        Long d = audit("alice", T0.minusMinutes(1));
+        entityManager.clear();
+
+        List<Long> ids = parcourir(1, demande -> auditLogRepository.searchApres(null, "ALICE", null, null, null,
+                demande.apresCle(), demande.apresId(), demande.limite()),
+                log -> new Curseur(log.getCreatedAt(), log.getId()), AuditLog::getId);
+
+        assertThat(ids).containsExactly(c, a, d);
+    }
+
+    @Test
+    void lHistoriqueDesSessionsSeParcourtSansDoublonNiTrouMalgreLesEgalites() {
+        Instant debut = T0.toInstant(ZoneOffset.UTC);
+        Long a = session("alice", debut);
+        Long b = session("alice", debut);
+        Long c = session("alice", debut.minusSeconds(60));
+        Long d = session("alice", debut);
+        entityManager.clear();
+
+        List<Long> ids = parcourir(3, demande -> sessionHistoryRepository.findApres(null,
+                demande.apresCle() != null ? demande.apresCle().toInstant(ZoneOffset.UTC) : null,
+                demande.apresId(), demande.limite()),
+                s -> new Curseur(LocalDateTime.ofInstant(s.getLoginTime(), ZoneOffset.UTC), s.getId()),
+                SessionHistory::getId);
+
+        assertThat(ids).containsExactly(d, b, a, c);
+    }
+
+    @Test
+    void lesJokersSaisisDansLeLoginSontCherchesTelsQuels() {
+        Instant debut = T0.toInstant(ZoneOffset.UTC);
+        Long souligne = session("jean_d", debut);
+        session("jeanxd", debut);
+        Long pourcent = session("taux%100", debut);
+        session("taux100", debut);
+        Long exclamation = session("oui!", debut);
+        entityManager.clear();
+
+        assertThat(sessions("n_d")).containsExactly(souligne);
+        assertThat(sessions("%")).containsExactly(pourcent);
+        assertThat(sessions("!")).containsExactly(exclamation);
+        assertThat(sessionHistoryRepository.countJusqua(SessionHistoryRepository.motifLike("_"), 10)).isEqualTo(1);
+    }
+
+    @Test
+    void lesComptesSArretentAuPlafond() {
+        for (int i = 0; i < 5; i++) {
+            audit(i % 2 == 0 ? "alice" : "bob", T0.minusMinutes(i));
+            entityManager.persist(new ConnexionLog("alice", true, "127.0.0.1"));
+            session("alice", T0.toInstant(ZoneOffset.UTC));
+        }
+        entityManager.flush();
+
+        assertThat(auditLogRepository.countJusqua(null, null, null, null, null, 3)).isEqualTo(3);
+        assertThat(auditLogRepository.countJusqua(null, "Alice", AuditLog.Action.UPDATE.name(), null, null, 10))
+                .isEqualTo(3);
+        assertThat(auditLogRepository.countJusqua(null, null, AuditLog.Action.DELETE.name(), null, null, 10))
+                .isZero();
+        assertThat(auditLogRepository.countJusqua(null, null, null, T0.minusMinutes(1), null, 10)).isEqualTo(2);
+        assertThat(connexionLogRepository.countJusqua(null, null, 4)).isEqualTo(4);
+        assertThat(sessionHistoryRepository.countJusqua(null, 2)).isEqualTo(2);
+        assertThat(sessionHistoryRepository.countJusqua(SessionHistoryRepository.motifLike("ALI"), 10)).isEqualTo(5);
+    }
+
+    private <T> List<Long> parcourir(int taille, Function<DemandeCurseur, List<T>> page,
+                                     Function<T, Curseur> cle,
+                                     Function<T, Long> id) {
+        List<Long> ids = new ArrayList<>();
+        Curseur apres = null;
+        do {
+            DemandeCurseur demande = new DemandeCurseur(apres, taille, false);
+            PageCurseur<T> resultat = PageCurseur.de(page.apply(demande), demande, cle, plafond -> 0);
+            resultat.contenu().stream().map(id).forEach(ids::add);
+            apres = resultat.suivant();
+        } while (apres != null);
+        return ids;
+    }
+
+    private List<Long> sessions(String login) {
+        return sessionHistoryRepository.findApres(SessionHistoryRepository.motifLike(login), null, null,
+                        new DemandeCurseur(null, 10, false).limite())
+                .stream()
+                .map(SessionHistory::getId)
+                .toList();
+    }
+
+    private Long audit(String utilisateur, LocalDateTime createdAt) {
+        AuditLog log = entityManager.persistFlushFind(
+                new AuditLog(utilisateur, AuditLog.Action.UPDATE, "VOLONTAIRE", "1", null, null));
+        // La date de création est posée par le constructeur : on la fixe pour créer des égalités
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE audit_log SET created_at = :createdAt WHERE id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", log.getId())
+                .executeUpdate();
+        return log.getId();
+    }
+
+    private Long session(String login, Instant loginTime) {
+        return entityManager.persistFlushFind(new SessionHistory(login, loginTime, null, null)).getId();
+    }
+}
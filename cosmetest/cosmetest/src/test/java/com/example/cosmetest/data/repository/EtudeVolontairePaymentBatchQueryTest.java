@@ -0,0 +1,101 @@
+package com.example.cosmetest.data.repository;
+
+import com.example.cosmetest.domain.model.Annulation;
+import com.example.cosmetest.domain.model.EtudeVolontaire;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Requêtes du paiement en lot exécutées sur une vraie base (H2, mode MySQL).
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:paiement;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EtudeVolontairePaymentBatchQueryTest {
+
+    @Autowired
+    private EtudeVolontaireRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        // Seules les associations et annulations comptent ici, pas les études ni les volontaires liés
+        entityManager.getEntityManager().createNativeQuery("SET REFERENTIAL_INTEGRITY FALSE").executeUpdate();
+        association(1, 10, null);
+        association(1, 11, 0);
+        association(1, 12, 1);
+        association(1, 13, 0);
+        association(1, 14, 1);
+        association(2, 10, 0);
+        entityManager.persist(new Annulation(13, 1, "2026-03-02"));
+        entityManager.persist(new Annulation(14, 1, "2026-03-02"));
+        // Annulation dans une autre étude : sans effet sur l'étude 1
+        entityManager.persist(new Annulation(11, 2, "2026-03-02"));
+        entityManager.flush();
+    }
+
+    @Test
+    void payeLesAssociationsNonPayeesEtNonAnnuleesDeLEtudeSeulement() {
+        int updated = repository.markUnpaidActiveAsPaidByEtude(1);
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(paye(1, 10)).isEqualTo(1);
+        assertThat(paye(1, 11)).isEqualTo(1);
+        assertThat(paye(1, 12)).isEqualTo(1);
+        assertThat(paye(1, 13)).isEqualTo(0);
+        assertThat(paye(1, 14)).isEqualTo(1);
+        assertThat(paye(2, 10)).isEqualTo(0);
+    }
+
+    @Test
+    void compteLeTotalEtLesAnnuleesNonPayees() {
+        Object[] avant = repository.countPaymentStatesByEtude(1).get(0);
+        repository.markUnpaidActiveAsPaidByEtude(1);
+        Object[] apres = repository.countPaymentStatesByEtude(1).get(0);
+
+        // Annulée déjà payée (14) : comptée comme payée, pas comme ignorée
+        assertThat(((Number) avant[0]).intValue()).isEqualTo(5);
+        assertThat(((Number) avant[1]).intValue()).isEqualTo(1);
+        assertThat(apres).isEqualTo(avant);
+    }
+
+    @Test
+    void repereLesVolontairesEnDoubleDansLEtude() {
+        association(1, 11, 0);
+        entityManager.flush();
+
+        assertThat(repository.findDuplicateVolontairesByEtude(1)).containsExactly(11);
+        assertThat(repository.findDuplicateVolontairesByEtude(2)).isEmpty();
+    }
+
+    private void association(int idEtude, int idVolontaire, Integer paye) {
+        EtudeVolontaire association = new EtudeVolontaire();
+        association.setIdEtude(idEtude);
+        association.setIdGroupe(1);
+        association.setIdVolontaire(idVolontaire);
+        association.setPaye(paye);
+        entityManager.persist(association);
+    }
+
+    private Integer paye(int idEtude, int idVolontaire) {
+        return repository.findAll().stream()
+                .filter(ev -> ev.getIdEtude() == idEtude && ev.getIdVolontaire() == idVolontaire)
+                .findFirst()
+                .orElseThrow()
+                .getPaye();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.cosmetest.data.repository;
+
+import com.example.cosmetest.domain.model.Volontaire;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VolontaireCriteriaTest {
+
+    @SuppressWarnings("unchecked")
+    private final Root<Volontaire> root = mock(Root.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+
+    @Test
+    void ignoresNullAndBlankCriteria() {
+        VolontaireCriteria criteria = VolontaireCriteria.create()
+                .sexe(null).nom(" ").ethnie("").ageBetween(null, null, LocalDate.of(2026, 1, 1))
+                .dateInscriptionBetween(null, null).archive(null);
+
+        assertThat(criteria.isEmpty()).isTrue();
+        criteria.toPredicate(cb, root);
+        verify(cb).and(new Predicate[0]);
+        verify(root, never()).get(any(String.class));
+    }
+
+    @Test
+    void pushesEachCriterionDownAsAPredicate() {
+        Path<Object> sexe = path("sexe");
+        Path<Object> phototype = path("phototype");
+        Predicate sexePredicate = mock(Predicate.class);
+        Predicate phototypePredicate = mock(Predicate.class);
+        when(cb.equal(sexe, "F")).thenReturn(sexePredicate);
+        when(cb.equal(phototype, "3")).thenReturn(phototypePredicate);
+
+        VolontaireCriteria.create().sexe("F").phototype("3").toPredicate(cb, root);
+
+        verify(cb).and(new Predicate[] { sexePredicate, phototypePredicate });
+    }
+
+    @Test
+    void translatesAgeBoundsIntoBirthDateBounds() {
+        path("dateNaissance");
+
+        VolontaireCriteria.create().ageBetween(18, 35, LocalDate.of(2026, 6, 15)).toPredicate(cb, root);
+
+        verify(cb).greaterThanOrEqualTo(any(), eq(Date.valueOf("1991-06-15")));
+        verify(cb).lessThanOrEqualTo(any(), eq(Date.valueOf("2008-06-15")));
+        verify(root, times(2)).get("dateNaissance");
+    }
+
+    @Test
+    void combinesAnotherCriteriaSet() {
+        VolontaireCriteria criteria = VolontaireCriteria.create().sexe("F")
+                .and(VolontaireCriteria.create().ethnie("Caucasien"));
+        path("sexe");
+        path("ethnie");
+
+        criteria.toPredicate(cb, root);
+
+        verify(root).get("sexe");
+        verify(root).get("ethnie");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Path<Object> path(String attribute) {
+        Path<Object> path = mock(Path.class);
+        when(root.get(attribute)).thenReturn(path);
+        return path;
+    }
+}
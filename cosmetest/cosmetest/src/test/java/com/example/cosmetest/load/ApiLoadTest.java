@@ -0,0 +1,238 @@
+package com.example.cosmetest.load;
+
+import com.example.cosmetest.business.dto.RdvDTO;
+import com.example.cosmetest.business.service.impl.RdvBatchWriter;
+import com.example.cosmetest.business.service.impl.VolontaireSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Suite de charge de bout en bout : l'application démarre sur une base H2
+ * remplie au volume de la production, puis chaque point d'entrée clé est
+ * sollicité par plusieurs clients simultanés. Les mesures sont écrites dans
+ * {@code build/reports/load/results.json} et comparées au budget de
+ * {@code load-budget.properties}.
+ *
+ * Exclue de {@code test} ; lancée par {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:charge;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.flyway.enabled=false",
+        "jwt.secret=cosmetest-test-secret-key-with-at-least-thirty-two-bytes",
+        // Les journaux par requête fausseraient les latences et les allocations
+        "logging.level.com.example.cosmetest=WARN",
+        "logging.level.com.example.cosmetest.load=INFO"
+})
+@AutoConfigureMockMvc
+class ApiLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiLoadTest.class);
+
+    private static final String[] MOTS_CLES = {"Martin", "dubois", "Camille", "Lefèvre", "moreau", "Hugo",
+            "Villeurbanne", "Léa"};
+    private static final int RDVS_PAR_LOT = 20;
+
+    private static final MockWebServer serveurPhotos = demarrerServeurPhotos();
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RdvBatchWriter rdvBatchWriter;
+    @Autowired
+    private VolontaireSearchIndex volontaireSearchIndex;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void serveurPhotos(DynamicPropertyRegistry registry) {
+        registry.add("photo.server.url", () -> serveurPhotos.url("/photos/").toString());
+    }
+
+    @AfterAll
+    static void arreterServeurPhotos() throws IOException {
+        serveurPhotos.shutdown();
+    }
+
+    @Test
+    void lesPointsDEntreeClesRespectentLeBudget() throws Exception {
+        LoadProfile profil = LoadProfile.fromSystemProperties();
+        new LoadTestDataGenerator(jdbcTemplate, rdvBatchWriter).generer(profil);
+        // Le jeu de données a été écrit en JDBC, sans les événements qui tiennent les caches à jour
+        cacheManager.getCacheNames().forEach(nom -> cacheManager.getCache(nom).clear());
+        volontaireSearchIndex.invalider();
+
+        LoadRunner runner = new LoadRunner(mockMvc, profil);
+        LoadBudget budget = LoadBudget.charger();
+        List<LoadResult> resultats = new ArrayList<>();
+        List<String> depassements = new ArrayList<>();
+        for (LoadScenario scenario : scenarios(profil)) {
+            LoadResult resultat = runner.executer(scenario);
+            logger.info(String.format("%-22s p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms  %8.1f req/s  %6.1f sql/req  %9.1f Ko/req  %d erreur(s)",
+                    resultat.scenario(), resultat.p50Ms(), resultat.p95Ms(), resultat.p99Ms(), resultat.debit(),
+                    resultat.sqlParRequete(), resultat.allocationKoParRequete(), resultat.erreurs()));
+            resultats.add(resultat);
+            depassements.addAll(budget.depassements(resultat));
+        }
+        ecrireRapport(profil, resultats);
+
+        assertThat(depassements).as("Budget de charge dépassé").isEmpty();
+    }
+
+    private List<LoadScenario> scenarios(LoadProfile profil) {
+        LocalDate aujourdhui = LocalDate.now();
+        return List.of(
+                new LoadScenario("volontaires.search", i -> authentifie(get("/api/volontaires/search")
+                        .param("keyword", MOTS_CLES[i % MOTS_CLES.length])
+                        .param("size", "20"))),
+                new LoadScenario("calendrier.semaine", i -> authentifie(get("/api/calendrier/semaine")
+                        .param("dateSemaine", aujourdhui.minusWeeks(i % 26).toString()))),
+                new LoadScenario("calendrier.mois", i -> {
+                    LocalDate mois = aujourdhui.withDayOfMonth(1).minusMonths(i % 12);
+                    return authentifie(get("/api/calendrier/periode")
+                            .param("dateDebut", mois.toString())
+                            .param("dateFin", mois.plusMonths(1).minusDays(1).toString()));
+                }),
+                new LoadScenario("dashboard.stats", i -> authentifie(get("/api/dashboard/stats"))),
+                new LoadScenario("dashboard.activite", i -> authentifie(get("/api/dashboard/activite/recente"))),
+                new LoadScenario("paiements.summary", i -> authentifie(get("/api/paiements/etudes/summary"))),
+                new LoadScenario("volontaires.photos", i -> authentifie(
+                        get("/api/volontaires/{id}/photos", 1 + (i * 7919) % profil.volontaires()))),
+                new LoadScenario("rdvs.batch", i -> authentifie(post("/api/rdvs/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(lotDeRdvs(1 + (i * 31) % profil.etudes(), aujourdhui.plusDays(1 + i % 60))))));
+    }
+
+    private byte[] lotDeRdvs(int idEtude, LocalDate date) {
+        List<RdvDTO> lot = new ArrayList<>(RDVS_PAR_LOT);
+        for (int i = 0; i < RDVS_PAR_LOT; i++) {
+            RdvDTO rdv = new RdvDTO();
+            rdv.setIdEtude(idEtude);
+            rdv.setIdGroupe(idEtude);
+            rdv.setDate(Date.valueOf(date));
+            rdv.setHeure(String.format("%02d:%02d", 8 + i / 4, 15 * (i % 4)));
+            rdv.setEtat("PLANIFIE");
+            rdv.setDuree(15);
+            lot.add(rdv);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(lot);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MockHttpServletRequestBuilder authentifie(MockHttpServletRequestBuilder requete) {
+        return requete.with(user("charge").roles("ADMIN"));
+    }
+
+    private void ecrireRapport(LoadProfile profil, List<LoadResult> resultats) throws IOException {
+        Path rapport = Path.of(System.getProperty("load.report", "build/reports/load/results.json"));
+        Files.createDirectories(rapport.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValue(rapport.toFile(), Map.of("profil", profil, "resultats", resultats));
+        logger.info("Rapport de charge écrit dans {}", rapport.toAbsolutePath());
+    }
+
+    /**
+     * Serveur photo local : toute photo demandée existe et renvoie la même
+     * image JPEG, servie avec une latence réseau de quelques millisecondes.
+     */
+    private static MockWebServer demarrerServeurPhotos() {
+        byte[] image = imageJpeg();
+        MockWebServer serveur = new MockWebServer();
+        serveur.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "image/jpeg")
+                        .setBody(new Buffer().write(image))
+                        .setHeadersDelay(3, TimeUnit.MILLISECONDS);
+            }
+        });
+        try {
+            serveur.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return serveur;
+    }
+
+    private static byte[] imageJpeg() {
+        BufferedImage image = new BufferedImage(640, 480, BufferedImage.TYPE_INT_RGB);
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "jpg", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TestConfiguration
+    static class CompteurSqlConfiguration {
+
+        @Bean
+        static BeanPostProcessor compteurSql() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource source && !(bean instanceof SqlStatementCounter)
+                            ? new SqlStatementCounter(source)
+                            : bean;
+                }
+            };
+        }
+    }
+}
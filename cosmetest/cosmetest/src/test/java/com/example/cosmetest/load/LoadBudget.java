@@ -0,0 +1,68 @@
+package com.example.cosmetest.load;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Budget de régression par scénario, lu depuis {@code load-budget.properties}
+ * (ou le fichier indiqué par {@code load.budget}). Clés reconnues, toutes
+ * facultatives : {@code <scenario>.p95-ms}, {@code .p99-ms},
+ * {@code .min-throughput}, {@code .max-sql-per-request},
+ * {@code .max-alloc-kb-per-request} et {@code .max-error-rate} (0 par défaut).
+ */
+final class LoadBudget {
+
+    private final Properties limites;
+
+    private LoadBudget(Properties limites) {
+        this.limites = limites;
+    }
+
+    static LoadBudget charger() {
+        Properties limites = new Properties();
+        String fichier = System.getProperty("load.budget");
+        try (InputStream in = fichier != null
+                ? Files.newInputStream(Path.of(fichier))
+                : LoadBudget.class.getResourceAsStream("/load-budget.properties")) {
+            if (in != null) {
+                limites.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Budget de charge illisible: " + fichier, e);
+        }
+        return new LoadBudget(limites);
+    }
+
+    /**
+     * Les dépassements du budget, vide si le scénario le respecte.
+     */
+    List<String> depassements(LoadResult r) {
+        List<String> depassements = new ArrayList<>();
+        plafond(depassements, r, "p95-ms", r.p95Ms());
+        plafond(depassements, r, "p99-ms", r.p99Ms());
+        plafond(depassements, r, "max-sql-per-request", r.sqlParRequete());
+        plafond(depassements, r, "max-alloc-kb-per-request", r.allocationKoParRequete());
+        double tauxMax = Double.parseDouble(limites.getProperty(r.scenario() + ".max-error-rate", "0"));
+        if (r.tauxErreur() > tauxMax) {
+            depassements.add(String.format("%s: taux d'erreur %.3f > %.3f", r.scenario(), r.tauxErreur(), tauxMax));
+        }
+        String debitMin = limites.getProperty(r.scenario() + ".min-throughput");
+        if (debitMin != null && r.debit() < Double.parseDouble(debitMin)) {
+            depassements.add(String.format("%s: débit %.1f req/s < %s", r.scenario(), r.debit(), debitMin));
+        }
+        return depassements;
+    }
+
+    private void plafond(List<String> depassements, LoadResult r, String cle, double mesure) {
+        String limite = limites.getProperty(r.scenario() + "." + cle);
+        if (limite != null && mesure > Double.parseDouble(limite)) {
+            depassements.add(String.format("%s: %s %.2f > %s", r.scenario(), cle, mesure, limite));
+        }
+    }
+}
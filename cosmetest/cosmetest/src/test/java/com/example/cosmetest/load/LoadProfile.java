@@ -0,0 +1,34 @@
+package com.example.cosmetest.load;
+
+/**
+ * Volumes du jeu de données et intensité de la charge. Les valeurs par défaut
+ * reprennent l'ordre de grandeur de la production ; {@code load.scale} les
+ * réduit pour une exécution rapide (par exemple 0.1 sur un poste de dev).
+ */
+record LoadProfile(int volontaires,
+                   int etudes,
+                   int rdvs,
+                   int volontairesHc,
+                   int threads,
+                   int requetesParThread,
+                   int requetesChauffe) {
+
+    static LoadProfile fromSystemProperties() {
+        double echelle = Double.parseDouble(System.getProperty("load.scale", "1"));
+        if (echelle <= 0) {
+            throw new IllegalArgumentException("load.scale doit être strictement positif: " + echelle);
+        }
+        return new LoadProfile(
+                volume("load.volontaires", 50_000, echelle),
+                volume("load.etudes", 2_000, echelle),
+                volume("load.rdvs", 500_000, echelle),
+                volume("load.volontaires-hc", 100_000, echelle),
+                Integer.getInteger("load.threads", 8),
+                Integer.getInteger("load.requests-per-thread", 25),
+                Integer.getInteger("load.warmup-requests", 20));
+    }
+
+    private static int volume(String propriete, int defaut, double echelle) {
+        return Math.max(1, Integer.getInteger(propriete, (int) Math.round(defaut * echelle)));
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.cosmetest.load;
+
+import java.util.Arrays;
+
+/**
+ * Mesures d'un scénario : latences en millisecondes, débit en requêtes par
+ * seconde, instructions SQL et octets alloués en moyenne par requête.
+ */
+record LoadResult(String scenario,
+                  int requetes,
+                  int erreurs,
+                  double p50Ms,
+                  double p95Ms,
+                  double p99Ms,
+                  double maxMs,
+                  double debit,
+                  double sqlParRequete,
+                  double allocationKoParRequete) {
+
+    static LoadResult of(String scenario, long[] latencesNanos, int erreurs, long dureeNanos,
+                         long instructionsSql, long octetsAlloues) {
+        long[] triees = latencesNanos.clone();
+        Arrays.sort(triees);
+        int n = triees.length;
+        return new LoadResult(scenario, n, erreurs,
+                millis(percentile(triees, 50)), millis(percentile(triees, 95)), millis(percentile(triees, 99)),
+                millis(n == 0 ? 0 : triees[n - 1]),
+                dureeNanos > 0 ? n * 1_000_000_000d / dureeNanos : 0,
+                n == 0 ? 0 : (double) instructionsSql / n,
+                n == 0 ? 0 : octetsAlloues / 1024d / n);
+    }
+
+    double tauxErreur() {
+        return requetes == 0 ? 0 : (double) erreurs / requetes;
+    }
+
+    /**
+     * Percentile au rang le plus proche sur des valeurs triées.
+     */
+    static long percentile(long[] triees, int centile) {
+        if (triees.length == 0) {
+            return 0;
+        }
+        int rang = (int) Math.ceil(centile / 100d * triees.length);
+        return triees[Math.max(0, rang - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000d) / 100d;
+    }
+}
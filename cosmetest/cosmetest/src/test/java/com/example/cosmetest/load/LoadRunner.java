@@ -0,0 +1,85 @@
+package com.example.cosmetest.load;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Exécute un scénario : une chauffe séquentielle, puis {@code threads}
+ * clients simultanés enchaînant chacun {@code requetesParThread} requêtes.
+ * MockMvc traite la requête dans le thread du client, ce qui permet d'en
+ * attribuer les instructions SQL, lectures parallèles comprises
+ * ({@link SqlStatementCounter}), et les allocations mémoire du thread client,
+ * sans celles des branches parallèles.
+ */
+final class LoadRunner {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final MockMvc mockMvc;
+    private final LoadProfile profil;
+
+    LoadRunner(MockMvc mockMvc, LoadProfile profil) {
+        this.mockMvc = mockMvc;
+        this.profil = profil;
+    }
+
+    LoadResult executer(LoadScenario scenario) throws Exception {
+        for (int i = 0; i < profil.requetesChauffe(); i++) {
+            mockMvc.perform(scenario.requete().apply(i)).andReturn();
+        }
+
+        int threads = profil.threads();
+        int parThread = profil.requetesParThread();
+        long[] latences = new long[threads * parThread];
+        AtomicInteger erreurs = new AtomicInteger();
+        AtomicLong instructions = new AtomicLong();
+        AtomicLong allocations = new AtomicLong();
+        CountDownLatch depart = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> clients = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                int client = t;
+                clients.add(executor.submit(() -> {
+                    SqlStatementCounter.demarrer();
+                    depart.await();
+                    for (int i = 0; i < parThread; i++) {
+                        int iteration = profil.requetesChauffe() + client * parThread + i;
+                        long sqlAvant = SqlStatementCounter.courant();
+                        long allocationAvant = THREADS.getCurrentThreadAllocatedBytes();
+                        long debut = System.nanoTime();
+                        MvcResult resultat = mockMvc.perform(scenario.requete().apply(iteration)).andReturn();
+                        latences[client * parThread + i] = System.nanoTime() - debut;
+                        allocations.addAndGet(THREADS.getCurrentThreadAllocatedBytes() - allocationAvant);
+                        instructions.addAndGet(SqlStatementCounter.courant() - sqlAvant);
+                        if (resultat.getResponse().getStatus() >= 400) {
+                            erreurs.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long debut = System.nanoTime();
+            depart.countDown();
+            for (Future<?> client : clients) {
+                client.get();
+            }
+            long duree = System.nanoTime() - debut;
+            return LoadResult.of(scenario.nom(), latences, erreurs.get(), duree, instructions.get(), allocations.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.cosmetest.load;
+
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.function.IntFunction;
+
+/**
+ * Un point d'entrée sollicité par la suite. La requête dépend du numéro
+ * d'itération pour ne pas frapper toujours la même ligne ou le même cache.
+ */
+record LoadScenario(String nom, IntFunction<RequestBuilder> requete) {
+}
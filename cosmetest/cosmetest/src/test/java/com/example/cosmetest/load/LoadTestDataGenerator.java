@@ -0,0 +1,152 @@
+package com.example.cosmetest.load;
+
+import com.example.cosmetest.business.service.impl.RdvBatchWriter;
+import com.example.cosmetest.domain.model.Etude;
+import com.example.cosmetest.domain.model.EtudeVolontaire;
+import com.example.cosmetest.domain.model.Rdv;
+import com.example.cosmetest.domain.model.Volontaire;
+import com.example.cosmetest.domain.model.VolontaireHc;
+import com.example.cosmetest.util.TestDataBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Remplit une base vide avec un jeu de données synthétique à graine fixe,
+ * par lots JDBC. Les clés IDENTITY d'une base neuve valent 1..n dans l'ordre
+ * d'insertion, ce que les scénarios utilisent pour tirer des identifiants.
+ *
+ * Les études s'étalent sur huit ans jusqu'à trois mois dans le futur ; chacune
+ * a un groupe, un panel de volontaires associés et des rendez-vous répartis
+ * dans sa fenêtre, comme une année d'activité réelle répétée.
+ */
+final class LoadTestDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadTestDataGenerator.class);
+
+    static final long GRAINE = 20_241_018L;
+    private static final int LOT = 5_000;
+    private static final int HISTORIQUE_JOURS = 8 * 365;
+    private static final int FUTUR_JOURS = 90;
+
+    private static final String INSERT_VOLONTAIRE = "INSERT INTO volontaire "
+            + "(NOM_VOL, PRENOM_VOL, EMAIL_VOL, TEL_PORTABLE_VOL, SEXE, PHOTOTYPE, TYPE_PEAU_VISAGE, ETHNIE, "
+            + "VILLE_VOL, CP_VOL, ARCHIVE, DATE_NAISSANCE, DATE_I, HAUTEUR_SIEGE) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ETUDE = "INSERT INTO etude "
+            + "(REF, TITRE, TYPE, DATE_DEBUT, DATE_FIN, NB_SUJETS, PAYE, ARCHIVE) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_GROUPE = "INSERT INTO groupe "
+            + "(ID_ETUDE, INTITULE, AGE_MINIMUM, AGE_MAXIMUM, NB_SUJET, IV) VALUES (?, 'Groupe unique', 18, 70, ?, 40)";
+    private static final String INSERT_VOLONTAIRE_HC = "INSERT INTO volontaire_hc "
+            + "(id_vol, achat_internet, anti_transpirant, autobronzant, base_maquillage, cire, creme_depilatoire) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RdvBatchWriter rdvBatchWriter;
+
+    LoadTestDataGenerator(JdbcTemplate jdbcTemplate, RdvBatchWriter rdvBatchWriter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rdvBatchWriter = rdvBatchWriter;
+    }
+
+    void generer(LoadProfile profil) {
+        long debut = System.nanoTime();
+        Random random = new Random(GRAINE);
+        genererVolontaires(random, profil.volontaires());
+        genererVolontairesHc(random, Math.min(profil.volontairesHc(), profil.volontaires()));
+        genererEtudesEtRdvs(random, profil);
+        logger.info("Jeu de données de charge généré en {} s: {}",
+                (System.nanoTime() - debut) / 1_000_000_000, profil);
+    }
+
+    private void genererVolontaires(Random random, int nombre) {
+        List<Object[]> lignes = new ArrayList<>(LOT);
+        for (int i = 1; i <= nombre; i++) {
+            Volontaire v = TestDataBuilder.createVolontaire(random, i);
+            lignes.add(new Object[]{v.getNomVol(), v.getPrenomVol(), v.getEmailVol(), v.getTelPortableVol(),
+                    v.getSexe(), v.getPhototype(), v.getTypePeauVisage(), v.getEthnie(), v.getVilleVol(),
+                    v.getCpVol(), v.getArchive(), v.getDateNaissance(), v.getDateI()});
+            lignes = envoyerSiPlein(INSERT_VOLONTAIRE, lignes, i == nombre);
+        }
+    }
+
+    /**
+     * Une seule fiche d'habitudes par volontaire : au-delà du nombre de
+     * volontaires, le volume demandé est plafonné.
+     */
+    private void genererVolontairesHc(Random random, int nombre) {
+        List<Object[]> lignes = new ArrayList<>(LOT);
+        for (int idVol = 1; idVol <= nombre; idVol++) {
+            VolontaireHc hc = TestDataBuilder.createVolontaireHc(random, idVol);
+            lignes.add(new Object[]{idVol, hc.getAchatInternet(), hc.getAntiTranspirant(), hc.getAutobronzant(),
+                    hc.getBaseMaquillage(), hc.getCire(), hc.getCremeDepilatoire()});
+            lignes = envoyerSiPlein(INSERT_VOLONTAIRE_HC, lignes, idVol == nombre);
+        }
+    }
+
+    private void genererEtudesEtRdvs(Random random, LoadProfile profil) {
+        LocalDate origine = LocalDate.now().minusDays(HISTORIQUE_JOURS);
+        int etendue = HISTORIQUE_JOURS + FUTUR_JOURS;
+        List<Etude> etudes = new ArrayList<>(profil.etudes());
+        for (int i = 1; i <= profil.etudes(); i++) {
+            int duree = 30 + random.nextInt(90);
+            LocalDate dateDebut = origine.plusDays((long) (i - 1) * etendue / profil.etudes());
+            etudes.add(TestDataBuilder.createEtude(random, i, dateDebut, duree));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ETUDE, etudes.stream()
+                .map(e -> new Object[]{e.getRef(), e.getTitre(), e.getType(), e.getDateDebut(), e.getDateFin(),
+                        e.getCapaciteVolontaires(), e.getPaye(), e.isArchive()})
+                .toList());
+        // Groupe i = étude i
+        jdbcTemplate.batchUpdate(INSERT_GROUPE, IntStream.range(0, etudes.size())
+                .mapToObj(i -> new Object[]{i + 1, etudes.get(i).getCapaciteVolontaires()})
+                .toList());
+
+        int rdvsParEtude = Math.max(1, profil.rdvs() / profil.etudes());
+        int reste = profil.rdvs() - rdvsParEtude * profil.etudes();
+        List<Rdv> rdvs = new ArrayList<>(LOT + rdvsParEtude);
+        List<EtudeVolontaire> associations = new ArrayList<>();
+        for (int idEtude = 1; idEtude <= etudes.size(); idEtude++) {
+            Etude etude = etudes.get(idEtude - 1);
+            int[] panel = panel(random, profil.volontaires(), etude.getCapaciteVolontaires());
+            for (int n = 0; n < panel.length; n++) {
+                associations.add(TestDataBuilder.createEtudeVolontaire(random, idEtude, idEtude, panel[n], n + 1));
+            }
+            LocalDate dateDebut = etude.getDateDebut().toLocalDate();
+            int fenetre = (int) (etude.getDateFin().toLocalDate().toEpochDay() - dateDebut.toEpochDay()) + 1;
+            int nombre = rdvsParEtude + (idEtude <= reste ? 1 : 0);
+            for (int idRdv = 1; idRdv <= nombre; idRdv++) {
+                // Quelques créneaux encore libres, sans volontaire
+                Integer idVolontaire = random.nextInt(20) == 0 ? null : panel[random.nextInt(panel.length)];
+                rdvs.add(TestDataBuilder.createRdv(random, idEtude, idRdv, idVolontaire, idEtude,
+                        dateDebut.plusDays(random.nextInt(fenetre))));
+            }
+            if (rdvs.size() >= LOT || idEtude == etudes.size()) {
+                rdvBatchWriter.insertRdvs(rdvs);
+                rdvs.clear();
+            }
+            if (associations.size() >= LOT || idEtude == etudes.size()) {
+                rdvBatchWriter.insertAssociations(associations);
+                associations.clear();
+            }
+        }
+    }
+
+    private static int[] panel(Random random, int volontaires, int taille) {
+        return random.ints(1, volontaires + 1).distinct().limit(Math.min(taille, volontaires)).toArray();
+    }
+
+    private List<Object[]> envoyerSiPlein(String sql, List<Object[]> lignes, boolean dernier) {
+        if (lignes.size() < LOT && !dernier) {
+            return lignes;
+        }
+        jdbcTemplate.batchUpdate(sql, lignes);
+        return new ArrayList<>(LOT);
+    }
+}
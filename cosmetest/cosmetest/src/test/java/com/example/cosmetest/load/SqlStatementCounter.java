@@ -0,0 +1,76 @@
+package com.example.cosmetest.load;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source de données qui compte, par thread, les instructions SQL préparées ou
+ * créées. Un lot JDBC compte pour une instruction, comme un aller-retour.
+ *
+ * Le compteur est hérité par les threads créés depuis le thread compté : les
+ * branches de {@code LecturesParalleles}, dont le thread virtuel naît au
+ * lancement dans le thread de la requête, comptent pour cette requête. Un
+ * thread client démarre son propre compteur par {@link #demarrer()} pour ne
+ * pas partager celui du thread qui l'a créé.
+ */
+final class SqlStatementCounter extends DelegatingDataSource {
+
+    private static final Set<String> CREATIONS = Set.of("prepareStatement", "createStatement", "prepareCall");
+    private static final InheritableThreadLocal<AtomicLong> COMPTEUR = new InheritableThreadLocal<>() {
+        @Override
+        protected AtomicLong initialValue() {
+            return new AtomicLong();
+        }
+    };
+
+    SqlStatementCounter(DataSource cible) {
+        super(cible);
+    }
+
+    /**
+     * Nouveau compteur pour le thread courant et les threads qu'il créera.
+     */
+    static void demarrer() {
+        COMPTEUR.set(new AtomicLong());
+    }
+
+    /**
+     * Instructions émises jusqu'ici par le thread courant et ses branches.
+     */
+    static long courant() {
+        return COMPTEUR.get().get();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return compter(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return compter(super.getConnection(username, password));
+    }
+
+    private static Connection compter(Connection connexion) {
+        InvocationHandler handler = (proxy, methode, arguments) -> {
+            if (CREATIONS.contains(methode.getName())) {
+                COMPTEUR.get().incrementAndGet();
+            }
+            try {
+                return methode.invoke(connexion, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(SqlStatementCounter.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, handler);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.cosmetest.load;
+
+import com.example.cosmetest.CosmetestApplication;
+import com.example.cosmetest.business.service.impl.RdvBatchWriter;
+import com.example.cosmetest.data.repository.IdentifiantRepository;
+import com.example.cosmetest.domain.model.Identifiant;
+import com.example.cosmetest.security.JwtTokenUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare threads de plateforme et threads virtuels sous une charge photo :
+ * l'application démarre deux fois sur un vrai port HTTP, une fois par mode,
+ * et {@code load.vt.clients} clients simultanés (plus que les 200 threads de
+ * Tomcat) téléchargent des photos servies par un serveur local lent. MockMvc
+ * ne passe pas par Tomcat, d'où ce banc séparé de {@link ApiLoadTest}.
+ *
+ * Le flux photo est écrit par l'exécuteur asynchrone de Spring MVC : 8
+ * threads de plateforme par défaut, un thread virtuel par tâche en mode
+ * virtuel. Pour ne comparer que la nature des threads, le pool de plateforme
+ * est ici porté à {@code load.vt.clients} threads ; les deux modes ne sont
+ * alors bornés que par le pool JDBC, le bulkhead photo étant lui aussi élargi.
+ *
+ * Le débit et les latences des deux modes sont écrits dans
+ * {@code build/reports/load/threads.json}. Le test échoue sur une erreur HTTP
+ * ou si le mode virtuel perd plus de {@code load.vt.tolerance} de débit.
+ *
+ * Exclu de {@code test} ; lancé par {@code ./gradlew loadTest}.
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    private static final String UTILISATEUR = "charge-threads";
+
+    private final int clients = Integer.getInteger("load.vt.clients", 400);
+    private final int requetesParClient = Integer.getInteger("load.vt.requests-per-client", 20);
+    private final int volontaires = Integer.getInteger("load.vt.volontaires", 1_000);
+    private final long latenceMs = Long.getLong("load.vt.latency-ms", 50);
+    private final double tolerance = Double.parseDouble(System.getProperty("load.vt.tolerance", "0.1"));
+
+    @Test
+    void lesThreadsVirtuelsTiennentLaChargePhoto() throws Exception {
+        MockWebServer serveurPhotos = demarrerServeurPhotos();
+        try {
+            LoadResult plateforme = mesurer(false, serveurPhotos);
+            LoadResult virtuels = mesurer(true, serveurPhotos);
+            ecrireRapport(plateforme, virtuels);
+
+            assertThat(plateforme.erreurs()).as("Erreurs en threads de plateforme").isZero();
+            assertThat(virtuels.erreurs()).as("Erreurs en threads virtuels").isZero();
+            assertThat(virtuels.debit()).as("Débit en threads virtuels")
+                    .isGreaterThanOrEqualTo(plateforme.debit() * (1 - tolerance));
+        } finally {
+            serveurPhotos.shutdown();
+        }
+    }
+
+    private LoadResult mesurer(boolean threadsVirtuels, MockWebServer serveurPhotos) throws Exception {
+        String mode = threadsVirtuels ? "virtuels" : "plateforme";
+        try (ConfigurableApplicationContext contexte = new SpringApplicationBuilder(CosmetestApplication.class)
+                .run(arguments(mode, threadsVirtuels, serveurPhotos))) {
+            new LoadTestDataGenerator(contexte.getBean(JdbcTemplate.class), contexte.getBean(RdvBatchWriter.class))
+                    .generer(new LoadProfile(volontaires, 1, 1, 1, clients, requetesParClient, 0));
+            contexte.getBean(IdentifiantRepository.class)
+                    .save(new Identifiant(UTILISATEUR, "-", UTILISATEUR + "@cosmetest.test", "ADMIN", "Banc de charge"));
+            String jeton = contexte.getBean(JwtTokenUtil.class).generateToken(UTILISATEUR, "ROLE_ADMIN");
+            int port = ((WebServerApplicationContext) contexte).getWebServer().getPort();
+
+            LoadResult resultat = executer("photos.image." + mode, port, jeton);
+            logger.info(String.format("%-22s p50 %8.2f ms  p95 %8.2f ms  p99 %8.2f ms  max %8.2f ms  %8.1f req/s  %d erreur(s)",
+                    resultat.scenario(), resultat.p50Ms(), resultat.p95Ms(), resultat.p99Ms(), resultat.maxMs(),
+                    resultat.debit(), resultat.erreurs()));
+            return resultat;
+        }
+    }
+
+    private String[] arguments(String mode, boolean threadsVirtuels, MockWebServer serveurPhotos) {
+        // En arguments de ligne de commande : ils priment sur application.properties
+        return new String[] {
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + threadsVirtuels,
+                // Ignoré en mode virtuel ; en plateforme, la borne de 8 threads ne doit pas être mesurée
+                "--spring.task.execution.pool.core-size=" + clients,
+                "--spring.task.execution.pool.max-size=" + clients,
+                "--threads.pinning.enabled=" + threadsVirtuels,
+                "--spring.datasource.url=jdbc:h2:mem:threads-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.flyway.enabled=false",
+                "--jwt.secret=cosmetest-test-secret-key-with-at-least-thirty-two-bytes",
+                "--photo.server.url=" + serveurPhotos.url("/photos/"),
+                // Le serveur photo ne doit pas être la borne commune aux deux modes
+                "--photo.bulkhead.max-concurrent=" + clients,
+                "--photo.bulkhead.max-wait=PT30S",
+                "--photo.pool.max-idle=" + clients,
+                "--logging.level.com.example.cosmetest=WARN",
+                "--logging.level.com.example.cosmetest.load=INFO"
+        };
+    }
+
+    /**
+     * Chaque client enchaîne ses téléchargements sur des volontaires
+     * différents ; latences mesurées côté client, réponse lue en entier.
+     */
+    private LoadResult executer(String scenario, int port, String jeton) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long[] latences = new long[clients * requetesParClient];
+        AtomicInteger erreurs = new AtomicInteger();
+        CountDownLatch depart = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> taches = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                taches.add(executor.submit(() -> {
+                    depart.await();
+                    for (int i = 0; i < requetesParClient; i++) {
+                        int iteration = client * requetesParClient + i;
+                        HttpRequest requete = HttpRequest.newBuilder(URI.create("http://localhost:" + port
+                                        + "/api/volontaires/" + (1 + (iteration * 7919) % volontaires)
+                                        + "/photos/face/image"))
+                                .header("Authorization", "Bearer " + jeton)
+                                .timeout(Duration.ofMinutes(1))
+                                .build();
+                        long debut = System.nanoTime();
+                        HttpResponse<byte[]> reponse = http.send(requete, HttpResponse.BodyHandlers.ofByteArray());
+                        latences[iteration] = System.nanoTime() - debut;
+                        if (reponse.statusCode() >= 400) {
+                            erreurs.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long debut = System.nanoTime();
+            depart.countDown();
+            for (Future<?> tache : taches) {
+                tache.get();
+            }
+            return LoadResult.of(scenario, latences, erreurs.get(), System.nanoTime() - debut, 0, 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void ecrireRapport(LoadResult plateforme, LoadResult virtuels) throws IOException {
+        Path rapport = Path.of(System.getProperty("load.vt.report", "build/reports/load/threads.json"));
+        Files.createDirectories(rapport.toAbsolutePath().getParent());
+        Map<String, Object> contenu = new LinkedHashMap<>();
+        contenu.put("clients", clients);
+        contenu.put("requetesParClient", requetesParClient);
+        contenu.put("latenceServeurPhotoMs", latenceMs);
+        contenu.put("threadsExecuteurAsynchronePlateforme", clients);
+        contenu.put("plateforme", plateforme);
+        contenu.put("virtuels", virtuels);
+        contenu.put("rapportDebit", plateforme.debit() > 0 ? virtuels.debit() / plateforme.debit() : 0);
+        contenu.put("rapportP99", virtuels.p99Ms() > 0 ? plateforme.p99Ms() / virtuels.p99Ms() : 0);
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(rapport.toFile(), contenu);
+        logger.info("Comparaison des modes de threads écrite dans {}", rapport.toAbsolutePath());
+    }
+
+    /**
+     * Serveur photo local : toute photo existe, servie après {@code latenceMs}
+     * comme un partage réseau chargé.
+     */
+    private MockWebServer demarrerServeurPhotos() throws IOException {
+        byte[] image = new byte[64 * 1024];
+        MockWebServer serveur = new MockWebServer();
+        serveur.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .setHeader("Content-Type", "image/jpeg")
+                        .setBody(new Buffer().write(image))
+                        .setHeadersDelay(latenceMs, TimeUnit.MILLISECONDS);
+            }
+        });
+        serveur.start();
+        return serveur;
+    }
+}
@@ -21,7 +21,7 @@ class AdminControllerHardeningTest {
         when(service.search(null, null, null, null, null, 0, 100)).thenReturn(Page.empty());
         AuditController controller = new AuditController(service);
 
-        controller.getLogs(-5, 10_000, null, null, null, null, null);
+        controller.getLogs(-5, 10_000, null, null, null, null, null, null, false);
 
         verify(service).search(null, null, null, null, null, 0, 100);
         assertThat(AuditController.class.getAnnotation(CrossOrigin.class)).isNull();
@@ -36,7 +36,7 @@ class AdminControllerHardeningTest {
                 mock(ActiveSessionService.class),
                 mock(SessionHistoryRepository.class));
 
-        controller.getLogs(-5, 10_000, null, null);
+        controller.getLogs(-5, 10_000, null, null, null, false);
 
         verify(logService).findAll(0, 100);
         assertThat(ConnexionController.class.getAnnotation(CrossOrigin.class)).isNull();
@@ -1,5 +1,8 @@
 package com.example.cosmetest.presentation.controller;
 
+import com.example.cosmetest.business.pagination.Curseur;
+import com.example.cosmetest.business.pagination.DemandeCurseur;
+import com.example.cosmetest.business.pagination.PageCurseur;
 import com.example.cosmetest.business.service.AuditLogService;
 import com.example.cosmetest.domain.model.AuditLog;
 import org.junit.jupiter.api.Test;
@@ -71,6 +74,31 @@ class AuditControllerActionFilterTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void cursorParameterSwitchesToKeysetPagination() throws Exception {
+        AuditLogService service = mock(AuditLogService.class);
+        Curseur apres = new Curseur(LocalDateTime.of(2026, 7, 16, 11, 0), 9L);
+        Curseur suivant = new Curseur(LocalDateTime.of(2026, 7, 16, 10, 0), 2L);
+        AuditLog update = auditLog(2L, "alice", AuditLog.Action.UPDATE);
+        when(service.searchCurseur(isNull(), eq("alice"), isNull(), isNull(), isNull(),
+                eq(new DemandeCurseur(apres, 1, true))))
+                .thenReturn(new PageCurseur<>(List.of(update), suivant, 10_000L, true));
+
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new AuditController(service)).build();
+
+        mvc.perform(get("/api/audit")
+                        .param("utilisateur", "alice")
+                        .param("size", "1")
+                        .param("cursor", apres.jeton())
+                        .param("total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value(suivant.jeton()))
+                .andExpect(jsonPath("$.approximateTotal").value(10_000))
+                .andExpect(jsonPath("$.approximateTotalCapped").value(true))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
     private static AuditLog auditLog(Long id, String user, AuditLog.Action action) {
         AuditLog log = mock(AuditLog.class);
         when(log.getId()).thenReturn(id);
@@ -4,6 +4,7 @@ import com.example.cosmetest.business.service.ActiveSessionService;
 import com.example.cosmetest.business.service.AuthService;
 import com.example.cosmetest.business.service.ConnexionLogService;
 import com.example.cosmetest.exception.GlobalExceptionHandler;
+import jakarta.servlet.http.Cookie;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -18,6 +19,8 @@ import static org.hamcrest.Matchers.not;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
@@ -59,6 +62,21 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.token").value(jwt));
     }
 
+    @Test
+    void logoutRevoqueLeJetonDeLEnteteOuDuCookie() throws Exception {
+        mockMvc.perform(post("/api/auth/logout").header("Authorization", "Bearer jwt-entete"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Set-Cookie", containsString("Max-Age=0")));
+        mockMvc.perform(post("/api/auth/logout").cookie(new Cookie("jwt", "jwt-cookie")))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/auth/logout"))
+                .andExpect(status().isOk());
+
+        verify(authService).invalidateToken("jwt-entete");
+        verify(authService).invalidateToken("jwt-cookie");
+        verifyNoMoreInteractions(authService);
+    }
+
     @Test
     void erreurTechniqueDeLoginEstTraiteeGlobalementSansDivulgation() throws Exception {
         when(authenticationManager.authenticate(any())).thenReturn(
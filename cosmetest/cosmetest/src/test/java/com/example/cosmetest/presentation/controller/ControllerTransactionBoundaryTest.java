@@ -5,6 +5,8 @@ import com.example.cosmetest.business.service.impl.VolontaireHcServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
 
 import java.lang.reflect.Method;
 import java.util.Arrays;
@@ -33,9 +35,9 @@ class ControllerTransactionBoundaryTest {
     @Test
     void photoProxyEndpointsDoNotKeepDatabaseTransactionsOpenDuringNetworkCalls() throws Exception {
         Method image = VolontaireController.class.getMethod(
-                "getVolontairePhotoImage", Integer.class, String.class);
+                "getVolontairePhotoImage", Integer.class, String.class, String.class, NativeWebRequest.class);
         Method thumbnail = VolontaireController.class.getMethod(
-                "getVolontairePhotoThumbnail", Integer.class, String.class);
+                "getVolontairePhotoThumbnail", Integer.class, String.class, Integer.class, WebRequest.class);
 
         assertThat(image.getAnnotation(Transactional.class)).isNull();
         assertThat(thumbnail.getAnnotation(Transactional.class)).isNull();
@@ -2,18 +2,44 @@ package com.example.cosmetest.presentation.controller;
 
 import com.example.cosmetest.business.service.AuditLogService;
 import com.example.cosmetest.business.service.PhotoProxyService;
+import com.example.cosmetest.business.service.PhotoThumbnailService;
 import com.example.cosmetest.business.service.VolontaireService;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.time.Instant;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,25 +48,85 @@ class PhotoProxyControllerTest {
     @Mock VolontaireService volontaireService;
     @Mock AuditLogService auditLogService;
     @Mock PhotoProxyService photoProxyService;
+    @Mock PhotoThumbnailService photoThumbnailService;
 
     private VolontaireController controller;
 
     @BeforeEach
     void setUp() {
-        controller = new VolontaireController(volontaireService, auditLogService, photoProxyService);
+        controller = new VolontaireController(volontaireService, auditLogService, photoProxyService,
+                photoThumbnailService);
     }
 
     @Test
-    void imageEndpointDelegatesDownloadToHardenedProxy() {
+    void imageEndpointDelegatesDownloadToHardenedProxy() throws Exception {
         when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.JPG"));
-        when(photoProxyService.fetch("face.JPG"))
-                .thenReturn(new PhotoProxyService.PhotoPayload(new byte[]{1, 2}, MediaType.IMAGE_JPEG));
+        when(photoProxyService.openStream("face.JPG", null)).thenReturn(stream(200, new byte[]{1, 2}, null));
 
-        var response = controller.getVolontairePhotoImage(7, "face");
+        var response = controller.getVolontairePhotoImage(7, "face", null, null);
 
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
-        assertThat(response.getBody()).containsExactly(1, 2);
+        assertThat(response.getHeaders().getContentLength()).isEqualTo(2);
+        assertThat(body(response)).containsExactly(1, 2);
+    }
+
+    @Test
+    void imageEndpointPassesRangeThroughAndAnswersPartialContent() throws Exception {
+        AtomicBoolean released = new AtomicBoolean();
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.pdf"));
+        when(photoProxyService.openStream("face.pdf", "bytes=2-3")).thenReturn(new PhotoProxyService.PhotoStream(
+                206, MediaType.APPLICATION_PDF, 2, "bytes 2-3/10", new ByteArrayInputStream(new byte[]{3, 4}),
+                1024, () -> released.set(true)));
+
+        var response = controller.getVolontairePhotoImage(7, "face", "bytes=2-3", null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(206);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-3/10");
+        assertThat(response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(body(response)).containsExactly(3, 4);
+        assertThat(released).isTrue();
+    }
+
+    @Test
+    void imageEndpointReleasesUpstreamWhenAsyncRequestEndsBeforeBodyIsWritten() throws Exception {
+        AtomicInteger released = new AtomicInteger();
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.JPG"));
+        when(photoProxyService.openStream("face.JPG", null)).thenReturn(new PhotoProxyService.PhotoStream(
+                200, MediaType.IMAGE_JPEG, 2, null, new ByteArrayInputStream(new byte[]{1, 2}), 1024,
+                released::incrementAndGet));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        ServletWebRequest webRequest = new ServletWebRequest(request, servletResponse);
+
+        var response = controller.getVolontairePhotoImage(7, "face", null, webRequest);
+
+        // Envoi asynchrone démarré mais jamais exécuté, puis requête terminée (client parti)
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(webRequest);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, servletResponse));
+        asyncManager.setTaskExecutor(new ConcurrentTaskExecutor(task -> { }));
+        asyncManager.startCallableProcessing(() -> null);
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onComplete(new AsyncEvent(asyncContext));
+        }
+
+        assertThat(released).hasValue(1);
+        body(response);
+        assertThat(released).hasValue(1);
+    }
+
+    @Test
+    void imageEndpointAnswersRangeNotSatisfiable() {
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.pdf"));
+        when(photoProxyService.openStream("face.pdf", "bytes=50-60"))
+                .thenThrow(new PhotoProxyService.PhotoRangeNotSatisfiableException("bytes */10"));
+
+        var response = controller.getVolontairePhotoImage(7, "face", "bytes=50-60", null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(416);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */10");
     }
 
     @Test
@@ -49,7 +135,7 @@ class PhotoProxyControllerTest {
         when(photoProxyService.fetch("face.JPG")).thenThrow(new PhotoProxyService.PhotoTimeoutException(
                 "timeout", new SocketTimeoutException()));
 
-        var response = controller.getVolontairePhotoThumbnail(7, "face");
+        var response = controller.getVolontairePhotoThumbnail(7, "face", null, null);
 
         assertThat(response.getStatusCode().value()).isEqualTo(504);
     }
@@ -57,21 +143,86 @@ class PhotoProxyControllerTest {
     @Test
     void imageEndpointReturnsBadGatewayForUpstreamFailureOrOversizePayload() {
         when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.JPG"));
-        when(photoProxyService.fetch("face.JPG"))
+        when(photoProxyService.openStream("face.JPG", null))
                 .thenThrow(new PhotoProxyService.PhotoUpstreamException("upstream"))
                 .thenThrow(new PhotoProxyService.PhotoTooLargeException("oversize"));
 
-        assertThat(controller.getVolontairePhotoImage(7, "face").getStatusCode().value()).isEqualTo(502);
-        assertThat(controller.getVolontairePhotoImage(7, "face").getStatusCode().value()).isEqualTo(502);
+        assertThat(controller.getVolontairePhotoImage(7, "face", null, null).getStatusCode().value()).isEqualTo(502);
+        assertThat(controller.getVolontairePhotoImage(7, "face", null, null).getStatusCode().value()).isEqualTo(502);
     }
 
     @Test
     void imageEndpointReturnsBadRequestForRejectedPath() {
         when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("../secret.JPG"));
-        when(photoProxyService.fetch("../secret.JPG"))
+        when(photoProxyService.openStream("../secret.JPG", null))
                 .thenThrow(new PhotoProxyService.InvalidPhotoPathException("invalid"));
 
-        assertThat(controller.getVolontairePhotoImage(7, "face").getStatusCode().value()).isEqualTo(400);
+        assertThat(controller.getVolontairePhotoImage(7, "face", null, null).getStatusCode().value()).isEqualTo(400);
+    }
+
+    @Test
+    void thumbnailEndpointServesDiskCachedThumbnailWithoutDownloadingOriginal() {
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.JPG"));
+        when(photoThumbnailService.resolveSize(160)).thenReturn(160);
+        when(photoProxyService.version("face.JPG")).thenReturn(Optional.of("\"v1\""));
+        when(photoThumbnailService.findCached("face.JPG", "\"v1\"", 160)).thenReturn(Optional.of(thumbnail()));
+
+        var response = controller.getVolontairePhotoThumbnail(7, "face", 160,
+                new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"abc-1\"");
+        assertThat(response.getHeaders().getCacheControl()).contains("private");
+        assertThat(response.getBody()).containsExactly(9);
+        verify(photoProxyService, never()).fetch(any());
+    }
+
+    @Test
+    void thumbnailEndpointAnswersNotModifiedWhenBrowserHasCurrentVersion() {
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.JPG"));
+        when(photoThumbnailService.resolveSize(null)).thenReturn(320);
+        when(photoProxyService.version("face.JPG")).thenReturn(Optional.of("\"v1\""));
+        when(photoThumbnailService.findCached("face.JPG", "\"v1\"", 320)).thenReturn(Optional.of(thumbnail()));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/volontaires/7/photos/face/thumbnail");
+        request.addHeader("If-None-Match", "\"abc-1\"");
+
+        var response = controller.getVolontairePhotoThumbnail(7, "face", null,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(304);
+        assertThat(response.getBody()).isNull();
+    }
+
+    @Test
+    void thumbnailEndpointFallsBackToOriginalWhenDocumentCannotBeDecoded() {
+        var pdf = new PhotoProxyService.PhotoPayload(new byte[]{4}, MediaType.APPLICATION_PDF);
+        when(volontaireService.getVolontairePhoto(7, "face")).thenReturn(photoInfo("face.pdf"));
+        when(photoThumbnailService.resolveSize(null)).thenReturn(320);
+        when(photoProxyService.version("face.pdf")).thenReturn(Optional.empty());
+        when(photoProxyService.fetch("face.pdf")).thenReturn(pdf);
+        when(photoThumbnailService.render(eq("face.pdf"), isNull(), eq(320), any())).thenReturn(Optional.empty());
+
+        var response = controller.getVolontairePhotoThumbnail(7, "face", null, null);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_PDF);
+        assertThat(response.getBody()).containsExactly(4);
+    }
+
+    private PhotoThumbnailService.Thumbnail thumbnail() {
+        return new PhotoThumbnailService.Thumbnail(new byte[]{9}, "\"abc-1\"", Instant.ofEpochSecond(1_700_000_000));
+    }
+
+    private PhotoProxyService.PhotoStream stream(int status, byte[] bytes, String contentRange) {
+        return new PhotoProxyService.PhotoStream(status, MediaType.IMAGE_JPEG, bytes.length, contentRange,
+                new ByteArrayInputStream(bytes), 1024, () -> { });
+    }
+
+    private byte[] body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        return output.toByteArray();
     }
 
     private Map<String, Object> photoInfo(String fileName) {
@@ -0,0 +1,63 @@
+package com.example.cosmetest.presentation.controller;
+
+import com.example.cosmetest.business.dto.VolontaireSearchCriteriaDTO;
+import com.example.cosmetest.business.service.AuditLogService;
+import com.example.cosmetest.business.service.PhotoProxyService;
+import com.example.cosmetest.business.service.PhotoThumbnailService;
+import com.example.cosmetest.business.service.VolontaireService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class VolontaireCriteriaSearchControllerTest {
+
+    private VolontaireService volontaireService;
+    private VolontaireController controller;
+
+    @BeforeEach
+    void setUp() {
+        volontaireService = mock(VolontaireService.class);
+        controller = new VolontaireController(volontaireService, mock(AuditLogService.class),
+                mock(PhotoProxyService.class), mock(PhotoThumbnailService.class));
+    }
+
+    @Test
+    void transmetLesCriteresEtUnePageBornee() {
+        when(volontaireService.searchVolontairesByCriteria(any(VolontaireSearchCriteriaDTO.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        controller.searchByCriteria("F", 18, 35, null, "3", null,
+                LocalDate.of(2026, 1, 1), null, false, -1, 10_000, "dateNaissance", "desc");
+
+        var criteria = ArgumentCaptor.forClass(VolontaireSearchCriteriaDTO.class);
+        var pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(volontaireService).searchVolontairesByCriteria(criteria.capture(), pageable.capture());
+        assertThat(criteria.getValue()).isEqualTo(new VolontaireSearchCriteriaDTO(
+                "F", 18, 35, null, "3", null, LocalDate.of(2026, 1, 1), null, false));
+        assertThat(pageable.getValue().getPageNumber()).isZero();
+        assertThat(pageable.getValue().getPageSize()).isEqualTo(100);
+        assertThat(pageable.getValue().getSort()).isEqualTo(Sort.by(Sort.Direction.DESC, "dateNaissance"));
+    }
+
+    @Test
+    void refuseUnTriHorsListeBlanche() {
+        assertThatThrownBy(() -> controller.searchByCriteria(null, null, null, null, null, null,
+                null, null, false, 0, 20, "etudes.titre", "ASC"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(volontaireService);
+    }
+}
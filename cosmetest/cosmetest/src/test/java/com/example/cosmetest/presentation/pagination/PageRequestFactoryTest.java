@@ -1,8 +1,10 @@
 package com.example.cosmetest.presentation.pagination;
 
+import com.example.cosmetest.business.pagination.Curseur;
 import org.junit.jupiter.api.Test;
 import org.springframework.data.domain.Sort;
 
+import java.time.LocalDateTime;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,4 +32,26 @@ class PageRequestFactoryTest {
         assertThatThrownBy(() -> PageRequestFactory.create(0, 20, "dateDebut", "SIDEWAYS", Set.of("dateDebut")))
                 .isInstanceOf(IllegalArgumentException.class);
     }
+
+    @Test
+    void cursorVariantDecodesTokenAndBoundsSize() {
+        Curseur curseur = new Curseur(LocalDateTime.of(2026, 7, 16, 10, 0, 0, 123_456_000), 42);
+
+        var premiere = PageRequestFactory.createCursor("", 10_000, false);
+        var suivante = PageRequestFactory.createCursor(curseur.jeton(), 0, true);
+
+        assertThat(premiere.apres()).isNull();
+        assertThat(premiere.taille()).isEqualTo(100);
+        assertThat(suivante.apres()).isEqualTo(curseur);
+        assertThat(suivante.taille()).isEqualTo(PageRequestFactory.DEFAULT_PAGE_SIZE);
+        assertThat(suivante.total()).isTrue();
+    }
+
+    @Test
+    void rejectsForgedCursorTokens() {
+        assertThatThrownBy(() -> PageRequestFactory.createCursor("pas-un-curseur", 20, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageRequestFactory.createCursor("MnwyMDI2LTA3LTE2VDEwOjAwfDQy", 20, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
 }
@@ -0,0 +1,52 @@
+package com.example.cosmetest.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("JwtTokenUtil")
+class JwtTokenUtilTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final JwtTokenUtil jwtTokenUtil = new JwtTokenUtil(SECRET, 3_600_000L);
+
+    @Test
+    @DisplayName("Le token décodé expose identité, rôle et durée restante")
+    void parseExposeLesReclamations() {
+        String token = jwtTokenUtil.generateToken("alice", "ADMIN");
+
+        ParsedJwt jwt = jwtTokenUtil.parse(token);
+
+        assertThat(jwt.username()).isEqualTo("alice");
+        assertThat(jwt.role()).isEqualTo("ADMIN");
+        assertThat(jwt.isExpired()).isFalse();
+        assertThat(jwt.remainingSeconds()).isBetween(3_500L, 3_600L);
+    }
+
+    @Test
+    @DisplayName("Un même token n'est décodé qu'une fois par requête")
+    void parseMemoriseLeResultatSurLaRequete() {
+        String token = jwtTokenUtil.generateToken("alice", "ADMIN");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        ParsedJwt premier = jwtTokenUtil.parse(request, token);
+        ParsedJwt second = jwtTokenUtil.parse(request, token);
+
+        assertThat(second).isSameAs(premier);
+    }
+
+    @Test
+    @DisplayName("Un autre token sur la même requête est décodé à nouveau")
+    void parseNeReutilisePasUnAutreToken() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ParsedJwt alice = jwtTokenUtil.parse(request, jwtTokenUtil.generateToken("alice", "ADMIN"));
+
+        ParsedJwt bob = jwtTokenUtil.parse(request, jwtTokenUtil.generateToken("bob", "UTILISATEUR"));
+
+        assertThat(bob).isNotSameAs(alice);
+        assertThat(bob.username()).isEqualTo("bob");
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.cosmetest.util;
 
+import com.example.cosmetest.domain.model.Etude;
+import com.example.cosmetest.domain.model.EtudeVolontaire;
+import com.example.cosmetest.domain.model.Rdv;
+import com.example.cosmetest.domain.model.Volontaire;
+import com.example.cosmetest.domain.model.VolontaireHc;
 import com.example.cosmetest.presentation.request.LoginRequest;
 import com.example.cosmetest.presentation.response.JwtResponse;
 
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Random;
+
 /**
  * Classe utilitaire pour construire des données de test réutilisables
  */
@@ -42,4 +51,93 @@ public class TestDataBuilder {
     public static String createInvalidJwtToken() {
         return "invalid.jwt.token";
     }
+
+    // ===== DOMAIN BUILDERS (jeux de données volumineux) =====
+
+    private static final String[] NOMS = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit",
+            "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "David", "Bertrand",
+            "Roux", "Vincent", "Fournier", "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet"};
+    private static final String[] PRENOMS = {"Camille", "Léa", "Manon", "Chloé", "Inès", "Jade", "Louise", "Emma",
+            "Lucas", "Hugo", "Gabriel", "Émilie", "Sophie", "Nathalie", "Isabelle", "Hélène", "Julie", "Sarah"};
+    private static final String[] VILLES = {"Lyon", "Villeurbanne", "Vénissieux", "Bron", "Caluire-et-Cuire",
+            "Saint-Priest", "Écully", "Oullins", "Décines-Charpieu", "Meyzieu"};
+    private static final String[] SEXES = {"F", "F", "F", "Femme", "M", "Homme"};
+    private static final String[] PHOTOTYPES = {"I", "II", "III", "IV", "V", "VI"};
+    private static final String[] TYPES_PEAU = {"Normale", "Sèche", "Grasse", "Mixte", "Sensible"};
+    private static final String[] ETHNIES = {"CAUCASIEN", "AFRICAIN", "ASIATIQUE", "INDIEN", "ANTILLAIS"};
+    private static final String[] TYPES_ETUDE = {"USAGE", "EFFICACITE", "TOLERANCE", "SENSORIELLE"};
+    private static final String[] ETATS_RDV = {"PLANIFIE", "CONFIRME", "CONFIRME", "COMPLETE", "COMPLETE",
+            "ANNULE", "EN_ATTENTE"};
+    private static final String[] FREQUENCES = {"Jamais", "Parfois", "Souvent", "Quotidien"};
+
+    public static Volontaire createVolontaire(Random random, int index) {
+        Volontaire volontaire = new Volontaire();
+        String nom = NOMS[random.nextInt(NOMS.length)];
+        String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+        volontaire.setNomVol(nom);
+        volontaire.setPrenomVol(prenom);
+        volontaire.setEmailVol((prenom + "." + nom + index + "@exemple.fr").toLowerCase());
+        volontaire.setTelPortableVol(String.format("06%08d", random.nextInt(100_000_000)));
+        volontaire.setSexe(SEXES[random.nextInt(SEXES.length)]);
+        volontaire.setPhototype(PHOTOTYPES[random.nextInt(PHOTOTYPES.length)]);
+        volontaire.setTypePeauVisage(TYPES_PEAU[random.nextInt(TYPES_PEAU.length)]);
+        volontaire.setEthnie(ETHNIES[random.nextInt(ETHNIES.length)]);
+        volontaire.setVilleVol(VILLES[random.nextInt(VILLES.length)]);
+        volontaire.setCpVol(String.format("69%03d", random.nextInt(1_000)));
+        volontaire.setArchive(random.nextInt(8) == 0);
+        volontaire.setDateNaissance(Date.valueOf(LocalDate.of(1945, 1, 1).plusDays(random.nextInt(25_500))));
+        volontaire.setDateI(Date.valueOf(LocalDate.now().minusDays(random.nextInt(3_650))));
+        return volontaire;
+    }
+
+    public static Etude createEtude(Random random, int index, LocalDate dateDebut, int dureeJours) {
+        Etude etude = new Etude();
+        etude.setRef(String.format("ETU-%05d", index));
+        etude.setTitre("Étude " + TYPES_ETUDE[index % TYPES_ETUDE.length].toLowerCase() + " n°" + index);
+        etude.setType(TYPES_ETUDE[random.nextInt(TYPES_ETUDE.length)]);
+        etude.setDateDebut(Date.valueOf(dateDebut));
+        etude.setDateFin(Date.valueOf(dateDebut.plusDays(dureeJours)));
+        etude.setCapaciteVolontaires(20 + random.nextInt(60));
+        etude.setPaye(random.nextInt(4) == 0 ? 0 : 1);
+        etude.setArchive(dateDebut.plusDays(dureeJours).isBefore(LocalDate.now().minusYears(2)));
+        return etude;
+    }
+
+    public static Rdv createRdv(Random random, int idEtude, int idRdv, Integer idVolontaire, Integer idGroupe,
+                                LocalDate date) {
+        Rdv rdv = new Rdv();
+        rdv.setIdEtude(idEtude);
+        rdv.setIdRdv(idRdv);
+        rdv.setIdVolontaire(idVolontaire);
+        rdv.setIdGroupe(idGroupe);
+        rdv.setDate(Date.valueOf(date));
+        rdv.setHeure(String.format("%02d:%02d", 8 + random.nextInt(10), 15 * random.nextInt(4)));
+        rdv.setEtat(ETATS_RDV[random.nextInt(ETATS_RDV.length)]);
+        rdv.setDuree(15 * (1 + random.nextInt(4)));
+        return rdv;
+    }
+
+    public static EtudeVolontaire createEtudeVolontaire(Random random, int idEtude, int idGroupe, int idVolontaire,
+                                                        int numSujet) {
+        EtudeVolontaire association = new EtudeVolontaire();
+        association.setIdEtude(idEtude);
+        association.setIdGroupe(idGroupe);
+        association.setIdVolontaire(idVolontaire);
+        association.setNumSujet(numSujet);
+        association.setIv(20 + 10 * random.nextInt(8));
+        association.setPaye(random.nextInt(3) == 0 ? 0 : 1);
+        association.setStatut(random.nextInt(15) == 0 ? "ANNULE" : "INCLUS");
+        return association;
+    }
+
+    public static VolontaireHc createVolontaireHc(Random random, int idVol) {
+        VolontaireHc hc = new VolontaireHc(idVol);
+        hc.setAchatInternet(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        hc.setAntiTranspirant(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        hc.setAutobronzant(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        hc.setBaseMaquillage(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        hc.setCire(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        hc.setCremeDepilatoire(FREQUENCES[random.nextInt(FREQUENCES.length)]);
+        return hc;
+    }
 }